@@ -53,6 +53,7 @@ import org.slf4j.LoggerFactory;
 
 import com.dremio.dac.annotations.RestResource;
 import com.dremio.dac.annotations.Secured;
+import com.dremio.dac.explore.HistogramGenerator.CleanDataHistogram;
 import com.dremio.dac.explore.HistogramGenerator.CleanDataHistogramValue;
 import com.dremio.dac.explore.HistogramGenerator.Histogram;
 import com.dremio.dac.explore.Transformer.DatasetAndJob;
@@ -592,7 +593,10 @@ public class DatasetVersionResource {
     DataType colType = getColType(selection.getColName());
     Histogram<HistogramValue> histo = histograms.getHistogram(datasetPath, version, selection, colType, query);
 
-    long selectedCount = histograms.getSelectionCount(datasetPath, version, query, colType, selection.getColName(), selectedSet);
+    // text histograms have a value per distinct value, so the selected values can be counted from them
+    long selectedCount = colType == TEXT
+        ? HistogramGenerator.getSelectionCount(histo, selectedSet)
+        : histograms.getSelectionCount(datasetPath, version, query, colType, selection.getColName(), selectedSet);
     return new ReplaceValuesCard(histo.getValues(), selectedCount, histo.getAvailableValues() - selectedCount, histo.getAvailableValues());
   }
 
@@ -703,8 +707,8 @@ public class DatasetVersionResource {
     String sql = virtualDatasetUI.getSql();
     String colName = col.getColName();
     SqlQuery query = new SqlQuery(sql, virtualDatasetUI.getState().getContextList(), securityContext);
-    Histogram<CleanDataHistogramValue> histogram = histograms.getCleanDataHistogram(datasetPath, version, colName, query);
-    Map<DataType, Long> typeHistogram = histograms.getTypeHistogram(datasetPath, version, colName, query);
+    CleanDataHistogram histogram = histograms.getCleanDataHistogram(datasetPath, version, colName, query);
+    Map<DataType, Long> typeHistogram = histogram.getTypeHistogram();
     Set<DataType> foundTypes = new TreeSet<>(typeHistogram.keySet());
     List<SplitByDataType> split = new ArrayList<>();
     List<ConvertToSingleType> convertToSingles = new ArrayList<>();
@@ -93,6 +93,22 @@ class HistogramGenerator {
     }
   }
 
+  /**
+   * Histogram of the values of a column for cleaning, with the histogram of their types
+   */
+  public static class CleanDataHistogram extends Histogram<CleanDataHistogramValue> {
+
+    private final Map<DataType, Long> typeHistogram;
+    public CleanDataHistogram(List<CleanDataHistogramValue> values, long availableValues,
+        Map<DataType, Long> typeHistogram) {
+      super(values, availableValues);
+      this.typeHistogram = typeHistogram;
+    }
+    public Map<DataType, Long> getTypeHistogram() {
+      return typeHistogram;
+    }
+  }
+
   public Histogram<HistogramValue> getHistogram(final DatasetPath datasetPath, DatasetVersion version, Selection selection,
                                                 DataType colType, SqlQuery datasetQuery) {
     JobUI datasetPreviewJob = DatasetsUtil.getDatasetPreviewJob(executor, datasetQuery, datasetPath, version);
@@ -539,7 +555,10 @@ class HistogramGenerator {
     return "dremio_is_clean_" + (cast ? "cast_" : "") + type.name();
   }
 
-  public Histogram<CleanDataHistogramValue> getCleanDataHistogram(final DatasetPath datasetPath, DatasetVersion version, String colName, SqlQuery datasetQuery) {
+  /**
+   * Get the histogram of the values of a column, and of their types, from a single query over the dataset preview.
+   */
+  public CleanDataHistogram getCleanDataHistogram(final DatasetPath datasetPath, DatasetVersion version, String colName, SqlQuery datasetQuery) {
 
     JobUI datasetPreviewJob = DatasetsUtil.getDatasetPreviewJob(executor, datasetQuery, datasetPath, version);
 
@@ -590,6 +609,7 @@ class HistogramGenerator {
     JobDataFragment data = completeJobData.range(offset, BATCH_SIZE);
 
     List<CleanDataHistogramValue> values = new ArrayList<>();
+    final Map<DataType, Long> typeHistogram = new LinkedHashMap<>();
 
     // Read the values in batches
     while(data.getReturnedRowCount() > 0) {
@@ -613,6 +633,7 @@ class HistogramGenerator {
         long countValue = (long) data.extractValue(colCount, i);
 
         total += countValue;
+        addTypeCount(typeHistogram, data.extractString("dremio_value_type", i), countValue);
 
         // Set the percent later once all the rows are examined.
         values.add(new CleanDataHistogramValue(type, data.extractString(selected.getName(), i), /*percent=*/0.0d, countValue, isCleanMap));
@@ -628,42 +649,17 @@ class HistogramGenerator {
       hgValue.setPercent((hgValue.getCount()*100d)/total);
     }
 
-    return new Histogram<>(values, total);
+    return new CleanDataHistogram(values, total, typeHistogram);
   }
 
-  public Map<DataType, Long> getTypeHistogram(final DatasetPath datasetPath, DatasetVersion version, String colName, SqlQuery datasetQuery) {
-    JobUI datasetPreviewJob = DatasetsUtil.getDatasetPreviewJob(executor, datasetQuery, datasetPath, version);
-
-    String quotedColName = quoteIdentifier(colName);
-    String newSql = format("SELECT typeOf(dremio_values_table.%s) AS dremio_value_type, COUNT(*) as dremio_type_count FROM %s AS dremio_values_table GROUP BY typeOf(dremio_values_table.%s)",
-        quotedColName, datasetPreviewJob.getData().getJobResultsTable(), quotedColName);
-
-    JobData completeJobData = executor.runQuery(datasetQuery.cloneWithNewSql(newSql), QueryType.UI_INTERNAL_RUN, datasetPath, version).getData();
-
-    final Map<DataType, Long> values = new LinkedHashMap<>();
-
-    int offset = 0;
-    JobDataFragment data = completeJobData.range(offset, BATCH_SIZE);
-
-    // Read the values in batches
-    while(data.getReturnedRowCount() > 0) {
-      for (int i = 0; i < data.getReturnedRowCount(); i++) {
-        String typeName = data.extractString("dremio_value_type", i);
-        DataType dataType = DataTypeUtil.getDataType(MinorType.valueOf(typeName));
-        Long existing = values.get(dataType);
-        if (existing == null) {
-          existing = Long.valueOf(0);
-        }
-        Long newValue = (Long) data.extractValue("dremio_type_count", i);
-        // there are fewer DataTypes than MinorTypes
-        values.put(dataType, existing + newValue);
-      }
-
-      // Move onto next set of records
-      offset += data.getReturnedRowCount();
-      data = completeJobData.range(offset, BATCH_SIZE);
+  private static void addTypeCount(Map<DataType, Long> typeHistogram, String typeName, long count) {
+    DataType dataType = DataTypeUtil.getDataType(MinorType.valueOf(typeName));
+    Long existing = typeHistogram.get(dataType);
+    if (existing == null) {
+      existing = Long.valueOf(0);
     }
-    return values;
+    // there are fewer DataTypes than MinorTypes
+    typeHistogram.put(dataType, existing + count);
   }
 
   @VisibleForTesting
@@ -710,6 +706,20 @@ class HistogramGenerator {
     }
   }
 
+  /**
+   * Count the rows of the dataset preview with the selected values from the histogram of a text column, whose values
+   * are not binned, instead of running another query over the preview.
+   */
+  public static long getSelectionCount(Histogram<HistogramValue> histogram, Set<String> selectedValues) {
+    long count = 0;
+    for (HistogramValue value : histogram.getValues()) {
+      if (selectedValues.contains(value.getValue())) {
+        count += value.getCount();
+      }
+    }
+    return count;
+  }
+
   public long getSelectionCount(final DatasetPath datasetPath, final DatasetVersion version,
       final SqlQuery datasetQuery, final DataType dataType, final String colName, Set<String> selectedValues) {
 
@@ -40,6 +40,7 @@ import org.mockito.stubbing.Answer;
 
 import com.dremio.dac.explore.HistogramGenerator.TruncEvalEnum;
 import com.dremio.dac.explore.model.DatasetPath;
+import com.dremio.dac.explore.model.HistogramValue;
 import com.dremio.dac.model.job.JobUI;
 import com.dremio.dac.proto.model.dataset.DataType;
 import com.dremio.exec.expr.fn.impl.DateFunctionsUtils;
@@ -149,6 +150,19 @@ public class TestHistogramGenerator {
     testSelectionCountHelper(null, 0L, DataType.INTEGER, ImmutableSet.<String>of());
   }
 
+  @Test
+  public void testSelectionCountFromHistogram() {
+    final HistogramGenerator.Histogram<HistogramValue> histogram = new HistogramGenerator.Histogram<>(Arrays.asList(
+        new HistogramValue(DataType.TEXT, "val1", 50.0, 5, new HistogramValue.ValueRange("val1", "val1")),
+        new HistogramValue(DataType.TEXT, "", 30.0, 3, new HistogramValue.ValueRange("", "")),
+        new HistogramValue(DataType.TEXT, null, 20.0, 2, new HistogramValue.ValueRange(null, null))), 10);
+
+    assertEquals(5, HistogramGenerator.getSelectionCount(histogram, ImmutableSet.of("val1")));
+    assertEquals(8, HistogramGenerator.getSelectionCount(histogram, ImmutableSet.of("val1", "")));
+    assertEquals(7, HistogramGenerator.getSelectionCount(histogram, new LinkedHashSet<>(Arrays.asList("val1", null))));
+    assertEquals(0, HistogramGenerator.getSelectionCount(histogram, ImmutableSet.of("val2")));
+  }
+
   private void testSelectionCountHelper(final String expFilter, final long expCount, DataType type, Set<String> selectedValues) {
     final DatasetPath datasetPath = new DatasetPath(Arrays.asList("dfs", "parquet", "lineitem.parquet"));
     final DatasetVersion datasetVersion = DatasetVersion.newVersion();
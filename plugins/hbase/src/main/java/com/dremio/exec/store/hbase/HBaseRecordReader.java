@@ -20,12 +20,17 @@ import static com.dremio.common.util.MajorTypeHelper.getFieldForNameAndMajorType
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.vector.NullableVarBinaryVector;
@@ -34,6 +39,7 @@ import org.apache.arrow.vector.complex.NullableMapVector;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
@@ -42,8 +48,10 @@ import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.common.config.SabotConfig;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.CompleteType;
 import com.dremio.common.expression.PathSegment;
@@ -56,11 +64,16 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Sets;
 
 public class HBaseRecordReader extends AbstractRecordReader implements HBaseConstants {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HBaseRecordReader.class);
 
+  private static final String DREMIO_EXEC_HBASE_SCAN_PREFETCH_ENABLED = "dremio.exec.hbase.scan.prefetch.enabled";
+  private static final String DREMIO_EXEC_HBASE_SCAN_PREFETCH_TARGET_SIZE = "dremio.exec.hbase.scan.prefetch.target_size";
+  private static final long DEFAULT_PREFETCH_TARGET_SIZE = 4 * 1024 * 1024;
+
   private OutputMutator outputMutator;
 
   private Map<String, NullableMapVector> familyVectorMap;
@@ -77,6 +90,23 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
   private boolean rowKeyOnly;
   private final Connection connection;
 
+  // rows are read from the scanner in chunks, the next chunk being fetched by the executor (if any) while the current
+  // one is decoded.
+  private final ExecutorService prefetchExecutor;
+  private final long prefetchTargetSize;
+  private Result[] results = new Result[0];
+  private int resultIndex;
+  private int requestedRows;
+  private Future<Result[]> pendingResults;
+  private boolean scannerExhausted;
+
+  // used to size chunks from the observed row width.
+  private long rowsDecoded;
+  private long bytesDecoded;
+
+  // vectors of the cell found at each position of the previous row.
+  private CellColumn[] cellColumns = new CellColumn[0];
+
   public HBaseRecordReader(
       Connection connection,
       HBaseSubScanSpec subScanSpec,
@@ -92,9 +122,19 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
         subScanSpec.getStopRow() == null ? HConstants.EMPTY_END_ROW : subScanSpec.getStopRow());
     this.context = context;
     this.sample = sample;
+
+    final SabotConfig config = context == null ? null : context.getConfig();
+    final boolean prefetch = config == null || !config.hasPath(DREMIO_EXEC_HBASE_SCAN_PREFETCH_ENABLED)
+        || config.getBoolean(DREMIO_EXEC_HBASE_SCAN_PREFETCH_ENABLED);
+    this.prefetchExecutor = prefetch && context != null ? context.getExecutor() : null;
+    this.prefetchTargetSize = config != null && config.hasPath(DREMIO_EXEC_HBASE_SCAN_PREFETCH_TARGET_SIZE)
+        ? config.getLong(DREMIO_EXEC_HBASE_SCAN_PREFETCH_TARGET_SIZE) : DEFAULT_PREFETCH_TARGET_SIZE;
+
+    // bound each region server response by size as well as row count, so wide rows don't produce huge responses.
     hbaseScan
         .setFilter(subScanSpec.asScanFilter())
-        .setCaching((int) numRowsPerBatch);
+        .setCaching((int) numRowsPerBatch)
+        .setMaxResultSize(prefetchTargetSize);
 
     if (!isStarQuery()) {
       for (SchemaPath column : projectedColumns) {
@@ -190,6 +230,7 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
         }
       }
       resultScanner = hTable.getScanner(hbaseScan);
+      prefetch();
     } catch (SchemaChangeException | IOException e) {
       throw new ExecutionSetupException(e);
     }
@@ -208,26 +249,15 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
     }
 
     int rowCount = 0;
-    done:
     for (; rowCount < numRowsPerBatch; rowCount++) {
-      Result result = null;
-      final OperatorStats operatorStats = context == null ? null : context.getStats();
+      final Result result;
       try {
-        if (operatorStats != null) {
-          operatorStats.startWait();
-        }
-        try {
-          result = resultScanner.next();
-        } finally {
-          if (operatorStats != null) {
-            operatorStats.stopWait();
-          }
-        }
+        result = nextResult();
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
       if (result == null) {
-        break done;
+        break;
       }
 
       // parse the result and populate the value vectors
@@ -235,24 +265,23 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
       if (rowKeyVector != null) {
         rowKeyVector.setSafe(rowCount, cells[0].getRowArray(), cells[0].getRowOffset(), cells[0].getRowLength());
       }
+      long rowBytes = cells[0].getRowLength();
       if (!rowKeyOnly) {
-        for (final Cell cell : cells) {
-          final int familyOffset = cell.getFamilyOffset();
-          final int familyLength = cell.getFamilyLength();
-          final byte[] familyArray = cell.getFamilyArray();
-          final NullableMapVector mv = getOrCreateFamilyVector(outputMutator, new String(familyArray, familyOffset, familyLength), true);
-          mv.setIndexDefined(rowCount);
-          final int qualifierOffset = cell.getQualifierOffset();
-          final int qualifierLength = cell.getQualifierLength();
-          final byte[] qualifierArray = cell.getQualifierArray();
-          final NullableVarBinaryVector v = getOrCreateColumnVector(mv, new String(qualifierArray, qualifierOffset, qualifierLength));
-
-          final int valueOffset = cell.getValueOffset();
+        if (cellColumns.length < cells.length) {
+          cellColumns = Arrays.copyOf(cellColumns, cells.length);
+        }
+        for (int i = 0; i < cells.length; i++) {
+          final Cell cell = cells[i];
+          final CellColumn column = getCellColumn(i, cell);
+          column.familyVector.setIndexDefined(rowCount);
+
           final int valueLength = cell.getValueLength();
-          final byte[] valueArray = cell.getValueArray();
-          v.setSafe(rowCount, valueArray, valueOffset, valueLength);
+          column.columnVector.setSafe(rowCount, cell.getValueArray(), cell.getValueOffset(), valueLength);
+          rowBytes += cell.getQualifierLength() + valueLength;
         }
       }
+      rowsDecoded++;
+      bytesDecoded += rowBytes;
     }
 
     setOutputRowCount(rowCount);
@@ -260,6 +289,117 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
     return rowCount;
   }
 
+  /**
+   * Get the vectors for the cell at the given position in the current row. Rows usually hold the same columns in
+   * the same order, so the cell is first compared with the one found at the same position in the previous row,
+   * which avoids decoding its family and qualifier names and looking up their vectors for every cell.
+   */
+  private CellColumn getCellColumn(int position, Cell cell) {
+    CellColumn column = cellColumns[position];
+    if (column != null && column.matches(cell)) {
+      return column;
+    }
+
+    final NullableMapVector familyVector = getOrCreateFamilyVector(outputMutator,
+        new String(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength()), true);
+    final NullableVarBinaryVector columnVector = getOrCreateColumnVector(familyVector,
+        new String(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()));
+    column = new CellColumn(CellUtil.cloneFamily(cell), CellUtil.cloneQualifier(cell), familyVector, columnVector);
+    cellColumns[position] = column;
+    return column;
+  }
+
+  /**
+   * @return the next row of the scan, or null if there are no more rows.
+   */
+  private Result nextResult() throws IOException {
+    if (resultIndex == results.length) {
+      if (scannerExhausted) {
+        return null;
+      }
+
+      results = fetch();
+      resultIndex = 0;
+      if (results.length < requestedRows) {
+        // the scanner returns fewer rows than requested only once it reached the end of the range.
+        scannerExhausted = true;
+      } else {
+        prefetch();
+      }
+      if (results.length == 0) {
+        return null;
+      }
+    }
+    return results[resultIndex++];
+  }
+
+  /**
+   * @return the rows of the pending prefetch if any, or rows read from the scanner.
+   */
+  private Result[] fetch() throws IOException {
+    final OperatorStats operatorStats = context == null ? null : context.getStats();
+    if (operatorStats != null) {
+      operatorStats.startWait();
+    }
+    try {
+      if (pendingResults == null) {
+        requestedRows = getChunkRows();
+        return resultScanner.next(requestedRows);
+      }
+
+      final Future<Result[]> pending = pendingResults;
+      pendingResults = null;
+      return waitFor(pending);
+    } finally {
+      if (operatorStats != null) {
+        operatorStats.stopWait();
+      }
+    }
+  }
+
+  /**
+   * Start reading the next chunk of rows in the background.
+   */
+  private void prefetch() {
+    if (prefetchExecutor == null) {
+      return;
+    }
+
+    final int rows = getChunkRows();
+    final ResultScanner scanner = resultScanner;
+    requestedRows = rows;
+    pendingResults = prefetchExecutor.submit(new Callable<Result[]>() {
+      @Override
+      public Result[] call() throws IOException {
+        return scanner.next(rows);
+      }
+    });
+  }
+
+  /**
+   * @return number of rows to read at once, up to a batch, so that a chunk holds about the prefetch target size.
+   */
+  private int getChunkRows() {
+    if (rowsDecoded == 0) {
+      return (int) numRowsPerBatch;
+    }
+    final long rowBytes = Math.max(1, bytesDecoded / rowsDecoded);
+    return (int) Math.max(1, Math.min(numRowsPerBatch, prefetchTargetSize / rowBytes));
+  }
+
+  private static Result[] waitFor(Future<Result[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading from HBase.", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException("Failure while reading from HBase.", e.getCause());
+    }
+  }
+
   private NullableMapVector getOrCreateFamilyVector(OutputMutator output, String familyName, boolean allocateOnCreate) {
     NullableMapVector v = familyVectorMap.get(familyName);
     if(v == null) {
@@ -290,7 +430,17 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(resultScanner, hTable);
+    try {
+      if (pendingResults != null) {
+        // make sure the background read is done with the scanner before closing it.
+        waitFor(pendingResults);
+      }
+    } catch (IOException e) {
+      // ignore, we are closing anyway.
+    } finally {
+      pendingResults = null;
+      AutoCloseables.close(resultScanner, hTable);
+    }
   }
 
   private void setOutputRowCount(int count) {
@@ -306,4 +456,29 @@ public class HBaseRecordReader extends AbstractRecordReader implements HBaseCons
   protected boolean supportsSkipAllQuery() {
     return true;
   }
+
+  /**
+   * Family and qualifier of a cell, with the vectors its values are written to.
+   */
+  private static final class CellColumn {
+    private final byte[] family;
+    private final byte[] qualifier;
+    private final NullableMapVector familyVector;
+    private final NullableVarBinaryVector columnVector;
+
+    private CellColumn(byte[] family, byte[] qualifier, NullableMapVector familyVector,
+        NullableVarBinaryVector columnVector) {
+      this.family = family;
+      this.qualifier = qualifier;
+      this.familyVector = familyVector;
+      this.columnVector = columnVector;
+    }
+
+    private boolean matches(Cell cell) {
+      return Bytes.equals(qualifier, 0, qualifier.length,
+              cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength())
+          && Bytes.equals(family, 0, family.length,
+              cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+    }
+  }
 }
@@ -66,6 +66,9 @@ public class HBaseTableBuilder implements SourceTableDefinition {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HBaseTableBuilder.class);
 
+  private static final String DREMIO_EXEC_HBASE_SCAN_SPLIT_TARGET_SIZE = "dremio.exec.hbase.scan.split.target_size";
+  private static final String DREMIO_EXEC_HBASE_SCAN_SPLIT_MAX_PER_REGION = "dremio.exec.hbase.scan.split.max_per_region";
+
   private final NamespaceKey key;
   private final boolean enableRegionCalc;
   private DatasetConfig oldConfig;
@@ -129,12 +132,30 @@ public class HBaseTableBuilder implements SourceTableDefinition {
 
       TableStatsCalculator statsCalculator = new TableStatsCalculator(conn, tableName, context.getConfig(), enableRegionCalc);
 
+      final long targetSplitSize = getConfigLong(DREMIO_EXEC_HBASE_SCAN_SPLIT_TARGET_SIZE, 0);
+      final long maxSplitsPerRegion = getConfigLong(DREMIO_EXEC_HBASE_SCAN_SPLIT_MAX_PER_REGION, 1);
+
       List<DatasetSplit> splits = new ArrayList<>();
       for (HRegionLocation regionLocation : regionLocations) {
         HRegionInfo regionInfo = regionLocation.getRegionInfo();
         long estRowCount = statsCalculator.getRegionSizeInBytes(regionInfo.getRegionName());
         count+= estRowCount;
-        splits.add(toSplit(regionLocation.getHostname(), regionInfo, estRowCount));
+
+        // split regions larger than the target size into several key ranges, so they can be read in parallel.
+        int subRanges = 1;
+        if (targetSplitSize > 0 && estRowCount > targetSplitSize) {
+          subRanges = (int) Math.min(maxSplitsPerRegion, (estRowCount + targetSplitSize - 1) / targetSplitSize);
+        }
+        final List<KeyRange> ranges = KeyRange.getRange(regionInfo.getStartKey(), regionInfo.getEndKey())
+            .split(Math.max(1, subRanges));
+        if (ranges.size() == 1) {
+          splits.add(toSplit(regionLocation.getHostname(), regionInfo, estRowCount));
+        } else {
+          for (int i = 0; i < ranges.size(); i++) {
+            splits.add(toSplit(regionLocation.getHostname(), regionInfo.getEncodedName() + "_" + i, ranges.get(i),
+                estRowCount / ranges.size()));
+          }
+        }
       }
 
 
@@ -183,6 +204,28 @@ public class HBaseTableBuilder implements SourceTableDefinition {
     return split;
   }
 
+  private DatasetSplit toSplit(String hostname, String splitKey, KeyRange range, long estimatedRows) {
+    DatasetSplit split = new DatasetSplit()
+        .setSplitKey(splitKey)
+        .setSize(estimatedRows)
+        .setAffinitiesList(ImmutableList.of(
+            new Affinity().setFactor((double)estimatedRows).setHost(hostname)
+            ))
+        .setRowCount(estimatedRows);
+
+    HBaseSplitXattr xattr = HBaseSplitXattr.newBuilder()
+        .setStart(com.google.protobuf.ByteString.copyFrom(range.getStart()))
+        .setStop(com.google.protobuf.ByteString.copyFrom(range.getStop()))
+        .build();
+
+    split.setExtendedProperty(ByteString.copyFrom(xattr.toByteArray()));
+    return split;
+  }
+
+  private long getConfigLong(String path, long defaultValue) {
+    return context.getConfig().hasPath(path) ? context.getConfig().getLong(path) : defaultValue;
+  }
+
   @Override
   public DatasetConfig getDataset() throws Exception {
     init();
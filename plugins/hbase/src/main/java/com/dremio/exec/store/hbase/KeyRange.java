@@ -15,11 +15,15 @@
  */
 package com.dremio.exec.store.hbase;
 
+import java.util.List;
+
 import org.apache.hadoop.hbase.util.Bytes;
 
 import com.dremio.hbase.proto.HBasePluginProto.HBaseSplitXattr;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Range;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -74,6 +78,37 @@ public class KeyRange {
     return new KeyRange(this.range.intersection(range.range));
   }
 
+  /**
+   * Split this range into the given number of contiguous sub-ranges of similar key space. Ranges without an upper
+   * bound, or too narrow to be split, are returned as is.
+   */
+  public List<KeyRange> split(int count) {
+    Preconditions.checkArgument(count > 0, "Number of sub-ranges must be positive.");
+    final byte[] start = getStart();
+    final byte[] stop = range.upperEndpoint().bytes;
+    if (count == 1 || stop == null || Bytes.compareTo(start, stop) >= 0) {
+      return ImmutableList.of(this);
+    }
+
+    // includes both start and stop.
+    byte[][] keys;
+    try {
+      keys = Bytes.split(start, stop, count - 1);
+    } catch (IllegalArgumentException e) {
+      // start and stop only differ by trailing zero bytes.
+      keys = null;
+    }
+    if (keys == null) {
+      return ImmutableList.of(this);
+    }
+
+    final ImmutableList.Builder<KeyRange> ranges = ImmutableList.builder();
+    for (int i = 0; i < keys.length - 1; i++) {
+      ranges.add(getRange(keys[i], keys[i + 1]));
+    }
+    return ranges.build();
+  }
+
   private static class ByteArr implements Comparable<ByteArr> {
     private final byte[] bytes;
 
@@ -47,6 +47,7 @@ import com.dremio.hbase.test.Drill2130StorageHBaseHamcrestConfigurationTest;
   TestHBaseProjectPushDown.class,
   TestHBaseQueries.class,
   TestHBaseRegexParser.class,
+  TestKeyRange.class,
   TestOrderedBytesConvertFunctions.class
 })
 public class HBaseTestsSuite {
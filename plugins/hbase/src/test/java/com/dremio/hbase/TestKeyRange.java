@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.hbase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.dremio.exec.store.hbase.KeyRange;
+import com.dremio.test.DremioTest;
+
+public class TestKeyRange extends DremioTest {
+
+  @Test
+  public void testSplit() {
+    final KeyRange range = KeyRange.getRange(Bytes.toBytes("a"), Bytes.toBytes("z"));
+    final List<KeyRange> ranges = range.split(4);
+    assertEquals(4, ranges.size());
+
+    // sub-ranges are contiguous and cover the original range.
+    assertArrayEquals(Bytes.toBytes("a"), ranges.get(0).getStart());
+    for (int i = 1; i < ranges.size(); i++) {
+      assertArrayEquals(ranges.get(i - 1).getStop(), ranges.get(i).getStart());
+      assertTrue(Bytes.compareTo(ranges.get(i).getStart(), ranges.get(i).getStop()) < 0);
+    }
+    assertArrayEquals(Bytes.toBytes("z"), ranges.get(3).getStop());
+  }
+
+  @Test
+  public void testSplitFirstRegion() {
+    final List<KeyRange> ranges = KeyRange.getRange(new byte[0], Bytes.toBytes("m")).split(2);
+    assertEquals(2, ranges.size());
+    assertArrayEquals(new byte[0], ranges.get(0).getStart());
+    assertArrayEquals(Bytes.toBytes("m"), ranges.get(1).getStop());
+  }
+
+  @Test
+  public void testNoSplit() {
+    // last region, no upper bound.
+    assertEquals(1, KeyRange.getRange(Bytes.toBytes("m"), new byte[0]).split(4).size());
+    // too narrow to be split.
+    assertEquals(1, KeyRange.getRange(Bytes.toBytes("a"), Bytes.toBytes("a\0")).split(4).size());
+    assertEquals(1, KeyRange.getRange(Bytes.toBytes("a"), Bytes.toBytes("z")).split(1).size());
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.dremio.exec;
 
+import com.dremio.exec.cache.VectorAccessibleSerializable;
 import com.dremio.exec.proto.CoordExecRPC.FragmentCodec;
 import com.dremio.exec.server.options.OptionValidator;
 import com.dremio.exec.server.options.Options;
@@ -103,6 +104,9 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SPECIFIC = new BooleanValidator("exec.operator.join.vectorize.specific", false);
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
+  BooleanValidator ENABLE_VECTORIZED_PROJECT = new BooleanValidator("exec.operator.project.vectorize", true);
+  // evaluates the conjuncts of filter conditions in separate passes, reordered by their measured cost and selectivity
+  BooleanValidator ENABLE_ADAPTIVE_FILTER = new BooleanValidator("exec.operator.filter.adaptive_conjuncts", false);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
@@ -132,6 +136,10 @@ public interface ExecConstants {
 
   LongValidator PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR = new LongValidator("store.parquet.min_records_for_flush", 25000);
 
+  // write the pages and footer of a parquet file in the background while the next file is being encoded. The pages of
+  // the file being written stay in memory meanwhile, up to one more block per writer.
+  BooleanValidator PARQUET_WRITER_BACKGROUND_WRITE_VALIDATOR = new BooleanValidator("store.parquet.writer.background_write", false);
+
   String PARQUET_NEW_RECORD_READER = "store.parquet.use_new_reader";
   BooleanValidator PARQUET_RECORD_READER_IMPLEMENTATION_VALIDATOR = new BooleanValidator(PARQUET_NEW_RECORD_READER, false);
 
@@ -147,6 +155,9 @@ public interface ExecConstants {
   BooleanValidator JSON_READER_ALL_TEXT_MODE_VALIDATOR = new BooleanValidator(JSON_ALL_TEXT_MODE, false);
   BooleanValidator JSON_EXTENDED_TYPES = new BooleanValidator("store.json.extended_types", false);
   BooleanValidator JSON_WRITER_UGLIFY = new BooleanValidator("store.json.writer.uglify", false);
+  // read the block splits of json files on their own, starting at line boundaries. Only valid if files hold one
+  // record per line, otherwise the split starting a file reads it whole.
+  BooleanValidator JSON_READER_SPLIT_LINES = new BooleanValidator("store.json.reader.split_lines", false);
 
   DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(
       "store.text.estimated_row_size_bytes", 1, Long.MAX_VALUE, 10.0);
@@ -333,6 +344,10 @@ public interface ExecConstants {
   String ENABLE_WINDOW_FUNCTIONS = "window.enable";
   OptionValidator ENABLE_WINDOW_FUNCTIONS_VALIDATOR = new BooleanValidator(ENABLE_WINDOW_FUNCTIONS, true);
 
+  // ROWS BETWEEN <n> PRECEDING AND CURRENT ROW frames, evaluated incrementally by the window operator
+  String ENABLE_SLIDING_WINDOW_FRAMES = "window.enable.sliding_frames";
+  OptionValidator ENABLE_SLIDING_WINDOW_FRAMES_VALIDATOR = new BooleanValidator(ENABLE_SLIDING_WINDOW_FRAMES, true);
+
   String NODE_CONTROL_INJECTIONS = "dremio.exec.testing.controls";
   OptionValidator NODE_CONTROLS_VALIDATOR =
     new ExecutionControls.ControlsOptionValidator(NODE_CONTROL_INJECTIONS, ExecutionControls.DEFAULT_CONTROLS, 1);
@@ -350,6 +365,26 @@ public interface ExecConstants {
   PositiveLongValidator PARTITION_SENDER_MAX_MEM = new PositiveLongValidator("exec.partitioner.mem.max", Integer.MAX_VALUE, 100*1024*1024);
   PositiveLongValidator PARTITION_SENDER_MAX_BATCH_SIZE = new PositiveLongValidator("exec.partitioner.batch.size.max", Integer.MAX_VALUE, 1024*1024);
 
+  /**
+   * Applicable only when {@link #ENABLE_VECTORIZED_PARTITIONER} is true. A receiver is reported as skewed when it is
+   * sent more than this many times the average bytes sent to the receivers. Also used as the threshold of the records
+   * sent to a receiver when detecting hot keys, see {@link #PARTITION_SENDER_SPLIT_HOT_KEYS}.
+   */
+  DoubleValidator PARTITION_SENDER_SKEW_FACTOR = new RangeDoubleValidator("exec.partitioner.skew.factor", 1.0, Integer.MAX_VALUE, 4.0);
+
+  /**
+   * Applicable only when {@link #ENABLE_VECTORIZED_PARTITIONER} is true. When set, hash exchanges whose receivers don't
+   * need the rows of a key to be colocated (the exchange feeding a DISTRIBUTE BY writer) send the rows of a hot key to
+   * extra receivers. A key is hot when most of the rows of a skewed receiver share it.
+   */
+  BooleanValidator PARTITION_SENDER_SPLIT_HOT_KEYS = new BooleanValidator("exec.partitioner.hot_keys.split", false);
+
+  /**
+   * Applicable only when {@link #PARTITION_SENDER_SPLIT_HOT_KEYS} is true. Number of extra receivers the rows of a hot
+   * key are sent to.
+   */
+  PositiveLongValidator PARTITION_SENDER_HOT_KEY_RECEIVERS = new PositiveLongValidator("exec.partitioner.hot_keys.receivers", Integer.MAX_VALUE, 4);
+
   BooleanValidator DEBUG_QUERY_PROFILE = new BooleanValidator("dremio.profile.debug_columns", false);
 
   PositiveLongValidator LAYOUT_REFRESH_MAX_ATTEMPTS = new PositiveLongValidator("layout.refresh.max.attempts", Integer.MAX_VALUE, 3);
@@ -365,15 +400,28 @@ public interface ExecConstants {
   PositiveLongValidator FRAGMENT_CACHE_EVICTION_DELAY_S = new PositiveLongValidator("fragments.cache.eviction.delay_seconds", Integer.MAX_VALUE, 600);
 
   BooleanValidator PARQUET_SINGLE_STREAM = new BooleanValidator("store.parquet.single_stream", false);
+  // reads the column of a pushed down filter first, and only the selected records of the other columns
+  BooleanValidator PARQUET_LATE_MATERIALIZATION = new BooleanValidator("store.parquet.late_materialization", false);
+  // reads the pages of a filtered column as nulls when their statistics show none of their values match the filter
+  BooleanValidator PARQUET_PAGE_FILTER = new BooleanValidator("store.parquet.filter_pages", true);
   LongValidator PARQUET_SINGLE_STREAM_COLUMN_THRESHOLD = new LongValidator("store.parquet.single_stream_column_threshold", 40);
   LongValidator RESULTS_MAX_AGE_IN_DAYS = new LongValidator("results.max.age_in_days", 30);
   //Configuration used for testing or debugging
   LongValidator DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS = new LongValidator("debug.results.max.age_in_milliseconds", 0);
 
+  // Serve the stored results of a previous job to repeated queries, as long as the datasets and reflections the
+  // previous job read didn't change. Entries live for at most the max age, and for at most the time the sources
+  // they read keep their dataset definitions without re-checking them.
+  BooleanValidator RESULTS_CACHE_ENABLED = new BooleanValidator("results.cache.enabled", false);
+  PositiveLongValidator RESULTS_CACHE_MAX_SIZE_BYTES = new PositiveLongValidator("results.cache.max_size_bytes", Long.MAX_VALUE, 1024L*1024*1024);
+  PositiveLongValidator RESULTS_CACHE_MAX_AGE_MILLISECONDS = new PositiveLongValidator("results.cache.max_age_in_milliseconds", Long.MAX_VALUE, 60*60*1000);
+
   BooleanValidator SORT_FILE_BLOCKS = new BooleanValidator("store.file.sort_blocks", false);
 
 
   LongValidator FLATTEN_OPERATOR_OUTPUT_MEMORY_LIMIT = new LongValidator("exec.operator.flatten_output_memory_limit", 512*1024*1024);
+  // flattens lists by copying the other columns through a selection vector instead of generated code
+  BooleanValidator ENABLE_VECTORIZED_FLATTEN = new BooleanValidator("exec.operator.flatten.vectorize", true);
 
   PositiveLongValidator PLANNER_IN_SUBQUERY_THRESHOLD = new PositiveLongValidator("planner.in.subquery.threshold", Character.MAX_VALUE, 20);
 
@@ -381,5 +429,28 @@ public interface ExecConstants {
 
   PositiveLongValidator EXTERNAL_SORT_BATCHSIZE_MULTIPLIER = new PositiveLongValidator("exec.operator.sort.external.batchsize_multiplier", Character.MAX_VALUE, 2);
 
+  EnumValidator<VectorAccessibleSerializable.Codec> EXTERNAL_SORT_SPILL_CODEC = new EnumValidator<>(
+      "exec.operator.sort.external.spill.codec", VectorAccessibleSerializable.Codec.class, VectorAccessibleSerializable.Codec.SNAPPY);
+
+  // overlap spill writes and merge reads with sorting by doing spill I/O in the background
+  BooleanValidator EXTERNAL_SORT_SPILL_ASYNC_IO = new BooleanValidator("exec.operator.sort.external.spill.async_io", true);
+
+  // size of each of the two buffers used for asynchronous spill writes and merge read-ahead, per spill file. The buffers
+  // are allocated from the sort allocator.
+  PositiveLongValidator EXTERNAL_SORT_SPILL_IO_BUFFER_SIZE = new PositiveLongValidator("exec.operator.sort.external.spill.io_buffer_size", 16 * 1024 * 1024, 64 * 1024);
+
+  // sort on binary comparable normalized keys instead of generated comparisons when all sort keys are fixed width columns
+  BooleanValidator EXTERNAL_SORT_ENABLE_NORMALIZED_KEYS = new BooleanValidator("exec.operator.sort.external.normalized_keys", false);
+
+  // discard incoming rows that sort after the current last row of the top N before adding them to the priority queue
+  BooleanValidator TOPN_ENABLE_THRESHOLD_FILTER = new BooleanValidator("exec.operator.topn.threshold_filter", true);
+
+  // memory held by the node wide cache of global dictionaries, per source. 0 disables the cache.
+  RangeLongValidator GLOBAL_DICTIONARY_CACHE_SIZE = new RangeLongValidator("exec.operator.dictionary.cache.size", 0, Long.MAX_VALUE, 256 * 1024 * 1024);
+
+  // number of record readers a scan creates in the background ahead of the one producing records. 0 disables prefetching.
+  // Only applies to scans whose readers can be created off the fragment thread, such as parquet scans.
+  RangeLongValidator SCAN_READER_PREFETCH_COUNT = new RangeLongValidator("exec.operator.scan.reader_prefetch_count", 0, 8, 0);
+
   LongValidator VOTING_SCHEDULE = new PositiveLongValidator("vote.schedule.millis", Long.MAX_VALUE, 0);
 }
@@ -35,6 +35,10 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.parquet.hadoop.util.CompatibilityUtil;
 import org.xerial.snappy.Snappy;
 
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.dremio.exec.expr.TypeHelper;
@@ -61,6 +65,20 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
   static final int COMPRESSED_LENGTH_BYTES = 4;
   public static final int RAW_CHUNK_SIZE_TO_COMPRESS = 32*1024;
 
+  /**
+   * Codecs available to compress spilled batches.
+   */
+  public enum Codec {
+    SNAPPY,
+    LZ4
+  }
+
+  /* holder so that LZ4 is only loaded when used */
+  private static final class Lz4 {
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+  }
+
   private byte tmpBuffer[] = new byte[RAW_CHUNK_SIZE_TO_COMPRESS*2];
   private ByteBuffer tmpBuffer1 = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE); //byte array of 4 bytes
 
@@ -71,6 +89,7 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
   private BatchSchema.SelectionVectorMode svMode = BatchSchema.SelectionVectorMode.NONE;
   private SelectionVector2 sv2;
   private final boolean useCodec;
+  private final Codec codec;
   /* a separate allocator to be used for allocating buffers for decompressing spill files */
   private BufferAllocator decompressAllocator;
 
@@ -84,6 +103,7 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
     this.allocator = allocator;
     va = new VectorContainer();
     this.useCodec = false;
+    this.codec = Codec.SNAPPY;
   }
 
   /**
@@ -93,9 +113,21 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
    * @param decompressAllocator
    */
   public VectorAccessibleSerializable(BufferAllocator allocator, boolean useCodec, BufferAllocator decompressAllocator) {
+    this(allocator, useCodec, Codec.SNAPPY, decompressAllocator);
+  }
+
+  /**
+   * Decompress the spill files with the given codec when de-serializing the spilled batch
+   * @param allocator
+   * @param useCodec
+   * @param codec
+   * @param decompressAllocator
+   */
+  public VectorAccessibleSerializable(BufferAllocator allocator, boolean useCodec, Codec codec, BufferAllocator decompressAllocator) {
     this.allocator = allocator;
     va = new VectorContainer();
     this.useCodec = useCodec;
+    this.codec = Preconditions.checkNotNull(codec);
     this.decompressAllocator = decompressAllocator;
     if (useCodec) {
       Preconditions.checkArgument((decompressAllocator != null), "decompress allocator can't be null when compressing spill files");
@@ -151,16 +183,24 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
        * compressed stream is of size larger (raw data + compression metadata)
        * than raw data. To handle these cases, we allocate compressed buffer
        * slightly larger than raw buffer. If we don't do this, Snappy.compress
-       * will segfault.
+       * will segfault. Same goes for LZ4.
        */
-      final int maxCompressedLength = Snappy.maxCompressedLength(lengthToCompress);
+      final int maxCompressedLength = codec == Codec.LZ4
+          ? Lz4.COMPRESSOR.maxCompressedLength(lengthToCompress)
+          : Snappy.maxCompressedLength(lengthToCompress);
       try (ArrowBuf cBuf = allocator.buffer(maxCompressedLength)) {
         ByteBuffer compressedDirectBuffer = cBuf.nioBuffer(0, maxCompressedLength);
         rawDirectBuffer.order(ByteOrder.LITTLE_ENDIAN);
         compressedDirectBuffer.order(ByteOrder.LITTLE_ENDIAN);
 
         /* compress */
-        int compressedLength = Snappy.compress(rawDirectBuffer, compressedDirectBuffer);
+        final int compressedLength;
+        if (codec == Codec.LZ4) {
+          compressedLength = Lz4.COMPRESSOR.compress(rawDirectBuffer, 0, lengthToCompress, compressedDirectBuffer, 0,
+              maxCompressedLength);
+        } else {
+          compressedLength = Snappy.compress(rawDirectBuffer, compressedDirectBuffer);
+        }
 
         /* get compressed data into byte array for serializing to output stream */
         compressedDirectBuffer.get(tmpBuffer, 0, compressedLength);
@@ -181,6 +221,19 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
    * @param allocator
    */
   public VectorAccessibleSerializable(WritableBatch batch, SelectionVector2 sv2, BufferAllocator allocator, boolean useCodec) {
+    this(batch, sv2, allocator, useCodec, Codec.SNAPPY);
+  }
+
+  /**
+   * Creates a wrapper around batch and sv2 for writing to a stream, compressing the batch with the given codec if
+   * compression is to be used.
+   * @param batch
+   * @param sv2
+   * @param allocator
+   * @param useCodec
+   * @param codec
+   */
+  public VectorAccessibleSerializable(WritableBatch batch, SelectionVector2 sv2, BufferAllocator allocator, boolean useCodec, Codec codec) {
     this.allocator = allocator;
     this.batch = batch;
     if (sv2 != null) {
@@ -188,6 +241,7 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
       svMode = BatchSchema.SelectionVectorMode.TWO_BYTE;
     }
     this.useCodec = useCodec;
+    this.codec = Preconditions.checkNotNull(codec);
   }
 
   /**
@@ -406,7 +460,13 @@ public class VectorAccessibleSerializable extends AbstractStreamSerializable {
         rawDirectBuffer.order(ByteOrder.LITTLE_ENDIAN);
 
         /* uncompress */
-        int uncompressedLength = Snappy.uncompress(compressedDirectBuffer, rawDirectBuffer);
+        final int uncompressedLength;
+        if (codec == Codec.LZ4) {
+          uncompressedLength = Lz4.DECOMPRESSOR.decompress(compressedDirectBuffer, 0, compressedOffset, rawDirectBuffer, 0,
+              rawBufferSize);
+        } else {
+          uncompressedLength = Snappy.uncompress(compressedDirectBuffer, rawDirectBuffer);
+        }
 
         /* update state */
         rawDataLength -= uncompressedLength;
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Matches utf-8 encoded strings against a SQL pattern.
+ */
+public interface SqlPatternMatcher {
+
+  /**
+   * @return 1 if the string between start and end in the buffer matches the pattern, 0 otherwise
+   */
+  int match(int start, int end, ArrowBuf buffer);
+}
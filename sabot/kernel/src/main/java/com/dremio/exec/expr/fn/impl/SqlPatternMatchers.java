@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.google.common.base.Charsets;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Creates the {@link SqlPatternMatcher} of SQL {@code LIKE} patterns.
+ *
+ * Patterns that only compare a literal to the whole string, its beginning, its end, or look for it anywhere in the
+ * string (as {@code 'abc'}, {@code 'abc%'}, {@code '%abc'} and {@code '%abc%'}) are matched by comparing the utf-8
+ * bytes of the literal with the bytes of the string. Other patterns are translated to a regular expression.
+ */
+public final class SqlPatternMatchers {
+
+  private SqlPatternMatchers() {
+  }
+
+  /**
+   * @param sqlPattern the LIKE pattern
+   * @param escape the escape character of the pattern, or null if none
+   */
+  public static SqlPatternMatcher like(String sqlPattern, String escape, FunctionErrorContext errCtx) {
+    // translating the pattern checks its escape sequences.
+    final String regex = RegexpUtil.sqlToRegexLike(sqlPattern, escape, errCtx);
+    final char escapeChar = escape == null ? 0 : escape.charAt(0);
+
+    final StringBuilder literal = new StringBuilder(sqlPattern.length());
+    boolean leadingWildcard = false;
+    boolean trailingWildcard = false;
+    for (int i = 0; i < sqlPattern.length(); i++) {
+      final char c = sqlPattern.charAt(i);
+      if (trailingWildcard && c != '%') {
+        // a wildcard within the pattern
+        return regex(regex, errCtx);
+      }
+      if (c == escapeChar) {
+        literal.append(sqlPattern.charAt(++i));
+      } else if (c == '_') {
+        return regex(regex, errCtx);
+      } else if (c == '%') {
+        if (literal.length() == 0) {
+          leadingWildcard = true;
+        } else {
+          trailingWildcard = true;
+        }
+      } else {
+        literal.append(c);
+      }
+    }
+
+    final byte[] bytes = literal.toString().getBytes(Charsets.UTF_8);
+    if (leadingWildcard && trailingWildcard) {
+      return new Contains(bytes);
+    } else if (leadingWildcard) {
+      // also covers patterns only made of wildcards, as the literal is then empty
+      return new EndsWith(bytes);
+    } else if (trailingWildcard) {
+      return new StartsWith(bytes);
+    }
+    return new Equals(bytes);
+  }
+
+  private static SqlPatternMatcher regex(String regex, FunctionErrorContext errCtx) {
+    return new Regex(StringFunctionUtil.compilePattern(regex, Pattern.DOTALL, errCtx));
+  }
+
+  private static boolean equalAt(ArrowBuf buffer, int index, byte[] literal) {
+    for (int i = 0; i < literal.length; i++) {
+      if (buffer.getByte(index + i) != literal[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class Equals implements SqlPatternMatcher {
+    private final byte[] literal;
+
+    private Equals(byte[] literal) {
+      this.literal = literal;
+    }
+
+    @Override
+    public int match(int start, int end, ArrowBuf buffer) {
+      return end - start == literal.length && equalAt(buffer, start, literal) ? 1 : 0;
+    }
+  }
+
+  private static final class StartsWith implements SqlPatternMatcher {
+    private final byte[] prefix;
+
+    private StartsWith(byte[] prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public int match(int start, int end, ArrowBuf buffer) {
+      return end - start >= prefix.length && equalAt(buffer, start, prefix) ? 1 : 0;
+    }
+  }
+
+  private static final class EndsWith implements SqlPatternMatcher {
+    private final byte[] suffix;
+
+    private EndsWith(byte[] suffix) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    public int match(int start, int end, ArrowBuf buffer) {
+      return end - start >= suffix.length && equalAt(buffer, end - suffix.length, suffix) ? 1 : 0;
+    }
+  }
+
+  private static final class Contains implements SqlPatternMatcher {
+    private final byte[] literal;
+
+    private Contains(byte[] literal) {
+      this.literal = literal;
+    }
+
+    @Override
+    public int match(int start, int end, ArrowBuf buffer) {
+      if (literal.length == 0) {
+        return 1;
+      }
+      // utf-8 is self synchronizing, a byte match is a match of characters.
+      final byte first = literal[0];
+      final int last = end - literal.length;
+      for (int i = start; i <= last; i++) {
+        if (buffer.getByte(i) == first && equalAt(buffer, i, literal)) {
+          return 1;
+        }
+      }
+      return 0;
+    }
+  }
+
+  private static final class Regex implements SqlPatternMatcher {
+    private final CharSequenceWrapper charSequenceWrapper = new CharSequenceWrapper();
+    private final Matcher matcher;
+
+    private Regex(Pattern pattern) {
+      this.matcher = pattern.matcher(charSequenceWrapper);
+    }
+
+    @Override
+    public int match(int start, int end, ArrowBuf buffer) {
+      charSequenceWrapper.setBuffer(start, end, buffer);
+      matcher.reset();
+      return matcher.matches() ? 1 : 0;
+    }
+  }
+}
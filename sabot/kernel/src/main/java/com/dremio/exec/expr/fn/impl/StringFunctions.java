@@ -54,25 +54,19 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlPatternMatcher sqlPatternMatcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+      sqlPatternMatcher = com.dremio.exec.expr.fn.impl.SqlPatternMatchers.like(
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
+          null, errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = sqlPatternMatcher.match(input.start, input.end, input.buffer);
     }
   }
 
@@ -83,26 +77,19 @@ public class StringFunctions{
     @Param(constant=true) VarCharHolder pattern;
     @Param(constant=true) VarCharHolder escape;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlPatternMatcher sqlPatternMatcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
+      sqlPatternMatcher = com.dremio.exec.expr.fn.impl.SqlPatternMatchers.like(
           com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer), errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = sqlPatternMatcher.match(input.start, input.end, input.buffer);
     }
   }
 
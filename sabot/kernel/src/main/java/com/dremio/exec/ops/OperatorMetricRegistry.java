@@ -19,6 +19,7 @@ import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
 import com.dremio.exec.store.parquet.ParquetRecordWriter;
 import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.op.common.hashtable.HashTableStats;
+import com.dremio.sabot.op.filter.FilterOperator;
 import com.dremio.sabot.op.receiver.merging.MergingReceiverOperator;
 import com.dremio.sabot.op.receiver.unordered.UnorderedReceiverOperator;
 import com.dremio.sabot.op.scan.ScanOperator;
@@ -28,6 +29,7 @@ import com.dremio.sabot.op.sender.partition.PartitionSenderOperator;
 import com.dremio.sabot.op.sender.roundrobin.RoundRobinOperator;
 import com.dremio.sabot.op.sender.single.SingleSenderOperator;
 import com.dremio.sabot.op.sort.external.ExternalSortOperator;
+import com.dremio.sabot.op.sort.topn.TopNOperator;
 import com.dremio.sabot.op.writer.WriterOperator;
 
 /**
@@ -50,10 +52,12 @@ public class OperatorMetricRegistry {
     register(CoreOperatorType.HASH_AGGREGATE_VALUE, HashTableStats.Metric.class);
     register(CoreOperatorType.HASH_JOIN_VALUE, HashTableStats.Metric.class);
     register(CoreOperatorType.EXTERNAL_SORT_VALUE, ExternalSortOperator.Metric.class);
+    register(CoreOperatorType.TOP_N_SORT_VALUE, TopNOperator.Metric.class);
     register(CoreOperatorType.HIVE_SUB_SCAN_VALUE, ScanOperator.Metric.class);
     register(CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE, ScanOperator.Metric.class);
     register(CoreOperatorType.PARQUET_WRITER_VALUE, ParquetRecordWriter.Metric.class);
     register(CoreOperatorType.ARROW_WRITER_VALUE, WriterOperator.Metric.class);
+    register(CoreOperatorType.FILTER_VALUE, FilterOperator.Metric.class);
   }
 
   private static void register(final int operatorType, final Class<? extends MetricDef> metricDef) {
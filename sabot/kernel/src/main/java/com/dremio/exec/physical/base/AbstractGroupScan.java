@@ -97,7 +97,7 @@ public abstract class AbstractGroupScan extends AbstractBase implements GroupSca
   }
 
   @JsonIgnore
-  protected TableMetadata getDataset(){
+  public TableMetadata getDataset(){
     return dataset;
   }
 
@@ -33,26 +33,45 @@ public class HashPartitionSender extends AbstractSender {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HashPartitionSender.class);
 
   private final LogicalExpression expr;
+  private final boolean splitHotKeys;
+
+  public HashPartitionSender(int oppositeMajorFragmentId,
+                             PhysicalOperator child,
+                             LogicalExpression expr,
+                             List<MinorFragmentEndpoint> endpoints,
+                             BatchSchema schema) {
+    this(oppositeMajorFragmentId, child, expr, endpoints, schema, false);
+  }
 
   @JsonCreator
   public HashPartitionSender(@JsonProperty("receiver-major-fragment") int oppositeMajorFragmentId,
                              @JsonProperty("child") PhysicalOperator child,
                              @JsonProperty("expr") LogicalExpression expr,
                              @JsonProperty("destinations") List<MinorFragmentEndpoint> endpoints,
-                             @JsonProperty("schema") BatchSchema schema) {
+                             @JsonProperty("schema") BatchSchema schema,
+                             @JsonProperty("splitHotKeys") boolean splitHotKeys) {
     super(oppositeMajorFragmentId, child, endpoints, schema);
     this.expr = expr;
+    this.splitHotKeys = splitHotKeys;
   }
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashPartitionSender(oppositeMajorFragmentId, child, expr, destinations, schema);
+    return new HashPartitionSender(oppositeMajorFragmentId, child, expr, destinations, schema, splitHotKeys);
   }
 
   public LogicalExpression getExpr() {
     return expr;
   }
 
+  /**
+   * @return true if the receivers don't need all the rows of a key, so the rows of a hot key can be sent to more than
+   * one receiver
+   */
+  public boolean isSplitHotKeys() {
+    return splitHotKeys;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
     return physicalVisitor.visitHashPartitionSender(this, value);
@@ -37,17 +37,24 @@ public class HashToRandomExchange extends AbstractExchange{
   }
 
   private final LogicalExpression expr;
+  private final boolean splitHotKeys;
+
+  public HashToRandomExchange(PhysicalOperator child, LogicalExpression expr) {
+    this(child, expr, false);
+  }
 
   @JsonCreator
-  public HashToRandomExchange(@JsonProperty("child") PhysicalOperator child, @JsonProperty("expr") LogicalExpression expr) {
+  public HashToRandomExchange(@JsonProperty("child") PhysicalOperator child, @JsonProperty("expr") LogicalExpression expr,
+                              @JsonProperty("splitHotKeys") boolean splitHotKeys) {
     super(child);
     this.expr = expr;
+    this.splitHotKeys = splitHotKeys;
   }
 
   @Override
   public Sender getSender(int minorFragmentId, PhysicalOperator child, FunctionLookupContext context) {
     return new HashPartitionSender(receiverMajorFragmentId, child, expr,
-        PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations), getSchema(context));
+        PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations), getSchema(context), splitHotKeys);
   }
 
   @Override
@@ -57,11 +64,16 @@ public class HashToRandomExchange extends AbstractExchange{
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashToRandomExchange(child, expr);
+    return new HashToRandomExchange(child, expr, splitHotKeys);
   }
 
   @JsonProperty("expr")
   public LogicalExpression getExpression(){
     return expr;
   }
+
+  @JsonProperty("splitHotKeys")
+  public boolean isSplitHotKeys() {
+    return splitHotKeys;
+  }
 }
@@ -35,6 +35,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
 import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexWindowBound;
 
 import java.util.ArrayList;
@@ -147,7 +150,27 @@ public class WindowPOP extends AbstractSingle {
     return schemaBuilder.build();
   }
 
-  public static Bound newBound(RexWindowBound windowBound) {
-    return new Bound(windowBound.isUnbounded(), windowBound.isCurrentRow() ? 0 : Long.MIN_VALUE); //TODO: Get offset to work
+  /**
+   * Converts a window bound to a {@link Bound}. Offsets of bounded frames are negative for PRECEDING bounds and
+   * positive for FOLLOWING bounds.
+   *
+   * @param windowBound window bound
+   * @param constants constants of the window
+   * @param startConstantsIndex index of the first constant when referenced by a {@link RexInputRef}
+   */
+  public static Bound newBound(RexWindowBound windowBound, List<RexLiteral> constants, int startConstantsIndex) {
+    if (windowBound.isUnbounded()) {
+      return new Bound(true, Long.MIN_VALUE);
+    }
+    if (windowBound.isCurrentRow()) {
+      return new Bound(false, 0);
+    }
+
+    RexNode offset = windowBound.getOffset();
+    if (offset instanceof RexInputRef) {
+      offset = constants.get(((RexInputRef) offset).getIndex() - startConstantsIndex);
+    }
+    final long value = RexLiteral.intValue(offset);
+    return new Bound(false, windowBound.isPreceding() ? -value : value);
   }
 }
@@ -71,6 +71,8 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
   private long normalizationMillis = 0;
   private long substitutionMillis = 0;
   private int numSubstitutions = 0;
+  private int numMaterializations = 0;
+  private int numCandidateMaterializations = 0;
   private List<String> normalizedQueryPlans;
 
   private volatile ByteString accelerationDetails;
@@ -86,6 +88,8 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
     AccelerationProfile.Builder builder = AccelerationProfile.newBuilder()
       .setAccelerated(accelerated)
       .setNumSubstitutions(numSubstitutions)
+      .setNumMaterializations(numMaterializations)
+      .setNumCandidateMaterializations(numCandidateMaterializations)
       .setMillisTakenGettingMaterializations(findMaterializationMillis)
       .setMillisTakenNormalizing(normalizationMillis)
       .setMillisTakenSubstituting(substitutionMillis);
@@ -120,6 +124,15 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
     this.json = text;
   }
 
+  @Override
+  public void planCacheHit(long millisTaken) {
+    planPhases.add(PlanPhaseProfile.newBuilder()
+      .setPhaseName("Plan Cache Hit")
+      .setDurationMillis(millisTaken)
+      .setPlan("")
+      .build());
+  }
+
   @Override
   public void planAccelerated(final SubstitutionInfo info) {
     accelerated = true;
@@ -136,12 +149,14 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
   }
 
   @Override
-  public void planFindMaterializations(long millisTaken) {
+  public void planFindMaterializations(long millisTaken, int numMaterializations, int numCandidates) {
     findMaterializationMillis = millisTaken;
+    this.numMaterializations = numMaterializations;
+    this.numCandidateMaterializations = numCandidates;
     planPhases.add(PlanPhaseProfile.newBuilder()
       .setPhaseName("Find Materializations")
       .setDurationMillis(millisTaken)
-      .setPlan("")
+      .setPlan(String.format("%d candidates out of %d materializations", numCandidates, numMaterializations))
       .build());
   }
 
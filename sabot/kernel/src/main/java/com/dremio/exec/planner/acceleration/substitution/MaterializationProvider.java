@@ -18,6 +18,7 @@ package com.dremio.exec.planner.acceleration.substitution;
 import java.util.List;
 
 import org.apache.calcite.plan.RelOptMaterialization;
+import org.apache.calcite.rel.RelNode;
 
 /**
  * Provides a list of materializations for {@link SubstitutionProvider}
@@ -30,4 +31,15 @@ public interface MaterializationProvider {
    */
   List<RelOptMaterialization> getMaterializations();
 
+  /**
+   * Returns list of materializations that may substitute part of the given query, among the ones the provider
+   * considers for substitution.
+   */
+  List<RelOptMaterialization> getApplicableMaterializations(RelNode query);
+
+  /**
+   * Returns number of materializations the provider considers for substitution.
+   */
+  int getNumMaterializations();
+
 }
@@ -16,6 +16,7 @@
 package com.dremio.exec.planner.acceleration.substitution;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.calcite.plan.MaterializedViewSubstitutionVisitor;
 import org.apache.calcite.plan.RelOptMaterialization;
@@ -29,28 +30,45 @@ import org.apache.calcite.rel.rules.ProjectRemoveRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.dremio.exec.planner.observer.AttemptObserver;
+import com.dremio.exec.planner.sql.DremioRelOptMaterialization;
 import com.google.common.base.Function;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 
 /**
  * A {@link SubstitutionProvider} that employs unification rules to find
  * substitutes.
  */
-public class UnifyingSubstitutionProvider extends AbstractSubstitutionProvider {
+public class UnifyingSubstitutionProvider extends AbstractSubstitutionProvider implements Observable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UnifyingSubstitutionProvider.class);
 
+  private AttemptObserver observer;
+
   public UnifyingSubstitutionProvider(
     final MaterializationProvider provider) {
     super(provider);
   }
 
+  @Override
+  public void setObserver(AttemptObserver observer) {
+    this.observer = observer;
+  }
+
   @Override public List<Substitution> findSubstitutions(final RelNode query) {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final MaterializationProvider provider = getMaterializationProvider();
     final List<RelOptMaterialization> materializations =
-      SubstitutionUtils.findApplicableMaterializations(query, getMaterializations());
+      SubstitutionUtils.findApplicableMaterializations(query, provider.getApplicableMaterializations(query));
+    if (observer != null) {
+      observer.planFindMaterializations(stopwatch.elapsed(TimeUnit.MILLISECONDS), provider.getNumMaterializations(),
+        materializations.size());
+    }
 
     final List<Substitution> substitutions = Lists.newArrayList(new Substitution(query, null));
     for (final RelOptMaterialization materialization : materializations) {
+      stopwatch.reset().start();
       final int count = substitutions.size();
       for (int i = 0; i < count; i++) {
         try {
@@ -59,6 +77,15 @@ public class UnifyingSubstitutionProvider extends AbstractSubstitutionProvider {
           LOGGER.warn("unable to apply materialization: {}", materialization, ex);
         }
       }
+
+      if (observer != null && materialization instanceof DremioRelOptMaterialization) {
+        final List<RelNode> replacements = Lists.newArrayList();
+        for (final Substitution substitution : substitutions.subList(count, substitutions.size())) {
+          replacements.add(substitution.getReplacement());
+        }
+        observer.planSubstituted((DremioRelOptMaterialization) materialization, replacements,
+          materialization.queryRel, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+      }
     }
 
     // discard the original query
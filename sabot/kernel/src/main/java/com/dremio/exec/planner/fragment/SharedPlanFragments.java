@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.fragment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dremio.exec.proto.CoordExecRPC.InitializeFragments;
+import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
+import com.google.protobuf.ByteString;
+
+/**
+ * Packs the fragments sent to a node in a single {@link InitializeFragments} message.
+ *
+ * The minor fragments of a major fragment running on the same node usually have the same plan, and all the fragments
+ * of a query have the same options. Plans and options are moved to the shared data of the message, so each of them is
+ * only sent once per node, and fragments reference them by index. Once unpacked, fragments sharing a plan or options
+ * share the same {@link ByteString} instance, so the node can also parse them once.
+ */
+public final class SharedPlanFragments {
+
+  private SharedPlanFragments() {
+  }
+
+  /**
+   * @return message starting the given fragments, with their plans and options deduplicated
+   */
+  public static InitializeFragments pack(Collection<PlanFragment> fragments) {
+    final InitializeFragments.Builder builder = InitializeFragments.newBuilder();
+    final Map<ByteString, Integer> indexes = new HashMap<>();
+    for (PlanFragment fragment : fragments) {
+      final PlanFragment.Builder fragmentBuilder = fragment.toBuilder();
+      if (fragment.hasFragmentJson()) {
+        fragmentBuilder.clearFragmentJson()
+          .setSharedFragmentJson(index(builder, indexes, fragment.getFragmentJson()));
+      }
+      if (fragment.hasOptionsJson()) {
+        fragmentBuilder.clearOptionsJson()
+          .setSharedOptionsJson(index(builder, indexes, fragment.getOptionsJson()));
+      }
+      builder.addFragment(fragmentBuilder);
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return fragments of the message, with their plans and options set
+   */
+  public static List<PlanFragment> unpack(InitializeFragments message) {
+    final List<PlanFragment> fragments = new ArrayList<>(message.getFragmentCount());
+    for (PlanFragment fragment : message.getFragmentList()) {
+      if (!fragment.hasSharedFragmentJson() && !fragment.hasSharedOptionsJson()) {
+        fragments.add(fragment);
+        continue;
+      }
+
+      final PlanFragment.Builder fragmentBuilder = fragment.toBuilder();
+      if (fragment.hasSharedFragmentJson()) {
+        fragmentBuilder.clearSharedFragmentJson()
+          .setFragmentJson(message.getSharedJson(fragment.getSharedFragmentJson()));
+      }
+      if (fragment.hasSharedOptionsJson()) {
+        fragmentBuilder.clearSharedOptionsJson()
+          .setOptionsJson(message.getSharedJson(fragment.getSharedOptionsJson()));
+      }
+      fragments.add(fragmentBuilder.build());
+    }
+    return fragments;
+  }
+
+  private static int index(InitializeFragments.Builder builder, Map<ByteString, Integer> indexes, ByteString json) {
+    Integer index = indexes.get(json);
+    if (index == null) {
+      index = builder.getSharedJsonCount();
+      builder.addSharedJson(json);
+      indexes.put(json, index);
+    }
+    return index;
+  }
+}
@@ -320,6 +320,14 @@ public class SimpleParallelizer implements ParallelizationParameters {
       FunctionLookupContext functionLookupContext) throws ExecutionSetupException {
 
     final List<PlanFragment> fragments = Lists.newArrayList();
+    // all the fragments share the same options, only serialize them once.
+    final ByteString optionsData;
+    try {
+      optionsData = reader.writeJsonBytes(options, fragmentCodec);
+    } catch (JsonProcessingException e) {
+      throw new ForemanSetupException("Failure while trying to convert options into json.", e);
+    }
+
     // now we generate all the individual plan fragments and associated assignments. Note, we need all endpoints
     // assigned before we can materialize, so we start a new loop here rather than utilizing the previous one.
     for (Wrapper wrapper : planningSet) {
@@ -345,10 +353,8 @@ public class SimpleParallelizer implements ParallelizationParameters {
 
         // get plan as JSON
         ByteString plan;
-        ByteString optionsData;
         try {
           plan = reader.writeJsonBytes(root, fragmentCodec);
-          optionsData = reader.writeJsonBytes(options, fragmentCodec);
         } catch (JsonProcessingException e) {
           throw new ForemanSetupException("Failure while trying to convert fragment into json.", e);
         }
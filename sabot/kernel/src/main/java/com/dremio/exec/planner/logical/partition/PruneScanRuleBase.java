@@ -98,6 +98,7 @@ import com.dremio.service.Pointer;
 import com.dremio.service.namespace.NamespaceException;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.dremio.service.namespace.dataset.proto.PartitionValue;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
@@ -181,8 +182,7 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       if (scan.getPluginId().getType().equals(pluginType)) {
         try {
           if(scan.getTableMetadata().getSplitRatio() == 1.0d){
-            final List<String> partitionColumns = scan.getTableMetadata().getReadDefinition().getPartitionColumnsList();
-            return partitionColumns != null && !partitionColumns.isEmpty();
+            return hasPruningColumns(scan.getTableMetadata().getReadDefinition());
           }
         } catch (NamespaceException e) {
           logger.warn("Unable to calculate split.", e);
@@ -212,8 +212,7 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       if (scan.getPluginId().getType().equals(pluginType)) {
         try {
           if(scan.getTableMetadata().getSplitRatio() == 1.0d){
-            final List<String> partitionColumns = scan.getTableMetadata().getReadDefinition().getPartitionColumnsList();
-            return partitionColumns != null && !partitionColumns.isEmpty();
+            return hasPruningColumns(scan.getTableMetadata().getReadDefinition());
           }
         } catch (NamespaceException e) {
           logger.warn("Unable to calculate split.", e);
@@ -231,11 +230,77 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
     }
   }
 
+  /**
+   * @return whether the splits of the dataset can be pruned on their partition values or sort column ranges
+   */
+  private static boolean hasPruningColumns(ReadDefinition readDefinition) {
+    final List<String> partitionColumns = readDefinition.getPartitionColumnsList();
+    final List<String> sortColumns = readDefinition.getSortColumnsList();
+    return (partitionColumns != null && !partitionColumns.isEmpty())
+      || (sortColumns != null && !sortColumns.isEmpty());
+  }
+
+  /**
+   * Build the query to prune the splits of a dataset sorted on some columns, using the value ranges of these columns in
+   * each split. Unlike partition values, ranges don't tell which records of a split pass the filter, so the filter must
+   * be kept as is.
+   *
+   * @return query on the split ranges, or null if the filter has no simple condition on the sort columns
+   */
+  private SearchQuery getRangeQuery(Filter filterRel, RexNode condition, T scanRel) {
+    final List<String> sortColumns = scanRel.getTableMetadata().getReadDefinition().getSortColumnsList();
+    if (sortColumns == null || sortColumns.isEmpty()) {
+      return null;
+    }
+
+    final FindSimpleFilters.StateHolder holder = condition.accept(new FindSimpleFilters(filterRel.getCluster().getRexBuilder(), true));
+    if (!holder.hasConditions()) {
+      return null;
+    }
+
+    final List<SearchQuery> splitFilters = Lists.newArrayList();
+    for (RexCall call : holder.getConditions()) {
+      final FilterProperties filter = new FilterProperties(call, scanRel.getRowType());
+      if (!sortColumns.contains(filter.getField())) {
+        continue;
+      }
+      final SearchQuery query = MetadataUtils.toSplitsRangeQuery(filter, scanRel.getBatchSchema().findField(filter.getField()));
+      if (query != null) {
+        splitFilters.add(query);
+      }
+    }
+    return splitFilters.isEmpty() ? null : SearchQueryUtils.and(splitFilters);
+  }
+
+  /**
+   * Prune the splits of the scan using the range query alone, when the filter has no condition on partition columns.
+   */
+  private void doRangePruning(RelOptRuleCall call, Filter filterRel, Project projectRel, T scanRel, SearchQuery rangeQuery)
+      throws NamespaceException {
+    final TableMetadata datasetPointer = scanRel.getTableMetadata();
+    final TableMetadata prunedDatasetPointer = datasetPointer.prune(rangeQuery);
+    if (prunedDatasetPointer == datasetPointer) {
+      return;
+    }
+
+    RelNode inputRel;
+    if (prunedDatasetPointer.getSplitCount() == 0) {
+      inputRel = new EmptyRel(scanRel.getCluster(), scanRel.getTraitSet(), scanRel.getRowType(), scanRel.getBatchSchema());
+    } else {
+      inputRel = scanRel.applyDatasetPointer(prunedDatasetPointer);
+    }
+    if (projectRel != null) {
+      inputRel = projectRel.copy(projectRel.getTraitSet(), Collections.singletonList(inputRel));
+    }
+    call.transformTo(filterRel.copy(filterRel.getTraitSet(), Collections.singletonList(inputRel)));
+  }
+
   private boolean doSargPruning(
       Filter filterRel,
       RexNode pruneCondition,
       T scanRel,
       final Map<String, Field> fieldMap,
+      SearchQuery rangeQuery,
       Pointer<TableMetadata> datasetOutput,
       Pointer<RexNode> outputCondition){
     final RexBuilder builder = filterRel.getCluster().getRexBuilder();
@@ -246,7 +311,16 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
     if(!holder.hasConditions()){
       datasetOutput.value = datasetPointer;
       outputCondition.value = pruneCondition;
-      return false;
+      if (rangeQuery == null) {
+        return false;
+      }
+      // the partition conditions are left to evaluation, but splits can still be pruned on their ranges.
+      try {
+        datasetOutput.value = datasetPointer.prune(rangeQuery);
+      } catch (NamespaceException ne) {
+        logger.error("Failed to prune splits using sort column ranges from namespace", ne);
+      }
+      return datasetOutput.value != datasetPointer;
     }
 
     final ImmutableList<RexCall> conditions = holder.getConditions();
@@ -271,6 +345,9 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
     for (Map.Entry<String, FilterProperties> entry: map.entries()) {
       splitFilters.add(MetadataUtils.toSplitsSearchQuery(Collections.singletonList(entry.getValue()), fieldMap.get(entry.getKey())));
     }
+    if (rangeQuery != null) {
+      splitFilters.add(rangeQuery);
+    }
 
     try {
       final TableMetadata prunedDatasetPointer = scanRel.getTableMetadata().prune(SearchQueryUtils.and(splitFilters));
@@ -447,11 +524,17 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       RewriteAsBinaryOperators visitor = new RewriteAsBinaryOperators(true, filterRel.getCluster().getRexBuilder());
       condition = condition.accept(visitor);
 
+      // the pruned scan isn't matched again, so the range query is applied along with the partition conditions.
+      final SearchQuery rangeQuery = settings.isSplitRangePruningEnabled() ? getRangeQuery(filterRel, condition, scanRel) : null;
+
       final Map<Integer, String> fieldNameMap = Maps.newHashMap();
       final Map<String, Integer> partitionColumnsToIdMap = Maps.newHashMap();
       int index = 0;
-      for (String column : scanRel.getTableMetadata().getReadDefinition().getPartitionColumnsList()) {
-        partitionColumnsToIdMap.put(column, index++);
+      final List<String> partitionColumns = scanRel.getTableMetadata().getReadDefinition().getPartitionColumnsList();
+      if (partitionColumns != null) {
+        for (String column : partitionColumns) {
+          partitionColumnsToIdMap.put(column, index++);
+        }
       }
       final List<String> fieldNames = scanRel.getRowType().getFieldNames();
       final BitSet columnBitset = new BitSet();
@@ -473,6 +556,9 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       if (partitionColumnBitSet.isEmpty()) {
         logger.debug("No partition columns are projected from the scan..continue. " +
           "Total pruning elapsed time: {} ms", totalPruningTime.elapsed(TimeUnit.MILLISECONDS));
+        if (rangeQuery != null) {
+          doRangePruning(call, filterRel, projectRel, scanRel, rangeQuery);
+        }
         return;
       }
 
@@ -494,6 +580,9 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
       if (pruneCondition == null) {
         logger.info("No conditions were found eligible for partition pruning." +
           "Total pruning elapsed time: {} ms", totalPruningTime.elapsed(TimeUnit.MILLISECONDS));
+        if (rangeQuery != null) {
+          doRangePruning(call, filterRel, projectRel, scanRel, rangeQuery);
+        }
         return;
       }
 
@@ -502,7 +591,7 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
 
       // do index-based pruning
       Stopwatch stopwatch = Stopwatch.createStarted();
-      final boolean sargPruned = doSargPruning(filterRel, pruneCondition, scanRel, fieldMap, dataset, outputCondition);
+      final boolean sargPruned = doSargPruning(filterRel, pruneCondition, scanRel, fieldMap, rangeQuery, dataset, outputCondition);
       stopwatch.stop();
       logger.debug("Partition pruning using search index took {} ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
       final boolean evalPruned;
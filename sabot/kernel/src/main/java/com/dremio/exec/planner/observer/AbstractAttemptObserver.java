@@ -63,7 +63,7 @@ public abstract class AbstractAttemptObserver implements AttemptObserver {
   }
 
   @Override
-  public void planFindMaterializations(long millisTaken) {
+  public void planFindMaterializations(long millisTaken, int numMaterializations, int numCandidates) {
   }
 
   @Override
@@ -137,6 +137,10 @@ public abstract class AbstractAttemptObserver implements AttemptObserver {
   public void planJsonPlan(String text) {
   }
 
+  @Override
+  public void planCacheHit(long millisTaken) {
+  }
+
   @Override
   public void planGenerationTime(long millisTaken) {
   }
@@ -134,8 +134,11 @@ public interface AttemptObserver {
 
   /**
    * Report applicable materializations
+   * @param millisTaken time taken to find the candidate materializations
+   * @param numMaterializations number of materializations available for substitution
+   * @param numCandidates number of materializations left to unify with the query, after pruning the others
    */
-  void planFindMaterializations(long millisTaken);
+  void planFindMaterializations(long millisTaken, int numMaterializations, int numCandidates);
 
   /**
    * Report normalization completion
@@ -187,6 +190,12 @@ public interface AttemptObserver {
    */
   void planJsonPlan(String text);
 
+  /**
+   * The physical plan of the query was reused from the plan cache, planning was skipped.
+   * @param millisTaken time taken to look up and validate the cached plan, in milliseconds
+   */
+  void planCacheHit(long millisTaken);
+
 
   /**
    * The current query attempt is completed and has been cleaned up.
@@ -141,9 +141,9 @@ public class AttemptObservers implements AttemptObserver {
   }
 
   @Override
-  public void planFindMaterializations(long millisTaken) {
+  public void planFindMaterializations(long millisTaken, int numMaterializations, int numCandidates) {
     for (final AttemptObserver observer : observers) {
-      observer.planFindMaterializations(millisTaken);
+      observer.planFindMaterializations(millisTaken, numMaterializations, numCandidates);
     }
   }
 
@@ -197,6 +197,13 @@ public class AttemptObservers implements AttemptObserver {
     }
   }
 
+  @Override
+  public void planCacheHit(long millisTaken) {
+    for (final AttemptObserver observer : observers) {
+      observer.planCacheHit(millisTaken);
+    }
+  }
+
   @Override
   public void attemptCompletion(UserResult result) {
     for (final AttemptObserver observer : observers) {
@@ -111,8 +111,8 @@ public class DelegatingAttemptObserver implements AttemptObserver {
   }
 
   @Override
-  public void planFindMaterializations(long millisTaken) {
-    observer.planFindMaterializations(millisTaken);
+  public void planFindMaterializations(long millisTaken, int numMaterializations, int numCandidates) {
+    observer.planFindMaterializations(millisTaken, numMaterializations, numCandidates);
   }
 
   @Override
@@ -155,6 +155,11 @@ public class DelegatingAttemptObserver implements AttemptObserver {
     observer.planJsonPlan(text);
   }
 
+  @Override
+  public void planCacheHit(long millisTaken) {
+    observer.planCacheHit(millisTaken);
+  }
+
   @Override
   public void planGenerationTime(long millisTaken) {
     observer.planGenerationTime(millisTaken);
@@ -128,11 +128,12 @@ public class OutOfBandAttemptObserver implements AttemptObserver {
   }
 
   @Override
-  public void planFindMaterializations(final long millisTaken) {
+  public void planFindMaterializations(final long millisTaken, final int numMaterializations,
+      final int numCandidates) {
     serializedExec.execute(new DeferredRunnable() {
       @Override
       public void doRun() {
-        innerObserver.planFindMaterializations(millisTaken);
+        innerObserver.planFindMaterializations(millisTaken, numMaterializations, numCandidates);
       }
     });
   }
@@ -208,6 +209,16 @@ public class OutOfBandAttemptObserver implements AttemptObserver {
     });
   }
 
+  @Override
+  public void planCacheHit(final long millisTaken) {
+    serializedExec.execute(new DeferredRunnable() {
+      @Override
+      public void doRun() {
+        innerObserver.planCacheHit(millisTaken);
+      }
+    });
+  }
+
   @Override
   public void planStart(final String rawPlan) {
     serializedExec.execute(new DeferredRunnable(){
@@ -40,10 +40,21 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
 
   private final List<DistributionField> fields;
+  private final boolean splitHotKeys;
 
   public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields) {
+    this(cluster, traitSet, input, fields, false);
+  }
+
+  /**
+   * @param splitHotKeys true if the consumer of this exchange doesn't need all the rows of a key, so the senders can
+   *                     spread the rows of hot keys to more than one receiver
+   */
+  public HashToRandomExchangePrel(RelOptCluster cluster, RelTraitSet traitSet, RelNode input, List<DistributionField> fields,
+                                  boolean splitHotKeys) {
     super(cluster, traitSet, input);
     this.fields = fields;
+    this.splitHotKeys = splitHotKeys;
     assert input.getConvention() == Prel.PHYSICAL;
   }
 
@@ -81,7 +92,7 @@ public class HashToRandomExchangePrel extends ExchangePrel {
 
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
-    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields);
+    return new HashToRandomExchangePrel(getCluster(), traitSet, sole(inputs), fields, splitHotKeys);
   }
 
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
@@ -90,7 +101,8 @@ public class HashToRandomExchangePrel extends ExchangePrel {
     PhysicalOperator childPOP = child.getPhysicalOperator(creator);
 
     // TODO - refactor to different exchange name
-    HashToRandomExchange g = new HashToRandomExchange(childPOP, HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()));
+    HashToRandomExchange g = new HashToRandomExchange(childPOP, HashPrelUtil.getHashExpression(this.fields, getInput().getRowType()),
+        splitHotKeys);
     return creator.addMetadata(this, g);
   }
 
@@ -98,13 +110,17 @@ public class HashToRandomExchangePrel extends ExchangePrel {
     return this.fields;
   }
 
+  public boolean isSplitHotKeys() {
+    return splitHotKeys;
+  }
+
   @Override
   public RelWriter explainTerms(RelWriter pw) {
     super.explainTerms(pw);
       for (Ord<DistributionField> ord : Ord.zip(fields)) {
         pw.item("dist" + ord.i, ord.e);
       }
-    return pw;
+    return pw.itemIf("splitHotKeys", splitHotKeys, splitHotKeys);
   }
 
   @Override
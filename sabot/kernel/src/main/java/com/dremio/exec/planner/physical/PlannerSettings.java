@@ -132,6 +132,16 @@ public class PlannerSettings implements Context{
    */
   public static final BooleanValidator REUSE_PREPARE_HANDLES = new BooleanValidator("planner.reuse_prepare_statement_handles", false);
 
+  /**
+   * Reuse the physical plans of repeated normal queries, as long as the datasets and sources they read didn't change.
+   */
+  public static final BooleanValidator PLAN_CACHE = new BooleanValidator("planner.plan_cache.enabled", false);
+
+  /**
+   * Prune the splits of datasets sorted on some columns using the min and max values of those columns in each split.
+   */
+  public static final BooleanValidator ENABLE_SPLIT_RANGE_PRUNING = new BooleanValidator("planner.enable_split_range_pruning", true);
+
   public static final BooleanValidator VERBOSE_PROFILE = new BooleanValidator("planner.verbose_profile", false);
 
   public static final DoubleValidator FILTER_MIN_SELECTIVITY_ESTIMATE_FACTOR =
@@ -139,6 +149,11 @@ public class PlannerSettings implements Context{
   public static final DoubleValidator FILTER_MAX_SELECTIVITY_ESTIMATE_FACTOR =
       new RangeDoubleValidator("planner.filter.max_selectivity_estimate_factor", 0.0, 1.0, 1.0d);
 
+  // file splits smaller than the target size are combined, by location, into units of work of up to that size.
+  // 0, the default, disables combining.
+  public static final LongValidator SPLIT_COMBINE_TARGET_SIZE = new RangeLongValidator("planner.split_combine.target_size", 0, Long.MAX_VALUE, 0);
+  public static final LongValidator SPLIT_COMBINE_MAX_SPLITS = new RangeLongValidator("planner.split_combine.max_splits", 1, 65536, 512);
+
   private final SabotConfig sabotConfig;
   public final OptionManager options;
   private final ClusterResourceInformation clusterInfo;
@@ -252,6 +267,14 @@ public class PlannerSettings implements Context{
     return options.getOption(ENABLE_GLOBAL_DICTIONARY.getOptionName()).bool_val;
   }
 
+  public long getSplitCombineTargetSize() {
+    return options.getOption(SPLIT_COMBINE_TARGET_SIZE);
+  }
+
+  public int getSplitCombineMaxSplits() {
+    return (int) options.getOption(SPLIT_COMBINE_MAX_SPLITS);
+  }
+
   public boolean isStreamAggEnabled() {
     return options.getOption(STREAMAGG.getOptionName()).bool_val;
   }
@@ -344,6 +367,10 @@ public class PlannerSettings implements Context{
     return options.getOption(ENABLE_PARTITION_PRUNING);
   }
 
+  public boolean isSplitRangePruningEnabled() {
+    return options.getOption(ENABLE_SPLIT_RANGE_PRUNING);
+  }
+
   public boolean isTrivialSingularOptimized() {
     return options.getOption(ENABLE_TRIVIAL_SINGULAR);
   }
@@ -50,19 +50,27 @@ import com.dremio.exec.record.BatchSchema;
 import com.google.common.collect.Lists;
 
 public class WindowPrel extends WindowRelBase implements Prel {
+  // frame bounds, with their offsets already resolved from the window constants
+  private final WindowPOP.Bound lowerBound;
+  private final WindowPOP.Bound upperBound;
+
   public WindowPrel(RelOptCluster cluster,
                     RelTraitSet traits,
                     RelNode child,
                     List<RexLiteral> constants,
                     RelDataType rowType,
-                    Group window) {
+                    Group window,
+                    WindowPOP.Bound lowerBound,
+                    WindowPOP.Bound upperBound) {
     super(cluster, traits, child, constants, rowType, Collections.singletonList(window));
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
   }
 
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
     final RelDataType copiedRowType = deriveCopiedRowTypeFromInput(sole(inputs));
-    return new WindowPrel(getCluster(), traitSet, sole(inputs), constants, copiedRowType, groups.get(0));
+    return new WindowPrel(getCluster(), traitSet, sole(inputs), constants, copiedRowType, groups.get(0), lowerBound, upperBound);
   }
 
   @Override
@@ -102,8 +110,8 @@ public class WindowPrel extends WindowRelBase implements Prel {
         aggs,
         orderings,
         window.isRows,
-        WindowPOP.newBound(window.lowerBound),
-        WindowPOP.newBound(window.upperBound));
+        lowerBound,
+        upperBound);
 
     creator.addMetadata(this, windowPOP);
     return windowPOP;
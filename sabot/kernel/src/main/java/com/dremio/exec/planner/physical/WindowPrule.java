@@ -35,6 +35,7 @@ import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlAggFunction;
 import org.apache.calcite.util.BitSets;
 
+import com.dremio.exec.physical.config.WindowPOP;
 import com.dremio.exec.planner.logical.Rel;
 import com.dremio.exec.planner.logical.WindowRel;
 import com.dremio.exec.planner.logical.RelOptHelper;
@@ -170,7 +171,9 @@ public class WindowPrule extends Prule {
           convertedInput,
           window.getConstants(),
           rowType,
-          windowBase);
+          windowBase,
+          WindowPOP.newBound(windowBase.lowerBound, window.getConstants(), startConstantsIndex),
+          WindowPOP.newBound(windowBase.upperBound, window.getConstants(), startConstantsIndex));
 
       constantShiftIndex += windowBase.aggCalls.size();
     }
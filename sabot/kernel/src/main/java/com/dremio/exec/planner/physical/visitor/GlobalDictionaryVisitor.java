@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.planner.physical.visitor;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -28,9 +29,11 @@ import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
+import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexVisitorImpl;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.hadoop.fs.Path;
@@ -41,6 +44,8 @@ import com.dremio.exec.planner.physical.AggPrelBase;
 import com.dremio.exec.planner.physical.DistributionTrait.DistributionField;
 import com.dremio.exec.planner.physical.ExchangePrel;
 import com.dremio.exec.planner.physical.FilterPrel;
+import com.dremio.exec.planner.physical.HashAggPrel;
+import com.dremio.exec.planner.physical.HashJoinPrel;
 import com.dremio.exec.planner.physical.HashToMergeExchangePrel;
 import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
 import com.dremio.exec.planner.physical.JoinPrel;
@@ -123,19 +128,22 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
   @Override
   public PrelWithDictionaryInfo visitJoin(JoinPrel joinPrel, Void value) throws RuntimeException {
     assert joinPrel.getInputs().size() == 2;
+    // Hash joins match keys encoded with the same dictionary on their ids, so look through the exchanges hashing
+    // their inputs: keys are either kept encoded, or decoded below the exchange, on both sides.
+    final boolean hashJoin = joinPrel instanceof HashJoinPrel;
     // visit left
-    PrelWithDictionaryInfo leftInput = ((Prel)joinPrel.getLeft()).accept(this, value);
+    PrelWithDictionaryInfo leftInput = hashJoin ? visitThroughHashExchange((Prel)joinPrel.getLeft(), value) :
+      ((Prel)joinPrel.getLeft()).accept(this, value);
     // visit right
-    PrelWithDictionaryInfo rightInput = ((Prel)joinPrel.getRight()).accept(this, value);
+    PrelWithDictionaryInfo rightInput = hashJoin ? visitThroughHashExchange((Prel)joinPrel.getRight(), value) :
+      ((Prel)joinPrel.getRight()).accept(this, value);
     if ((joinPrel.getLeft() == leftInput.getPrel()) && (joinPrel.getRight() == rightInput.getPrel())) {
       return new PrelWithDictionaryInfo(joinPrel);
     }
 
-    final Set<Integer> fieldsUsed = Sets.newHashSet();
     final Set<Integer> leftFieldsUsed = Sets.newHashSet();
     final Set<Integer> rightFieldsUsed = Sets.newHashSet();
 
-    final InputReferenceRexVisitor visitor = new InputReferenceRexVisitor(fieldsUsed);
     final int leftFieldCount = leftInput.getFields().length;
     final int rightFieldCount = rightInput.getFields().length;
     final int systemFieldCount = joinPrel.getSystemFieldList().size();
@@ -145,29 +153,43 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     for (int i = 0; i < systemFieldCount; ++i) {
       reorderedFields[i] = null;
     }
+    for (int i = 0; i < leftFieldCount; ++i) {
+      reorderedFields[systemFieldCount + i] = leftInput.getGlobalDictionaryFieldInfo(i);
+    }
+    for (int i = 0; i < rightFieldCount; ++i) {
+      reorderedFields[systemFieldCount + leftFieldCount + i] = rightInput.getGlobalDictionaryFieldInfo(i);
+    }
 
-    joinPrel.getCondition().accept(visitor);
+    final Set<Integer> fieldsUsed;
+    if (hashJoin) {
+      fieldsUsed = new FieldsToDecodeFinder(reorderedFields).find(joinPrel.getCondition());
+    } else {
+      fieldsUsed = Sets.newHashSet();
+      joinPrel.getCondition().accept(new InputReferenceRexVisitor(fieldsUsed));
+    }
 
     for (int fieldIndex : fieldsUsed) {
-      if (fieldIndex < leftFieldCount) {
+      if (fieldIndex < systemFieldCount + leftFieldCount) {
         leftFieldsUsed.add(fieldIndex - systemFieldCount);
       } else {
         rightFieldsUsed.add(fieldIndex - (systemFieldCount + leftFieldCount));
       }
     }
 
-    leftInput = leftInput.decodeFields(leftFieldsUsed);
-    rightInput = rightInput.decodeFields(rightFieldsUsed);
+    leftInput = decodeFields(leftInput, leftFieldsUsed);
+    rightInput = decodeFields(rightInput, rightFieldsUsed);
 
     for (int i = 0; i < leftFieldCount; ++i) {
       reorderedFields[systemFieldCount + i] = leftInput.getGlobalDictionaryFieldInfo(i);
     }
 
     for (int i = 0; i < rightFieldCount; ++i) {
-      reorderedFields[leftFieldCount + i] = rightInput.getGlobalDictionaryFieldInfo(i);
+      reorderedFields[systemFieldCount + leftFieldCount + i] = rightInput.getGlobalDictionaryFieldInfo(i);
     }
-    return new PrelWithDictionaryInfo((Prel)joinPrel.copy(joinPrel.getTraitSet(),
-      Lists.<RelNode>newArrayList(leftInput.getPrel(), rightInput.getPrel())), reorderedFields);
+
+    final RexNode condition = joinPrel.getCondition().accept(new EncodedInputRefRetyper(reorderedFields));
+    return new PrelWithDictionaryInfo((Prel)joinPrel.copy(joinPrel.getTraitSet(), condition,
+      leftInput.getPrel(), rightInput.getPrel(), joinPrel.getJoinType(), joinPrel.isSemiJoinDone()), reorderedFields);
   }
 
   @Override
@@ -277,7 +299,9 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
 
   private PrelWithDictionaryInfo visitAggregation(AggPrelBase aggPrel, Void value) throws RuntimeException {
     assert aggPrel.getInputs().size() == 1;
-    PrelWithDictionaryInfo newInput = ((Prel)aggPrel.getInput()).accept(this, value);
+    // Hash aggregations group on dictionary ids, so group keys stay encoded through the exchange distributing them.
+    PrelWithDictionaryInfo newInput = aggPrel instanceof HashAggPrel ?
+      visitThroughHashExchange((Prel)aggPrel.getInput(), value) : ((Prel)aggPrel.getInput()).accept(this, value);
 
     if (aggPrel.getInput() == newInput.getPrel()) {
       return new PrelWithDictionaryInfo(aggPrel);
@@ -324,14 +348,12 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
       return new PrelWithDictionaryInfo(filterPrel); // none of fields are encoded
     }
 
-    final Set<Integer> fieldsUsed = Sets.newHashSet();
-    final InputReferenceRexVisitor visitor = new InputReferenceRexVisitor(fieldsUsed);
-    filterPrel.getCondition().accept(visitor);
-
-    // decode used inputs by this filter
+    // decode used inputs by this filter, unless the condition can be evaluated on dictionary ids
+    final Set<Integer> fieldsUsed = new FieldsToDecodeFinder(newInput.getFields()).find(filterPrel.getCondition());
     newInput = newInput.decodeFields(fieldsUsed);
 
-    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), filterPrel.getCondition()),
+    final RexNode condition = filterPrel.getCondition().accept(new EncodedInputRefRetyper(newInput.getFields()));
+    return new PrelWithDictionaryInfo((Prel)filterPrel.copy(filterPrel.getTraitSet(), newInput.getPrel(), condition),
       newInput.getFields());
   }
 
@@ -344,6 +366,46 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     return new PrelWithDictionaryInfo((Prel)limitPrel.copy(limitPrel.getTraitSet(), Collections.<RelNode>singletonList(newInput.getPrel())), newInput.getFields());
   }
 
+  /**
+   * Visit a prel, looking through a hash exchange on top of it: fields the exchange distributes on are not decoded.
+   * The consumer of the exchange must either use the dictionary ids of those fields, or decode them below the
+   * exchange using {@link #decodeFields(PrelWithDictionaryInfo, Collection)}.
+   */
+  private PrelWithDictionaryInfo visitThroughHashExchange(Prel prel, Void value) {
+    if (!(prel instanceof HashToRandomExchangePrel)) {
+      return prel.accept(this, value);
+    }
+    final Prel input = (Prel) prel.getInput(0);
+    final PrelWithDictionaryInfo newInput = input.accept(this, value);
+    if (input == newInput.getPrel()) {
+      return new PrelWithDictionaryInfo(prel);
+    }
+    return new PrelWithDictionaryInfo(
+      (Prel)prel.copy(prel.getTraitSet(), Collections.<RelNode>singletonList(newInput.getPrel())),
+      newInput.getFields());
+  }
+
+  /**
+   * Decode fields of a prel returned by {@link #visitThroughHashExchange(Prel, Void)}. If the prel is a hash exchange,
+   * fields are decoded below it so the exchange hashes their values.
+   */
+  private PrelWithDictionaryInfo decodeFields(PrelWithDictionaryInfo prelWithInfo, Collection<Integer> fieldsToDecode) {
+    final Prel prel = prelWithInfo.getPrel();
+    if (!(prel instanceof HashToRandomExchangePrel)) {
+      return prelWithInfo.decodeFields(fieldsToDecode);
+    }
+    // exchange uses child input's row data type.
+    final Prel input = (Prel) prel.getInput(0);
+    final PrelWithDictionaryInfo newInput = new PrelWithDictionaryInfo(input, prelWithInfo.getFields())
+      .decodeFields(fieldsToDecode);
+    if (input == newInput.getPrel()) {
+      return prelWithInfo;
+    }
+    return new PrelWithDictionaryInfo(
+      (Prel)prel.copy(prel.getTraitSet(), Collections.<RelNode>singletonList(newInput.getPrel())),
+      newInput.getFields());
+  }
+
   private RelDataTypeField dictionaryEncodedField(RelDataTypeField field) {
     return new RelDataTypeFieldImpl(field.getName(), field.getIndex(), dictionaryDataType);
   }
@@ -417,6 +479,101 @@ public class GlobalDictionaryVisitor extends BasePrelVisitor<PrelWithDictionaryI
     return new PrelWithDictionaryInfo(newParquetScanPrel, fieldInfos);
   }
 
+  /**
+   * Find the fields a condition needs decoded. Null checks on encoded fields, and comparisons for equality between
+   * two fields encoded with the same dictionary, are evaluated on dictionary ids: a dictionary maps each value to a
+   * single id, and null values have null ids.
+   */
+  private static class FieldsToDecodeFinder extends RexVisitorImpl<Void> {
+    private final GlobalDictionaryFieldInfo[] fields;
+    private final Set<Integer> fieldsToDecode = Sets.newHashSet();
+    private final List<RexInputRef[]> idComparisons = Lists.newArrayList();
+
+    FieldsToDecodeFinder(GlobalDictionaryFieldInfo[] fields) {
+      super(true);
+      this.fields = fields;
+    }
+
+    Set<Integer> find(RexNode condition) {
+      condition.accept(this);
+      // both sides of a comparison on ids need to be decoded if one of them is used elsewhere
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (RexInputRef[] comparison : idComparisons) {
+          final int left = comparison[0].getIndex();
+          final int right = comparison[1].getIndex();
+          if (fieldsToDecode.contains(left) != fieldsToDecode.contains(right)) {
+            fieldsToDecode.add(left);
+            fieldsToDecode.add(right);
+            changed = true;
+          }
+        }
+      }
+      return fieldsToDecode;
+    }
+
+    @Override
+    public Void visitInputRef(RexInputRef inputRef) {
+      fieldsToDecode.add(inputRef.getIndex());
+      return null;
+    }
+
+    @Override
+    public Void visitCall(RexCall call) {
+      final List<RexNode> operands = call.getOperands();
+      switch (call.getKind()) {
+      case IS_NULL:
+      case IS_NOT_NULL:
+        if (operands.get(0) instanceof RexInputRef) {
+          return null;
+        }
+        break;
+      case EQUALS:
+      case NOT_EQUALS:
+      case IS_DISTINCT_FROM:
+      case IS_NOT_DISTINCT_FROM:
+        if (operands.get(0) instanceof RexInputRef && operands.get(1) instanceof RexInputRef) {
+          final RexInputRef left = (RexInputRef) operands.get(0);
+          final RexInputRef right = (RexInputRef) operands.get(1);
+          if (sameDictionary(fields[left.getIndex()], fields[right.getIndex()])) {
+            idComparisons.add(new RexInputRef[] {left, right});
+            return null;
+          }
+        }
+        break;
+      default:
+        break;
+      }
+      return super.visitCall(call);
+    }
+
+    private static boolean sameDictionary(GlobalDictionaryFieldInfo left, GlobalDictionaryFieldInfo right) {
+      return left != null && right != null
+        && left.getDictionaryVersion() == right.getDictionaryVersion()
+        && left.getDictionaryPath().equals(right.getDictionaryPath());
+    }
+  }
+
+  /**
+   * Change the type of references to fields that are still dictionary encoded to the type of dictionary ids.
+   */
+  private class EncodedInputRefRetyper extends RexShuttle {
+    private final GlobalDictionaryFieldInfo[] fields;
+
+    EncodedInputRefRetyper(GlobalDictionaryFieldInfo[] fields) {
+      this.fields = fields;
+    }
+
+    @Override
+    public RexNode visitInputRef(RexInputRef inputRef) {
+      if (fields[inputRef.getIndex()] == null) {
+        return inputRef;
+      }
+      return new RexInputRef(inputRef.getIndex(), dictionaryDataType);
+    }
+  }
+
   private static class InputReferenceRexVisitor extends RexShuttle {
     private final Set<Integer> fieldsUsed;
 
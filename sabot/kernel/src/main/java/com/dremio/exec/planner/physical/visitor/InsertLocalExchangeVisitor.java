@@ -86,7 +86,8 @@ public class InsertLocalExchangeVisitor extends BasePrelVisitor<Prel, Void, Runt
     }
 
     newPrel = new HashToRandomExchangePrel(prel.getCluster(),
-        prel.getTraitSet(), newPrel, ((HashToRandomExchangePrel) prel).getFields());
+        prel.getTraitSet(), newPrel, ((HashToRandomExchangePrel) prel).getFields(),
+        ((HashToRandomExchangePrel) prel).isSplitHotKeys());
 
     if (isDeMuxEnabled) {
       HashToRandomExchangePrel hashExchangePrel = (HashToRandomExchangePrel) newPrel;
@@ -46,6 +46,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.dremio.exec.planner.physical.DistributionTraitDef;
 import com.dremio.exec.planner.physical.HashPrelUtil;
+import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
 import com.dremio.exec.planner.physical.Prel;
 import com.dremio.exec.planner.physical.ProjectAllowDupPrel;
 import com.dremio.exec.planner.physical.ProjectPrel;
@@ -105,7 +106,7 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
         // TODO: add check
       }
 
-      Prel project = HashPrelUtil.addHashProject(distribution.getFields(), input, options.getRingCount());
+      Prel project = HashPrelUtil.addHashProject(distribution.getFields(), allowHotKeySplitting(input), options.getRingCount());
 
       // then add a sort that is the hash field followed by the sort
       List<Integer> sortKeys = new ArrayList<>();
@@ -190,6 +191,24 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
     }
   }
 
+  /**
+   * The bucket of a row is computed after the distribution exchange, and a writer only needs the rows it receives to
+   * be sorted. So the exchange feeding the writers can send the rows of a hot key to more than one writer.
+   */
+  private static Prel allowHotKeySplitting(Prel input) {
+    if (input instanceof HashToRandomExchangePrel) {
+      final HashToRandomExchangePrel exchange = (HashToRandomExchangePrel) input;
+      return new HashToRandomExchangePrel(exchange.getCluster(), exchange.getTraitSet(), exchange.getInput(),
+          exchange.getFields(), true);
+    }
+    if (input instanceof ProjectPrel) {
+      // input was renamed
+      final Prel child = allowHotKeySplitting((Prel) input.getInput(0));
+      return (Prel) input.copy(input.getTraitSet(), ImmutableList.<RelNode>of(child));
+    }
+    return input;
+  }
+
   private static RelCollation getCollation(RelTraitSet set, List<Integer> keys) {
     return set.canonize(RelCollations.of(FluentIterable.from(keys)
         .transform(new Function<Integer, RelFieldCollation>() {
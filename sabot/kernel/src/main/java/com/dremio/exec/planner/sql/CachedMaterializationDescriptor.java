@@ -25,6 +25,7 @@ import com.google.common.base.Preconditions;
 public class CachedMaterializationDescriptor extends MaterializationDescriptor {
 
   private final DremioRelOptMaterialization materialization;
+  private final MaterializationCandidates.Signature signature;
 
   public CachedMaterializationDescriptor(MaterializationDescriptor descriptor, DremioRelOptMaterialization materialization) {
     super(descriptor.getLayoutInfo(),
@@ -39,6 +40,12 @@ public class CachedMaterializationDescriptor extends MaterializationDescriptor {
           descriptor.getIncrementalUpdateSettings(),
           descriptor.getJoinDependencyProperties());
     this.materialization = Preconditions.checkNotNull(materialization, "materialization is required");
+    this.signature = MaterializationCandidates.Signature.of(materialization);
+  }
+
+  @Override
+  public MaterializationCandidates.Signature getSignature() {
+    return signature;
   }
 
   @Override
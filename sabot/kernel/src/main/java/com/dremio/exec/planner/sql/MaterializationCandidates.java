@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.TableScan;
+
+import com.dremio.exec.planner.acceleration.JoinDependencyProperties;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Index of materialization descriptors by the tables their plans read, used to prune the materializations that can't
+ * substitute any part of a query before they are expanded, normalized and unified with it.
+ *
+ * A materialization is a candidate for a query if:
+ * <ul>
+ * <li>it reads at least one of the tables of the query,</li>
+ * <li>the query reads all the tables it joins, unless it has join dependencies that allow dropping some of them,</li>
+ * <li>the query aggregates, if it aggregates.</li>
+ * </ul>
+ * Only descriptors that carry a {@link Signature} are indexed, the others are always candidates.
+ */
+public final class MaterializationCandidates {
+
+  private final ListMultimap<List<String>, MaterializationDescriptor> byTable = ArrayListMultimap.create();
+  private final List<MaterializationDescriptor> unindexed;
+  private final int size;
+
+  public MaterializationCandidates(List<MaterializationDescriptor> descriptors) {
+    final ImmutableList.Builder<MaterializationDescriptor> unindexed = ImmutableList.builder();
+    for (MaterializationDescriptor descriptor : descriptors) {
+      final Signature signature = descriptor.getSignature();
+      if (signature == null || signature.tables.isEmpty()) {
+        unindexed.add(descriptor);
+        continue;
+      }
+      for (List<String> table : signature.tables) {
+        byTable.put(table, descriptor);
+      }
+    }
+    this.unindexed = unindexed.build();
+    this.size = descriptors.size();
+  }
+
+  /**
+   * @return number of descriptors in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return descriptors whose materializations may substitute part of the query
+   */
+  public List<MaterializationDescriptor> find(RelNode query) {
+    final Signature querySignature = Signature.of(query, false);
+    final ImmutableList.Builder<MaterializationDescriptor> candidates = ImmutableList.builder();
+    candidates.addAll(unindexed);
+    // descriptors reading several tables of the query are listed under each of them.
+    final Set<MaterializationDescriptor> seen = Sets.newIdentityHashSet();
+    for (List<String> table : querySignature.tables) {
+      for (MaterializationDescriptor descriptor : byTable.get(table)) {
+        if (seen.add(descriptor) && descriptor.getSignature().canSubstitute(querySignature)) {
+          candidates.add(descriptor);
+        }
+      }
+    }
+    return candidates.build();
+  }
+
+  /**
+   * Tables read by a plan, and whether it aggregates.
+   */
+  public static final class Signature {
+    private final Set<List<String>> tables;
+    private final boolean aggregate;
+    private final boolean partialJoins;
+
+    private Signature(Set<List<String>> tables, boolean aggregate, boolean partialJoins) {
+      this.tables = tables;
+      this.aggregate = aggregate;
+      this.partialJoins = partialJoins;
+    }
+
+    /**
+     * @param partialJoins whether the plan may be substituted for a query reading only some of its tables
+     */
+    static Signature of(RelNode rel, boolean partialJoins) {
+      final ImmutableSet.Builder<List<String>> tables = ImmutableSet.builder();
+      final boolean[] aggregate = {false};
+      new RelVisitor() {
+        @Override
+        public void visit(RelNode node, int ordinal, RelNode parent) {
+          if (node instanceof TableScan) {
+            tables.add(node.getTable().getQualifiedName());
+          } else if (node instanceof Aggregate) {
+            aggregate[0] = true;
+          }
+          super.visit(node, ordinal, parent);
+        }
+      }.go(rel);
+      return new Signature(tables.build(), aggregate[0], partialJoins);
+    }
+
+    static Signature of(DremioRelOptMaterialization materialization) {
+      final JoinDependencyProperties dependencies = materialization.getJoinDependencyProperties();
+      return of(materialization.queryRel, materialization.isSnowflake()
+          || (dependencies != null && !dependencies.getDependencies().isEmpty()));
+    }
+
+    private boolean canSubstitute(Signature query) {
+      if (aggregate && !query.aggregate) {
+        return false;
+      }
+      return partialJoins || query.tables.containsAll(tables);
+    }
+  }
+}
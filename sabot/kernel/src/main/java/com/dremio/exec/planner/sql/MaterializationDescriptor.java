@@ -133,6 +133,14 @@ public class MaterializationDescriptor {
     return Objects.hash(reflection, planBytes, path, originalCost);
   }
 
+  /**
+   * Returns signature of the materialization plan, used to index candidate materializations, or null if the plan
+   * isn't expanded yet.
+   */
+  public MaterializationCandidates.Signature getSignature() {
+    return null;
+  }
+
   public DremioRelOptMaterialization getMaterializationFor(SqlConverter converter) {
     final MaterializationExpander expander = MaterializationExpander.of(converter);
     return expander.expand(this).orNull();
@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.apache.calcite.plan.RelOptMaterialization;
+import org.apache.calcite.rel.RelNode;
 
 import com.dremio.exec.planner.acceleration.substitution.MaterializationProvider;
 import com.dremio.exec.server.MaterializationDescriptorProvider;
@@ -43,12 +44,20 @@ public class MaterializationList implements MaterializationProvider {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MaterializationList.class);
 
   private final Map<TablePath, MaterializationDescriptor> mapping = Maps.newHashMap();
+  // materializations expanded so far, by materialization id. Null if the expansion failed.
+  private final Map<String, DremioRelOptMaterialization> expanded = Maps.newHashMap();
   private final Supplier<List<RelOptMaterialization>> factory = Suppliers.memoize(new Supplier<List<RelOptMaterialization>>() {
     @Override
     public List<RelOptMaterialization> get() {
       return build(provider);
     }
   });
+  private final Supplier<MaterializationCandidates> candidates = Suppliers.memoize(new Supplier<MaterializationCandidates>() {
+    @Override
+    public MaterializationCandidates get() {
+      return new MaterializationCandidates(getAvailableDescriptors(provider));
+    }
+  });
 
   private final MaterializationDescriptorProvider provider;
   private final SqlConverter converter;
@@ -72,6 +81,22 @@ public class MaterializationList implements MaterializationProvider {
     return factory.get();
   }
 
+  /**
+   * Returns materializations that may substitute part of the given query.
+   *
+   * Candidates are looked up in an index of the available {@link MaterializationDescriptor descriptors}, and only
+   * candidates are converted to {@link RelOptMaterialization materializations}.
+   */
+  @Override
+  public List<RelOptMaterialization> getApplicableMaterializations(final RelNode query) {
+    return expand(candidates.get().find(query));
+  }
+
+  @Override
+  public int getNumMaterializations() {
+    return candidates.get().size();
+  }
+
   public Optional<MaterializationDescriptor> getDescriptor(final List<String> path) {
     return getDescriptor(TablePath.of(path));
   }
@@ -89,25 +114,42 @@ public class MaterializationList implements MaterializationProvider {
    */
   @VisibleForTesting
   protected List<RelOptMaterialization> build(final MaterializationDescriptorProvider provider) {
+    return expand(getAvailableDescriptors(provider));
+  }
+
+  private List<MaterializationDescriptor> getAvailableDescriptors(final MaterializationDescriptorProvider provider) {
     final Set<String> exclusions = Sets.newHashSet(session.getSubstitutionSettings().getExclusions());
-    final List<RelOptMaterialization> materializations = Lists.newArrayList();
+    final List<MaterializationDescriptor> descriptors = Lists.newArrayList();
     for (final MaterializationDescriptor descriptor : provider.get()) {
       // skip if materialization is excluded
       // exclusion list is passed by AcceleratorTask
-      if (exclusions.contains(descriptor.getLayoutId())) {
-        continue;
+      if (!exclusions.contains(descriptor.getLayoutId())) {
+        descriptors.add(descriptor);
       }
+    }
+    return descriptors;
+  }
 
-      try {
-        final DremioRelOptMaterialization materialization = descriptor.getMaterializationFor(converter);
-        if (materialization == null) {
-          continue;
+  private List<RelOptMaterialization> expand(final List<MaterializationDescriptor> descriptors) {
+    final List<RelOptMaterialization> materializations = Lists.newArrayList();
+    for (final MaterializationDescriptor descriptor : descriptors) {
+      final String id = descriptor.getMaterializationId();
+      if (!expanded.containsKey(id)) {
+        DremioRelOptMaterialization materialization = null;
+        try {
+          materialization = descriptor.getMaterializationFor(converter);
+        } catch (Throwable e) {
+          logger.warn("failed to expand materialization {}", id, e);
         }
+        expanded.put(id, materialization);
+        if (materialization != null) {
+          mapping.put(TablePath.of(descriptor.getPath()), descriptor);
+        }
+      }
 
-        mapping.put(TablePath.of(descriptor.getPath()), descriptor);
+      final DremioRelOptMaterialization materialization = expanded.get(id);
+      if (materialization != null) {
         materializations.add(materialization);
-      } catch (Throwable e) {
-        logger.warn("failed to expand materialization {}", descriptor.getMaterializationId(), e);
       }
     }
     return materializations;
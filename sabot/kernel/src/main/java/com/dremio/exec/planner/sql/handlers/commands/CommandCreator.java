@@ -18,6 +18,8 @@ package com.dremio.exec.planner.sql.handlers.commands;
 import static com.dremio.exec.planner.physical.PlannerSettings.REUSE_PREPARE_HANDLES;
 import static com.dremio.exec.planner.physical.PlannerSettings.STORE_QUERY_RESULTS;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.calcite.sql.SqlNode;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.catalog.Catalog;
@@ -78,6 +80,7 @@ import com.dremio.exec.work.protector.UserRequest;
 import com.dremio.exec.work.rpc.CoordToExecTunnelCreator;
 import com.dremio.service.Pointer;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.cache.Cache;
 import com.google.protobuf.InvalidProtocolBufferException;
 
@@ -94,6 +97,7 @@ public class CommandCreator {
   private final AttemptObserver observer;
   private final SabotContext dbContext;
   private final Cache<Long, PreparedPlan> plans;
+  private final PlanCache planCache;
   private final int attemptNumber;
   private final Pointer<QueryId> prepareId;
 
@@ -104,6 +108,7 @@ public class CommandCreator {
       UserRequest request,
       AttemptObserver observer,
       Cache<Long, PreparedPlan> plans,
+      PlanCache planCache,
       Pointer<QueryId> prepareId,
       int attemptNumber) {
     this.context = context;
@@ -112,6 +117,7 @@ public class CommandCreator {
     this.observer = observer;
     this.dbContext = dbContext;
     this.plans = plans;
+    this.planCache = planCache;
     this.prepareId = prepareId;
     this.attemptNumber = attemptNumber;
   }
@@ -218,6 +224,17 @@ public class CommandCreator {
 
   private CommandRunner<?> getSqlCommand(String sql, boolean isPrepare) {
     try{
+      // only the first attempt may reuse a cached plan, later attempts are planned with up to date metadata.
+      final PlanCache.Key cacheKey = isPrepare || attemptNumber != 0 ? null : PlanCache.newKey(context, sql);
+      if (cacheKey != null) {
+        final Stopwatch watch = Stopwatch.createStarted();
+        final PlanCache.CachedPlan plan = planCache.get(cacheKey, context.getCatalog(), context.getNamespaceService());
+        if (plan != null) {
+          return new CachedPlanToExecution(plan, sql, watch.elapsed(TimeUnit.MILLISECONDS), context, observer,
+              dbContext.getPlanReader(), tunnelCreator);
+        }
+      }
+
       final SqlConverter parser = new SqlConverter(
           context.getPlannerSettings(),
           context.getOperatorTable(),
@@ -297,7 +314,7 @@ public class CommandCreator {
 
         // fallthrough
       default:
-        return async.create(new NormalHandler(), config);
+        return async.create(new NormalHandler(), config, cacheKey);
       }
 
     } catch(SqlUnsupportedException e) {
@@ -351,11 +368,18 @@ public class CommandCreator {
 
     // handlers in handlers.query package
     public CommandRunner<?> create(SqlToPlanHandler handler, SqlHandlerConfig config){
+      return create(handler, config, null);
+    }
+
+    /**
+     * @param cacheKey key to cache the plan under, or null if the plan shouldn't be cached.
+     */
+    public CommandRunner<?> create(SqlToPlanHandler handler, SqlHandlerConfig config, PlanCache.Key cacheKey){
       if(prepare){
         return new HandlerToPreparePlan(context, sqlNode, handler, plans, sql, observer, config);
       }
       return new HandlerToExec(tunnelCreator, context, dbContext.getPlanReader(), observer, sql, sqlNode,
-        handler, config);
+        handler, config, planCache, cacheKey);
     }
   }
 
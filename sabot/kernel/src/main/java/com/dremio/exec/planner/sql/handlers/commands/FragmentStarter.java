@@ -28,6 +28,7 @@ import com.dremio.common.DeferredException;
 import com.dremio.common.concurrent.ExtendedLatch;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.planner.PhysicalPlanReader;
+import com.dremio.exec.planner.fragment.SharedPlanFragments;
 import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.proto.CoordExecRPC.InitializeFragments;
 import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
@@ -182,7 +183,8 @@ class FragmentStarter {
   }
 
   /**
-   * Send all the remote fragments belonging to a single target node in one request.
+   * Send all the remote fragments belonging to a single target node in one request. Plans and options shared by
+   * several fragments are only sent once.
    *
    * @param assignment the node assigned to these fragments
    * @param fragments the set of fragments
@@ -192,11 +194,7 @@ class FragmentStarter {
   private void sendRemoteFragments(final NodeEndpoint assignment, final Collection<PlanFragment> fragments,
       final CountDownLatch latch, final FragmentSubmitFailures fragmentSubmitFailures) {
 
-    final InitializeFragments.Builder fb = InitializeFragments.newBuilder();
-    for(final PlanFragment planFragment : fragments) {
-      fb.addFragment(planFragment);
-    }
-    final InitializeFragments initFrags = fb.build();
+    final InitializeFragments initFrags = SharedPlanFragments.pack(fragments);
 
     logger.debug("Sending remote fragments to \nNode:\n{} \n\nData:\n{}", assignment, initFrags);
     final FragmentSubmitListener listener =
@@ -21,13 +21,14 @@ import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.PhysicalPlanReader;
 import com.dremio.exec.planner.observer.AttemptObserver;
+import com.dremio.exec.planner.observer.AttemptObservers;
 import com.dremio.exec.planner.sql.handlers.SqlHandlerConfig;
 import com.dremio.exec.planner.sql.handlers.query.SqlToPlanHandler;
 import com.dremio.exec.work.foreman.ExecutionPlan;
 import com.dremio.exec.work.rpc.CoordToExecTunnelCreator;
 
 /**
- * Take a sql node and run as async command.
+ * Take a sql node and run as async command. If given a plan cache key, the plan is added to the plan cache.
  */
 public class HandlerToExec extends AsyncCommand<Object> {
 
@@ -38,6 +39,8 @@ public class HandlerToExec extends AsyncCommand<Object> {
   private final SqlToPlanHandler handler;
   private final String sql;
   private final SqlHandlerConfig config;
+  private final PlanCache planCache;
+  private final PlanCache.Key cacheKey;
 
   private ExecutionPlan exec;
 
@@ -49,7 +52,9 @@ public class HandlerToExec extends AsyncCommand<Object> {
       String sql,
       SqlNode sqlNode,
       SqlToPlanHandler handler,
-      SqlHandlerConfig config) {
+      SqlHandlerConfig config,
+      PlanCache planCache,
+      PlanCache.Key cacheKey) {
     super(context);
     this.tunnelCreator = tunnelCreator;
     this.reader = reader;
@@ -58,12 +63,23 @@ public class HandlerToExec extends AsyncCommand<Object> {
     this.sql = sql;
     this.handler = handler;
     this.config = config;
+    this.planCache = planCache;
+    this.cacheKey = cacheKey;
   }
 
   @Override
   public double plan() throws Exception {
-    observer.planStart(sql);
-    PhysicalPlan plan = handler.getPlan(config, sql, sqlNode);
+    final PhysicalPlan plan;
+    if (cacheKey == null) {
+      observer.planStart(sql);
+      plan = handler.getPlan(config, sql, sqlNode);
+    } else {
+      final PlanCache.Recorder recorder = new PlanCache.Recorder();
+      final AttemptObservers observers = AttemptObservers.of(observer, recorder);
+      observers.planStart(sql);
+      plan = handler.getPlan(config.cloneWithNewObserver(observers), sql, sqlNode);
+      planCache.put(cacheKey, context.getCatalog(), context.getNamespaceService(), plan, recorder);
+    }
     setQueueTypeFromPlan(plan);
     exec = ExecutionPlanCreator.getExecutionPlan(context, reader, observer, plan, getQueueType());
     observer.planCompleted(exec);
@@ -216,11 +216,12 @@ public class HandlerToPreparePlan implements CommandRunner<CreatePreparedStateme
     }
 
     @Override
-    public void planFindMaterializations(final long millisTaken) {
+    public void planFindMaterializations(final long millisTaken, final int numMaterializations,
+        final int numCandidates) {
       calls.add(new ObserverCall(){
         @Override
         public void doCall(AttemptObserver observer) {
-          observer.planFindMaterializations(millisTaken);
+          observer.planFindMaterializations(millisTaken, numMaterializations, numCandidates);
         }});
     }
 
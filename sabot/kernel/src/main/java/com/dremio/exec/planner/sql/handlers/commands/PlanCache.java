@@ -0,0 +1,468 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql.handlers.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexSubQuery;
+import org.apache.calcite.rex.RexVisitorImpl;
+import org.apache.calcite.sql.SqlOperator;
+
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.ops.QueryContext;
+import com.dremio.exec.physical.PhysicalPlan;
+import com.dremio.exec.physical.base.AbstractGroupScan;
+import com.dremio.exec.physical.base.Leaf;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.planner.observer.AbstractAttemptObserver;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.planner.sql.MaterializationDescriptor;
+import com.dremio.exec.server.options.OptionManager;
+import com.dremio.exec.server.options.OptionValidator;
+import com.dremio.exec.server.options.OptionValue;
+import com.dremio.service.namespace.NamespaceException;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.dremio.service.namespace.proto.NameSpaceContainer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+
+/**
+ * Coordinator wide cache of the physical plans of normal queries, so repeated queries (dashboards refreshing the
+ * same sql over and over) skip parsing, validation, reflection substitution and physical planning.
+ *
+ * Plans are keyed by the sql text, the user, the default schema, the options that differ from their defaults and the
+ * reflections available for substitution. A cached plan also records the versions of the datasets it read and of
+ * their sources: it is only reused if none of them changed since, so metadata refreshes and dataset or source changes
+ * invalidate it.
+ *
+ * Entries only hold the physical plan and its text and json representations for the query profile, not the planner
+ * state. Parallelization mutates the exchanges of the plan it runs on, so the cache keeps a private copy of the plan
+ * and every query reusing it gets its own copy. Entries are weighed by the size of the text and json plans and of the
+ * splits the plan's scans hold on to, and evicted in least recently used order.
+ *
+ * Only plans that don't depend on the time they were planned at are cached: plans using non deterministic or
+ * dynamic functions (RAND, NOW...) may have them constant folded. Plans storing their results aren't cached either,
+ * as they write to a per query table.
+ */
+public class PlanCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PlanCache.class);
+
+  private final Cache<Key, CachedPlan> plans;
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * @param maxWeight approximate maximum size of the cached plans, in bytes
+   */
+  public PlanCache(long maxWeight) {
+    this.plans = CacheBuilder.newBuilder()
+        .maximumWeight(maxWeight)
+        .weigher(new Weigher<Key, CachedPlan>() {
+          @Override
+          public int weigh(Key key, CachedPlan value) {
+            return value.weight;
+          }
+        })
+        // cached plans can be large, let GC release them as last resort before running OOM.
+        .softValues()
+        .build();
+  }
+
+  /**
+   * @return key of the given query, or null if the query plan can't be cached.
+   */
+  public static Key newKey(QueryContext context, String sql) {
+    final OptionManager options = context.getOptions();
+    if (!options.getOption(PlannerSettings.PLAN_CACHE)) {
+      return null;
+    }
+    final OptionValue storeResults = options.getOption(PlannerSettings.STORE_QUERY_RESULTS.getOptionName());
+    if (storeResults != null && storeResults.bool_val) {
+      return null;
+    }
+
+    final ImmutableSet.Builder<String> materializations = ImmutableSet.builder();
+    for (MaterializationDescriptor descriptor : context.getMaterializationProvider().get()) {
+      materializations.add(descriptor.getMaterializationId() + ":" + descriptor.getVersion());
+    }
+
+    final NamespaceKey defaultSchema = context.getSession().getDefaultSchemaPath();
+    return new Key(sql.trim(), context.getQueryUserName(), defaultSchema == null ? null : defaultSchema.toString(),
+        getChangedOptions(options), materializations.build());
+  }
+
+  /**
+   * @return values of the options which differ from their defaults, by lower case option name
+   */
+  public static ImmutableMap<String, Object> getChangedOptions(OptionManager options) {
+    // options iterate from the lowest to the highest level, last value wins.
+    final Map<String, Object> values = new HashMap<>();
+    for (OptionValue value : options) {
+      final OptionValidator validator = options.getValidator(value.name);
+      final OptionValue defaultValue = validator == null ? null : validator.getDefault();
+      if (defaultValue != null && defaultValue.getValue().equals(value.getValue())) {
+        values.remove(value.name.toLowerCase());
+      } else {
+        values.put(value.name.toLowerCase(), value.getValue());
+      }
+    }
+    return ImmutableMap.copyOf(values);
+  }
+
+  /**
+   * @return cached plan for the key, or null if there is none or it is stale.
+   */
+  public CachedPlan get(Key key, Catalog catalog, NamespaceService namespace) {
+    final CachedPlan cached = plans.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+
+    if (!isStillValid(cached, catalog, namespace)) {
+      logger.debug("Cached plan of query {} is stale, a dataset or source it reads changed.", key.sql);
+      plans.invalidate(key);
+      return null;
+    }
+    hits.incrementAndGet();
+    return cached;
+  }
+
+  private static boolean isStillValid(CachedPlan cached, Catalog catalog, NamespaceService namespace) {
+    try {
+      // go through the catalog, so expired metadata is refreshed and access is checked as if the query was planned.
+      for (Map.Entry<NamespaceKey, Long> dataset : cached.datasets.entrySet()) {
+        final DremioTable table = catalog.getTable(dataset.getKey());
+        if (table == null || table.getDatasetConfig() == null
+            || !dataset.getValue().equals(table.getDatasetConfig().getVersion())) {
+          return false;
+        }
+      }
+
+      final List<NameSpaceContainer> containers = namespace.getEntities(cached.sources.keySet().asList());
+      int i = 0;
+      for (Long version : cached.sources.values()) {
+        final NameSpaceContainer container = containers.get(i++);
+        if (container == null || !version.equals(container.getSource().getVersion())) {
+          return false;
+        }
+      }
+      return true;
+    } catch (NamespaceException | RuntimeException e) {
+      logger.debug("Unable to validate cached plan, it will be planned again.", e);
+      return false;
+    }
+  }
+
+  /**
+   * Cache the plan of a query, if the plan doesn't depend on the planning time and all the datasets it read are
+   * versioned.
+   */
+  public void put(Key key, Catalog catalog, NamespaceService namespace, PhysicalPlan plan, Recorder recorder)
+      throws ExecutionSetupException {
+    if (!recorder.isCacheable() || recorder.text == null || recorder.json == null) {
+      return;
+    }
+
+    final Map<NamespaceKey, Long> datasets = new LinkedHashMap<>();
+    final Set<NamespaceKey> roots = new LinkedHashSet<>();
+    for (DremioTable table : catalog.getAllRequestedTables()) {
+      final DatasetConfig dataset = table.getDatasetConfig();
+      if (dataset == null || dataset.getVersion() == null) {
+        // not stored in the namespace, no way to tell if it changed.
+        return;
+      }
+      final NamespaceKey path = new NamespaceKey(dataset.getFullPathList());
+      datasets.put(path, dataset.getVersion());
+      roots.add(new NamespaceKey(path.getRoot()));
+    }
+
+    final ImmutableMap.Builder<NamespaceKey, Long> sources = ImmutableMap.builder();
+    try {
+      final List<NamespaceKey> keys = ImmutableList.copyOf(roots);
+      final List<NameSpaceContainer> containers = namespace.getEntities(keys);
+      for (int i = 0; i < keys.size(); i++) {
+        final NameSpaceContainer container = containers.get(i);
+        if (container == null) {
+          return;
+        }
+        // spaces and homes only hold virtual datasets, which are versioned themselves.
+        if (container.getType() == NameSpaceContainer.Type.SOURCE) {
+          if (container.getSource().getVersion() == null) {
+            return;
+          }
+          sources.put(keys.get(i), container.getSource().getVersion());
+        }
+      }
+    } catch (NamespaceException e) {
+      logger.debug("Unable to cache plan of query {}.", key.sql, e);
+      return;
+    }
+
+    // the plan is parallelized for the current query once cached, keep a copy which never is.
+    final PhysicalPlan copy = copy(plan);
+    final long weight = 2L * (recorder.text.length() + recorder.json.length()) + getSplitsSize(copy);
+    plans.put(key, new CachedPlan(copy, recorder.text, recorder.json, ImmutableMap.copyOf(datasets),
+        sources.build(), (int) Math.min(weight, Integer.MAX_VALUE)));
+  }
+
+  /**
+   * @return copy of the plan whose operators, but the leaves, are new instances.
+   */
+  static PhysicalPlan copy(PhysicalPlan plan) throws ExecutionSetupException {
+    final List<PhysicalOperator> operators = new ArrayList<>();
+    copy(plan.getRoot(), new IdentityHashMap<PhysicalOperator, PhysicalOperator>(), operators);
+    return new PhysicalPlan(plan.getProperties(), operators);
+  }
+
+  private static PhysicalOperator copy(PhysicalOperator op, Map<PhysicalOperator, PhysicalOperator> copies,
+      List<PhysicalOperator> operators) throws ExecutionSetupException {
+    PhysicalOperator copy = copies.get(op);
+    if (copy != null) {
+      return copy;
+    }
+
+    if (op instanceof Leaf) {
+      // scans and receivers aren't changed by parallelization.
+      copy = op;
+    } else {
+      final List<PhysicalOperator> children = new ArrayList<>();
+      for (PhysicalOperator child : op) {
+        children.add(copy(child, copies, operators));
+      }
+      copy = op.getNewWithChildren(children);
+      copy.setCost(op.getCost());
+      copy.setOperatorId(op.getOperatorId());
+      if (op.isSingle()) {
+        copy.setAsSingle();
+      }
+    }
+    copies.put(op, copy);
+    operators.add(copy);
+    return copy;
+  }
+
+  /**
+   * @return approximate size of the splits held by the scans of the plan, in bytes
+   */
+  private static long getSplitsSize(PhysicalPlan plan) {
+    final LinkedBuffer buffer = LinkedBuffer.allocate();
+    long size = 0;
+    for (PhysicalOperator op : plan.getSortedOperators()) {
+      if (!(op instanceof AbstractGroupScan)) {
+        continue;
+      }
+      final Iterator<DatasetSplit> splits = ((AbstractGroupScan) op).getDataset().getSplits();
+      while (splits.hasNext()) {
+        size += ProtostuffIOUtil.toByteArray(splits.next(), DatasetSplit.getSchema(), buffer).length;
+        buffer.clear();
+      }
+    }
+    return size;
+  }
+
+  public long size() {
+    return plans.size();
+  }
+
+  /**
+   * @return number of queries which reused a cached plan.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Key of a cached plan.
+   */
+  public static final class Key {
+    private final String sql;
+    private final String username;
+    private final String defaultSchema;
+    private final Map<String, Object> options;
+    private final Set<String> materializations;
+
+    Key(String sql, String username, String defaultSchema, Map<String, Object> options, Set<String> materializations) {
+      this.sql = sql;
+      this.username = username;
+      this.defaultSchema = defaultSchema;
+      this.options = options;
+      this.materializations = materializations;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return sql.equals(other.sql)
+          && Objects.equals(username, other.username)
+          && Objects.equals(defaultSchema, other.defaultSchema)
+          && options.equals(other.options)
+          && materializations.equals(other.materializations);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, username, defaultSchema, options, materializations);
+    }
+  }
+
+  /**
+   * A cached physical plan, with the text and json plans reported in the profile of the queries reusing it.
+   */
+  public static final class CachedPlan {
+    private final PhysicalPlan plan;
+    private final String text;
+    private final String json;
+    private final ImmutableMap<NamespaceKey, Long> datasets;
+    private final ImmutableMap<NamespaceKey, Long> sources;
+    private final int weight;
+
+    CachedPlan(PhysicalPlan plan, String text, String json, ImmutableMap<NamespaceKey, Long> datasets,
+        ImmutableMap<NamespaceKey, Long> sources, int weight) {
+      this.plan = plan;
+      this.text = text;
+      this.json = json;
+      this.datasets = datasets;
+      this.sources = sources;
+      this.weight = weight;
+    }
+
+    /**
+     * @return a copy of the cached plan, for the query reusing it to parallelize.
+     */
+    public PhysicalPlan newPlan() throws ExecutionSetupException {
+      return copy(plan);
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public String getJson() {
+      return json;
+    }
+  }
+
+  /**
+   * Captures the text and json plans of a query, and checks whether its plan can be reused. Unlike the observer of
+   * prepared statements, it doesn't keep the planner or any relational tree alive.
+   */
+  public static class Recorder extends AbstractAttemptObserver {
+    private boolean cacheable = true;
+    private String text;
+    private String json;
+
+    @Override
+    public void planConvertedToRel(RelNode converted, long millisTaken) {
+      if (cacheable && !isTimeIndependent(converted)) {
+        cacheable = false;
+      }
+    }
+
+    @Override
+    public void planText(String text, long millisTaken) {
+      this.text = text;
+    }
+
+    @Override
+    public void planJsonPlan(String text) {
+      this.json = text;
+    }
+
+    public boolean isCacheable() {
+      return cacheable;
+    }
+  }
+
+  /**
+   * @return true if the plan doesn't use any non deterministic or dynamic function.
+   */
+  public static boolean isTimeIndependent(RelNode rel) {
+    final List<RelNode> unchecked = new ArrayList<>();
+    unchecked.add(rel);
+    final FunctionFinder finder = new FunctionFinder(unchecked);
+    while (!unchecked.isEmpty()) {
+      new RelVisitor() {
+        @Override
+        public void visit(RelNode node, int ordinal, RelNode parent) {
+          for (RexNode exp : node.getChildExps()) {
+            exp.accept(finder);
+          }
+          super.visit(node, ordinal, parent);
+        }
+      }.go(unchecked.remove(unchecked.size() - 1));
+      if (finder.found) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class FunctionFinder extends RexVisitorImpl<Void> {
+    private final List<RelNode> subQueries;
+    private boolean found;
+
+    FunctionFinder(List<RelNode> subQueries) {
+      super(true);
+      this.subQueries = subQueries;
+    }
+
+    @Override
+    public Void visitCall(RexCall call) {
+      final SqlOperator operator = call.getOperator();
+      if (!operator.isDeterministic() || operator.isDynamicFunction()) {
+        found = true;
+      }
+      return super.visitCall(call);
+    }
+
+    @Override
+    public Void visitSubQuery(RexSubQuery subQuery) {
+      subQueries.add(subQuery.rel);
+      return super.visitSubQuery(subQuery);
+    }
+  }
+}
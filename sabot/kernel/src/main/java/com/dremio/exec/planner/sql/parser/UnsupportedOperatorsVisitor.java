@@ -163,6 +163,15 @@ public class UnsupportedOperatorsVisitor extends SqlShuttle {
                 throw new UnsupportedOperationException();
               }
             }
+
+            // sliding frames are only evaluated for aggregate functions
+            if (("FIRST_VALUE".equals(functionName) || "LAST_VALUE".equals(functionName))
+                && over.getOperandList().get(1) instanceof SqlWindow
+                && isSlidingFrame((SqlWindow) over.getOperandList().get(1))) {
+              unsupportedOperatorCollector.setException(SqlUnsupportedException.ExceptionType.FUNCTION,
+                "Function " + functionName + " doesn't support ROWS BETWEEN <n> PRECEDING AND CURRENT ROW frames");
+              throw new UnsupportedOperationException();
+            }
           }
         }
       }
@@ -200,6 +209,14 @@ public class UnsupportedOperatorsVisitor extends SqlShuttle {
         isSupported = true;
       }
 
+      // ROWS BETWEEN <n> PRECEDING AND CURRENT ROW
+      // ROWS BETWEEN CURRENT ROW AND CURRENT ROW
+      // are supported with and without the ORDER BY clause
+      if (isSlidingFrame(window)
+          && context.getOptions().getOption(ExecConstants.ENABLE_SLIDING_WINDOW_FRAMES).bool_val) {
+        isSupported = true;
+      }
+
       // RANGE BETWEEN CURRENT ROW AND CURRENT ROW
       // is supported with and without an ORDER BY clause
       if (!window.isRows() &&
@@ -352,6 +369,37 @@ public class UnsupportedOperatorsVisitor extends SqlShuttle {
     return sqlCall.getOperator().acceptCall(this, sqlCall);
   }
 
+  /**
+   * @return true if the window frame is ROWS BETWEEN &lt;n&gt; PRECEDING AND CURRENT ROW, with n a numeric literal, or
+   * ROWS BETWEEN CURRENT ROW AND CURRENT ROW
+   */
+  private static boolean isSlidingFrame(SqlWindow window) {
+    final SqlNode lowerBound = window.getLowerBound();
+    final SqlNode upperBound = window.getUpperBound();
+    if (!window.isRows() || lowerBound == null || (upperBound != null && !SqlWindow.isCurrentRow(upperBound))) {
+      return false;
+    }
+
+    if (SqlWindow.isCurrentRow(lowerBound)) {
+      return true;
+    }
+
+    if (lowerBound.getKind() != SqlKind.PRECEDING || SqlWindow.isUnboundedPreceding(lowerBound)) {
+      return false;
+    }
+
+    final SqlNode offset = ((SqlCall) lowerBound).operand(0);
+    if (!(offset instanceof SqlNumericLiteral) || !((SqlNumericLiteral) offset).isExact()) {
+      return false;
+    }
+    try {
+      return ((SqlNumericLiteral) offset).intValue(true) >= 0;
+    } catch (AssertionError e) {
+      // we only support offset as an integer
+      return false;
+    }
+  }
+
   private void checkRollupCubeGrpSets(SqlSelect sqlSelect) {
     final ExprFinder rollupCubeGrpSetsFinder = new ExprFinder(RollupCubeGrpSets);
     sqlSelect.accept(rollupCubeGrpSetsFinder);
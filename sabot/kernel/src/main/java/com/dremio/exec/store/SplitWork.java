@@ -17,7 +17,9 @@ package com.dremio.exec.store;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.physical.EndpointAffinity;
@@ -28,19 +30,28 @@ import com.dremio.exec.store.schedule.CompleteWork;
 import com.dremio.service.namespace.dataset.proto.Affinity;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 
+/**
+ * Unit of work of a scan: one dataset split, or several small splits combined to be read by the same fragment.
+ */
 public class SplitWork implements CompleteWork {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SplitWork.class);
 
-  private final DatasetSplit split;
+  private final List<DatasetSplit> splits;
   private final ExecutionNodeMap nodeMap;
   private final DistributionAffinity affinityType;
 
   public SplitWork(DatasetSplit split, ExecutionNodeMap nodeMap, DistributionAffinity affinityType) {
+    this(ImmutableList.of(split), nodeMap, affinityType);
+  }
+
+  public SplitWork(List<DatasetSplit> splits, ExecutionNodeMap nodeMap, DistributionAffinity affinityType) {
     super();
-    this.split = split;
+    Preconditions.checkArgument(!splits.isEmpty(), "split work requires at least one split");
+    this.splits = ImmutableList.copyOf(splits);
     this.nodeMap = nodeMap;
     this.affinityType = affinityType;
   }
@@ -52,25 +63,47 @@ public class SplitWork implements CompleteWork {
 
   @Override
   public long getTotalBytes() {
-    return split.getSize();
+    if (splits.size() == 1) {
+      return splits.get(0).getSize();
+    }
+    long totalBytes = 0;
+    for (DatasetSplit split : splits) {
+      totalBytes += split.getSize();
+    }
+    return totalBytes;
   }
 
-
+  /**
+   * @return the split of this work, which must not be combined. Scans which combine splits use {@link #getSplits()}.
+   */
   public DatasetSplit getSplit() {
-    return split;
+    Preconditions.checkState(splits.size() == 1, "split work combines %s splits", splits.size());
+    return splits.get(0);
+  }
+
+  public List<DatasetSplit> getSplits() {
+    return splits;
   }
 
   @Override
   public List<EndpointAffinity> getAffinity() {
-    if(split.getAffinitiesList() == null){
-      return ImmutableList.<EndpointAffinity>of();
+    // affinity factors are the number of bytes on each host, sum them for combined splits.
+    final Map<String, Double> hostAffinities = new LinkedHashMap<>();
+    for (DatasetSplit split : splits) {
+      if (split.getAffinitiesList() == null) {
+        continue;
+      }
+      for (Affinity a : split.getAffinitiesList()) {
+        final Double factor = hostAffinities.get(a.getHost());
+        hostAffinities.put(a.getHost(), factor == null ? a.getFactor() : factor + a.getFactor());
+      }
     }
 
     List<EndpointAffinity> endpoints = new ArrayList<>();
-    for(Affinity a : split.getAffinitiesList()){
-      NodeEndpoint endpoint = nodeMap.getEndpoint(a.getHost());
+    for(Map.Entry<String, Double> a : hostAffinities.entrySet()){
+      NodeEndpoint endpoint = nodeMap.getEndpoint(a.getKey());
       if(endpoint != null){
-        endpoints.add(new EndpointAffinity(endpoint, a.getFactor(), affinityType == DistributionAffinity.HARD, affinityType == DistributionAffinity.HARD ? 1 : Integer.MAX_VALUE));
+        endpoints.add(new EndpointAffinity(endpoint, a.getValue(), affinityType == DistributionAffinity.HARD, affinityType == DistributionAffinity.HARD ? 1 : Integer.MAX_VALUE));
       } else {
         if (affinityType == DistributionAffinity.HARD) {
           // Throw an error if there is no endpoint on host
@@ -78,7 +111,7 @@ public class SplitWork implements CompleteWork {
               .message("No executors are available for data with hard affinity. " +
                   "You may consider using \"registration.publish-host\" property if your network rules change.")
               .addContext("available executors %s", nodeMap.getHosts())
-              .addContext("data affinity", a.getHost())
+              .addContext("data affinity", a.getKey())
               .build(logger);
         }
       }
@@ -18,9 +18,7 @@ package com.dremio.exec.store.avro;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.vector.complex.impl.MapOrListWriterImpl;
@@ -28,10 +26,8 @@ import org.apache.arrow.vector.complex.impl.VectorContainerWriter;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Type;
 import org.apache.avro.file.DataFileReader;
-import org.apache.avro.generic.GenericArray;
-import org.apache.avro.generic.GenericContainer;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
 import org.apache.avro.mapred.FsInput;
 import org.apache.avro.util.Utf8;
 import org.apache.hadoop.conf.Configuration;
@@ -43,7 +39,6 @@ import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.vector.complex.fn.FieldSelection;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.scan.OutputMutator;
-import com.google.common.base.Charsets;
 import com.google.common.base.Stopwatch;
 
 import io.netty.buffer.ArrowBuf;
@@ -64,7 +59,7 @@ public class AvroRecordReader extends AbstractRecordReader {
   private ArrowBuf buffer;
   private VectorContainerWriter writer;
 
-  private DataFileReader<GenericContainer> reader = null;
+  private DataFileReader<Object> reader = null;
   private final Configuration fsConf;
 
 
@@ -89,7 +84,7 @@ public class AvroRecordReader extends AbstractRecordReader {
     writer = new VectorContainerWriter(output);
 
     try {
-      reader = new DataFileReader<>(new FsInput(hadoop, fsConf), new GenericDatumReader<GenericContainer>());
+      reader = new DataFileReader<>(new FsInput(hadoop, fsConf), new ArrowDatumReader());
       logger.debug("Processing file : {}, start position : {}, end position : {} ", hadoop, start, end);
       reader.sync(this.start);
     } catch (IOException e) {
@@ -113,12 +108,9 @@ public class AvroRecordReader extends AbstractRecordReader {
     writer.reset();
 
     try {
-      for (GenericContainer container = null;
-           recordCount < numRowsPerBatch && reader.hasNext() && !reader.pastSync(end);
-           recordCount++) {
+      for (; recordCount < numRowsPerBatch && reader.hasNext() && !reader.pastSync(end); recordCount++) {
         writer.setPosition(recordCount);
-        container = reader.next(container);
-        processRecord(container, container.getSchema());
+        reader.next(null);
       }
 
       writer.setValueCount(recordCount);
@@ -131,158 +123,234 @@ public class AvroRecordReader extends AbstractRecordReader {
     return recordCount;
   }
 
-  private void processRecord(final GenericContainer container, final Schema schema) {
+  /**
+   * Decodes records straight from their binary encoding into the vectors, without materializing them. Values of
+   * strings and bytes are decoded into reused holders, and fields that aren't projected are skipped without being
+   * decoded.
+   */
+  private class ArrowDatumReader implements DatumReader<Object> {
+    private Schema schema;
+    private Utf8 utf8 = new Utf8();
+    private ByteBuffer bytes;
+
+    @Override
+    public void setSchema(Schema schema) {
+      this.schema = schema;
+    }
 
-    final Schema.Type type = schema.getType();
+    @Override
+    public Object read(Object reuse, Decoder in) throws IOException {
+      final Schema.Type type = schema.getType();
 
-    switch (type) {
-      case RECORD:
-        process(container, schema, null, new MapOrListWriterImpl(writer.rootAsMap()), fieldSelection);
-        break;
-      default:
-        throw new RuntimeException("Root object must be record type. Found: " + type);
+      switch (type) {
+        case RECORD:
+          process(in, schema, null, new MapOrListWriterImpl(writer.rootAsMap()), fieldSelection);
+          break;
+        default:
+          throw new RuntimeException("Root object must be record type. Found: " + type);
+      }
+      return null;
     }
-  }
 
-  private void process(final Object value, final Schema schema, final String fieldName, MapOrListWriterImpl writer, FieldSelection fieldSelection) {
-    if (value == null) {
-      return;
-    }
-    final Schema.Type type = schema.getType();
-    switch (type) {
-      case RECORD:
-        // list field of MapOrListWriter will be non null when we want to store array of maps/records.
-        MapOrListWriterImpl _writer = writer;
-
-        for (final Schema.Field field : schema.getFields()) {
-          if (fieldSelection.getChild(field.name()).isNeverValid()) {
-            continue;
+    private void process(final Decoder in, final Schema schema, final String fieldName, final MapOrListWriterImpl writer,
+        final FieldSelection fieldSelection) throws IOException {
+      final Schema.Type type = schema.getType();
+      switch (type) {
+        case RECORD:
+          for (final Schema.Field field : schema.getFields()) {
+            final FieldSelection childSelection = fieldSelection.getChild(field.name());
+            if (childSelection.isNeverValid()) {
+              skip(in, field.schema());
+              continue;
+            }
+            boolean isMap = field.schema().getType() == Schema.Type.RECORD ||
+                (field.schema().getType() == Schema.Type.UNION &&
+                field.schema().getTypes().get(0).getType() == Schema.Type.NULL &&
+                field.schema().getTypes().get(1).getType() == Schema.Type.RECORD);
+            if (isMap) {
+              final MapOrListWriterImpl mapWriter = (MapOrListWriterImpl) writer.map(field.name());
+              mapWriter.start();
+              process(in, field.schema(), field.name(), mapWriter, childSelection);
+              mapWriter.end();
+            } else {
+              process(in, field.schema(), field.name(), writer, childSelection);
+            }
           }
-          boolean isMap = field.schema().getType() == Schema.Type.RECORD ||
-              (field.schema().getType() == Schema.Type.UNION &&
-              field.schema().getTypes().get(0).getType() == Schema.Type.NULL &&
-              field.schema().getTypes().get(1).getType() == Schema.Type.RECORD);
-          if (isMap) {
-              _writer = (MapOrListWriterImpl) writer.map(field.name());
-              _writer.start();
+          break;
+        case ARRAY: {
+          assert fieldName != null;
+          final Schema elementSchema = schema.getElementType();
+          final Type elementType = elementSchema.getType();
+          final MapOrListWriterImpl listWriter;
+          if (elementType == Schema.Type.RECORD || elementType == Schema.Type.MAP){
+            listWriter = (MapOrListWriterImpl) writer.list(fieldName).listoftmap(fieldName);
+          } else {
+            listWriter = (MapOrListWriterImpl) writer.list(fieldName);
           }
-
-          process(((GenericRecord) value).get(field.name()), field.schema(), field.name(), _writer, fieldSelection.getChild(field.name()));
-
-          if (isMap) {
-            _writer.end();
+          listWriter.start();
+          final FieldSelection elementSelection = fieldSelection.getChild(fieldName);
+          for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+            for (long i = 0; i < n; i++) {
+              process(in, elementSchema, fieldName, listWriter, elementSelection);
+            }
           }
+          listWriter.end();
+          break;
         }
-        break;
-      case ARRAY:
-        assert fieldName != null;
-        final GenericArray<?> array = (GenericArray<?>) value;
-        Schema elementSchema = array.getSchema().getElementType();
-        Type elementType = elementSchema.getType();
-        if (elementType == Schema.Type.RECORD || elementType == Schema.Type.MAP){
-          writer = (MapOrListWriterImpl) writer.list(fieldName).listoftmap(fieldName);
-        } else {
-          writer = (MapOrListWriterImpl) writer.list(fieldName);
-        }
-        writer.start();
-        for (final Object o : array) {
-          process(o, elementSchema, fieldName, writer, fieldSelection.getChild(fieldName));
-        }
-        writer.end();
-        break;
-      case UNION:
-        // currently supporting only nullable union (optional fields) like ["null", "some-type"].
-        if (schema.getTypes().get(0).getType() != Schema.Type.NULL) {
-          throw new UnsupportedOperationException("Avro union type must be of the format : [\"null\", \"some-type\"]");
-        }
-        process(value, schema.getTypes().get(1), fieldName, writer, fieldSelection);
-        break;
-      case MAP:
-        @SuppressWarnings("unchecked")
-        final HashMap<Object, Object> map = (HashMap<Object, Object>) value;
-        Schema valueSchema = schema.getValueType();
-        writer = (MapOrListWriterImpl) writer.map(fieldName);
-        writer.start();
-        for (Entry<Object, Object> entry : map.entrySet()) {
-          process(entry.getValue(), valueSchema, entry.getKey().toString(), writer, fieldSelection.getChild(entry.getKey().toString()));
-        }
-        writer.end();
-        break;
-      case FIXED:
-        throw new UnsupportedOperationException("Unimplemented type: " + type.toString());
-      case ENUM:  // Enum symbols are strings
-      case NULL:  // Treat null type as a primitive
-      default:
-        assert fieldName != null;
-
-        if (writer.isMapWriter()) {
-          if (fieldSelection.isNeverValid()) {
+        case UNION: {
+          // currently supporting only nullable union (optional fields) like ["null", "some-type"].
+          if (schema.getTypes().get(0).getType() != Schema.Type.NULL) {
+            throw new UnsupportedOperationException("Avro union type must be of the format : [\"null\", \"some-type\"]");
+          }
+          final Schema branch = schema.getTypes().get(in.readIndex());
+          if (branch.getType() == Schema.Type.NULL) {
             break;
           }
+          process(in, branch, fieldName, writer, fieldSelection);
+          break;
         }
+        case MAP: {
+          final Schema valueSchema = schema.getValueType();
+          final MapOrListWriterImpl mapWriter = (MapOrListWriterImpl) writer.map(fieldName);
+          mapWriter.start();
+          for (long n = in.readMapStart(); n != 0; n = in.mapNext()) {
+            for (long i = 0; i < n; i++) {
+              final String key = in.readString(utf8).toString();
+              process(in, valueSchema, key, mapWriter, fieldSelection.getChild(key));
+            }
+          }
+          mapWriter.end();
+          break;
+        }
+        case FIXED:
+          throw new UnsupportedOperationException("Unimplemented type: " + type.toString());
+        case ENUM:  // Enum symbols are strings
+        case NULL:  // Treat null type as a primitive
+        default:
+          assert fieldName != null;
+
+          if (writer.isMapWriter()) {
+            if (fieldSelection.isNeverValid()) {
+              skip(in, schema);
+              break;
+            }
+          }
 
-        processPrimitive(value, schema.getType(), fieldName, writer);
-        break;
+          processPrimitive(in, schema, fieldName, writer);
+          break;
+      }
     }
 
-  }
-
-  private void processPrimitive(final Object value, final Schema.Type type, final String fieldName,
-                                final MapOrListWriterImpl writer) {
-    if (value == null) {
-      return;
+    private void processPrimitive(final Decoder in, final Schema schema, final String fieldName,
+                                  final MapOrListWriterImpl writer) throws IOException {
+      final Schema.Type type = schema.getType();
+      switch (type) {
+        case STRING:
+          utf8 = in.readString(utf8);
+          ensure(utf8.getByteLength());
+          buffer.setBytes(0, utf8.getBytes(), 0, utf8.getByteLength());
+          writer.varChar(fieldName).writeVarChar(0, utf8.getByteLength(), buffer);
+          break;
+        case INT:
+          writer.integer(fieldName).writeInt(in.readInt());
+          break;
+        case LONG:
+          writer.bigInt(fieldName).writeBigInt(in.readLong());
+          break;
+        case FLOAT:
+          writer.float4(fieldName).writeFloat4(in.readFloat());
+          break;
+        case DOUBLE:
+          writer.float8(fieldName).writeFloat8(in.readDouble());
+          break;
+        case BOOLEAN:
+          writer.bit(fieldName).writeBit(in.readBoolean() ? 1 : 0);
+          break;
+        case BYTES:
+          bytes = in.readBytes(bytes);
+          final int length = bytes.remaining();
+          ensure(length);
+          buffer.setBytes(0, bytes.duplicate());
+          writer.binary(fieldName).writeVarBinary(0, length, buffer);
+          break;
+        case NULL:
+          // Nothing to do for null type
+          in.readNull();
+          break;
+        case ENUM:
+          final String symbol = schema.getEnumSymbols().get(in.readEnum());
+          final byte[] b = symbol.getBytes(StandardCharsets.UTF_8);
+          ensure(b.length);
+          buffer.setBytes(0, b);
+          writer.varChar(fieldName).writeVarChar(0, b.length, buffer);
+
+          break;
+        default:
+          throw new RuntimeException("Unhandled Avro type: " + type.toString());
+      }
     }
 
-    switch (type) {
-      case STRING:
-        byte[] binary = null;
-        final int length;
-        if (value instanceof Utf8) {
-          binary = ((Utf8) value).getBytes();
-          length = ((Utf8) value).getByteLength();
-        } else {
-          binary = value.toString().getBytes(Charsets.UTF_8);
-          length = binary.length;
-        }
-        ensure(length);
-        buffer.setBytes(0, binary);
-        writer.varChar(fieldName).writeVarChar(0, length, buffer);
-        break;
-      case INT:
-        writer.integer(fieldName).writeInt((Integer) value);
-        break;
-      case LONG:
-        writer.bigInt(fieldName).writeBigInt((Long) value);
-        break;
-      case FLOAT:
-        writer.float4(fieldName).writeFloat4((Float) value);
-        break;
-      case DOUBLE:
-        writer.float8(fieldName).writeFloat8((Double) value);
-        break;
-      case BOOLEAN:
-        writer.bit(fieldName).writeBit((Boolean) value ? 1 : 0);
-        break;
-      case BYTES:
-        final ByteBuffer buf = (ByteBuffer) value;
-        length = buf.remaining();
-        ensure(length);
-        buffer.setBytes(0, buf);
-        writer.binary(fieldName).writeVarBinary(0, length, buffer);
-        break;
-      case NULL:
-        // Nothing to do for null type
-        break;
-      case ENUM:
-        final String symbol = value.toString();
-        final byte[] b = symbol.getBytes(StandardCharsets.UTF_8);
-        ensure(b.length);
-        buffer.setBytes(0, b);
-        writer.varChar(fieldName).writeVarChar(0, b.length, buffer);
-
-        break;
-      default:
-        throw new RuntimeException("Unhandled Avro type: " + type.toString());
+    /**
+     * Skip the encoded value of the given schema.
+     */
+    private void skip(final Decoder in, final Schema schema) throws IOException {
+      switch (schema.getType()) {
+        case RECORD:
+          for (final Schema.Field field : schema.getFields()) {
+            skip(in, field.schema());
+          }
+          break;
+        case ARRAY:
+          for (long n = in.skipArray(); n != 0; n = in.skipArray()) {
+            for (long i = 0; i < n; i++) {
+              skip(in, schema.getElementType());
+            }
+          }
+          break;
+        case MAP:
+          for (long n = in.skipMap(); n != 0; n = in.skipMap()) {
+            for (long i = 0; i < n; i++) {
+              in.skipString();
+              skip(in, schema.getValueType());
+            }
+          }
+          break;
+        case UNION:
+          skip(in, schema.getTypes().get(in.readIndex()));
+          break;
+        case FIXED:
+          in.skipFixed(schema.getFixedSize());
+          break;
+        case ENUM:
+          in.readEnum();
+          break;
+        case STRING:
+          in.skipString();
+          break;
+        case BYTES:
+          in.skipBytes();
+          break;
+        case INT:
+          in.readInt();
+          break;
+        case LONG:
+          in.readLong();
+          break;
+        case FLOAT:
+          in.readFloat();
+          break;
+        case DOUBLE:
+          in.readDouble();
+          break;
+        case BOOLEAN:
+          in.readBoolean();
+          break;
+        case NULL:
+          in.readNull();
+          break;
+        default:
+          throw new RuntimeException("Unhandled Avro type: " + schema.getType().toString());
+      }
     }
   }
 
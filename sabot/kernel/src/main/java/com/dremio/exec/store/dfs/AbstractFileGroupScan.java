@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.store.dfs;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -23,18 +24,77 @@ import java.util.Set;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.exec.physical.base.AbstractGroupScan;
 import com.dremio.exec.planner.fragment.DistributionAffinity;
+import com.dremio.exec.planner.fragment.ExecutionNodeMap;
+import com.dremio.exec.store.SplitWork;
 import com.dremio.exec.store.TableMetadata;
 import com.dremio.service.namespace.capabilities.SourceCapabilities;
 import com.dremio.service.namespace.dataset.proto.Affinity;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Iterators;
 
 public abstract class AbstractFileGroupScan extends AbstractGroupScan {
 
   private final DistributionAffinity affinity;
+  private final Supplier<List<List<DatasetSplit>>> combinedSplits;
 
   public AbstractFileGroupScan(TableMetadata dataset, List<SchemaPath> columns) {
+    this(dataset, columns, null);
+  }
+
+  /**
+   * @param combiner combines small splits into a single unit of work, or null to keep one unit of work per split.
+   *                 Splits are only combined for sources with soft affinity.
+   */
+  public AbstractFileGroupScan(final TableMetadata dataset, List<SchemaPath> columns, final SplitCombiner combiner) {
     super(dataset, columns);
     this.affinity = dataset.getStoragePluginId().getCapabilities().getCapability(SourceCapabilities.REQUIRES_HARD_AFFINITY) ? DistributionAffinity.HARD : DistributionAffinity.SOFT;
+    if (combiner == null || affinity == DistributionAffinity.HARD) {
+      this.combinedSplits = null;
+    } else {
+      this.combinedSplits = Suppliers.memoize(new Supplier<List<List<DatasetSplit>>>() {
+        @Override
+        public List<List<DatasetSplit>> get() {
+          return combiner.combine(dataset.getSplits());
+        }
+      });
+    }
+  }
+
+  @Override
+  public Iterator<SplitWork> getSplits(final ExecutionNodeMap nodeMap) {
+    if (combinedSplits == null) {
+      return super.getSplits(nodeMap);
+    }
+    return Iterators.transform(combinedSplits.get().iterator(), new Function<List<DatasetSplit>, SplitWork>() {
+      @Override
+      public SplitWork apply(List<DatasetSplit> splits) {
+        return new SplitWork(splits, nodeMap, affinity);
+      }
+    });
+  }
+
+  @Override
+  @JsonIgnore
+  public int getMaxParallelizationWidth() {
+    if (combinedSplits == null) {
+      return super.getMaxParallelizationWidth();
+    }
+    return combinedSplits.get().size();
+  }
+
+  /**
+   * @return the dataset splits of the given units of work.
+   */
+  protected static List<DatasetSplit> getDatasetSplits(List<SplitWork> work) {
+    final List<DatasetSplit> splits = new ArrayList<>(work.size());
+    for (SplitWork split : work) {
+      splits.addAll(split.getSplits());
+    }
+    return splits;
   }
 
   @Override
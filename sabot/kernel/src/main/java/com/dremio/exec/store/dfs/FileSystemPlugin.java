@@ -46,6 +46,7 @@ import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.security.AccessControlException;
 import org.apache.parquet.Preconditions;
 
+import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.LogicalPlanPersistence;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.logical.FormatPluginConfig;
@@ -71,6 +72,7 @@ import com.dremio.exec.store.SplitsPointer;
 import com.dremio.exec.store.StoragePlugin;
 import com.dremio.exec.store.StoragePluginRulesFactory;
 import com.dremio.exec.store.TimedRunnable;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache;
 import com.dremio.exec.util.ImpersonationUtil;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.service.namespace.NamespaceException;
@@ -132,6 +134,7 @@ public class FileSystemPlugin implements StoragePlugin {
   private ArrayList<FormatMatcher> matchers;
   private List<FormatMatcher> dropFileMatchers;
   private CompressionCodecFactory codecFactory;
+  private GlobalDictionaryCache dictionaryCache;
 
   public FileSystemPlugin(final FileSystemConf<?, ?> config, final SabotContext context, final String name, FileSystemWrapper fs, Provider<StoragePluginId> idProvider) {
     this.name = name;
@@ -742,8 +745,25 @@ public class FileSystemPlugin implements StoragePlugin {
     return context;
   }
 
+  /**
+   * @return the cache of global dictionaries of this source's datasets, shared by all the fragments running on this
+   * node.
+   */
+  public synchronized GlobalDictionaryCache getDictionaryCache() {
+    if (dictionaryCache == null) {
+      dictionaryCache = new GlobalDictionaryCache(context.getAllocator());
+    }
+    return dictionaryCache;
+  }
+
   @Override
-  public void close() {
+  public void close() throws Exception {
+    final GlobalDictionaryCache cache;
+    synchronized (this) {
+      cache = dictionaryCache;
+      dictionaryCache = null;
+    }
+    AutoCloseables.close(cache);
   }
 
   public boolean createView(NamespaceKey key, View view, SchemaConfig schemaConfig) throws IOException {
@@ -306,4 +306,63 @@ public class MetadataUtils {
 
     return SearchQueryUtils.or(SearchQueryUtils.and(filterQueries), partitionColumnNotDefinedQuery);
   }
+
+  /**
+   * Build a query matching the splits whose value range of the field (see
+   * {@link DatasetSplitConverter#buildRangeKey}) overlaps the values passing the filter. Splits without a value range
+   * for the field always match.
+   *
+   * @return the query, or null if splits can't be pruned on the filter
+   */
+  @Nullable
+  public static SearchQuery toSplitsRangeQuery(FilterProperties filter, Field field) {
+    Preconditions.checkNotNull(field);
+
+    switch (CompleteType.fromField(field).toMinorType()) {
+      case TINYINT:
+      case SMALLINT:
+      case INT:
+      case BIGINT:
+        break;
+      default:
+        return null;
+    }
+
+    switch (filter.getKind()) {
+      case EQUALS:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        break;
+      default:
+        return null;
+    }
+
+    final Object literalValue = filter.getLiteral().getValue();
+    if (!(literalValue instanceof BigDecimal)) {
+      return null;
+    }
+    final long value;
+    try {
+      // rounding a fractional literal would change which values pass the filter
+      value = ((BigDecimal) literalValue).longValueExact();
+    } catch (ArithmeticException e) {
+      return null;
+    }
+
+    final RangeQueryInput rangeQueryInput = new RangeQueryInput(value, filter.getKind());
+    final String minKey = DatasetSplitConverter.buildRangeKey(false, FieldType.LONG, field.getName());
+    final String maxKey = DatasetSplitConverter.buildRangeKey(true, FieldType.LONG, field.getName());
+    final List<SearchQuery> boundQueries = Lists.newArrayList();
+    // the smallest value of the split must not be above the upper bound of the filter, and its largest value must
+    // not be below its lower bound.
+    if (rangeQueryInput.max != null) {
+      boundQueries.add(SearchQueryUtils.newRangeLong(minKey, null, (Long) rangeQueryInput.max, false, rangeQueryInput.includeMax));
+    }
+    if (rangeQueryInput.min != null) {
+      boundQueries.add(SearchQueryUtils.newRangeLong(maxKey, (Long) rangeQueryInput.min, null, rangeQueryInput.includeMin, false));
+    }
+    return SearchQueryUtils.or(SearchQueryUtils.and(boundQueries), SearchQueryUtils.newDoesNotExistQuery(minKey));
+  }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.service.namespace.dataset.proto.Affinity;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Packs small file splits into combined units of work, so directories of many small files don't produce one unit of
+ * work, and one fragment assignment, per file.
+ *
+ * Splits smaller than the target size are grouped by the host holding most of their data (splits without affinity
+ * form their own group), then packed in order into units of up to the target size and the maximum number of splits.
+ * Combined units only contain splits local to the same host, so soft affinity assignment still reads them locally.
+ * Splits of at least the target size are left alone.
+ */
+public final class SplitCombiner {
+
+  private final long targetSize;
+  private final int maxSplits;
+
+  /**
+   * @param targetSize maximum size of a combined unit of work, splits of at least this size are not combined
+   * @param maxSplits maximum number of splits in a combined unit of work
+   */
+  public SplitCombiner(long targetSize, int maxSplits) {
+    Preconditions.checkArgument(targetSize > 0, "target size must be positive");
+    Preconditions.checkArgument(maxSplits > 0, "max splits must be positive");
+    this.targetSize = targetSize;
+    this.maxSplits = maxSplits;
+  }
+
+  /**
+   * @return combiner configured by the planner settings, or null if combining is disabled.
+   */
+  public static SplitCombiner create(PlannerSettings settings) {
+    final long targetSize = settings.getSplitCombineTargetSize();
+    if (targetSize == 0) {
+      return null;
+    }
+    return new SplitCombiner(targetSize, settings.getSplitCombineMaxSplits());
+  }
+
+  public List<List<DatasetSplit>> combine(Iterator<DatasetSplit> splits) {
+    final List<List<DatasetSplit>> units = new ArrayList<>();
+    final Map<String, List<DatasetSplit>> smallSplitsByHost = new LinkedHashMap<>();
+
+    while (splits.hasNext()) {
+      final DatasetSplit split = splits.next();
+      if (split.getSize() >= targetSize) {
+        units.add(ImmutableList.of(split));
+        continue;
+      }
+
+      final String host = primaryHost(split);
+      List<DatasetSplit> hostSplits = smallSplitsByHost.get(host);
+      if (hostSplits == null) {
+        hostSplits = new ArrayList<>();
+        smallSplitsByHost.put(host, hostSplits);
+      }
+      hostSplits.add(split);
+    }
+
+    for (List<DatasetSplit> hostSplits : smallSplitsByHost.values()) {
+      List<DatasetSplit> unit = new ArrayList<>();
+      long unitSize = 0;
+      for (DatasetSplit split : hostSplits) {
+        if (!unit.isEmpty() && (unitSize + split.getSize() > targetSize || unit.size() >= maxSplits)) {
+          units.add(unit);
+          unit = new ArrayList<>();
+          unitSize = 0;
+        }
+        unit.add(split);
+        unitSize += split.getSize();
+      }
+      if (!unit.isEmpty()) {
+        units.add(unit);
+      }
+    }
+    return units;
+  }
+
+  /**
+   * @return host with the highest affinity for the split, or an empty string if the split has no affinity.
+   */
+  private static String primaryHost(DatasetSplit split) {
+    String host = "";
+    double factor = Double.NEGATIVE_INFINITY;
+    if (split.getAffinitiesList() != null) {
+      for (Affinity a : split.getAffinitiesList()) {
+        if (a.getFactor() > factor) {
+          host = a.getHost();
+          factor = a.getFactor();
+        }
+      }
+    }
+    return host;
+  }
+}
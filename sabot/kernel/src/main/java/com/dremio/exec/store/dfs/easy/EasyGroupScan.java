@@ -15,7 +15,6 @@
  */
 package com.dremio.exec.store.dfs.easy;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
@@ -26,6 +25,7 @@ import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.SplitWork;
 import com.dremio.exec.store.TableMetadata;
 import com.dremio.exec.store.dfs.AbstractFileGroupScan;
+import com.dremio.exec.store.dfs.SplitCombiner;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.dremio.service.namespace.file.proto.FileType;
 
@@ -35,16 +35,17 @@ import com.dremio.service.namespace.file.proto.FileType;
 public class EasyGroupScan extends AbstractFileGroupScan {
 
   public EasyGroupScan(TableMetadata dataset, List<SchemaPath> columns) {
-    super(dataset, columns);
+    this(dataset, columns, null);
+  }
+
+  public EasyGroupScan(TableMetadata dataset, List<SchemaPath> columns, SplitCombiner combiner) {
+    super(dataset, columns, combiner);
   }
 
   @Override
   public SubScan getSpecificScan(List<SplitWork> work) throws ExecutionSetupException {
-    final List<DatasetSplit> splits = new ArrayList<>(work.size());
+    final List<DatasetSplit> splits = getDatasetSplits(work);
     final BatchSchema schema = getDataset().getSchema();
-    for(SplitWork split : work){
-      splits.add(split.getSplit());
-    }
 
     return new EasySubScan(
         getDataset().getFormatSettings(),
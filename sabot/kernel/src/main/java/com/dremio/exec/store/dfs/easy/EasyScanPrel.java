@@ -28,8 +28,10 @@ import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.physical.base.PhysicalOperator;
 import com.dremio.exec.planner.common.ScanRelBase;
 import com.dremio.exec.planner.physical.PhysicalPlanCreator;
+import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ScanPrelBase;
 import com.dremio.exec.store.TableMetadata;
+import com.dremio.exec.store.dfs.SplitCombiner;
 
 /**
  * Convert scan prel to easy group scan.
@@ -41,7 +43,8 @@ public class EasyScanPrel extends ScanPrelBase {
 
   @Override
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
-    return creator.addMetadata(this, new EasyGroupScan(tableMetadata, projectedColumns));
+    return creator.addMetadata(this, new EasyGroupScan(tableMetadata, projectedColumns,
+      SplitCombiner.create(PrelUtil.getPlannerSettings(getCluster()))));
   }
 
   @Override
@@ -22,8 +22,10 @@ import java.util.Objects;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.logical.FormatPluginConfig;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
 import com.dremio.exec.server.SabotContext;
+import com.dremio.exec.store.EmptyRecordReader;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RecordWriter;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
@@ -41,6 +43,8 @@ import com.google.common.collect.ImmutableList;
 public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
 
   private static final boolean IS_COMPRESSIBLE = true;
+  // whether files are split on blocks depends on store.json.reader.split_lines, see isBlockSplittable().
+  private static final boolean IS_BLOCK_SPLITTABLE = false;
   private static final String DEFAULT_NAME = "json";
 
   public JSONFormatPlugin(String name, SabotContext context, FileSystemPlugin fsPlugin) {
@@ -48,14 +52,32 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
   }
 
   public JSONFormatPlugin(String name, SabotContext context, JSONFormatConfig formatPluginConfig, FileSystemPlugin fsPlugin) {
-    super(name, context, formatPluginConfig, true, false, false, IS_COMPRESSIBLE, formatPluginConfig.getExtensions(), DEFAULT_NAME, fsPlugin);
+    super(name, context, formatPluginConfig, true, false, IS_BLOCK_SPLITTABLE, IS_COMPRESSIBLE, formatPluginConfig.getExtensions(), DEFAULT_NAME, fsPlugin);
   }
 
   @Override
   public RecordReader getRecordReader(OperatorContext context, FileSystemWrapper dfs, EasyDatasetSplitXAttr splitAttributes, List<SchemaPath> columns) throws ExecutionSetupException {
+    if (context.getOptions().getOption(ExecConstants.JSON_READER_SPLIT_LINES)) {
+      return new JSONRecordReader(context, splitAttributes.getPath(), splitAttributes.getStart(),
+          splitAttributes.getLength(), dfs, columns);
+    }
+
+    // records of pretty printed files span several lines, the split starting the file reads it whole.
+    if (splitAttributes.getStart() > 0) {
+      return new EmptyRecordReader();
+    }
     return new JSONRecordReader(context, splitAttributes.getPath(), dfs, columns);
   }
 
+  /**
+   * Files are only split when they are known to hold one record per line, as records of pretty printed files span
+   * several lines. The splits are kept with the dataset metadata, so readers still check the option of their query.
+   */
+  @Override
+  public boolean isBlockSplittable() {
+    return getContext().getOptionManager().getOption(ExecConstants.JSON_READER_SPLIT_LINES);
+  }
+
   @Override
   public RecordWriter getRecordWriter(OperatorContext context, EasyWriter writer) throws IOException {
     RecordWriter recordWriter = new JsonRecordWriter(context, writer, (JSONFormatConfig) getConfig());
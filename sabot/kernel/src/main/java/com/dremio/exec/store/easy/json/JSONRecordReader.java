@@ -22,6 +22,8 @@ import java.util.List;
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.complex.impl.VectorContainerWriter;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.Seekable;
+import org.apache.hadoop.io.compress.CompressionInputStream;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.UserException;
@@ -49,6 +51,8 @@ public class JSONRecordReader extends AbstractRecordReader {
 
   // Data we're consuming
   private final Path hadoopPath;
+  private final long start;
+  private final long length;
   private final JsonNode embeddedContent;
 
   private final FileSystemWrapper fileSystem;
@@ -70,7 +74,23 @@ public class JSONRecordReader extends AbstractRecordReader {
    */
   public JSONRecordReader(final OperatorContext context, final String inputPath, final FileSystemWrapper fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, inputPath, null, fileSystem, columns);
+    this(context, inputPath, 0, -1, null, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader that reads the records of a split of a newline delimited file. The records starting
+   * within the split are read, the last of them possibly ending after the end of the split.
+   * @param context
+   * @param inputPath
+   * @param start  offset of the split in the file
+   * @param length  length of the split
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(final OperatorContext context, final String inputPath, final long start, final long length,
+      final FileSystemWrapper fileSystem, final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(context, inputPath, start, length, null, fileSystem, columns);
   }
 
   /**
@@ -83,11 +103,13 @@ public class JSONRecordReader extends AbstractRecordReader {
    */
   public JSONRecordReader(final OperatorContext context, final JsonNode embeddedContent,
       final FileSystemWrapper fileSystem, final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, null, embeddedContent, fileSystem, columns);
+    this(context, null, 0, -1, embeddedContent, fileSystem, columns);
   }
 
   private JSONRecordReader(final OperatorContext operatorContext,
                            final String inputPath,
+                           final long start,
+                           final long length,
                            final JsonNode embeddedContent,
                            final FileSystemWrapper fileSystem,
                            final List<SchemaPath> columns) {
@@ -107,6 +129,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.hadoopPath = null;
     }
 
+    this.start = start;
+    this.length = length;
     this.fileSystem = fileSystem;
     this.context = operatorContext;
 
@@ -120,6 +144,8 @@ public class JSONRecordReader extends AbstractRecordReader {
   public String toString() {
     return super.toString()
         + "[hadoopPath = " + hadoopPath
+        + ", start = " + start
+        + ", length = " + length
         + ", recordCount = " + recordCount
         + ", runningRecordCount = " + runningRecordCount + ", ...]";
   }
@@ -128,7 +154,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(final OutputMutator output) throws ExecutionSetupException {
     try{
       if (hadoopPath != null) {
-        this.stream = fileSystem.openPossiblyCompressedStream(hadoopPath);
+        this.stream = openStream();
       }
 
       this.writer = new VectorContainerWriter(output);
@@ -144,6 +170,20 @@ public class JSONRecordReader extends AbstractRecordReader {
     }
   }
 
+  private InputStream openStream() throws IOException {
+    final InputStream stream = fileSystem.openPossiblyCompressedStream(hadoopPath);
+    // compressed files aren't split, their length is the compressed size.
+    if (length < 0 || stream instanceof CompressionInputStream) {
+      return stream;
+    }
+
+    if (start > 0) {
+      // the split starts with the line following the first newline at or after the byte preceding it.
+      ((Seekable) stream).seek(start - 1);
+    }
+    return new LineSplitInputStream(stream, start, start + length);
+  }
+
   private void setupParser() throws IOException {
     if(hadoopPath != null){
       jsonReader.setSource(stream);
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of a split of a newline delimited file: the lines starting within [start, end), the last of them
+ * possibly ending after the end of the split. The line the split starts in, unless the split starts at the beginning
+ * of a line, belongs to the previous split.
+ */
+class LineSplitInputStream extends InputStream {
+
+  private final InputStream in;
+  private final long end;
+  private long pos;
+  private boolean positioned;
+  private boolean atLineStart;
+  private boolean done;
+
+  /**
+   * @param in stream positioned at the byte preceding the split, or at the beginning of the file for the first split
+   */
+  LineSplitInputStream(InputStream in, long start, long end) {
+    this.in = new BufferedInputStream(in);
+    this.end = end;
+    this.pos = start == 0 ? 0 : start - 1;
+    this.positioned = start == 0;
+    this.atLineStart = start == 0;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!positioned) {
+      skipToLineStart();
+    }
+    if (done) {
+      return -1;
+    }
+
+    if (pos < end) {
+      final int read = in.read(b, off, (int) Math.min(len, end - pos));
+      if (read == -1) {
+        done = true;
+        return -1;
+      }
+      pos += read;
+      atLineStart = b[off + read - 1] == '\n';
+      return read;
+    }
+
+    if (atLineStart) {
+      done = true;
+      return -1;
+    }
+
+    // finish the line started within the split.
+    int read = 0;
+    while (read < len) {
+      final int c = in.read();
+      if (c == -1) {
+        break;
+      }
+      b[off + read++] = (byte) c;
+      pos++;
+      if (c == '\n') {
+        atLineStart = true;
+        break;
+      }
+    }
+    if (read == 0) {
+      done = true;
+      return -1;
+    }
+    return read;
+  }
+
+  private void skipToLineStart() throws IOException {
+    positioned = true;
+    int c;
+    while ((c = in.read()) != -1) {
+      pos++;
+      if (c == '\n') {
+        atLineStart = true;
+        return;
+      }
+    }
+    done = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
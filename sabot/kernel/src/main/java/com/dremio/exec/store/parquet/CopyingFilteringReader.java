@@ -16,6 +16,7 @@
 package com.dremio.exec.store.parquet;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.SchemaChangeCallBack;
+import org.apache.arrow.vector.SimpleIntVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.util.CallBack;
@@ -58,6 +60,11 @@ import com.google.common.collect.Maps;
 
 /**
  * Implementation of {@link RecordReader} that wraps another record reader and provider filter push down handling.
+ *
+ * When given a deltas vector, the reader also reports the records it selected, as the number of records skipped
+ * before each of them, so that another reader of the same row group can skip the rejected records (see
+ * {@link com.dremio.exec.store.parquet2.ParquetRowiseReader}). Records skipped in batches where no record was
+ * selected are carried over to the next selected record.
  */
 public class CopyingFilteringReader implements RecordReader {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CopyingFilteringReader.class);
@@ -65,6 +72,8 @@ public class CopyingFilteringReader implements RecordReader {
   private final RecordReader delegate;
   private final OperatorContext context;
   private final LogicalExpression filterCondition;
+  private final Collection<SchemaPath> columns;
+  private final SimpleIntVector deltas;
 
   private final Map<String, ValueVector> fieldVectorMap = Maps.newHashMap();
 
@@ -85,12 +94,26 @@ public class CopyingFilteringReader implements RecordReader {
   private VectorContainer copyOutput;
   private ScanMutator mutator;
   private Filterer filter;
+  private SelectionVector2 filteredSV2;
   private Copier copier;
+  // records rejected since the last selected record
+  private int skipped;
 
   public CopyingFilteringReader(RecordReader delegate, OperatorContext context, LogicalExpression filterCondition) {
+    this(delegate, context, filterCondition, null, null);
+  }
+
+  /**
+   * @param columns columns read by the delegate, or null to output all the columns of the scan
+   * @param deltas vector filled with the number of records skipped before each selected record, or null
+   */
+  public CopyingFilteringReader(RecordReader delegate, OperatorContext context, LogicalExpression filterCondition,
+                                Collection<SchemaPath> columns, SimpleIntVector deltas) {
     this.delegate = delegate;
     this.context = context;
     this.filterCondition = filterCondition;
+    this.columns = columns;
+    this.deltas = deltas;
   }
 
   @Override
@@ -105,6 +128,10 @@ public class CopyingFilteringReader implements RecordReader {
     // copy the schema to the inner mutator
     for (ValueVector v : output.getVectors()) {
       final Field f = v.getField();
+      if (columns != null && !isReadByDelegate(f)) {
+        // read by another reader
+        continue;
+      }
       mutator.addField(f, (Class<? extends ValueVector>) TypeHelper.getValueVectorClass(f));
     }
     // we just added a bunch of fields, we don't need to report this as a schema change
@@ -121,7 +148,7 @@ public class CopyingFilteringReader implements RecordReader {
     cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
 
     // we only need the filterer to set the selection vector of scanOutput, that's why we use a SV2Holder instead of a VectorContainer
-    final SelectionVector2 filteredSV2 = new SelectionVector2(context.getAllocator());
+    filteredSV2 = new SelectionVector2(context.getAllocator());
     final SV2Holder sv2Holder = new SV2Holder(filteredSV2);
     this.filter = cg.getCodeGenerator().getImplementationClass();
     filter.setup(context.getClassProducer().getFunctionContext(), readerOutput, sv2Holder, new TransferPair[0]);
@@ -137,6 +164,19 @@ public class CopyingFilteringReader implements RecordReader {
       final Field field = wrapper.getField();
       copierToOutputTransfers.add(wrapper.getValueVector().makeTransferPair(output.getVector(field.getName())));
     }
+
+    if (deltas != null) {
+      deltas.allocateNew();
+    }
+  }
+
+  private boolean isReadByDelegate(Field field) {
+    for (SchemaPath column : columns) {
+      if (column.getRootSegment().getPath().equalsIgnoreCase(field.getName())) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -167,7 +207,11 @@ public class CopyingFilteringReader implements RecordReader {
       }
 
       filterWatch.start();
-      recordCount = filter.filterBatch(recordCount);
+      final int selected = filter.filterBatch(recordCount);
+      if (deltas != null) {
+        updateDeltas(recordCount, selected);
+      }
+      recordCount = selected;
       filterWatch.stop();
       if (recordCount > 0) {
         break;
@@ -177,6 +221,10 @@ public class CopyingFilteringReader implements RecordReader {
       readerOutput.allocateNew();
     }
 
+    if (deltas != null) {
+      deltas.setValueCount(recordCount);
+    }
+
     copyOutput.allocateNew();
 
     copyWatch.start();
@@ -195,9 +243,20 @@ public class CopyingFilteringReader implements RecordReader {
     return recordCount;
   }
 
+  private void updateDeltas(int recordCount, int selected) {
+    int previous = -1;
+    for (int i = 0; i < selected; i++) {
+      final int index = filteredSV2.getIndex(i);
+      deltas.setSafe(i, skipped + index - previous - 1);
+      skipped = 0;
+      previous = index;
+    }
+    skipped += recordCount - previous - 1;
+  }
+
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(copier, copyOutput, readerOutput, delegate);
+    AutoCloseables.close(copier, copyOutput, readerOutput, filteredSV2, delegate);
   }
 
   private static class ContainerAndSV2 implements VectorAccessible {
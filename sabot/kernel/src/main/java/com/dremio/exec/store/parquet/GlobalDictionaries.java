@@ -26,41 +26,58 @@ import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache.DictionaryReference;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 public class GlobalDictionaries implements AutoCloseable {
   private final Map<String, VectorContainer> dictionaries; // key is full column path (dotted)
+  private final List<DictionaryReference> references;
 
   public static GlobalDictionaries create(OperatorContext context,
                                           FileSystemWrapper fs,
+                                          GlobalDictionaryCache cache,
                                           List<GlobalDictionaryFieldInfo> globalDictionaryColumns) throws ExecutionSetupException {
     if (globalDictionaryColumns != null && !globalDictionaryColumns.isEmpty()) {
       final Map<String, VectorContainer> dictionaries = Maps.newHashMap();
+      final List<DictionaryReference> references = Lists.newArrayList();
       context.getStats().startProcessing();
+      boolean success = false;
       try {
         for (GlobalDictionaryFieldInfo field : globalDictionaryColumns) {
-          dictionaries.put(field.getFieldName(), ParquetFormatPlugin.loadDictionary(fs, new Path(field.getDictionaryPath()), context.getAllocator()));
+          final DictionaryReference reference = cache.acquire(fs, new Path(field.getDictionaryPath()), context);
+          references.add(reference);
+          dictionaries.put(field.getFieldName(), reference.getDictionary());
         }
-        return new GlobalDictionaries(dictionaries);
+        final GlobalDictionaries globalDictionaries = new GlobalDictionaries(dictionaries, references);
+        success = true;
+        return globalDictionaries;
       } catch (IOException ioe) {
         throw new ExecutionSetupException(ioe);
       } finally {
+        if (!success) {
+          // release the dictionaries acquired before the failure, whatever it is.
+          AutoCloseables.closeNoChecked(AutoCloseables.all(references));
+        }
         context.getStats().stopProcessing();
       }
     }
     return null; // if no columns should be global dictionary encoded.
   }
 
-  private GlobalDictionaries(Map<String, VectorContainer> dictionaries) {
+  private GlobalDictionaries(Map<String, VectorContainer> dictionaries, List<DictionaryReference> references) {
     this.dictionaries = dictionaries;
+    this.references = references;
   }
 
   @Override
   public void close() throws Exception {
     try {
-      AutoCloseables.close(dictionaries.values());
+      // dictionaries are shared, only release the references to them.
+      AutoCloseables.close(references);
     } finally {
+      references.clear();
       dictionaries.clear();
     }
   }
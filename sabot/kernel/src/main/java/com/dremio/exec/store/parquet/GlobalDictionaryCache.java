@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Node wide cache of global dictionaries, shared by all the fragments and queries reading dictionary encoded
+ * datasets of a source.
+ *
+ * Dictionaries are keyed by the qualified path of their file. Dictionary files live under the dataset's
+ * {@code _dicts_<version>} directory and are named after their column, so the key identifies the table, the
+ * dictionary version and the column. A new dictionary version is a new key, and old versions age out of the cache.
+ *
+ * Dictionaries are held by a dedicated allocator, bounded by {@link ExecConstants#GLOBAL_DICTIONARY_CACHE_SIZE}, and
+ * are reference counted: the least recently used dictionaries that are no longer referenced are evicted when memory
+ * is needed for a new one. If a dictionary doesn't fit in the cache, it is loaded in the operator's allocator and
+ * isn't shared.
+ */
+public class GlobalDictionaryCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GlobalDictionaryCache.class);
+
+  private final BufferAllocator allocator;
+  // access ordered, least recently used first
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public GlobalDictionaryCache(BufferAllocator parentAllocator) {
+    this.allocator = parentAllocator.newChildAllocator("global-dictionary-cache", 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * Get the dictionary stored in the given file, loading it if it isn't cached yet. The returned reference must be
+   * closed once the dictionary is no longer used.
+   */
+  public DictionaryReference acquire(FileSystem fs, Path path, OperatorContext context) throws IOException {
+    final long maxSize = context.getOptions().getOption(ExecConstants.GLOBAL_DICTIONARY_CACHE_SIZE);
+    if (maxSize == 0) {
+      return new DictionaryReference(null, ParquetFormatPlugin.loadDictionary(fs, path, context.getAllocator()));
+    }
+
+    final String key = fs.makeQualified(path).toString();
+    synchronized (this) {
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        hits++;
+        return entry.reference();
+      }
+      misses++;
+    }
+
+    // load outside of the lock so cache hits aren't blocked by file reads.
+    final VectorContainer dictionary = load(fs, path, maxSize);
+    if (dictionary == null) {
+      logger.debug("Global dictionary {} doesn't fit in the cache, loading it in the operator's allocator.", key);
+      return new DictionaryReference(null, ParquetFormatPlugin.loadDictionary(fs, path, context.getAllocator()));
+    }
+
+    synchronized (this) {
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        // loaded concurrently by another fragment.
+        dictionary.close();
+        return entry.reference();
+      }
+      final Entry newEntry = new Entry(key, dictionary);
+      entries.put(key, newEntry);
+      return newEntry.reference();
+    }
+  }
+
+  /**
+   * Load a dictionary in the cache allocator, evicting the least recently used unreferenced dictionaries until it
+   * fits.
+   *
+   * @return the dictionary, or null if it doesn't fit in the cache.
+   */
+  private VectorContainer load(FileSystem fs, Path path, long maxSize) throws IOException {
+    synchronized (this) {
+      allocator.setLimit(maxSize);
+    }
+    while (true) {
+      try {
+        return ParquetFormatPlugin.loadDictionary(fs, path, allocator);
+      } catch (OutOfMemoryException e) {
+        if (!evictLeastRecentlyUsed()) {
+          return null;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return false if all cached dictionaries are referenced.
+   */
+  private synchronized boolean evictLeastRecentlyUsed() {
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      if (entry.references == 0) {
+        iterator.remove();
+        entry.dictionary.close();
+        evictions++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private synchronized void release(Entry entry) {
+    entry.references--;
+    if (entry.references == 0 && entry.removed) {
+      // removed from the cache while in use.
+      entry.dictionary.close();
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return entries.size();
+  }
+
+  @VisibleForTesting
+  long getAllocatedMemory() {
+    return allocator.getAllocatedMemory();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("GlobalDictionaryCache[entries=%d, allocated=%d, hits=%d, misses=%d, evictions=%d]",
+        entries.size(), allocator.getAllocatedMemory(), hits, misses, evictions);
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    try {
+      final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final Entry entry = iterator.next().getValue();
+        iterator.remove();
+        if (entry.references == 0) {
+          entry.dictionary.close();
+        } else {
+          logger.warn("Global dictionary {} still referenced when closing the cache.", entry.key);
+          entry.removed = true;
+        }
+      }
+    } finally {
+      AutoCloseables.close(allocator);
+    }
+  }
+
+  /**
+   * A cached dictionary and the number of references to it.
+   */
+  private final class Entry {
+    private final String key;
+    private final VectorContainer dictionary;
+    private int references;
+    private boolean removed;
+
+    private Entry(String key, VectorContainer dictionary) {
+      this.key = key;
+      this.dictionary = dictionary;
+    }
+
+    // called with the cache lock held
+    private DictionaryReference reference() {
+      references++;
+      return new DictionaryReference(this, dictionary);
+    }
+  }
+
+  /**
+   * Reference to a dictionary. Closing the reference releases a cached dictionary, or closes a dictionary that
+   * isn't cached.
+   */
+  public final class DictionaryReference implements AutoCloseable {
+    private final Entry entry;
+    private final VectorContainer dictionary;
+    private boolean closed;
+
+    private DictionaryReference(Entry entry, VectorContainer dictionary) {
+      this.entry = entry;
+      this.dictionary = dictionary;
+    }
+
+    public VectorContainer getDictionary() {
+      return dictionary;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (entry == null) {
+        dictionary.close();
+      } else {
+        release(entry);
+      }
+    }
+  }
+}
@@ -43,6 +43,7 @@ import com.dremio.common.expression.SchemaPath;
 import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.TimedRunnable;
 import com.dremio.exec.util.ImpersonationUtil;
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -205,8 +206,13 @@ public class Metadata {
               mxValue = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) mxValue);
             }
           }
-          columnMetadata =
-              new ColumnMetadata(columnTypeMetadata.name, mxValue, stats.getNumNulls());
+          if (hasRange(columnTypeMetadata) && stats.genericGetMin() != null && stats.genericGetMax() != null) {
+            columnMetadata = new ColumnMetadata(columnTypeMetadata.name, mxValue, stats.getNumNulls(),
+                stats.genericGetMin(), stats.genericGetMax());
+          } else {
+            columnMetadata =
+                new ColumnMetadata(columnTypeMetadata.name, mxValue, stats.getNumNulls());
+          }
         } else {
           // log it under trace to avoid lot of log entries.
           logger.trace("Stats are not available for column {}, rowGroupIdx {}, file {}",
@@ -225,7 +231,35 @@ public class Metadata {
       rowGroupIdx++;
     }
 
-    return new ParquetFileMetadata(file, file.getLen(), rowGroupMetadataList, columnTypeInfo);
+    final String sortColumns = metadata.getFileMetaData().getKeyValueMetaData().get(ParquetRecordWriter.DREMIO_SORT_COLUMNS);
+    return new ParquetFileMetadata(file, file.getLen(), rowGroupMetadataList, columnTypeInfo,
+        sortColumns == null || sortColumns.isEmpty() ? null
+            : Splitter.on(ParquetRecordWriter.SORT_COLUMNS_SEPARATOR).splitToList(sortColumns));
+  }
+
+  /**
+   * Whether the min and max values of the column are kept, only for signed integers whose statistics are ordered like
+   * their values (floating point statistics may be wrong in presence of NaNs).
+   */
+  private static boolean hasRange(ColumnTypeMetadata columnTypeMetadata) {
+    switch (columnTypeMetadata.primitiveType) {
+      case INT32:
+      case INT64:
+        if (columnTypeMetadata.originalType == null) {
+          return true;
+        }
+        switch (columnTypeMetadata.originalType) {
+          case INT_8:
+          case INT_16:
+          case INT_32:
+          case INT_64:
+            return true;
+          default:
+            return false;
+        }
+      default:
+        return false;
+    }
   }
 
   /**
@@ -285,14 +319,21 @@ public class Metadata {
     private final Long length;
     private final List<RowGroupMetadata> rowGroups;
     private final Map<ColumnTypeMetadata.Key, ColumnTypeMetadata> columnTypeInfo;
+    private final List<String> sortColumns;
 
     public ParquetFileMetadata(FileStatus status, Long length, List<RowGroupMetadata> rowGroups,
         Map<ColumnTypeMetadata.Key, ColumnTypeMetadata> columnTypeInfo) {
+      this(status, length, rowGroups, columnTypeInfo, null);
+    }
+
+    public ParquetFileMetadata(FileStatus status, Long length, List<RowGroupMetadata> rowGroups,
+        Map<ColumnTypeMetadata.Key, ColumnTypeMetadata> columnTypeInfo, List<String> sortColumns) {
       this.status = status;
       this.path = status.getPath().toString();
       this.length = length;
       this.rowGroups = rowGroups;
       this.columnTypeInfo = columnTypeInfo;
+      this.sortColumns = sortColumns;
     }
 
     @Override
@@ -316,6 +357,13 @@ public class Metadata {
       return rowGroups;
     }
 
+    /**
+     * @return columns the records of the file were sorted on when written, or null if they weren't sorted
+     */
+    public List<String> getSortColumns() {
+      return sortColumns;
+    }
+
     private ColumnTypeMetadata getColumnTypeInfo(String[] name) {
       ColumnTypeMetadata columnMetadata = columnTypeInfo.get(new ColumnTypeMetadata.Key(name));
       if (columnMetadata == null) {
@@ -445,11 +493,19 @@ public class Metadata {
     private final String[] name;
     private final Long nulls;
     private Object mxValue;
+    private final Object rangeMin;
+    private final Object rangeMax;
 
     public ColumnMetadata(String[] name, Object mxValue, Long nulls) {
+      this(name, mxValue, nulls, null, null);
+    }
+
+    public ColumnMetadata(String[] name, Object mxValue, Long nulls, Object rangeMin, Object rangeMax) {
       this.name = name;
       this.mxValue = mxValue;
       this.nulls = nulls;
+      this.rangeMin = rangeMin;
+      this.rangeMax = rangeMax;
     }
 
     public void setMax(Object mxValue) {
@@ -472,6 +528,20 @@ public class Metadata {
       return mxValue;
     }
 
+    /**
+     * @return smallest non null value of the column, only kept for integer columns
+     */
+    public Object getRangeMin() {
+      return rangeMin;
+    }
+
+    /**
+     * @return largest non null value of the column, only kept for integer columns
+     */
+    public Object getRangeMax() {
+      return rangeMax;
+    }
+
     public void setMin(Object newMin) {
       // noop - min value not stored in this version of the metadata
     }
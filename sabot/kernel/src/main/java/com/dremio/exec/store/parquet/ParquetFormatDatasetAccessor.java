@@ -54,11 +54,13 @@ import com.dremio.exec.store.dfs.MetadataUtils;
 import com.dremio.exec.store.dfs.implicit.AdditionalColumnsRecordReader;
 import com.dremio.exec.store.dfs.implicit.ImplicitFilesystemColumnFinder;
 import com.dremio.exec.store.dfs.implicit.NameValuePair;
+import com.dremio.exec.store.parquet.Metadata.ColumnMetadata;
 import com.dremio.exec.store.parquet.ParquetGroupScanUtils.RowGroupInfo;
 import com.dremio.exec.store.parquet2.ParquetRowiseReader;
 import com.dremio.sabot.exec.context.OperatorContextImpl;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.dataset.proto.Affinity;
+import com.dremio.service.namespace.dataset.proto.ColumnRange;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.dremio.service.namespace.dataset.proto.DatasetType;
@@ -166,10 +168,13 @@ public class ParquetFormatDatasetAccessor extends FileSystemDatasetAccessor {
       fsPlugin, fileSelection, datasetConfig.getFullPathList(), GroupScan.ALL_COLUMNS, schema, null);
     this.cachedParquetReadDefinition = new ReadDefinition();
 
-    // write down old sort columns if there were any.
+    // write down old sort columns if there were any, or the ones the files were written with.
     if(oldConfig != null && oldConfig.getReadDefinition() != null){
       cachedParquetReadDefinition.setSortColumnsList(oldConfig.getReadDefinition().getSortColumnsList());
     }
+    if (cachedParquetReadDefinition.getSortColumnsList() == null) {
+      cachedParquetReadDefinition.setSortColumnsList(parquetGroupScanUtils.getSortColumns());
+    }
     cachedParquetReadDefinition.setScanStats(MetadataUtils.fromPojoScanStats(parquetGroupScanUtils.getScanStats()).setScanFactor(ScanCostFactor.PARQUET.getFactor()));
     cachedParquetReadDefinition.setReadSignature(ByteString.copyFrom(FileSystemDatasetAccessor.FILE_UPDATE_KEY_SERIALIZER.serialize(updateKey)));
 
@@ -258,6 +263,23 @@ public class ParquetFormatDatasetAccessor extends FileSystemDatasetAccessor {
       }
       split.setPartitionValuesList(new ArrayList<>(partitionValues.values()));
 
+      // record the value ranges of the sort columns, so that splits can be pruned on them
+      if (readDefinition.getSortColumnsList() != null) {
+        final List<ColumnRange> columnRanges = Lists.newArrayList();
+        for (String column : readDefinition.getSortColumnsList()) {
+          final ColumnMetadata columnMetadata = rowGroupInfo.getColumns().get(SchemaPath.getSimplePath(column));
+          if (columnMetadata != null && columnMetadata.getRangeMin() != null && columnMetadata.getRangeMax() != null) {
+            columnRanges.add(new ColumnRange()
+              .setColumn(column)
+              .setLongMin(((Number) columnMetadata.getRangeMin()).longValue())
+              .setLongMax(((Number) columnMetadata.getRangeMax()).longValue()));
+          }
+        }
+        if (!columnRanges.isEmpty()) {
+          split.setColumnRangesList(columnRanges);
+        }
+      }
+
       List<ColumnValueCount> columnValueCounts = Lists.newArrayList();
       for (Map.Entry<SchemaPath, Long> entry: rowGroupInfo.getColumnValueCounts().entrySet()) {
         columnValueCounts.add(new ColumnValueCount()
@@ -15,7 +15,6 @@
  */
 package com.dremio.exec.store.parquet;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.calcite.rel.type.RelDataType;
@@ -29,6 +28,7 @@ import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.SplitWork;
 import com.dremio.exec.store.TableMetadata;
 import com.dremio.exec.store.dfs.AbstractFileGroupScan;
+import com.dremio.exec.store.dfs.SplitCombiner;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 
 /**
@@ -41,7 +41,13 @@ public class ParquetGroupScan extends AbstractFileGroupScan {
 
   public ParquetGroupScan(TableMetadata dataset, List<SchemaPath> columns, List<FilterCondition> conditions,
                           List<GlobalDictionaryFieldInfo> globalDictionaryEncodedColumns, RelDataType cachedRelDataType) {
-    super(dataset, columns);
+    this(dataset, columns, conditions, globalDictionaryEncodedColumns, cachedRelDataType, null);
+  }
+
+  public ParquetGroupScan(TableMetadata dataset, List<SchemaPath> columns, List<FilterCondition> conditions,
+                          List<GlobalDictionaryFieldInfo> globalDictionaryEncodedColumns, RelDataType cachedRelDataType,
+                          SplitCombiner combiner) {
+    super(dataset, columns, combiner);
     this.conditions = conditions;
     this.globalDictionaryEncodedColumns = globalDictionaryEncodedColumns;
     this.cachedRelDataType = cachedRelDataType;
@@ -49,11 +55,8 @@ public class ParquetGroupScan extends AbstractFileGroupScan {
 
   @Override
   public SubScan getSpecificScan(List<SplitWork> work) throws ExecutionSetupException {
-    final List<DatasetSplit> splits = new ArrayList<>(work.size());
+    final List<DatasetSplit> splits = getDatasetSplits(work);
     final BatchSchema schema = cachedRelDataType == null ? getDataset().getSchema():  BatchSchema.fromCalciteRowType(cachedRelDataType);
-    for(SplitWork split : work){
-      splits.add(split.getSplit());
-    }
     return new ParquetSubScan(dataset.getFormatSettings(), splits, getUserName(), schema, getDataset().getName().getPathComponents(), conditions,
       dataset.getStoragePluginId(), columns, dataset.getReadDefinition().getPartitionColumnsList(), globalDictionaryEncodedColumns, dataset.getReadDefinition().getExtendedProperty());
   }
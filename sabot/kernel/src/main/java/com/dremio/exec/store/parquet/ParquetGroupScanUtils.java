@@ -136,6 +136,24 @@ public class ParquetGroupScanUtils {
     return selectionRoot;
   }
 
+  /**
+   * @return columns all the files were sorted on when written, or null if some file wasn't sorted on any of them
+   */
+  public List<String> getSortColumns() {
+    List<String> sortColumns = null;
+    for (ParquetFileMetadata file : parquetTableMetadata.getFiles()) {
+      if (file.getSortColumns() == null) {
+        return null;
+      }
+      if (sortColumns == null) {
+        sortColumns = Lists.newArrayList(file.getSortColumns());
+      } else {
+        sortColumns.retainAll(file.getSortColumns());
+      }
+    }
+    return sortColumns == null || sortColumns.isEmpty() ? null : sortColumns;
+  }
+
   public Map<FileStatus, Map<SchemaPath, Object>> getPartitionValueMap() {
     return partitionValueMap;
   }
@@ -268,12 +286,19 @@ public class ParquetGroupScanUtils {
     private long rowCount;  // rowCount = -1 indicates to include all rows.
     private List<EndpointAffinity> affinities;
     private Map<SchemaPath, Long> columnValueCounts;
+    private Map<SchemaPath, ColumnMetadata> columns;
 
     public RowGroupInfo(FileStatus status, long start, long length, int rowGroupIndex, long rowCount, Map<SchemaPath, Long> columnValueCounts) {
+      this(status, start, length, rowGroupIndex, rowCount, columnValueCounts, null);
+    }
+
+    public RowGroupInfo(FileStatus status, long start, long length, int rowGroupIndex, long rowCount,
+        Map<SchemaPath, Long> columnValueCounts, Map<SchemaPath, ColumnMetadata> columns) {
       super(start, length, status);
       this.rowGroupIndex = rowGroupIndex;
       this.rowCount = rowCount;
       this.columnValueCounts = columnValueCounts == null? Collections.<SchemaPath, Long>emptyMap() : columnValueCounts;
+      this.columns = columns == null ? Collections.<SchemaPath, ColumnMetadata>emptyMap() : columns;
     }
 
     public int getRowGroupIndex() {
@@ -301,6 +326,13 @@ public class ParquetGroupScanUtils {
       return columnValueCounts;
     }
 
+    /**
+     * @return statistics of the columns in the row group
+     */
+    public Map<SchemaPath, ColumnMetadata> getColumns() {
+      return columns;
+    }
+
     public void setEndpointByteMap(EndpointByteMap byteMap) {
       this.byteMap = byteMap;
       this.affinities = Lists.newArrayList();
@@ -363,13 +395,16 @@ public class ParquetGroupScanUtils {
         // non null value counts for column
         long rowCount = rg.getRowCount();
         Map<SchemaPath, Long> rowGroupColumnValueCounts = Maps.newHashMap();
+        Map<SchemaPath, ColumnMetadata> rowGroupColumns = Maps.newHashMap();
         for (ColumnMetadata column : rg.getColumns()) {
           SchemaPath schemaPath = SchemaPath.getCompoundPath(column.getName());
           if (column.getNulls() != null) {
             rowGroupColumnValueCounts.put(schemaPath, rowCount - column.getNulls());
           }
+          rowGroupColumns.put(schemaPath, column);
         }
-        RowGroupInfo rowGroupInfo = new RowGroupInfo(file.getStatus(), rg.getStart(), rg.getLength(), rgIndex, rg.getRowCount(), rowGroupColumnValueCounts);
+        RowGroupInfo rowGroupInfo = new RowGroupInfo(file.getStatus(), rg.getStart(), rg.getLength(), rgIndex,
+            rg.getRowCount(), rowGroupColumnValueCounts, rowGroupColumns);
 
         EndpointByteMap endpointByteMap = new EndpointByteMapImpl();
         for (String host : rg.getHostAffinity().keySet()) {
@@ -16,6 +16,7 @@
 package com.dremio.exec.store.parquet;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -33,7 +34,9 @@ import com.dremio.exec.store.dfs.implicit.CompositeReaderConfig;
 import com.dremio.exec.store.dfs.implicit.ImplicitFilesystemColumnFinder;
 import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
+import com.dremio.sabot.op.scan.PrefetchableReaderIterator;
 import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.sabot.op.spi.ProducerOperator;
 import com.dremio.sabot.op.spi.ProducerOperator.Creator;
@@ -44,6 +47,7 @@ import com.dremio.service.namespace.file.proto.ParquetFileConfig;
 import com.google.common.base.Function;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ForwardingIterator;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -57,6 +61,10 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
   public ProducerOperator create(FragmentExecutionContext fragmentExecContext, final OperatorContext context, final ParquetSubScan config) throws ExecutionSetupException {
     final FileSystemPlugin plguin = fragmentExecContext.getStoragePlugin(config.getPluginId());
     final FileSystemWrapper fs = plguin.getFs(config.getUserName(), context.getStats());
+    // footers are read while creating readers, which may happen in the background. Track their reads separately then.
+    final boolean prefetchReaders = context.getOptions().getOption(ExecConstants.SCAN_READER_PREFETCH_COUNT) > 0;
+    final FileSystemWrapper footerFs = prefetchReaders
+        ? plguin.getFs(config.getUserName(), new OperatorStats(context.getStats(), true)) : fs;
 
     final Stopwatch watch = Stopwatch.createStarted();
 
@@ -67,7 +75,7 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
     // TODO (AH )Fix implicit columns with mod time and global dictionaries
     final ImplicitFilesystemColumnFinder finder = new ImplicitFilesystemColumnFinder(context.getOptions(), fs, config.getColumns(), isAccelerator);
     // load global dictionaries, globalDictionaries must be closed by the last reader
-    final GlobalDictionaries globalDictionaries = GlobalDictionaries.create(context, fs,  config.getGlobalDictionaryEncodedColumns());
+    final GlobalDictionaries globalDictionaries = GlobalDictionaries.create(context, fs, plguin.getDictionaryCache(), config.getGlobalDictionaryEncodedColumns());
     final boolean vectorize = context.getOptions().getOption(ExecConstants.PARQUET_READER_VECTORIZE);
     final boolean autoCorrectCorruptDates = ((ParquetFileConfig)FileFormat.getForFile(config.getFormatSettings())).getAutoCorrectCorruptDates();
     final boolean readInt96AsTimeStamp = context.getOptions().getOption(ExecConstants.PARQUET_READER_INT96_AS_TIMESTAMP).bool_val;
@@ -103,7 +111,7 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
           config.getConditions(),
           split.getSplitXAttr(),
           fs,
-          footerCache.getFooter(fs, new Path(split.getSplitXAttr().getPath())),
+          footerCache.getFooter(footerFs, new Path(split.getSplitXAttr().getPath())),
           globalDictionaries,
           codec,
           autoCorrectCorruptDates,
@@ -115,11 +123,29 @@ public class ParquetOperatorCreator implements Creator<ParquetSubScan> {
       }
     });
 
-    final ScanOperator scan = new ScanOperator(fragmentExecContext.getSchemaUpdater(), config, context, readers.iterator(), globalDictionaries);
+    final ScanOperator scan = new ScanOperator(fragmentExecContext.getSchemaUpdater(), config, context,
+        prefetchReaders ? new ParquetReaderIterator(readers.iterator()) : readers.iterator(), globalDictionaries);
     logger.debug("Took {} ms to create Parquet Scan SqlOperatorImpl.", watch.elapsed(TimeUnit.MILLISECONDS));
     return scan;
   }
 
+  /**
+   * Readers of a parquet scan. Creating a reader only reads the footer of its file, through a file system that doesn't
+   * use the operator's stats, so readers can be created in the background.
+   */
+  private static class ParquetReaderIterator extends ForwardingIterator<RecordReader> implements PrefetchableReaderIterator {
+    private final Iterator<RecordReader> delegate;
+
+    ParquetReaderIterator(Iterator<RecordReader> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected Iterator<RecordReader> delegate() {
+      return delegate;
+    }
+  }
+
   private static class ParquetDatasetSplit implements Comparable {
     private final DatasetSplit datasetSplit;
     private final ParquetDatasetSplitXAttr splitXAttr;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.List;
+
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.IntExpression;
+import com.dremio.common.expression.ValueExpressions.LongExpression;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Finds the data pages of a column that can't hold any record matching a filter condition, from the min and max
+ * values in their header.
+ *
+ * Only comparisons of a signed integer column to constants are used, e.g. {@code id = 42} or {@code a > 10 and
+ * a < 20}. The records of such pages can be read as nulls, which the filter rejects like any comparison with null.
+ */
+public final class ParquetPageFilter implements Predicate<Statistics<?>> {
+
+  private enum Op {
+    EQUAL, NOT_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL;
+
+    /**
+     * @return operator comparing the operands in the opposite order
+     */
+    private Op flip() {
+      switch (this) {
+      case LESS_THAN:
+        return GREATER_THAN;
+      case LESS_THAN_OR_EQUAL:
+        return GREATER_THAN_OR_EQUAL;
+      case GREATER_THAN:
+        return LESS_THAN;
+      case GREATER_THAN_OR_EQUAL:
+        return LESS_THAN_OR_EQUAL;
+      default:
+        return this;
+      }
+    }
+  }
+
+  private static final ImmutableMap<String, Op> OPS = ImmutableMap.<String, Op>builder()
+      .put("equal", Op.EQUAL)
+      .put("not_equal", Op.NOT_EQUAL)
+      .put("less_than", Op.LESS_THAN)
+      .put("less_than_or_equal_to", Op.LESS_THAN_OR_EQUAL)
+      .put("greater_than", Op.GREATER_THAN)
+      .put("greater_than_or_equal_to", Op.GREATER_THAN_OR_EQUAL)
+      .build();
+
+  private final List<Op> ops;
+  private final List<Long> values;
+
+  private ParquetPageFilter(List<Op> ops, List<Long> values) {
+    this.ops = ops;
+    this.values = values;
+  }
+
+  /**
+   * @return filter of the pages of the column of the condition, or null if the condition can't be checked against the
+   * statistics of the pages of this type
+   */
+  public static ParquetPageFilter of(FilterCondition condition, PrimitiveType type) {
+    switch (type.getPrimitiveTypeName()) {
+    case INT32:
+    case INT64:
+      break;
+    default:
+      // binary statistics of older writers aren't reliable, and floating point ones don't account for NaN
+      return null;
+    }
+    final OriginalType originalType = type.getOriginalType();
+    if (originalType != null && originalType != OriginalType.INT_8 && originalType != OriginalType.INT_16
+        && originalType != OriginalType.INT_32 && originalType != OriginalType.INT_64) {
+      // unsigned, decimal or date/time values, which are either ordered differently or compared to other literals
+      return null;
+    }
+
+    final ImmutableList.Builder<Op> ops = ImmutableList.builder();
+    final ImmutableList.Builder<Long> values = ImmutableList.builder();
+    addComparisons(condition.getExpr(), condition.getPath(), ops, values);
+    final List<Op> builtOps = ops.build();
+    return builtOps.isEmpty() ? null : new ParquetPageFilter(builtOps, values.build());
+  }
+
+  private static void addComparisons(LogicalExpression expr, SchemaPath column,
+                                     ImmutableList.Builder<Op> ops, ImmutableList.Builder<Long> values) {
+    if (expr instanceof BooleanOperator) {
+      // each conjunct rejects the records the condition rejects, other conditions are ignored
+      if (((BooleanOperator) expr).getName().equals("booleanAnd")) {
+        for (LogicalExpression arg : ((BooleanOperator) expr).args) {
+          addComparisons(arg, column, ops, values);
+        }
+      }
+      return;
+    }
+    if (!(expr instanceof FunctionCall)) {
+      return;
+    }
+
+    final FunctionCall call = (FunctionCall) expr;
+    Op op = OPS.get(call.getName());
+    if (op == null || call.args.size() != 2) {
+      return;
+    }
+    LogicalExpression left = call.args.get(0);
+    LogicalExpression right = call.args.get(1);
+    if (!(left instanceof SchemaPath)) {
+      op = op.flip();
+      left = call.args.get(1);
+      right = call.args.get(0);
+    }
+    if (!(left instanceof SchemaPath) || !isColumn((SchemaPath) left, column)) {
+      return;
+    }
+
+    if (right instanceof IntExpression) {
+      values.add((long) ((IntExpression) right).getInt());
+    } else if (right instanceof LongExpression) {
+      values.add(((LongExpression) right).getLong());
+    } else {
+      return;
+    }
+    ops.add(op);
+  }
+
+  private static boolean isColumn(SchemaPath path, SchemaPath column) {
+    return path.getRootSegment().isLastPath()
+        && path.getRootSegment().getPath().equalsIgnoreCase(column.getRootSegment().getPath());
+  }
+
+  /**
+   * @return true if none of the values of the page match the condition
+   */
+  @Override
+  public boolean apply(Statistics<?> statistics) {
+    final long min;
+    final long max;
+    if (statistics instanceof IntStatistics) {
+      min = ((IntStatistics) statistics).getMin();
+      max = ((IntStatistics) statistics).getMax();
+    } else if (statistics instanceof LongStatistics) {
+      min = ((LongStatistics) statistics).getMin();
+      max = ((LongStatistics) statistics).getMax();
+    } else {
+      return false;
+    }
+
+    for (int i = 0; i < ops.size(); i++) {
+      if (excludes(ops.get(i), values.get(i), min, max)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean excludes(Op op, long value, long min, long max) {
+    switch (op) {
+    case EQUAL:
+      return value < min || value > max;
+    case NOT_EQUAL:
+      return min == value && max == value;
+    case LESS_THAN:
+      return min >= value;
+    case LESS_THAN_OR_EQUAL:
+      return min > value;
+    case GREATER_THAN:
+      return max <= value;
+    case GREATER_THAN_OR_EQUAL:
+      return max < value;
+    default:
+      return false;
+    }
+  }
+}
@@ -28,6 +28,11 @@ import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
@@ -53,6 +58,7 @@ import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.hadoop.CodecFactory;
 import org.apache.parquet.hadoop.ColumnChunkPageWriteStoreExposer;
 import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetFileWriterExposer;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.MessageColumnIO;
@@ -86,7 +92,10 @@ import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
 import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 
 public class ParquetRecordWriter extends ParquetOutputRecordWriter {
@@ -99,6 +108,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     AVG_FILE_SIZE, // Average size of files written
     MIN_RECORD_COUNT_IN_FILE, // Minimum number of records written in a file
     MAX_RECORD_COUNT_IN_FILE, // Maximum number of records written in a file
+    FILE_WRITE_WAIT_NANOS, // Time spent waiting for the previous file to be written in the background
     ;
 
     @Override
@@ -108,6 +118,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   }
 
   public static final String DREMIO_ARROW_SCHEMA = "dremio.arrow.schema";
+  // columns the records of the file are sorted on, if any
+  public static final String DREMIO_SORT_COLUMNS = "dremio.sort.columns";
+  public static final char SORT_COLUMNS_SEPARATOR = ',';
 
   private static final int MINIMUM_RECORD_COUNT_FOR_CHECK = 100;
   private static final int MAXIMUM_RECORD_COUNT_FOR_CHECK = 10000;
@@ -155,6 +168,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private final int memoryThreshold;
   private final long maxPartitions;
   private final long minRecordsForFlush;
+  private final boolean writeInBackground;
+  private PendingFile pendingFile;
+  private final Stopwatch fileWriteWaitWatch = Stopwatch.createUnstarted();
 
   // metrics workspace variables
   int numFilesWritten = 0;
@@ -173,6 +189,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
         new ParquetDirectByteBufferAllocator(codecAllocator), pageSize);
     this.extraMetaData.put(DREMIO_VERSION_PROPERTY, DremioVersionInfo.getVersion());
     this.extraMetaData.put(IS_DATE_CORRECT_PROPERTY, "true");
+    if (writer.getOptions() != null && writer.getOptions().hasSort()) {
+      this.extraMetaData.put(DREMIO_SORT_COLUMNS, Joiner.on(SORT_COLUMNS_SEPARATOR).join(writer.getOptions().getSortColumns()));
+    }
     this.proxyUserUGI = ImpersonationUtil.createProxyUgi(writer.getUserName());
 
     FragmentHandle handle = context.getFragmentHandle();
@@ -208,6 +227,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     enableDictionaryForBinary = context.getOptions().getOption(ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING_BINARY_TYPE_VALIDATOR);
     maxPartitions = context.getOptions().getOption(ExecConstants.PARQUET_MAXIMUM_PARTITIONS_VALIDATOR);
     minRecordsForFlush = context.getOptions().getOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR);
+    writeInBackground = context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BACKGROUND_WRITE_VALIDATOR);
   }
 
   @Override
@@ -373,23 +393,32 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     }
 
     if (recordCount > 0) {
+      // only one file is written in the background at a time, which bounds the memory held by buffered row groups.
+      completePendingFile();
+
       long memSize = store.getBufferedSize();
-      parquetFileWriter.startBlock(recordCount);
+      // encoding and compression of the remaining pages stay on this thread, the codec factory isn't thread safe.
       consumer.flush();
       store.flush();
-      ColumnChunkPageWriteStoreExposer.flushPageStore(pageStore, parquetFileWriter);
-      parquetFileWriter.endBlock();
-      long recordsWritten = recordCount;
 
-      // we are writing one single block per file
-      parquetFileWriter.end(extraMetaData);
       byte[] metadata = this.trackingConverter == null ? null : trackingConverter.getMetadata();
-      listener.recordsWritten(recordsWritten, path.toString(), metadata /** TODO: add parquet footer **/, partition.getBucketNumber());
+      final PendingFile file = new PendingFile(parquetFileWriter, pageStore, store, new HashMap<>(extraMetaData),
+          recordCount, memSize, path.toString(), metadata /** TODO: add parquet footer **/, partition.getBucketNumber());
       parquetFileWriter = null;
-
-      updateStats(memSize, recordCount);
-
+      store = null;
       recordCount = 0;
+
+      if (!writeInBackground || !file.submit()) {
+        try {
+          file.write();
+        } catch (IOException e) {
+          file.store.close();
+          throw e;
+        }
+        completeFile(file);
+      } else {
+        pendingFile = file;
+      }
     }
 
     if(store != null){
@@ -401,6 +430,120 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     index++;
   }
 
+  /**
+   * Wait for the file written in the background, if any, and report it.
+   */
+  private void completePendingFile() throws IOException {
+    if (pendingFile == null) {
+      return;
+    }
+
+    final PendingFile file = pendingFile;
+    pendingFile = null;
+    fileWriteWaitWatch.start();
+    try {
+      file.await();
+    } catch (IOException e) {
+      file.store.close();
+      throw e;
+    } finally {
+      fileWriteWaitWatch.stop();
+      context.getStats().setLongStat(Metric.FILE_WRITE_WAIT_NANOS, fileWriteWaitWatch.elapsed(TimeUnit.NANOSECONDS));
+    }
+    completeFile(file);
+  }
+
+  private void completeFile(PendingFile file) throws IOException {
+    file.store.close();
+    listener.recordsWritten(file.recordCount, file.path, file.metadata, file.bucketNumber);
+    updateStats(file.memSize, file.recordCount);
+  }
+
+  /**
+   * A file whose single row group is encoded and compressed, and whose pages and footer remain to be written.
+   */
+  private class PendingFile {
+    private final ParquetFileWriter fileWriter;
+    private final PageWriteStore pageStore;
+    private final ColumnWriteStore store;
+    private final Map<String, String> extraMetaData;
+    private final long recordCount;
+    private final long memSize;
+    private final String path;
+    private final byte[] metadata;
+    private final Integer bucketNumber;
+    private Future<Void> future;
+
+    PendingFile(ParquetFileWriter fileWriter, PageWriteStore pageStore, ColumnWriteStore store,
+        Map<String, String> extraMetaData, long recordCount, long memSize, String path, byte[] metadata,
+        Integer bucketNumber) {
+      this.fileWriter = fileWriter;
+      this.pageStore = pageStore;
+      this.store = store;
+      this.extraMetaData = extraMetaData;
+      this.recordCount = recordCount;
+      this.memSize = memSize;
+      this.path = path;
+      this.metadata = metadata;
+      this.bucketNumber = bucketNumber;
+    }
+
+    /**
+     * @return true if the file is being written in the background, false if it has to be written by the caller
+     */
+    boolean submit() {
+      try {
+        future = context.getExecutor().submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            proxyUserUGI.doAs(new PrivilegedExceptionAction<Void>() {
+              @Override
+              public Void run() throws Exception {
+                write();
+                return null;
+              }
+            });
+            return null;
+          }
+        });
+        return true;
+      } catch (RejectedExecutionException e) {
+        logger.debug("Unable to write {} in the background, writing it in place.", path, e);
+        return false;
+      }
+    }
+
+    void write() throws IOException {
+      try {
+        // we are writing one single block per file
+        fileWriter.startBlock(recordCount);
+        ColumnChunkPageWriteStoreExposer.flushPageStore(pageStore, fileWriter);
+        fileWriter.endBlock();
+        fileWriter.end(extraMetaData);
+      } catch (IOException | RuntimeException e) {
+        // the file writer only closes its output stream once the file is complete.
+        try {
+          ParquetFileWriterExposer.closeOutput(fileWriter);
+        } catch (IOException | RuntimeException closeException) {
+          e.addSuppressed(closeException);
+        }
+        throw e;
+      }
+    }
+
+    void await() throws IOException {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while writing " + path, e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException("Failure while writing " + path, e.getCause());
+      }
+    }
+  }
+
   private interface UpdateTrackingConverter {
     public byte[] getMetadata();
   }
@@ -508,6 +651,11 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private void checkBlockSizeReached() throws IOException {
     if (recordCount >= recordCountForNextMemCheck && recordCount >= minRecordsForFlush) { // checking the memory size is relatively expensive, so let's not do it for every record.
       long memSize = store.getBufferedSize();
+      if (pendingFile != null && memSize + pendingFile.memSize >= blockSize) {
+        // the pages of the file written in the background are still held, wait for them to be released rather than
+        // holding more than a block.
+        completePendingFile();
+      }
       if (context.getAllocator().getHeadroom() < memoryThreshold || memSize >= blockSize) {
         logger.debug("Reached block size " + blockSize);
         flushAndClose();
@@ -680,6 +828,11 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
       public void close() throws Exception {
         flushAndClose();
       }
+    }, new AutoCloseable() {
+      @Override
+      public void close() throws Exception {
+        completePendingFile();
+      }
     }, new AutoCloseable() {
       @Override
       public void close() throws Exception {
@@ -33,6 +33,7 @@ import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ScanPrelBase;
 import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.store.TableMetadata;
+import com.dremio.exec.store.dfs.SplitCombiner;
 import com.google.common.base.Objects;
 
 /**
@@ -99,7 +100,8 @@ public class ParquetScanPrel extends ScanPrelBase {
 
   @Override
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
-    return creator.addMetadata(this, new ParquetGroupScan(tableMetadata, projectedColumns, conditions, globalDictionaryEncodedColumns, cachedRelDataType));
+    return creator.addMetadata(this, new ParquetGroupScan(tableMetadata, projectedColumns, conditions, globalDictionaryEncodedColumns, cachedRelDataType,
+      SplitCombiner.create(PrelUtil.getPlannerSettings(getCluster()))));
   }
 
   @Override
@@ -58,6 +58,7 @@ import com.dremio.sabot.op.scan.OutputMutator;
 import com.dremio.sabot.op.scan.ScanOperator.Metric;
 import com.dremio.service.namespace.file.proto.ParquetDatasetSplitXAttr;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
 
 public class UnifiedParquetReader implements RecordReader {
@@ -86,6 +87,10 @@ public class UnifiedParquetReader implements RecordReader {
   private final List<SchemaPath> vectorizableReaderColumns = new ArrayList<>();
   private final Map<String, ValueVector> vectorizedMap = new HashMap<>();
   private final Map<String, ValueVector> nonVectorizedMap = new HashMap<>();
+  // when late materializing, columns read before filtering, and columns only read for the selected records
+  private final List<SchemaPath> filterReaderColumns = new ArrayList<>();
+  private final List<SchemaPath> lateReaderColumns = new ArrayList<>();
+  private SimpleIntVector deltas;
   private boolean useSingleStream;
 
   public UnifiedParquetReader(
@@ -141,11 +146,12 @@ public class UnifiedParquetReader implements RecordReader {
       delegateReader.setup(output);
     }
 
-    for (SchemaPath path : vectorizableReaderColumns) {
+    final boolean lateMaterialized = execPath == ExecutionPath.LATE_MATERIALIZED;
+    for (SchemaPath path : lateMaterialized ? filterReaderColumns : vectorizableReaderColumns) {
       String name = path.getRootSegment().getNameSegment().getPath();
       vectorizedMap.put(name, output.getVector(name));
     }
-    for (SchemaPath path : nonVectorizableReaderColumns) {
+    for (SchemaPath path : lateMaterialized ? lateReaderColumns : nonVectorizableReaderColumns) {
       String name = path.getRootSegment().getNameSegment().getPath();
       nonVectorizedMap.put(name, output.getVector(name));
     }
@@ -241,6 +247,7 @@ public class UnifiedParquetReader implements RecordReader {
     for (RecordReader delegateReader : delegates) {
       AutoCloseables.close(delegateReader);
     }
+    AutoCloseables.close(deltas);
   }
 
   private void splitColumns(final ParquetMetadata footer,
@@ -338,6 +345,56 @@ public class UnifiedParquetReader implements RecordReader {
     return true;
   }
 
+  /**
+   * Splits the columns to read between the filter column, read first, and the other columns, only read for the records
+   * selected by the filter.
+   * @return true if there are columns to read after filtering
+   */
+  private boolean splitLateColumns() {
+    if (filterConditions == null || filterConditions.size() != 1
+        || !context.getOptions().getOption(ExecConstants.PARQUET_LATE_MATERIALIZATION)) {
+      return false;
+    }
+
+    final String filterColumn = filterConditions.get(0).getPath().getRootSegment().getPath();
+    final BlockMetaData block = footer.getBlocks().get(readEntry.getRowGroupIndex());
+    for (SchemaPath path : getResolvedColumns(block.getColumns())) {
+      if (!isInFile(path)) {
+        // the readers would return batches of nulls for it, without skipping
+        filterReaderColumns.clear();
+        lateReaderColumns.clear();
+        return false;
+      }
+      if (path.getRootSegment().getPath().equalsIgnoreCase(filterColumn)) {
+        filterReaderColumns.add(path);
+      } else {
+        lateReaderColumns.add(path);
+      }
+    }
+    return !filterReaderColumns.isEmpty() && !lateReaderColumns.isEmpty();
+  }
+
+  private boolean isInFile(SchemaPath path) {
+    final String name = path.getRootSegment().getPath();
+    for (SchemaPath column : Iterables.concat(vectorizableReaderColumns, nonVectorizableReaderColumns)) {
+      if (column.getRootSegment().getPath().equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return condition the row-wise reader can skip pages with, as its records are filtered with it afterwards
+   */
+  private FilterCondition getPageFilterCondition() {
+    if (filterConditions == null || filterConditions.size() != 1
+        || !context.getOptions().getOption(ExecConstants.PARQUET_PAGE_FILTER)) {
+      return null;
+    }
+    return filterConditions.get(0);
+  }
+
   public ParquetMetadata getFooter() {
     return footer;
   }
@@ -389,7 +446,9 @@ public class UnifiedParquetReader implements RecordReader {
             unifiedReader.fs,
             containsCorruptDates,
             unifiedReader.readInt96AsTimeStamp,
-            unifiedReader.useSingleStream
+            null,
+            unifiedReader.useSingleStream,
+            unifiedReader.getPageFilterCondition()
           )
         ));
         return returnList;
@@ -492,6 +551,55 @@ public class UnifiedParquetReader implements RecordReader {
         };
         return Collections.singletonList(reader);
       }
+    },
+
+    LATE_MATERIALIZED {
+      @Override
+      public List<RecordReader> getReaders(UnifiedParquetReader unifiedReader) {
+        final ParquetMetadata footer = unifiedReader.getFooter();
+        final DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footer,
+          unifiedReader.columnsInGroupScan, unifiedReader.autoCorrectCorruptDates);
+        unifiedReader.deltas = new SimpleIntVector("deltas", unifiedReader.context.getAllocator());
+
+        // the filter reader reports the records it selects in deltas, the other reader skips the rest
+        List<RecordReader> returnList = new ArrayList<>();
+        returnList.add(
+          new CopyingFilteringReader(
+            new ParquetRowiseReader(
+              unifiedReader.context,
+              footer,
+              unifiedReader.readEntry.getRowGroupIndex(),
+              unifiedReader.readEntry.getPath(),
+              unifiedReader.filterReaderColumns,
+              unifiedReader.fs,
+              containsCorruptDates,
+              unifiedReader.readInt96AsTimeStamp,
+              null,
+              unifiedReader.useSingleStream,
+              unifiedReader.getPageFilterCondition()
+            ),
+            unifiedReader.context,
+            unifiedReader.filterConditions.get(0).getExpr(),
+            unifiedReader.filterReaderColumns,
+            unifiedReader.deltas
+          )
+        );
+        returnList.add(
+          new ParquetRowiseReader(
+            unifiedReader.context,
+            footer,
+            unifiedReader.readEntry.getRowGroupIndex(),
+            unifiedReader.readEntry.getPath(),
+            unifiedReader.lateReaderColumns,
+            unifiedReader.fs,
+            containsCorruptDates,
+            unifiedReader.readInt96AsTimeStamp,
+            unifiedReader.deltas,
+            unifiedReader.useSingleStream
+          )
+        );
+        return returnList;
+      }
     };
 
     /**
@@ -508,6 +616,9 @@ public class UnifiedParquetReader implements RecordReader {
       return ExecutionPath.DEPRECATED_VECTORIZED;
     }
     if (!determineFilterConditions(vectorizableReaderColumns, nonVectorizableReaderColumns) || !vectorize) {
+      if (splitLateColumns()) {
+        return ExecutionPath.LATE_MATERIALIZED;
+      }
       return ExecutionPath.ROWWISE;
     }
 
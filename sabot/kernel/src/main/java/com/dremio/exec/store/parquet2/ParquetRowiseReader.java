@@ -60,11 +60,14 @@ import com.dremio.common.expression.SchemaPath;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.store.parquet.AbstractParquetReader;
+import com.dremio.exec.store.parquet.FilterCondition;
+import com.dremio.exec.store.parquet.ParquetPageFilter;
 import com.dremio.exec.store.parquet.ParquetReaderUtility;
 import com.dremio.exec.store.parquet.ParquetRecordWriter;
 import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.sabot.op.scan.ScanOperator;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -102,11 +105,25 @@ public class ParquetRowiseReader extends AbstractParquetReader {
   private final boolean readInt96AsTimeStamp;
   private VectorizedBasedFilter vectorizedBasedFilter;
   private final boolean useSingleStream;
+  // condition rejecting the records read, if any, used to skip the pages of its column that can't match it
+  private final FilterCondition filterCondition;
 
   public ParquetRowiseReader(OperatorContext context, ParquetMetadata footer, int rowGroupIndex, String path,
                              List<SchemaPath> columns, FileSystem fileSystem,
                              ParquetReaderUtility.DateCorruptionStatus containsCorruptedDates, boolean readInt96AsTimeStamp,
                              SimpleIntVector deltas, boolean useSingleStream) {
+    this(context, footer, rowGroupIndex, path, columns, fileSystem, containsCorruptedDates, readInt96AsTimeStamp, deltas,
+      useSingleStream, null);
+  }
+
+  /**
+   * @param filterCondition condition the records read are filtered with, or null. Values of the pages that can't hold
+   *                        a matching record are read as nulls.
+   */
+  public ParquetRowiseReader(OperatorContext context, ParquetMetadata footer, int rowGroupIndex, String path,
+                             List<SchemaPath> columns, FileSystem fileSystem,
+                             ParquetReaderUtility.DateCorruptionStatus containsCorruptedDates, boolean readInt96AsTimeStamp,
+                             SimpleIntVector deltas, boolean useSingleStream, FilterCondition filterCondition) {
     super(context, columns, deltas);
     this.footer = footer;
     this.fileSystem = fileSystem;
@@ -115,6 +132,7 @@ public class ParquetRowiseReader extends AbstractParquetReader {
     this.containsCorruptedDates = containsCorruptedDates;
     this.readInt96AsTimeStamp = readInt96AsTimeStamp;
     this.useSingleStream = useSingleStream;
+    this.filterCondition = filterCondition;
   }
 
   public ParquetRowiseReader(OperatorContext context, ParquetMetadata footer, int rowGroupIndex, String path,
@@ -278,7 +296,7 @@ public class ParquetRowiseReader extends AbstractParquetReader {
           Type type = schema.getType(path);
           if (type.isPrimitive()) {
             ColumnChunkMetaData md = paths.get(ColumnPath.get(path));
-            pageReadStore.addColumn(schema.getColumnDescription(path), md);
+            pageReadStore.addColumn(schema.getColumnDescription(path), md, getPageFilter(path, type));
           }
         }
 
@@ -308,6 +326,14 @@ public class ParquetRowiseReader extends AbstractParquetReader {
     }
   }
 
+  private ParquetPageFilter getPageFilter(String[] path, Type type) {
+    if (filterCondition == null || path.length != 1
+        || !path[0].equalsIgnoreCase(filterCondition.getPath().getRootSegment().getPath())) {
+      return null;
+    }
+    return ParquetPageFilter.of(filterCondition, type.asPrimitiveType());
+  }
+
   protected void handleAndRaise(String s, Exception e) {
     close();
     String message = "Error in parquet reader (complex).\nMessage: " + s +
@@ -388,6 +414,9 @@ public class ParquetRowiseReader extends AbstractParquetReader {
   public void close() {
     try {
       if (pageReadStore != null) {
+        if (operatorContext != null) {
+          operatorContext.getStats().addLongStat(ScanOperator.Metric.NUM_PAGES_DROPPED, pageReadStore.getDroppedPageCount());
+        }
         pageReadStore.close();
         pageReadStore = null;
       }
@@ -33,6 +33,7 @@ import com.dremio.exec.planner.sql.handlers.commands.AsyncCommand;
 import com.dremio.exec.planner.sql.handlers.commands.AsyncCommand.QueueType;
 import com.dremio.exec.planner.sql.handlers.commands.CommandCreator;
 import com.dremio.exec.planner.sql.handlers.commands.CommandRunner;
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
 import com.dremio.exec.planner.sql.handlers.commands.PreparedPlan;
 import com.dremio.exec.proto.CoordExecRPC.FragmentStatus;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryStatus;
@@ -100,6 +101,7 @@ public class AttemptManager implements Runnable {
   private final QueryManager queryManager; // handles lower-level details of query execution
   private final SabotContext sabotContext;
   private final Cache<Long, PreparedPlan> plans;
+  private final PlanCache planCache;
   private volatile QueryState state;
 
   private volatile DistributedLease lease; // used to limit the number of concurrent queries
@@ -128,6 +130,7 @@ public class AttemptManager implements Runnable {
     final OptionProvider options,
     final CoordToExecTunnelCreator tunnelCreator,
     final Cache<Long, PreparedPlan> plans,
+    final PlanCache planCache,
     final QueryContext queryContext
   ) {
     this.attemptId = attemptId;
@@ -137,6 +140,7 @@ public class AttemptManager implements Runnable {
     this.sabotContext = context;
     this.tunnelCreator = tunnelCreator;
     this.plans = plans;
+    this.planCache = planCache;
     this.prepareId = new Pointer<>();
 
     this.queryContext = queryContext;
@@ -374,7 +378,7 @@ public class AttemptManager implements Runnable {
 
   protected CommandCreator newCommandCreator(QueryContext queryContext, AttemptObserver observer, Pointer<QueryId> prepareId) {
     return new CommandCreator(this.sabotContext, queryContext, tunnelCreator, queryRequest,
-      observer, plans, prepareId, attemptId.getAttemptNum());
+      observer, plans, planCache, prepareId, attemptId.getAttemptNum());
   }
 
   private void releaseLease() {
@@ -29,6 +29,7 @@ import com.dremio.common.concurrent.ExtendedLatch;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.planner.observer.OutOfBandQueryObserver;
 import com.dremio.exec.planner.observer.QueryObserver;
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
 import com.dremio.exec.planner.sql.handlers.commands.PreparedPlan;
 import com.dremio.exec.proto.CoordExecRPC.FragmentStatus;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryStatus;
@@ -66,6 +67,7 @@ import com.dremio.service.Service;
 import com.dremio.service.coordinator.ClusterCoordinator;
 import com.dremio.services.fabric.api.FabricRunnerFactory;
 import com.dremio.services.fabric.api.FabricService;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -86,6 +88,7 @@ public class ForemenWorkManager implements Service, SafeExit {
   // Not making this a system/session option as we initialize this in the beginning of the node start and
   // changing system/session option is not going to have any effect.
   private static final String PREPARE_HANDLE_TIMEOUT_MS = "dremio.prepare.handle.timeout_ms";
+  private static final String PLAN_CACHE_MAX_SIZE = "dremio.plan.cache.max_size_bytes";
 
   // cache of prepared statement queries.
   private final Cache<Long, PreparedPlan> preparedHandles = CacheBuilder.newBuilder()
@@ -96,6 +99,9 @@ public class ForemenWorkManager implements Service, SafeExit {
       .expireAfterWrite(Long.getLong(PREPARE_HANDLE_TIMEOUT_MS, 60_000L), TimeUnit.MILLISECONDS)
       .build();
 
+  // cache of normal query plans, bounded by the approximate size of the plans.
+  private final PlanCache planCache = new PlanCache(Long.getLong(PLAN_CACHE_MAX_SIZE, 64L * 1024 * 1024));
+
   // single map of currently running queries, mapped by their external ids.
   private final ConcurrentMap<ExternalId, ManagedForeman> externalIdToForeman = Maps.newConcurrentMap();
   private final NodeStatusListener nodeListener = new NodeStatusListener();
@@ -152,6 +158,11 @@ public class ForemenWorkManager implements Service, SafeExit {
     AutoCloseables.close(pool);
   }
 
+  @VisibleForTesting
+  public PlanCache getPlanCache() {
+    return planCache;
+  }
+
   public void submit(
           final ExternalId externalId,
           final QueryObserver observer,
@@ -162,7 +173,7 @@ public class ForemenWorkManager implements Service, SafeExit {
           final ReAttemptHandler attemptHandler) {
 
     final DelegatingCompletionListener delegate = new DelegatingCompletionListener();
-    final Foreman foreman = newForeman(pool, delegate, externalId, observer, session, request, config, attemptHandler, tunnelCreator, preparedHandles);
+    final Foreman foreman = newForeman(pool, delegate, externalId, observer, session, request, config, attemptHandler, tunnelCreator, preparedHandles, planCache);
     final ManagedForeman managed = new ManagedForeman(registry, foreman);
     externalIdToForeman.put(foreman.getExternalId(), managed);
     delegate.setListener(managed);
@@ -172,8 +183,8 @@ public class ForemenWorkManager implements Service, SafeExit {
   protected Foreman newForeman(Executor executor, CompletionListener listener, ExternalId externalId,
       QueryObserver observer, UserSession session, UserRequest request, OptionProvider config,
       ReAttemptHandler attemptHandler, CoordToExecTunnelCreator tunnelCreator,
-      Cache<Long, PreparedPlan> plans) {
-    return new Foreman(dbContext.get(), executor, listener, externalId, observer, session, request, config, attemptHandler, tunnelCreator, plans);
+      Cache<Long, PreparedPlan> plans, PlanCache planCache) {
+    return new Foreman(dbContext.get(), executor, listener, externalId, observer, session, request, config, attemptHandler, tunnelCreator, plans, planCache);
   }
 
   private class RunningQueryProviderImpl implements RunningQueryProvider {
@@ -32,7 +32,6 @@ import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.exception.FragmentSetupException;
 import com.dremio.exec.expr.fn.FunctionLookupContext;
 import com.dremio.exec.physical.base.PhysicalOperator;
-import com.dremio.exec.planner.PhysicalPlanReader;
 import com.dremio.exec.proto.CoordExecRPC.FragmentPriority;
 import com.dremio.exec.proto.CoordExecRPC.FragmentStatus;
 import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
@@ -97,7 +96,7 @@ public class FragmentExecutor {
   private final PlanFragment fragment;
   private final UserGroupInformation queryUserUgi;
   private final ClusterCoordinator clusterCoordinator;
-  private final PhysicalPlanReader reader;
+  private final FragmentPlanReader reader;
   private final SharedResourceManager sharedResources;
   private final OperatorCreatorRegistry opCreator;
   private final BufferAllocator allocator;
@@ -136,7 +135,7 @@ public class FragmentExecutor {
       SabotConfig config,
       PlanFragment fragment,
       ClusterCoordinator clusterCoordinator,
-      PhysicalPlanReader reader,
+      FragmentPlanReader reader,
       SharedResourceManager sharedResources,
       OperatorCreatorRegistry opCreator,
       BufferAllocator allocator,
@@ -314,7 +313,7 @@ public class FragmentExecutor {
   private void setupExecution() throws Exception{
     logger.debug("Starting fragment {}:{} on {}:{}", fragment.getHandle().getMajorFragmentId(), fragment.getHandle().getMinorFragmentId(), fragment.getAssignment().getAddress(), fragment.getAssignment().getUserPort());
 
-    final PhysicalOperator rootOperator = reader.readFragmentOperator(fragment.getFragmentJson(), fragment.getFragmentCodec());
+    final PhysicalOperator rootOperator = reader.readFragmentOperator(fragment);
 
     final OperatorCreator operatorCreator = new UserDelegatingOperatorCreator(contextInfo.getQueryUser(), opCreator);
     pipeline = PipelineCreator.get(
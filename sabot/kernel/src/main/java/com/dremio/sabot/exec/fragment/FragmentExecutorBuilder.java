@@ -87,7 +87,7 @@ public class FragmentExecutorBuilder {
   private final OperatorCreatorRegistry opCreator;
   private final FunctionImplementationRegistry funcRegistry;
   private final CodeCompiler compiler;
-  private final PhysicalPlanReader planReader;
+  private final FragmentPlanReader planReader;
   private final SchemaChangeListener schemaUpdater;
   private final Set<ClusterCoordinator.Role> roles;
   private final CatalogService sources;
@@ -118,7 +118,7 @@ public class FragmentExecutorBuilder {
     this.execToCoord = execToCoord;
     this.dataCreator = dataCreator;
     this.namespace = namespace;
-    this.planReader = planReader;
+    this.planReader = new FragmentPlanReader(planReader);
     this.opCreator = new OperatorCreatorRegistry(scanResult);
     this.funcRegistry = functions;
     this.compiler = new CodeCompiler(config, optionManager);
@@ -139,7 +139,7 @@ public class FragmentExecutorBuilder {
         list = new OptionList();
       } else {
         try {
-          list = planReader.readOptionList(fragment.getOptionsJson(), fragment.getFragmentCodec());
+          list = planReader.readOptionList(fragment);
         } catch (final Exception e) {
           throw new ExecutionSetupException("Failure while reading plan options.", e);
         }
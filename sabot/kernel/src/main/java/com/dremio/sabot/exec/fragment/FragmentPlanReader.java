@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.fragment;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.dremio.exec.physical.base.FragmentRoot;
+import com.dremio.exec.planner.PhysicalPlanReader;
+import com.dremio.exec.planner.fragment.SharedPlanFragments;
+import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
+import com.dremio.exec.server.options.OptionList;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.ByteString;
+
+/**
+ * Reads the plans and options of the fragments started on this node.
+ *
+ * Fragments unpacked from the same message share the instances of the plans and options they have in common (see
+ * {@link SharedPlanFragments}), which are only parsed once, by the first fragment that needs them. Operator configs
+ * aren't modified once read, so fragments can share them. Parsed plans and options are keyed by the identity of
+ * their json, and are dropped once the fragments holding it are done.
+ */
+class FragmentPlanReader {
+
+  private final PhysicalPlanReader reader;
+  // weak keys are compared by identity
+  private final Cache<ByteString, FragmentRoot> plans = CacheBuilder.newBuilder().weakKeys().build();
+  private final Cache<ByteString, OptionList> options = CacheBuilder.newBuilder().weakKeys().build();
+
+  FragmentPlanReader(PhysicalPlanReader reader) {
+    this.reader = reader;
+  }
+
+  FragmentRoot readFragmentOperator(final PlanFragment fragment) throws IOException {
+    return get(plans, fragment.getFragmentJson(), new Callable<FragmentRoot>() {
+      @Override
+      public FragmentRoot call() throws Exception {
+        return reader.readFragmentOperator(fragment.getFragmentJson(), fragment.getFragmentCodec());
+      }
+    });
+  }
+
+  OptionList readOptionList(final PlanFragment fragment) throws IOException {
+    return get(options, fragment.getOptionsJson(), new Callable<OptionList>() {
+      @Override
+      public OptionList call() throws Exception {
+        return reader.readOptionList(fragment.getOptionsJson(), fragment.getFragmentCodec());
+      }
+    });
+  }
+
+  private static <T> T get(Cache<ByteString, T> cache, ByteString json, Callable<T> loader) throws IOException {
+    try {
+      return cache.get(json, loader);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+}
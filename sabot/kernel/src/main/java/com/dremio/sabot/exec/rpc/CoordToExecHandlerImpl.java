@@ -15,6 +15,7 @@
  */
 package com.dremio.sabot.exec.rpc;
 
+import com.dremio.exec.planner.fragment.SharedPlanFragments;
 import com.dremio.exec.proto.CoordExecRPC.InitializeFragments;
 import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
@@ -46,8 +47,8 @@ public class CoordToExecHandlerImpl implements CoordToExecHandler {
 
   @Override
   public void startFragments(InitializeFragments fragments) throws UserRpcException {
-    for(int i = 0; i < fragments.getFragmentCount(); i++) {
-      startFragment(fragments.getFragment(i));
+    for(PlanFragment fragment : SharedPlanFragments.unpack(fragments)) {
+      startFragment(fragment);
     }
   }
 
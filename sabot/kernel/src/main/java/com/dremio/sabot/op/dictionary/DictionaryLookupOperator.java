@@ -54,7 +54,7 @@ import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.exec.store.StoragePlugin;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
-import com.dremio.exec.store.parquet.ParquetFormatPlugin;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache.DictionaryReference;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
 import com.dremio.sabot.op.spi.SingleInputOperator;
@@ -73,6 +73,8 @@ public class DictionaryLookupOperator implements SingleInputOperator {
   private Map<String, ValueVector> allocationVectors;
   private List<TransferPair> transferPairs;
   private final Map<String, VectorContainer> dictionaries = Maps.newHashMap();
+  // references to the shared dictionaries held by this operator
+  private final List<AutoCloseable> dictionaryReferences = Lists.newArrayList();
   private int recordsConsumedCurrentBatch;
   private Map<String, ValueVector> dictionaryIdIncomingVectors;
   private boolean hasSv2 = false;
@@ -149,7 +151,10 @@ public class DictionaryLookupOperator implements SingleInputOperator {
     if (storagePlugin instanceof FileSystemPlugin) {
       final FileSystemPlugin fsPlugin = (FileSystemPlugin) storagePlugin;
       final FileSystem fs = FileSystemWrapper.get(fsPlugin.getFsConf());
-      return ParquetFormatPlugin.loadDictionary(fs, new Path(config.getDictionaryEncodedFields().get(fieldName).getDictionaryPath()), context.getAllocator());
+      final DictionaryReference reference = fsPlugin.getDictionaryCache().acquire(fs,
+        new Path(config.getDictionaryEncodedFields().get(fieldName).getDictionaryPath()), context);
+      dictionaryReferences.add(reference);
+      return reference.getDictionary();
     } else {
       throw new ExecutionSetupException(format("Storage plugin %s is not a filesystem plugin", id.getName()));
     }
@@ -464,8 +469,10 @@ public class DictionaryLookupOperator implements SingleInputOperator {
   @Override
   public void close() throws Exception {
     try {
-      AutoCloseables.close(outgoing, dictionaries.values());
+      // dictionaries are shared, only release the references to them.
+      AutoCloseables.close(outgoing, dictionaryReferences);
     } finally {
+      dictionaryReferences.clear();
       dictionaries.clear();
     }
   }
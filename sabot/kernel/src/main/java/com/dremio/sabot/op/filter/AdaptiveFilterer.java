@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.filter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+
+/**
+ * Filters batches with the conjuncts of an AND condition, each evaluated in its own pass over the records selected by
+ * the previous ones. Every {@link #RERANK_INTERVAL} batches, conjuncts are reordered by increasing cost per record
+ * over the fraction of records they reject, as measured over the last batches, so that cheap and selective conjuncts
+ * run first. Only the leading conjuncts that can't fail are reordered, the others stay last in their order, so that
+ * they are still only evaluated on the records that the conjuncts guarding them selected.
+ *
+ * The filterers of the conjuncts share the outgoing selection vector, and don't transfer vectors themselves.
+ */
+class AdaptiveFilterer implements Filterer {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AdaptiveFilterer.class);
+  static final int RERANK_INTERVAL = 16;
+
+  private static final Comparator<Conjunct> BY_RANK = new Comparator<Conjunct>() {
+    @Override
+    public int compare(Conjunct o1, Conjunct o2) {
+      return Double.compare(o1.rank, o2.rank);
+    }
+  };
+
+  private final Conjunct[] conjuncts;
+  private final int reorderable;
+  private final OperatorStats stats;
+  private TransferPair[] transfers;
+  private int batches;
+  private int reorders;
+
+  /**
+   * @param filterers filterers of the conjuncts, in the order of the condition
+   * @param reorderable number of leading conjuncts that can be reordered
+   */
+  AdaptiveFilterer(List<RefiningFilterer> filterers, int reorderable, OperatorStats stats) {
+    this.conjuncts = new Conjunct[filterers.size()];
+    for (int i = 0; i < conjuncts.length; i++) {
+      conjuncts[i] = new Conjunct(i, filterers.get(i));
+    }
+    this.reorderable = reorderable;
+    this.stats = stats;
+  }
+
+  @Override
+  public void setup(FunctionContext context, VectorAccessible incoming, VectorAccessible outgoing, TransferPair[] transfers) throws SchemaChangeException {
+    this.transfers = transfers;
+    stats.setLongStat(FilterOperator.Metric.CONJUNCTS, conjuncts.length);
+    stats.setLongStat(FilterOperator.Metric.FIRST_CONJUNCT, conjuncts[0].index);
+  }
+
+  @Override
+  public int filterBatch(int recordCount) {
+    if (recordCount == 0) {
+      return 0;
+    }
+
+    int count = recordCount;
+    for (int i = 0; i < conjuncts.length && count > 0; i++) {
+      final Conjunct conjunct = conjuncts[i];
+      final long start = System.nanoTime();
+      final int selected = i == 0 ? conjunct.filterer.filterBatch(count) : conjunct.filterer.refineBatch(count);
+      conjunct.recordsIn += count;
+      conjunct.recordsOut += selected;
+      conjunct.nanos += System.nanoTime() - start;
+      count = selected;
+    }
+
+    for (TransferPair t : transfers) {
+      t.transfer();
+    }
+
+    if (++batches % RERANK_INTERVAL == 0) {
+      rerank();
+    }
+    return count;
+  }
+
+  private void rerank() {
+    final int first = conjuncts[0].index;
+    for (Conjunct conjunct : conjuncts) {
+      conjunct.rank();
+    }
+    // stable, so conjuncts that couldn't be ranked keep their order
+    Arrays.sort(conjuncts, 0, reorderable, BY_RANK);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Filter conjuncts ranked as {}", Arrays.toString(conjuncts));
+    }
+    for (Conjunct conjunct : conjuncts) {
+      conjunct.decay();
+    }
+
+    if (conjuncts[0].index != first) {
+      stats.setLongStat(FilterOperator.Metric.REORDERS, ++reorders);
+      stats.setLongStat(FilterOperator.Metric.FIRST_CONJUNCT, conjuncts[0].index);
+    }
+  }
+
+  private static final class Conjunct {
+    private final int index;
+    private final RefiningFilterer filterer;
+    private long recordsIn;
+    private long recordsOut;
+    private long nanos;
+    private double rank;
+
+    private Conjunct(int index, RefiningFilterer filterer) {
+      this.index = index;
+      this.filterer = filterer;
+    }
+
+    private void rank() {
+      if (recordsIn == 0) {
+        // not evaluated since the last ranking, as the previous conjuncts rejected everything
+        rank = Double.POSITIVE_INFINITY;
+        return;
+      }
+      final double cost = (double) nanos / recordsIn;
+      final double rejected = 1 - (double) recordsOut / recordsIn;
+      // conjuncts rejecting nothing are still ordered by cost
+      rank = cost / Math.max(rejected, 1e-9);
+    }
+
+    /**
+     * Halves the measures, so that recent batches weigh more in the next ranking.
+     */
+    private void decay() {
+      recordsIn /= 2;
+      recordsOut /= 2;
+      nanos /= 2;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("#%d(in: %d, out: %d, nanos: %d)", index, recordsIn, recordsOut, nanos);
+    }
+  }
+}
@@ -22,7 +22,12 @@ import org.apache.arrow.vector.util.TransferPair;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionHolderExpression;
+import com.dremio.common.expression.IfExpression;
 import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.exec.expr.ClassGenerator;
 import com.dremio.exec.expr.ReturnValueExpression;
@@ -32,12 +37,37 @@ import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 public class FilterOperator implements SingleInputOperator {
 
+  public enum Metric implements MetricDef {
+    CONJUNCTS,      // number of conjuncts evaluated in separate passes, when reordering them
+    REORDERS,       // number of times another conjunct was moved first
+    FIRST_CONJUNCT; // position in the condition of the conjunct currently evaluated first
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
+  // functions that return a value for any input, so that the conjuncts made of them can be evaluated in any order
+  private static final ImmutableSet<String> SAFE_FUNCTIONS = ImmutableSet.of(
+      "equal", "not_equal", "less_than", "less_than_or_equal_to", "greater_than", "greater_than_or_equal_to",
+      "isnull", "isnotnull", "istrue", "isnottrue", "isfalse", "isnotfalse", "not");
+
+  // functions matching their first argument against a pattern, compiled once when the filter is set up. They can't
+  // fail on a record if the pattern (and escape) is a literal, an invalid one fails the query whatever the order.
+  private static final ImmutableSet<String> PATTERN_FUNCTIONS = ImmutableSet.of(
+      "like", "ilike", "similar", "similar_to", "regexp_like", "regexp_matches");
+
   private final Filter config;
   private final OperatorContext context;
   private final VectorContainer output;
@@ -105,6 +135,11 @@ public class FilterOperator implements SingleInputOperator {
     return visitor.visitSingleInput(this, value);
   }
 
+  @VisibleForTesting
+  public OperatorContext getOperatorContext() {
+    return context;
+  }
+
   @Override
   public void close() throws Exception {
     AutoCloseables.close(output);
@@ -112,22 +147,101 @@ public class FilterOperator implements SingleInputOperator {
 
   protected Filterer generateSV2Filterer() throws SchemaChangeException {
     final List<TransferPair> transfers = Lists.newArrayList();
-    final ClassGenerator<Filterer> cg = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
-
     final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(config.getExpr(), input);
-    cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
 
     for (final VectorWrapper<?> v : input) {
       final TransferPair pair = v.getValueVector().makeTransferPair(output.addOrGet(v.getField()));
       transfers.add(pair);
     }
-
     final TransferPair[] tx = transfers.toArray(new TransferPair[transfers.size()]);
+
+    final List<LogicalExpression> conjuncts = Lists.newArrayList();
+    addConjuncts(expr, conjuncts);
+    // a conjunct that can fail, like 10 / x > 1 in x <> 0 AND 10 / x > 1, stays after the conjuncts before it
+    int reorderable = 0;
+    while (reorderable < conjuncts.size() && cannotFail(conjuncts.get(reorderable))) {
+      reorderable++;
+    }
+    if (reorderable > 1 && context.getOptions().getOption(ExecConstants.ENABLE_ADAPTIVE_FILTER)) {
+      final List<RefiningFilterer> filterers = Lists.newArrayList();
+      for (LogicalExpression conjunct : conjuncts.subList(0, reorderable)) {
+        filterers.add(generateRefiningFilterer(conjunct));
+      }
+      if (reorderable < conjuncts.size()) {
+        // the remaining conjuncts are evaluated together, last
+        final List<LogicalExpression> pinned = conjuncts.subList(reorderable, conjuncts.size());
+        filterers.add(generateRefiningFilterer(pinned.size() == 1 ? pinned.get(0)
+            : new BooleanOperator("booleanAnd", Lists.newArrayList(pinned))));
+      }
+      final Filterer filter = new AdaptiveFilterer(filterers, reorderable, context.getStats());
+      filter.setup(context.getClassProducer().getFunctionContext(), input, output, tx);
+      return filter;
+    }
+
+    final ClassGenerator<Filterer> cg = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
+    cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
+
     final Filterer filter = cg.getCodeGenerator().getImplementationClass();
     filter.setup(context.getClassProducer().getFunctionContext(), input, output, tx);
     return filter;
   }
 
+  private RefiningFilterer generateRefiningFilterer(LogicalExpression expr) throws SchemaChangeException {
+    final ClassGenerator<RefiningFilterer> cg = context.getClassProducer().createGenerator(RefiningFilterer.TEMPLATE_DEFINITION).getRoot();
+    cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
+
+    final RefiningFilterer filter = cg.getCodeGenerator().getImplementationClass();
+    filter.setup(context.getClassProducer().getFunctionContext(), input, output, new TransferPair[0]);
+    return filter;
+  }
+
+  /**
+   * @return true if the expression only compares, tests or matches values against literal patterns, and so returns a
+   * value for every record instead of failing on some of them
+   */
+  private static boolean cannotFail(LogicalExpression expr) {
+    if (expr instanceof FunctionHolderExpression) {
+      final FunctionHolderExpression function = (FunctionHolderExpression) expr;
+      if (PATTERN_FUNCTIONS.contains(function.getName())) {
+        if (function.args.size() < 2) {
+          return false;
+        }
+        for (LogicalExpression pattern : function.args.subList(1, function.args.size())) {
+          if (!(pattern instanceof QuotedString)) {
+            return false;
+          }
+        }
+        return cannotFail(function.args.get(0));
+      }
+      if (!SAFE_FUNCTIONS.contains(function.getName())) {
+        return false;
+      }
+    } else if (!(expr instanceof BooleanOperator || expr instanceof IfExpression) && !Iterables.isEmpty(expr)) {
+      // columns and constants have no children, other expressions may fail
+      return false;
+    }
+    for (LogicalExpression child : expr) {
+      if (!cannotFail(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Splits nested ANDs into their conjuncts. A record passes the filter only if all of them are true, whatever the
+   * order in which they are evaluated.
+   */
+  private static void addConjuncts(LogicalExpression expr, List<LogicalExpression> conjuncts) {
+    if (expr instanceof BooleanOperator && ((BooleanOperator) expr).getName().equals("booleanAnd")) {
+      for (LogicalExpression arg : ((BooleanOperator) expr).args) {
+        addConjuncts(arg, conjuncts);
+      }
+      return;
+    }
+    conjuncts.add(expr);
+  }
+
 
   public static class FilterBatchCreator implements SingleInputOperator.Creator<Filter>{
 
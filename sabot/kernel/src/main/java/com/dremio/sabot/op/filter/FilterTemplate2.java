@@ -25,7 +25,7 @@ import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.sabot.exec.context.FunctionContext;
 
-public abstract class FilterTemplate2 implements Filterer{
+public abstract class FilterTemplate2 implements RefiningFilterer{
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FilterTemplate2.class);
 
   private SelectionVector2 outgoingSelectionVector;
@@ -80,6 +80,21 @@ public abstract class FilterTemplate2 implements Filterer{
     return outputRecords;
   }
 
+  @Override
+  public int refineBatch(int recordCount){
+    // records are only ever moved to a lower index, so the selection vector can be rewritten in place
+    int svIndex = 0;
+    for(int i = 0; i < recordCount; i++){
+      char index = outgoingSelectionVector.getIndex(i);
+      if(doEval(index, 0)){
+        outgoingSelectionVector.setIndex(svIndex, index);
+        svIndex++;
+      }
+    }
+    outgoingSelectionVector.setRecordCount(svIndex);
+    return svIndex;
+  }
+
   private int filterBatchSV2(int recordCount){
     int svIndex = 0;
     final int count = recordCount;
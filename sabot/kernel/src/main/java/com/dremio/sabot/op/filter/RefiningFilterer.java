@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.filter;
+
+import com.dremio.exec.compile.TemplateClassDefinition;
+
+/**
+ * Filterer of one conjunct of a condition, which can also filter the records selected by the previous conjuncts.
+ */
+public interface RefiningFilterer extends Filterer {
+
+  /**
+   * Filters the records already selected by the outgoing selection vector, in place, without transferring vectors.
+   * @param recordCount number of records selected by the outgoing selection vector
+   * @return number of records still selected
+   */
+  public int refineBatch(int recordCount);
+
+  public static TemplateClassDefinition<RefiningFilterer> TEMPLATE_DEFINITION = new TemplateClassDefinition<RefiningFilterer>(RefiningFilterer.class, FilterTemplate2.class);
+
+}
@@ -19,6 +19,7 @@ import java.util.List;
 
 import com.dremio.exec.ExecConstants;
 import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.RepeatedValueVector;
@@ -47,6 +48,7 @@ import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorAccessibleComplexWriter;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.project.ProjectOperator;
@@ -73,6 +75,7 @@ public class FlattenOperator implements SingleInputOperator {
   private boolean hasRemainder = false;
   private int remainderIndex = 0;
   private ValueVector flattenVector;
+  private VectorizedFlattener vectorizedFlattener;
 
   public FlattenOperator(OperatorContext context, FlattenPOP pop) throws OutOfMemoryException {
     this.config = pop;
@@ -108,6 +111,26 @@ public class FlattenOperator implements SingleInputOperator {
       transferFieldIds.add(vectorRead.getFieldId().getFieldIds()[0]);
     }
 
+    final ListVector flattenField;
+    try {
+      final TypedFieldId typedFieldId = incoming.getSchema().getFieldId(config.getColumn());
+      final Field field = incoming.getSchema().getColumn(typedFieldId.getFieldIds()[0]);
+      flattenField = ListVector.class.cast(
+          incoming.getValueAccessorById(TypeHelper.getValueVectorClass(field), typedFieldId.getFieldIds()).getValueVector());
+    } catch (Exception ex) {
+      throw UserException.unsupportedError(ex).message("Trying to flatten a non-repeated field.").build(logger);
+    }
+
+    if (tp != null && context.getOptions().getOption(ExecConstants.ENABLE_VECTORIZED_FLATTEN)) {
+      vectorizedFlattener = setupVectorized(flattenField, tp);
+      if (vectorizedFlattener != null) {
+        outgoing.buildSchema(SelectionVectorMode.NONE);
+        outgoing.setInitialCapacity(context.getTargetBatchSize());
+        state = State.CAN_CONSUME;
+        return outgoing;
+      }
+    }
+
     for (int i = 0; i < exprs.size(); i++) {
       final NamedExpression namedExpression = exprs.get(i);
 
@@ -165,17 +188,7 @@ public class FlattenOperator implements SingleInputOperator {
         outputMemoryLimit,
         context.getTargetBatchSize()
         );
-
-    try {
-      final TypedFieldId typedFieldId = incoming.getSchema().getFieldId(config.getColumn());
-      final Field field = incoming.getSchema().getColumn(typedFieldId.getFieldIds()[0]);
-      final ListVector vector = ListVector.class.cast(
-          incoming.getValueAccessorById(TypeHelper.getValueVectorClass(field), typedFieldId.getFieldIds()).getValueVector());
-
-      flattener.setFlattenField(vector);
-    } catch (Exception ex) {
-      throw UserException.unsupportedError(ex).message("Trying to flatten a non-repeated field.").build(logger);
-    }
+    flattener.setFlattenField(flattenField);
 
     outgoing.buildSchema(SelectionVectorMode.NONE);
     outgoing.setInitialCapacity(context.getTargetBatchSize());
@@ -189,6 +202,9 @@ public class FlattenOperator implements SingleInputOperator {
   public void consumeData(int incomingRecordCount) throws Exception {
     state.is(State.CAN_CONSUME);
     this.recordCount = incomingRecordCount;
+    if (vectorizedFlattener != null) {
+      vectorizedFlattener.consume(incomingRecordCount);
+    }
     state = State.CAN_PRODUCE;
   }
 
@@ -196,7 +212,13 @@ public class FlattenOperator implements SingleInputOperator {
   public int outputData() throws Exception {
     state.is(State.CAN_PRODUCE);
     final int records;
-    if(!hasRemainder){
+    if (vectorizedFlattener != null) {
+      records = vectorizedFlattener.flatten();
+      setValueCount(records);
+      if (!vectorizedFlattener.hasRemainder()) {
+        state = State.CAN_CONSUME;
+      }
+    } else if(!hasRemainder){
       records = handleInitial(recordCount);
     }else{
       records = handleRemainder();
@@ -249,6 +271,40 @@ public class FlattenOperator implements SingleInputOperator {
 
   }
 
+  /**
+   * Set up the outgoing vectors of the columns that aren't flattened to be copied by a {@link VectorizedFlattener}.
+   *
+   * @return the flattener, or null if some of the columns can't be copied
+   */
+  private VectorizedFlattener setupVectorized(ListVector flattenField, TransferPair flattenTransfer) {
+    final List<FieldVector> replicated = Lists.newArrayList();
+    final List<FieldVector> outputs = Lists.newArrayList();
+    for (VectorWrapper<?> wrapper : incoming) {
+      if (wrapper.getField().getName().equalsIgnoreCase(config.getColumn().getAsUnescapedPath())) {
+        continue;
+      }
+      replicated.add((FieldVector) wrapper.getValueVector());
+      outputs.add((FieldVector) TypeHelper.getNewVector(wrapper.getField(), context.getAllocator()));
+    }
+
+    final VectorizedFlattener vectorized;
+    try {
+      vectorized = new VectorizedFlattener(context.getAllocator(), flattenField, flattenTransfer, replicated, outputs,
+          context.getTargetBatchSize(), context.getOptions().getOption(ExecConstants.FLATTEN_OPERATOR_OUTPUT_MEMORY_LIMIT));
+    } catch (UnsupportedOperationException e) {
+      // not all types have copiers, flatten using generated code instead.
+      logger.debug("Unable to flatten {} without generated code", config.getColumn(), e);
+      AutoCloseables.close(e, outputs);
+      return null;
+    }
+
+    for (FieldVector output : outputs) {
+      outgoing.add(output);
+      allocationVectors.add(output);
+    }
+    return vectorized;
+  }
+
   public void addComplexWriter(ComplexWriter writer) {
     complexWriters.add(writer);
   }
@@ -327,7 +383,7 @@ public class FlattenOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(outgoing);
+    AutoCloseables.close(outgoing, vectorizedFlattener);
   }
 
   // TODO: Move this to allocator based determination.
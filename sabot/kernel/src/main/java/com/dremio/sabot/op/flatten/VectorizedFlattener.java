@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.flatten;
+
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Flattens a list column without generated code.
+ *
+ * The index of the incoming record of each output record is computed from the list offsets into a selection vector,
+ * which the other columns are copied through with {@link FieldBufferCopier}s. Since the elements of consecutive
+ * lists are contiguous, the flattened values of each output batch are transferred from the data vector of the list.
+ */
+class VectorizedFlattener implements AutoCloseable {
+
+  private static final int OFFSET_WIDTH = 4;
+  private static final int SV2_WIDTH = 2;
+
+  private final ListVector flattenField;
+  private final TransferPair dataTransfer;
+  private final List<FieldVector> replicated;
+  private final List<FieldBufferCopier> copiers;
+  private final int targetBatchSize;
+  private final long outputMemoryLimit;
+  private final ArrowBuf sv2;
+
+  private int recordCount;
+  private int maxOutputCount;
+  // next incoming record to flatten, and next element of the lists
+  private int recordIndex;
+  private int dataIndex;
+
+  /**
+   * @param replicated incoming vectors of the columns that aren't flattened
+   * @param outputs outgoing vectors of the same columns
+   */
+  VectorizedFlattener(BufferAllocator allocator, ListVector flattenField, TransferPair dataTransfer,
+      List<FieldVector> replicated, List<FieldVector> outputs, int targetBatchSize, long outputMemoryLimit) {
+    this.flattenField = flattenField;
+    this.dataTransfer = dataTransfer;
+    this.replicated = ImmutableList.copyOf(replicated);
+    this.copiers = FieldBufferCopier.getCopiers(replicated, outputs);
+    this.targetBatchSize = targetBatchSize;
+    this.outputMemoryLimit = outputMemoryLimit;
+    this.sv2 = allocator.buffer(targetBatchSize * SV2_WIDTH);
+  }
+
+  /**
+   * Start flattening a new incoming batch.
+   */
+  void consume(int recordCount) {
+    this.recordCount = recordCount;
+    this.recordIndex = 0;
+    this.dataIndex = recordCount == 0 ? 0 : getOffset(0);
+
+    // replicating large records many times could use a lot of memory, so limit the size of the output batches to
+    // roughly stay under the memory limit.
+    long replicatedSize = 0;
+    for (FieldVector vector : replicated) {
+      replicatedSize += vector.getBufferSize();
+    }
+    final long recordSize = recordCount == 0 ? 0 : replicatedSize / recordCount;
+    this.maxOutputCount = recordSize == 0 ? targetBatchSize
+        : (int) Math.max(1, Math.min(targetBatchSize, outputMemoryLimit / recordSize));
+  }
+
+  /**
+   * @return whether some records of the incoming batch are left to flatten
+   */
+  boolean hasRemainder() {
+    return recordIndex < recordCount;
+  }
+
+  /**
+   * Flatten the next records of the incoming batch into the outgoing vectors.
+   *
+   * @return number of output records
+   */
+  int flatten() {
+    final long sv2Addr = sv2.memoryAddress();
+    final int firstDataIndex = dataIndex;
+    int outputCount = 0;
+    while (recordIndex < recordCount && outputCount < maxOutputCount) {
+      final int end = getOffset(recordIndex + 1);
+      final int count = Math.min(end - dataIndex, maxOutputCount - outputCount);
+      final short index = (short) recordIndex;
+      final long maxAddr = sv2Addr + (outputCount + count) * SV2_WIDTH;
+      for (long addr = sv2Addr + outputCount * SV2_WIDTH; addr < maxAddr; addr += SV2_WIDTH) {
+        PlatformDependent.putShort(addr, index);
+      }
+      outputCount += count;
+      dataIndex += count;
+      if (dataIndex == end) {
+        recordIndex++;
+      }
+    }
+
+    for (FieldBufferCopier copier : copiers) {
+      copier.copy(sv2Addr, outputCount);
+    }
+    dataTransfer.splitAndTransfer(firstDataIndex, outputCount);
+    return outputCount;
+  }
+
+  private int getOffset(int index) {
+    return PlatformDependent.getInt(flattenField.getOffsetBuffer().memoryAddress() + index * OFFSET_WIDTH);
+  }
+
+  @Override
+  public void close() {
+    sv2.release();
+  }
+}
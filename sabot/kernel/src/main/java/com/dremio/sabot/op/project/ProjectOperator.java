@@ -42,6 +42,7 @@ import com.dremio.common.expression.ValueExpressions;
 import com.dremio.common.expression.fn.CastFunctions;
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.expr.ClassGenerator;
 import com.dremio.exec.expr.FunctionHolderExpr;
 import com.dremio.exec.expr.TypeHelper;
@@ -74,6 +75,7 @@ public class ProjectOperator implements SingleInputOperator {
   private Projector projector;
   private List<ValueVector> allocationVectors;
   private final List<ComplexWriter> complexWriters = new ArrayList<>();
+  private final List<VectorizedExpression> vectorizedExpressions = new ArrayList<>();
   private int recordsConsumedCurrentBatch;
   private BatchSchema initialSchema;
 
@@ -100,6 +102,8 @@ public class ProjectOperator implements SingleInputOperator {
     final ClassGenerator<Projector> cg = context.getClassProducer().createGenerator(Projector.TEMPLATE_DEFINITION).getRoot();
 
     final IntHashSet transferFieldIds = new IntHashSet();
+    final boolean vectorize = context.getOptions().getOption(ExecConstants.ENABLE_VECTORIZED_PROJECT)
+        && incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.NONE;
 
     for (int i = 0; i < exprs.size(); i++) {
       final NamedExpression namedExpression = exprs.get(i);
@@ -132,6 +136,12 @@ public class ProjectOperator implements SingleInputOperator {
       case EVAL: {
         final ValueVector vector = outgoing.addOrGet(outputField);
         allocationVectors.add(vector);
+        final VectorizedExpression vectorized =
+            vectorize ? VectorizedExpression.get(expr, incoming, vector, context.getAllocator()) : null;
+        if (vectorized != null) {
+          vectorizedExpressions.add(vectorized);
+          break;
+        }
         final TypedFieldId fid = outgoing.getValueVectorId(SchemaPath.getSimplePath(outputField.getName()));
         final boolean useSetSafe = !(vector instanceof FixedWidthVector);
         final ValueVectorWriteExpression write = new ValueVectorWriteExpression(fid, expr, useSetSafe);
@@ -189,6 +199,10 @@ public class ProjectOperator implements SingleInputOperator {
   public int outputData() throws Exception {
     state.is(State.CAN_PRODUCE);
     allocateNew();
+    // vectorized expressions read the incoming vectors before the projector transfers them
+    for (VectorizedExpression expr : vectorizedExpressions) {
+      expr.eval(recordsConsumedCurrentBatch);
+    }
     projector.projectRecords(recordsConsumedCurrentBatch);
     setValueCount(recordsConsumedCurrentBatch);
     outgoing.setRecordCount(recordsConsumedCurrentBatch);
@@ -218,6 +232,7 @@ public class ProjectOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
+    AutoCloseables.close(vectorizedExpressions);
     AutoCloseables.close(outgoing);
   }
 
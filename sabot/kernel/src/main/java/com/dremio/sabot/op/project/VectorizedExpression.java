@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.project;
+
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.expr.FunctionHolderExpr;
+import com.dremio.exec.expr.ValueVectorReadExpression;
+import com.dremio.exec.expr.annotations.FunctionTemplate.NullHandling;
+import com.dremio.exec.expr.fn.BaseFunctionHolder;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Evaluates an arithmetic or comparison function of two fixed width columns, or of a column and a constant, over a
+ * whole batch at once instead of row by row in generated code. The validity of the output is computed from the
+ * validity buffers of the inputs, and values are computed for all rows, null or not, in a loop without branches.
+ *
+ * Supported expressions are the NULL_IF_NULL {@code add}, {@code subtract} and {@code multiply} of two INT, BIGINT,
+ * FLOAT4 or FLOAT8 of the same type, and the comparisons of two INT or BIGINT. They only read vectors without
+ * selection vector.
+ */
+abstract class VectorizedExpression implements AutoCloseable {
+
+  private static final int VALIDITY_BUFFER_ORDINAL = 0;
+  private static final int VALUE_BUFFER_ORDINAL = 1;
+
+  enum Op {
+    ADD(false), SUBTRACT(false), MULTIPLY(false),
+    EQUAL(true), NOT_EQUAL(true), LESS_THAN(true), LESS_THAN_OR_EQUAL(true), GREATER_THAN(true),
+    GREATER_THAN_OR_EQUAL(true);
+
+    private final boolean comparison;
+
+    Op(boolean comparison) {
+      this.comparison = comparison;
+    }
+  }
+
+  private static final ImmutableMap<String, Op> OPS = ImmutableMap.<String, Op>builder()
+      .put("add", Op.ADD)
+      .put("subtract", Op.SUBTRACT)
+      .put("multiply", Op.MULTIPLY)
+      .put("equal", Op.EQUAL)
+      .put("not_equal", Op.NOT_EQUAL)
+      .put("less_than", Op.LESS_THAN)
+      .put("less_than_or_equal_to", Op.LESS_THAN_OR_EQUAL)
+      .put("greater_than", Op.GREATER_THAN)
+      .put("greater_than_or_equal_to", Op.GREATER_THAN_OR_EQUAL)
+      .build();
+
+  protected final Op op;
+  private final Operand left;
+  private final Operand right;
+  private final FieldVector output;
+
+  private VectorizedExpression(Op op, Operand left, Operand right, FieldVector output) {
+    this.op = op;
+    this.left = left;
+    this.right = right;
+    this.output = output;
+  }
+
+  /**
+   * Evaluate the expression over the first count records of the incoming batch. The output vector must be allocated
+   * for them.
+   */
+  public void eval(int count) {
+    final List<ArrowBuf> outputBuffers = output.getFieldBuffers();
+    final long outputValidityAddr = outputBuffers.get(VALIDITY_BUFFER_ORDINAL).memoryAddress();
+    final int validityBytes = (count + 7) >>> 3;
+    if (left.vector == null) {
+      PlatformDependent.copyMemory(right.validityAddress(), outputValidityAddr, validityBytes);
+    } else if (right.vector == null) {
+      PlatformDependent.copyMemory(left.validityAddress(), outputValidityAddr, validityBytes);
+    } else {
+      and(left.validityAddress(), right.validityAddress(), outputValidityAddr, validityBytes);
+    }
+
+    eval(left.valueAddress(), left.stride(), right.valueAddress(), right.stride(),
+        outputBuffers.get(VALUE_BUFFER_ORDINAL).memoryAddress(), count);
+  }
+
+  /**
+   * Compute the values of count records. Operands are read at the given addresses, which are moved forward by the
+   * given strides after each record. The stride of a constant is 0.
+   */
+  protected abstract void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count);
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(left, right);
+  }
+
+  private static void and(long leftAddr, long rightAddr, long outAddr, int length) {
+    int i = 0;
+    for (; i + 8 <= length; i += 8) {
+      PlatformDependent.putLong(outAddr + i, PlatformDependent.getLong(leftAddr + i) & PlatformDependent.getLong(rightAddr + i));
+    }
+    for (; i < length; i++) {
+      PlatformDependent.putByte(outAddr + i, (byte) (PlatformDependent.getByte(leftAddr + i) & PlatformDependent.getByte(rightAddr + i)));
+    }
+  }
+
+  /**
+   * @return the vectorized evaluation of the expression, or null if it isn't supported
+   */
+  static VectorizedExpression get(LogicalExpression expr, VectorAccessible incoming, ValueVector output,
+      BufferAllocator allocator) {
+    if (!(expr instanceof FunctionHolderExpr)) {
+      return null;
+    }
+    final FunctionHolderExpr function = (FunctionHolderExpr) expr;
+    final Op op = OPS.get(function.getName());
+    if (op == null
+        || function.args.size() != 2
+        || !(function.getHolder() instanceof BaseFunctionHolder)
+        || ((BaseFunctionHolder) function.getHolder()).getNullHandling() != NullHandling.NULL_IF_NULL) {
+      return null;
+    }
+
+    final MinorType type = function.args.get(0).getCompleteType().toMinorType();
+    final MinorType outputType = expr.getCompleteType().toMinorType();
+    if (type != function.args.get(1).getCompleteType().toMinorType()
+        || outputType != (op.comparison ? MinorType.BIT : type)
+        // constant expressions are reduced during planning
+        || !(function.args.get(0) instanceof ValueVectorReadExpression
+            || function.args.get(1) instanceof ValueVectorReadExpression)) {
+      return null;
+    }
+
+    final Operand left = Operand.of(function.args.get(0), incoming, allocator);
+    final Operand right = left == null ? null : Operand.of(function.args.get(1), incoming, allocator);
+    if (right == null) {
+      if (left != null) {
+        left.close();
+      }
+      return null;
+    }
+
+    final FieldVector outputVector = (FieldVector) output;
+    switch (type) {
+    case INT:
+      return op.comparison ? new IntComparison(op, left, right, outputVector) : new IntArithmetic(op, left, right, outputVector);
+    case BIGINT:
+      return op.comparison ? new BigIntComparison(op, left, right, outputVector) : new BigIntArithmetic(op, left, right, outputVector);
+    case FLOAT4:
+      if (!op.comparison) {
+        return new Float4Arithmetic(op, left, right, outputVector);
+      }
+      break;
+    case FLOAT8:
+      if (!op.comparison) {
+        return new Float8Arithmetic(op, left, right, outputVector);
+      }
+      break;
+    default:
+      break;
+    }
+    left.close();
+    right.close();
+    return null;
+  }
+
+  /**
+   * A column, or a constant held in a buffer so that it can be read like a column with a stride of 0.
+   */
+  private static final class Operand implements AutoCloseable {
+    private final FieldVector vector;
+    private final int width;
+    private final ArrowBuf constant;
+
+    private Operand(FieldVector vector, int width, ArrowBuf constant) {
+      this.vector = vector;
+      this.width = width;
+      this.constant = constant;
+    }
+
+    private long validityAddress() {
+      return vector.getFieldBuffers().get(VALIDITY_BUFFER_ORDINAL).memoryAddress();
+    }
+
+    private long valueAddress() {
+      return vector == null ? constant.memoryAddress() : vector.getFieldBuffers().get(VALUE_BUFFER_ORDINAL).memoryAddress();
+    }
+
+    private int stride() {
+      return vector == null ? 0 : width;
+    }
+
+    @Override
+    public void close() {
+      if (constant != null) {
+        constant.release();
+      }
+    }
+
+    private static Operand of(LogicalExpression expr, VectorAccessible incoming, BufferAllocator allocator) {
+      final MinorType type = expr.getCompleteType().toMinorType();
+      final int width;
+      switch (type) {
+      case INT:
+      case FLOAT4:
+        width = 4;
+        break;
+      case BIGINT:
+      case FLOAT8:
+        width = 8;
+        break;
+      default:
+        return null;
+      }
+
+      if (expr instanceof ValueVectorReadExpression) {
+        final ValueVectorReadExpression read = (ValueVectorReadExpression) expr;
+        if (read.hasReadPath()) {
+          return null;
+        }
+        final TypedFieldId id = read.getFieldId();
+        final ValueVector vector = incoming.getValueAccessorById(id.getIntermediateClass(), id.getFieldIds()).getValueVector();
+        return vector instanceof FieldVector ? new Operand((FieldVector) vector, width, null) : null;
+      }
+
+      final ArrowBuf constant;
+      if (expr instanceof ValueExpressions.IntExpression) {
+        constant = allocator.buffer(width);
+        constant.setInt(0, ((ValueExpressions.IntExpression) expr).getInt());
+      } else if (expr instanceof ValueExpressions.LongExpression) {
+        constant = allocator.buffer(width);
+        constant.setLong(0, ((ValueExpressions.LongExpression) expr).getLong());
+      } else if (expr instanceof ValueExpressions.FloatExpression) {
+        constant = allocator.buffer(width);
+        constant.setFloat(0, ((ValueExpressions.FloatExpression) expr).getFloat());
+      } else if (expr instanceof ValueExpressions.DoubleExpression) {
+        constant = allocator.buffer(width);
+        constant.setDouble(0, ((ValueExpressions.DoubleExpression) expr).getDouble());
+      } else {
+        return null;
+      }
+      return new Operand(null, width, constant);
+    }
+  }
+
+  /**
+   * @return for each result of the comparison of two values (less, equal, greater), whether the operator holds
+   */
+  private static int[] comparisonResults(Op op) {
+    switch (op) {
+    case EQUAL:
+      return new int[] {0, 1, 0};
+    case NOT_EQUAL:
+      return new int[] {1, 0, 1};
+    case LESS_THAN:
+      return new int[] {1, 0, 0};
+    case LESS_THAN_OR_EQUAL:
+      return new int[] {1, 1, 0};
+    case GREATER_THAN:
+      return new int[] {0, 0, 1};
+    case GREATER_THAN_OR_EQUAL:
+      return new int[] {0, 1, 1};
+    default:
+      throw new UnsupportedOperationException("Not a comparison: " + op);
+    }
+  }
+
+  private static final class IntArithmetic extends VectorizedExpression {
+    private IntArithmetic(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      final long max = outAddr + count * 4L;
+      switch (op) {
+      case ADD:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putInt(outAddr, PlatformDependent.getInt(leftAddr) + PlatformDependent.getInt(rightAddr));
+        }
+        break;
+      case SUBTRACT:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putInt(outAddr, PlatformDependent.getInt(leftAddr) - PlatformDependent.getInt(rightAddr));
+        }
+        break;
+      case MULTIPLY:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putInt(outAddr, PlatformDependent.getInt(leftAddr) * PlatformDependent.getInt(rightAddr));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(op.name());
+      }
+    }
+  }
+
+  private static final class BigIntArithmetic extends VectorizedExpression {
+    private BigIntArithmetic(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      final long max = outAddr + count * 8L;
+      switch (op) {
+      case ADD:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putLong(outAddr, PlatformDependent.getLong(leftAddr) + PlatformDependent.getLong(rightAddr));
+        }
+        break;
+      case SUBTRACT:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putLong(outAddr, PlatformDependent.getLong(leftAddr) - PlatformDependent.getLong(rightAddr));
+        }
+        break;
+      case MULTIPLY:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          PlatformDependent.putLong(outAddr, PlatformDependent.getLong(leftAddr) * PlatformDependent.getLong(rightAddr));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(op.name());
+      }
+    }
+  }
+
+  private static final class Float4Arithmetic extends VectorizedExpression {
+    private Float4Arithmetic(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+    }
+
+    private static float get(long addr) {
+      return Float.intBitsToFloat(PlatformDependent.getInt(addr));
+    }
+
+    private static void put(long addr, float value) {
+      PlatformDependent.putInt(addr, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      final long max = outAddr + count * 4L;
+      switch (op) {
+      case ADD:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) + get(rightAddr));
+        }
+        break;
+      case SUBTRACT:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) - get(rightAddr));
+        }
+        break;
+      case MULTIPLY:
+        for (; outAddr < max; outAddr += 4, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) * get(rightAddr));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(op.name());
+      }
+    }
+  }
+
+  private static final class Float8Arithmetic extends VectorizedExpression {
+    private Float8Arithmetic(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+    }
+
+    private static double get(long addr) {
+      return Double.longBitsToDouble(PlatformDependent.getLong(addr));
+    }
+
+    private static void put(long addr, double value) {
+      PlatformDependent.putLong(addr, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      final long max = outAddr + count * 8L;
+      switch (op) {
+      case ADD:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) + get(rightAddr));
+        }
+        break;
+      case SUBTRACT:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) - get(rightAddr));
+        }
+        break;
+      case MULTIPLY:
+        for (; outAddr < max; outAddr += 8, leftAddr += leftStride, rightAddr += rightStride) {
+          put(outAddr, get(leftAddr) * get(rightAddr));
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(op.name());
+      }
+    }
+  }
+
+  private static final class IntComparison extends VectorizedExpression {
+    private final int[] results;
+
+    private IntComparison(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+      this.results = comparisonResults(op);
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      int bits = 0;
+      for (int i = 0; i < count; i++, leftAddr += leftStride, rightAddr += rightStride) {
+        final int cmp = Integer.compare(PlatformDependent.getInt(leftAddr), PlatformDependent.getInt(rightAddr));
+        bits |= results[Integer.signum(cmp) + 1] << (i & 7);
+        if ((i & 7) == 7 || i == count - 1) {
+          PlatformDependent.putByte(outAddr + (i >>> 3), (byte) bits);
+          bits = 0;
+        }
+      }
+    }
+  }
+
+  private static final class BigIntComparison extends VectorizedExpression {
+    private final int[] results;
+
+    private BigIntComparison(Op op, Operand left, Operand right, FieldVector output) {
+      super(op, left, right, output);
+      this.results = comparisonResults(op);
+    }
+
+    @Override
+    protected void eval(long leftAddr, int leftStride, long rightAddr, int rightStride, long outAddr, int count) {
+      int bits = 0;
+      for (int i = 0; i < count; i++, leftAddr += leftStride, rightAddr += rightStride) {
+        final int cmp = Long.compare(PlatformDependent.getLong(leftAddr), PlatformDependent.getLong(rightAddr));
+        bits |= results[Integer.signum(cmp) + 1] << (i & 7);
+        if ((i & 7) == 7 || i == count - 1) {
+          PlatformDependent.putByte(outAddr + (i >>> 3), (byte) bits);
+          bits = 0;
+        }
+      }
+    }
+  }
+}
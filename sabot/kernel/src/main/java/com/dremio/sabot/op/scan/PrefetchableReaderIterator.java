@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.scan;
+
+import java.util.Iterator;
+
+import com.dremio.exec.store.RecordReader;
+
+/**
+ * Iterator of record readers that {@link ScanOperator} may create in the background, ahead of the reader being
+ * consumed.
+ *
+ * Creating a reader must not touch the operator's stats, which are owned by the fragment thread: IO done while
+ * creating readers must be tracked in separate stats. Readers are never created concurrently, but consecutive readers
+ * may be created by different threads.
+ */
+public interface PrefetchableReaderIterator extends Iterator<RecordReader> {
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.scan;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.store.RecordReader;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+
+/**
+ * Creates the next record readers of a scan in the background, while the current reader is producing records.
+ *
+ * Reader iterators usually do most of the per split work when creating a reader: opening the file, reading its footer
+ * or metadata. This iterator moves that work off the fragment thread, for up to {@code count} readers ahead of the one
+ * being consumed, which bounds the memory held by readers that are not used yet. Readers are only created, not set up:
+ * setting up a reader binds it to the output vectors of the scan, which are in use by the current reader.
+ *
+ * The wrapped iterator is never accessed by two threads at the same time: the consumer only touches it when no
+ * background fetch is running. It must not use the operator's stats while creating readers, see
+ * {@link PrefetchableReaderIterator}. Must be consumed by a single thread, the fragment thread: only the time it
+ * blocks on a background fetch is counted as wait time of the operator.
+ */
+class ReaderPrefetcher implements Iterator<RecordReader>, AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ReaderPrefetcher.class);
+
+  private final Iterator<RecordReader> readers;
+  private final OperatorStats stats;
+  private final Executor executor;
+  private final int count;
+
+  // guarded by this
+  private final ArrayDeque<RecordReader> prefetched = new ArrayDeque<>();
+  private boolean fetching;
+  private boolean closed;
+  private Throwable failure;
+  private long prefetchNanos;
+  private long prefetchedReaders;
+
+  // only accessed by the consumer
+  private final Stopwatch waitWatch = Stopwatch.createUnstarted();
+  private final Stopwatch createWatch = Stopwatch.createUnstarted();
+
+  /**
+   * @param stats stats of the operator, only updated by the consumer
+   */
+  ReaderPrefetcher(PrefetchableReaderIterator readers, OperatorStats stats, Executor executor, int count) {
+    Preconditions.checkArgument(count > 0, "prefetch count must be positive");
+    this.readers = readers;
+    this.stats = stats;
+    this.executor = executor;
+    this.count = count;
+    schedule();
+  }
+
+  @Override
+  public boolean hasNext() {
+    synchronized (this) {
+      awaitFetch();
+      if (!prefetched.isEmpty()) {
+        return true;
+      }
+    }
+    // no fetch running, the consumer owns the wrapped iterator.
+    return readers.hasNext();
+  }
+
+  @Override
+  public RecordReader next() {
+    RecordReader reader;
+    synchronized (this) {
+      awaitFetch();
+      reader = prefetched.poll();
+    }
+
+    if (reader == null) {
+      // nothing prefetched, create the reader on the fragment thread.
+      createWatch.start();
+      try {
+        if (!readers.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        reader = readers.next();
+      } finally {
+        createWatch.stop();
+      }
+    }
+
+    schedule();
+    return reader;
+  }
+
+  /**
+   * Wait for the running fetch, if the next reader isn't available yet.
+   */
+  private void awaitFetch() {
+    if (!prefetched.isEmpty() || !fetching) {
+      rethrowFailure();
+      return;
+    }
+
+    waitWatch.start();
+    stats.startWait();
+    try {
+      while (prefetched.isEmpty() && fetching) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for the next reader", e);
+    } finally {
+      stats.stopWait();
+      waitWatch.stop();
+    }
+    rethrowFailure();
+  }
+
+  private void rethrowFailure() {
+    if (prefetched.isEmpty() && failure != null) {
+      final Throwable t = failure;
+      failure = null;
+      Throwables.propagateIfPossible(t);
+      throw new RuntimeException("Failure while creating the next reader", t);
+    }
+  }
+
+  /**
+   * Start a background fetch if there is room for more readers. Called by the consumer.
+   */
+  private void schedule() {
+    synchronized (this) {
+      if (fetching || closed || failure != null || prefetched.size() >= count) {
+        return;
+      }
+    }
+    // no fetch running, the consumer owns the wrapped iterator.
+    if (!readers.hasNext()) {
+      return;
+    }
+    synchronized (this) {
+      fetching = true;
+    }
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          fetch();
+        }
+      });
+    } catch (RuntimeException e) {
+      logger.debug("Unable to prefetch the next reader, it will be created when needed.", e);
+      synchronized (this) {
+        fetching = false;
+      }
+    }
+  }
+
+  private void fetch() {
+    try {
+      while (true) {
+        final Stopwatch watch = Stopwatch.createStarted();
+        final RecordReader reader = readers.next();
+        final boolean more = readers.hasNext();
+        synchronized (this) {
+          prefetchNanos += watch.elapsed(TimeUnit.NANOSECONDS);
+          if (closed) {
+            AutoCloseables.close(reader);
+            return;
+          }
+          prefetched.add(reader);
+          prefetchedReaders++;
+          notifyAll();
+          if (!more || prefetched.size() >= count) {
+            return;
+          }
+        }
+      }
+    } catch (Throwable t) {
+      synchronized (this) {
+        failure = t;
+      }
+    } finally {
+      synchronized (this) {
+        fetching = false;
+        notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return time the fragment thread spent creating readers, or waiting for a background fetch to create them.
+   */
+  long getExposedNanos() {
+    return waitWatch.elapsed(TimeUnit.NANOSECONDS) + createWatch.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return time spent creating readers in the background while the fragment thread was doing other work.
+   */
+  synchronized long getHiddenNanos() {
+    return Math.max(0, prefetchNanos - waitWatch.elapsed(TimeUnit.NANOSECONDS));
+  }
+
+  synchronized long getPrefetchedReaders() {
+    return prefetchedReaders;
+  }
+
+  /**
+   * Close the readers that were prefetched but not consumed. Waits for a running fetch, so no reader is created once
+   * closed.
+   */
+  @Override
+  public void close() throws Exception {
+    synchronized (this) {
+      closed = true;
+      boolean interrupted = false;
+      while (fetching) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    AutoCloseables.close(prefetched);
+    prefetched.clear();
+  }
+}
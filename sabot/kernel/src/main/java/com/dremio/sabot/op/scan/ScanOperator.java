@@ -36,6 +36,7 @@ import com.dremio.common.AutoCloseables;
 import com.dremio.common.AutoCloseables.RollbackCloseable;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.physical.base.SubScan;
@@ -86,7 +87,11 @@ public class ScanOperator implements ProducerOperator {
     COPY_MS,
     FILTER_MS,
     PARQUET_EXEC_PATH, // type of readers (vectorized, non-vectorized or combination used) in parquet
-    FILTER_EXISTS // Is there a filter pushed into scan?
+    FILTER_EXISTS, // Is there a filter pushed into scan?
+    NUM_PREFETCHED_READERS, // number of readers created in the background
+    READER_CREATE_HIDDEN_NS, // time spent creating readers in the background while the scan was producing
+    READER_CREATE_EXPOSED_NS, // time the scan spent creating readers, or waiting for them to be created
+    NUM_PAGES_DROPPED // data pages of a filtered parquet column that weren't read, as no value could match the filter
     ;
 
     @Override
@@ -100,6 +105,7 @@ public class ScanOperator implements ProducerOperator {
   private ProducerOperator.State state = State.NEEDS_SETUP;
   private final OperatorContext context;
   private Iterator<RecordReader> readers;
+  private final ReaderPrefetcher prefetcher;
   private RecordReader currentReader;
   private final ScanMutator mutator;
   private SchemaChangeCallBack callBack = new SchemaChangeCallBack();
@@ -143,6 +149,18 @@ public class ScanOperator implements ProducerOperator {
       stats.stopProcessing();
     }
 
+    // create the next readers in the background while the current one is set up and producing, if their creation
+    // doesn't use the operator's stats.
+    final int prefetchCount = (int) context.getOptions().getOption(ExecConstants.SCAN_READER_PREFETCH_COUNT);
+    if (prefetchCount > 0 && this.readers instanceof PrefetchableReaderIterator && this.readers.hasNext()) {
+      this.prefetcher = new ReaderPrefetcher((PrefetchableReaderIterator) this.readers, stats, context.getExecutor(),
+          prefetchCount);
+      this.readers = prefetcher;
+    } else {
+      this.prefetcher = null;
+    }
+    updateReaderCreationStats();
+
     this.outgoing = new VectorContainer(context.getAllocator());
 
     final String readerUserName = StringUtils.isEmpty(config.getUserName()) ? ImpersonationUtil.getProcessUserName() : config.getUserName();
@@ -218,6 +236,7 @@ public class ScanOperator implements ProducerOperator {
         state = ProducerOperator.State.DONE;
         outgoing.setRecordCount(0);
         stats.batchReceived(0, 0, 0);
+        updateReaderCreationStats();
         return 0;
       }
 
@@ -233,6 +252,7 @@ public class ScanOperator implements ProducerOperator {
 
       currentReader.allocate(fieldVectorMap);
       stats.addLongStat(Metric.NUM_READERS, 1);
+      updateReaderCreationStats();
     }
 
     readTime.stop();
@@ -243,6 +263,16 @@ public class ScanOperator implements ProducerOperator {
     return outgoing.setAllCount(recordCount);
   }
 
+  private void updateReaderCreationStats() {
+    if (prefetcher == null) {
+      return;
+    }
+    final OperatorStats stats = context.getStats();
+    stats.setLongStat(Metric.NUM_PREFETCHED_READERS, prefetcher.getPrefetchedReaders());
+    stats.setLongStat(Metric.READER_CREATE_HIDDEN_NS, prefetcher.getHiddenNanos());
+    stats.setLongStat(Metric.READER_CREATE_EXPOSED_NS, prefetcher.getExposedNanos());
+  }
+
   private void checkAndLearnSchema(){
     if (mutator.isSchemaChanged()) {
       outgoing.buildSchema(SelectionVectorMode.NONE);
@@ -352,7 +382,7 @@ public class ScanOperator implements ProducerOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(outgoing, currentReader, globalDictionaries);
+    AutoCloseables.close(outgoing, currentReader, prefetcher, globalDictionaries);
   }
 
 }
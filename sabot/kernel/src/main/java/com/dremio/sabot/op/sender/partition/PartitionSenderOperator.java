@@ -92,7 +92,12 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    MIN_BYTES,
+    MAX_BYTES,
+    SKEWED_RECEIVERS,
+    HOT_KEYS,
+    SPLIT_RECORDS;
 
     @Override
     public int metricId() {
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender.partition.vectorized;
+
+/**
+ * Detects the hot keys of a hash partition sender, and spreads their rows to extra receivers.<br>
+ * A receiver is skewed when it was sent more than skewFactor times the average number of rows sent to the receivers.
+ * Its hot key is the hash most of its rows share, found with a majority vote over the rows hashed to the receiver.
+ * Once detected, the rows of a hot key are sent round-robin to its receiver and the next extraReceivers receivers.<br>
+ * This breaks the colocation of the rows of a key, so it must only be used when the receivers don't rely on it.
+ */
+final class HotKeySplitter {
+
+  private final int numReceivers;
+  private final int extraReceivers;
+  private final double skewFactor;
+
+  /** number of rows hashed to each receiver, before the hot keys are spread */
+  private final long[] records;
+  /** majority vote of each receiver: candidate hash and its votes */
+  private final int[] candidates;
+  private final long[] votes;
+  /** true if the candidate hash of the receiver is a hot key */
+  private final boolean[] hot;
+  /** offset of the receiver that gets the next row of the hot key of each receiver */
+  private final int[] offsets;
+
+  private int numHotKeys;
+  private long splitRecords;
+
+  HotKeySplitter(int numReceivers, int extraReceivers, double skewFactor) {
+    this.numReceivers = numReceivers;
+    this.extraReceivers = Math.min(extraReceivers, numReceivers - 1);
+    this.skewFactor = skewFactor;
+    this.records = new long[numReceivers];
+    this.candidates = new int[numReceivers];
+    this.votes = new long[numReceivers];
+    this.hot = new boolean[numReceivers];
+    this.offsets = new int[numReceivers];
+  }
+
+  /**
+   * @param hash hash of the row
+   * @param receiver receiver the hash maps to
+   * @return receiver that should get the row
+   */
+  int getReceiver(int hash, int receiver) {
+    records[receiver]++;
+
+    if (hot[receiver]) {
+      if (hash != candidates[receiver]) {
+        return receiver;
+      }
+      final int offset = offsets[receiver];
+      offsets[receiver] = offset == extraReceivers ? 0 : offset + 1;
+      if (offset == 0) {
+        return receiver;
+      }
+      splitRecords++;
+      final int target = receiver + offset;
+      return target < numReceivers ? target : target - numReceivers;
+    }
+
+    if (votes[receiver] == 0) {
+      candidates[receiver] = hash;
+      votes[receiver] = 1;
+    } else if (candidates[receiver] == hash) {
+      votes[receiver]++;
+    } else {
+      votes[receiver]--;
+    }
+    return receiver;
+  }
+
+  /**
+   * Marks as hot the candidate key of the skewed receivers, when it kept more than half of their rows as votes. It is
+   * then the key of most of their rows, and the key of more than three quarters of their rows always is.
+   * Only called between passes, so all the rows of a pass see the same hot keys.
+   */
+  void detectHotKeys() {
+    if (extraReceivers == 0) {
+      return;
+    }
+
+    long totalRecords = 0;
+    for (int r = 0; r < numReceivers; r++) {
+      totalRecords += records[r];
+    }
+
+    final double maxRecords = skewFactor * totalRecords / numReceivers;
+    for (int r = 0; r < numReceivers; r++) {
+      // the key of a fraction f > 1/2 of the rows keeps at least (2f - 1) of them as votes
+      if (!hot[r] && records[r] > maxRecords && 2 * votes[r] > records[r]) {
+        hot[r] = true;
+        numHotKeys++;
+      }
+    }
+  }
+
+  int getNumHotKeys() {
+    return numHotKeys;
+  }
+
+  long getSplitRecords() {
+    return splitRecords;
+  }
+}
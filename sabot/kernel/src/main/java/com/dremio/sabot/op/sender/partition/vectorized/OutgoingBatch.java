@@ -64,6 +64,9 @@ public class OutgoingBatch extends VectorContainer {
   /** true if receiver finished */
   private volatile boolean dropAll;
 
+  private long totalRecords;
+  private long totalBytes;
+
   OutgoingBatch(int batchIdx, int nextBatchIdx, int maxRecords, final VectorAccessible incoming,
                 BufferAllocator allocator, AccountingExecTunnel tunnel, HashPartitionSender config,
                 OperatorContext context, int oppositeMinorFragmentId, OperatorStats stats) {
@@ -177,7 +180,17 @@ public class OutgoingBatch extends VectorContainer {
     preCopyIdx = 0;
   }
 
+  long getTotalRecords() {
+    return totalRecords;
+  }
+
+  long getTotalBytes() {
+    return totalBytes;
+  }
+
   private void updateStats(FragmentWritableBatch writableBatch) {
+    totalRecords += writableBatch.getRecordCount();
+    totalBytes += writableBatch.getByteCount();
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
     stats.addLongStat(Metric.BATCHES_SENT, 1);
     stats.addLongStat(Metric.RECORDS_SENT, writableBatch.getRecordCount());
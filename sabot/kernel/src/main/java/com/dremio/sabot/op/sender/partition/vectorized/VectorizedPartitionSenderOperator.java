@@ -39,6 +39,7 @@ import com.dremio.exec.physical.MinorFragmentEndpoint;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecRPC;
+import com.dremio.exec.proto.helper.QueryIdHelper;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
@@ -60,9 +61,13 @@ import io.netty.util.internal.PlatformDependent;
 
 /**
  * Implementation of hash partition sender that relies on vectorized copy of the data.<br>
- * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.
+ * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.<br>
+ * When allowed by the exchange and enabled by <i>exec.partitioner.hot_keys.split</i>, the rows of hot keys are spread
+ * to extra receivers, see {@link HotKeySplitter}.
  */
 public class VectorizedPartitionSenderOperator extends BaseSender {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedPartitionSenderOperator.class);
+
   @VisibleForTesting
   public static final int PARTITION_MULTIPLE = 8;
 
@@ -134,6 +139,9 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
    */
   private volatile boolean nobodyListening = false;
 
+  /** null unless the rows of hot keys are spread to extra receivers */
+  private final HotKeySplitter hotKeySplitter;
+
   public VectorizedPartitionSenderOperator(final OperatorContext context,
                                            final TunnelProvider tunnelProvider,
                                            final HashPartitionSender config) {
@@ -152,6 +160,15 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     modSize = PARTITION_MULTIPLE * Numbers.nextPowerOfTwo(numReceivers);
     modLookup = new OutgoingBatch[modSize];
     batches = new OutgoingBatch[2 * numReceivers];
+
+    final OptionManager options = context.getOptions();
+    if (config.isSplitHotKeys() && options.getOption(ExecConstants.PARTITION_SENDER_SPLIT_HOT_KEYS)) {
+      hotKeySplitter = new HotKeySplitter(numReceivers,
+        (int) options.getOption(ExecConstants.PARTITION_SENDER_HOT_KEY_RECEIVERS),
+        options.getOption(ExecConstants.PARTITION_SENDER_SKEW_FACTOR));
+    } else {
+      hotKeySplitter = null;
+    }
   }
 
   @Override
@@ -270,6 +287,10 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
       }
       flushWatch.stop();
 
+      if (hotKeySplitter != null) {
+        hotKeySplitter.detectHotKeys();
+      }
+
       start += numRowsToCopy;
       numPasses++;
     }
@@ -300,6 +321,51 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     state = State.DONE;
 
     stats.setLongStat(Metric.FLUSH_NS, flushWatch.elapsed(NANOSECONDS));
+    updateReceiverStats();
+  }
+
+  /**
+   * Find min and max records and bytes sent to the receivers, and the receivers that were sent much more than their
+   * share of the data. Those receivers are the stragglers of the query, either because the distribution of the keys
+   * was wrongly estimated or because of a few hot keys.
+   */
+  private void updateReceiverStats() {
+    final long[] receiverBytes = new long[numReceivers];
+    long minRecords = Long.MAX_VALUE;
+    long maxRecords = 0;
+    long minBytes = Long.MAX_VALUE;
+    long maxBytes = 0;
+    long totalBytes = 0;
+    for (int p = 0; p < numReceivers; p++) {
+      final long records = batches[p].getTotalRecords() + batches[p + numReceivers].getTotalRecords();
+      receiverBytes[p] = batches[p].getTotalBytes() + batches[p + numReceivers].getTotalBytes();
+      minRecords = Math.min(minRecords, records);
+      maxRecords = Math.max(maxRecords, records);
+      minBytes = Math.min(minBytes, receiverBytes[p]);
+      maxBytes = Math.max(maxBytes, receiverBytes[p]);
+      totalBytes += receiverBytes[p];
+    }
+    stats.setLongStat(Metric.MIN_RECORDS, minRecords);
+    stats.setLongStat(Metric.MAX_RECORDS, maxRecords);
+    stats.setLongStat(Metric.MIN_BYTES, minBytes);
+    stats.setLongStat(Metric.MAX_BYTES, maxBytes);
+
+    final double skewFactor = context.getOptions().getOption(ExecConstants.PARTITION_SENDER_SKEW_FACTOR);
+    final double maxReceiverBytes = skewFactor * totalBytes / numReceivers;
+    int skewedReceivers = 0;
+    for (int p = 0; p < numReceivers; p++) {
+      if (receiverBytes[p] > maxReceiverBytes) {
+        skewedReceivers++;
+        logger.debug("Receiver {} was sent {} out of {} bytes by {}", config.getDestinations().get(p).getId(),
+          receiverBytes[p], totalBytes, QueryIdHelper.getFragmentId(context.getFragmentHandle()));
+      }
+    }
+    stats.setLongStat(Metric.SKEWED_RECEIVERS, skewedReceivers);
+
+    if (hotKeySplitter != null) {
+      stats.setLongStat(Metric.HOT_KEYS, hotKeySplitter.getNumHotKeys());
+      stats.setLongStat(Metric.SPLIT_RECORDS, hotKeySplitter.getSplitRecords());
+    }
   }
 
   @Override
@@ -349,12 +415,20 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     final int mod = modSize - 1;
     final OutgoingBatch[] modLookup = this.modLookup;
     final OutgoingBatch[] batches = this.batches;
+    final HotKeySplitter hotKeySplitter = this.hotKeySplitter;
 
     //populate using the destination (batchIdx, rowIdx) for each incoming row
     final long max = srcAddr + numRowsToCopy*4;
     for (; srcAddr < max; srcAddr+=4, dstAddr+=4) {
-      final int partition = (PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod; // abs(hash) % modSize
-      final OutgoingBatch batch = modLookup[partition];
+      final int hash = PlatformDependent.getInt(srcAddr);
+      final int partition = (hash & 0x7FFFFFFF) & mod; // abs(hash) % modSize
+      final OutgoingBatch batch;
+      if (hotKeySplitter == null) {
+        batch = modLookup[partition];
+      } else {
+        // the first #receivers entries of modLookup hold the current batch of each receiver
+        batch = modLookup[hotKeySplitter.getReceiver(hash, partition % numReceivers)];
+      }
       final int compound = batch.preCopyRow();
       PlatformDependent.putInt(dstAddr, compound);
 
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Double buffered output stream used to write spill files. Data is collected in one buffer while the other one is
+ * written to the underlying stream by the executor, so the fragment thread can copy and serialize a batch while its
+ * previous part is written to disk.
+ *
+ * {@link #flush()} waits for all buffered data to be written and flushes the underlying stream. If no executor is
+ * provided, buffers are written synchronously. Both buffers are allocated from the provided allocator and released
+ * when the stream is closed.
+ *
+ * Not thread safe: only the fragment thread is expected to use the stream.
+ */
+class AsyncSpillOutputStream extends OutputStream {
+
+  private final OutputStream out;
+  private final ExecutorService executor;
+  private final int bufferSize;
+
+  private ArrowBuf current;
+  private ArrowBuf writing;
+  private int position;
+  private Future<Void> pending;
+  private boolean closed;
+
+  private long bytesWritten;
+  private long waitNanos;
+
+  AsyncSpillOutputStream(OutputStream out, BufferAllocator allocator, ExecutorService executor, int bufferSize) {
+    this.out = out;
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.current = allocator.buffer(bufferSize);
+    try {
+      this.writing = allocator.buffer(bufferSize);
+    } catch (RuntimeException e) {
+      current.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (position == bufferSize) {
+      swap();
+    }
+    current.setByte(position++, b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (position == bufferSize) {
+        swap();
+      }
+      final int toCopy = Math.min(len, bufferSize - position);
+      current.setBytes(position, b, off, toCopy);
+      position += toCopy;
+      off += toCopy;
+      len -= toCopy;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (position > 0) {
+      swap();
+    }
+    waitForPendingWrite();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try {
+      flush();
+    } finally {
+      try {
+        // the executor may still be writing one of the buffers if the flush failed.
+        awaitQuietly(pending);
+      } finally {
+        pending = null;
+        current.release();
+        writing.release();
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * @return number of bytes written to the underlying stream so far.
+   */
+  long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * @return time spent by the caller waiting on the underlying stream, in nanoseconds.
+   */
+  long getWaitNanos() {
+    return waitNanos;
+  }
+
+  /**
+   * Wait for the previous buffer to be written, then hand the current one to the executor.
+   */
+  private void swap() throws IOException {
+    waitForPendingWrite();
+
+    final ArrowBuf buffer = current;
+    final int length = position;
+    current = writing;
+    writing = buffer;
+    position = 0;
+    bytesWritten += length;
+
+    if (executor == null) {
+      final long start = System.nanoTime();
+      try {
+        buffer.getBytes(0, out, length);
+      } finally {
+        waitNanos += System.nanoTime() - start;
+      }
+      return;
+    }
+
+    pending = executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        buffer.getBytes(0, out, length);
+        return null;
+      }
+    });
+  }
+
+  private void waitForPendingWrite() throws IOException {
+    if (pending == null) {
+      return;
+    }
+
+    final long start = System.nanoTime();
+    try {
+      waitFor(pending);
+      pending = null;
+    } finally {
+      waitNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Wait for a background I/O task to complete, surfacing its failure as an IOException.
+   *
+   * The task isn't cancelled if the wait is interrupted, as it may still be using one of the caller's buffers. Callers
+   * should use {@link #awaitQuietly(Future)} before releasing them.
+   */
+  static <T> T waitFor(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for spill I/O to complete.");
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException("Failure during spill I/O.", e.getCause());
+    }
+  }
+
+  /**
+   * Wait for a background I/O task to be done with its buffer, ignoring its outcome.
+   */
+  static void awaitQuietly(Future<?> future) {
+    if (future == null) {
+      return;
+    }
+
+    try {
+      Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException | CancellationException e) {
+      // the failure is reported by the caller that waited for the task first.
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.dremio.sabot.op.sort.external;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collections;
@@ -23,6 +24,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -30,8 +32,6 @@ import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.util.TransferPair;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 
 import com.dremio.common.AutoCloseables;
@@ -39,6 +39,7 @@ import com.dremio.common.AutoCloseables.RollbackCloseable;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.cache.VectorAccessibleSerializable;
 import com.dremio.exec.compile.sig.GeneratorMapping;
 import com.dremio.exec.compile.sig.MappingSet;
@@ -72,6 +73,9 @@ import com.google.common.collect.Iterables;
  * Maintains 0..N separate runs of sorted data on disk, each in its own file.
  *
  * Also exposes an ability to live merge and copy the streams back.
+ *
+ * When an executor is provided, spill files are written through double buffered asynchronous streams and read back
+ * with read-ahead, so spill I/O overlaps with copying and (de)serialization on the fragment thread.
  */
 public class DiskRunManager implements AutoCloseable {
 
@@ -97,8 +101,18 @@ public class DiskRunManager implements AutoCloseable {
   private MergeState mergeState = MergeState.TRY;
   private final SpillManager spillManager;
   private boolean compressSpilledBatch;
+  private final VectorAccessibleSerializable.Codec spillCodec;
   private BufferAllocator compressSpilledBatchAllocator;
+  /* holds the buffers of the spill file being written, reserved up front so spilling doesn't need more memory */
+  private final BufferAllocator spillIOAllocator;
   private final ExternalSortTracer tracer;
+  private final ExecutorService spillExecutor;
+  private final int spillIOBufferSize;
+
+  private long spillBytesWritten;
+  private long spillWaitNanos;
+  private long mergeBytesRead;
+  private long mergeWaitNanos;
 
   private enum MergeState {
     TRY, // Try to reserve memory to copy all runs
@@ -118,7 +132,8 @@ public class DiskRunManager implements AutoCloseable {
       List<Ordering> orderings,
       BatchSchema dataSchema,
       boolean compressSpilledBatch,
-      ExternalSortTracer tracer
+      ExternalSortTracer tracer,
+      ExecutorService spillExecutor
       ) {
     this.targetRecordCount = targetRecordCount;
     this.targetBatchSizeInBytes = targetBatchSizeInBytes;
@@ -128,10 +143,21 @@ public class DiskRunManager implements AutoCloseable {
     this.parentAllocator = parentAllocator;
     this.compressSpilledBatch = compressSpilledBatch;
     this.tracer = tracer;
+    this.spillExecutor = spillExecutor;
+    if (optionManager != null) {
+      this.spillCodec = VectorAccessibleSerializable.Codec.valueOf(
+          optionManager.getOption(ExecConstants.EXTERNAL_SORT_SPILL_CODEC).toUpperCase());
+      this.spillIOBufferSize = (int) optionManager.getOption(ExecConstants.EXTERNAL_SORT_SPILL_IO_BUFFER_SIZE);
+    } else {
+      this.spillCodec = VectorAccessibleSerializable.Codec.SNAPPY;
+      this.spillIOBufferSize = ExecConstants.EXTERNAL_SORT_SPILL_IO_BUFFER_SIZE.getDefault().num_val.intValue();
+    }
     if (compressSpilledBatch) {
       long reserve = VectorAccessibleSerializable.RAW_CHUNK_SIZE_TO_COMPRESS * 2;
-      compressSpilledBatchAllocator = this.parentAllocator.newChildAllocator("spill_with_snappy", reserve, Long.MAX_VALUE);
+      compressSpilledBatchAllocator = this.parentAllocator.newChildAllocator(
+          "spill_with_" + spillCodec.name().toLowerCase(), reserve, Long.MAX_VALUE);
     }
+    this.spillIOAllocator = this.parentAllocator.newChildAllocator("spill_io", 2L * spillIOBufferSize, Long.MAX_VALUE);
 
     final Configuration conf = FileSystemPlugin.getNewFsConf();
     conf.set(SpillManager.DREMIO_LOCAL_IMPL_STRING, LocalSyncableFileSystem.class.getName());
@@ -159,6 +185,46 @@ public class DiskRunManager implements AutoCloseable {
     return merge;
   }
 
+  public long spillBytesWritten() {
+    return spillBytesWritten;
+  }
+
+  public long spillWaitNanos() {
+    return spillWaitNanos;
+  }
+
+  public long mergeBytesRead() {
+    return mergeBytesRead;
+  }
+
+  public long mergeWaitNanos() {
+    return mergeWaitNanos;
+  }
+
+  private void updateSpillIOStats(AsyncSpillOutputStream out) {
+    spillBytesWritten += out.getBytesWritten();
+    spillWaitNanos += out.getWaitNanos();
+    tracer.setSpillIOState(spillBytesWritten, spillWaitNanos, spillTimeNanos() + mergeTimeNanos(),
+        mergeBytesRead, mergeWaitNanos);
+  }
+
+  private void updateMergeIOStats(ReadAheadSpillInputStream in) {
+    mergeBytesRead += in.getBytesRead();
+    mergeWaitNanos += in.getWaitNanos();
+    tracer.setSpillIOState(spillBytesWritten, spillWaitNanos, spillTimeNanos() + mergeTimeNanos(),
+        mergeBytesRead, mergeWaitNanos);
+  }
+
+  private AsyncSpillOutputStream createSpillStream(SpillFile spillFile) throws IOException {
+    final OutputStream out = spillFile.create();
+    try {
+      return new AsyncSpillOutputStream(out, spillIOAllocator, spillExecutor, spillIOBufferSize);
+    } catch (RuntimeException e) {
+      AutoCloseables.close(e, out);
+      throw e;
+    }
+  }
+
   /**
    * The first time this is called, it will try to reserve enough memory to handle merging and copying of all disk runs.
    * If it fails to reserve, it will create a DiskRunMerger that will be used to merge some subset of the runs into a single run
@@ -302,7 +368,7 @@ public class DiskRunManager implements AutoCloseable {
     private final List<DiskRun> diskRuns;
 
     private PriorityQueueCopier copier;
-    private FSDataOutputStream out;
+    private AsyncSpillOutputStream out;
     private VectorContainer container;
     private SpillFile spillFile;
 
@@ -319,7 +385,7 @@ public class DiskRunManager implements AutoCloseable {
       try (RollbackCloseable rollback = new RollbackCloseable()) {
         container = rollback.add(VectorContainer.create(copierAllocator, dataSchema));
         copier = rollback.add(createCopier(container, diskRuns));
-        out = rollback.add(spillFile.create());
+        out = rollback.add(createSpillStream(spillFile));
         rollback.commit();
       }
     }
@@ -330,6 +396,7 @@ public class DiskRunManager implements AutoCloseable {
         int copied = copier.copy(targetRecordCount);
         if (copied == 0) {
           out.close();
+          updateSpillIOStats(out);
           DiskRun diskRun = new DiskRun(spillFile, recordCount, maxBatchSize, batchCount);
           DiskRunManager.this.diskRuns.add(diskRun);
           return true;
@@ -368,8 +435,9 @@ public class DiskRunManager implements AutoCloseable {
       int remainingRecordCount = 0;
       final SpillFile spillFile = spillManager.getSpillFile(String.format("run%05d", run++));
       BatchSchema outgoingSchema = null;
+      AsyncSpillOutputStream spillStream = null;
 
-      try (FSDataOutputStream out = spillFile.create();
+      try (AsyncSpillOutputStream out = createSpillStream(spillFile);
            final VectorContainer outgoing = VectorContainer.create(copyTargetAllocator, hyperBatch.getSchema());
            VectorContainer hyperBatchToClose = hyperBatch) {
 
@@ -379,6 +447,7 @@ public class DiskRunManager implements AutoCloseable {
           outgoing);
         final SelectionVector4 sv4 = hyperBatch.getSelectionVector4();
         outgoingSchema = outgoing.getSchema().clone();
+        spillStream = out;
 
         do {
           recordCount = sv4.getCount();
@@ -451,6 +520,7 @@ public class DiskRunManager implements AutoCloseable {
         throw tracer.prepareAndThrowException(ex, message);
       }
 
+      updateSpillIOStats(spillStream);
       Preconditions.checkArgument(copyTargetAllocator.getAllocatedMemory() == 0,
         "Target Allocator should be empty, is consuming %s bytes.", copyTargetAllocator.getAllocatedMemory());
       final DiskRun run = new DiskRun(spillFile, records, maxBatchSize, batchCount);
@@ -471,7 +541,7 @@ public class DiskRunManager implements AutoCloseable {
          * this allocator will _only_ be used to allocate buffer used to store and write the compressed
          * data.
          */
-        outputBatch = new VectorAccessibleSerializable(batch, null, compressSpilledBatchAllocator, true);
+        outputBatch = new VectorAccessibleSerializable(batch, null, compressSpilledBatchAllocator, true, spillCodec);
       }
       else {
         /* no need for an allocator on the spill path if compression is not enabled */
@@ -519,6 +589,9 @@ public class DiskRunManager implements AutoCloseable {
       totalSizeNeeded += batchSize;
     }
 
+    // each run is read through two spill I/O buffers
+    totalSizeNeeded += diskRuns.size() * 2L * spillIOBufferSize;
+
     // add the required space for the copy output. We use * 3 to manage against a really large vector.
     totalSizeNeeded += targetBatchSizeInBytes * 3;
 
@@ -583,7 +656,7 @@ public class DiskRunManager implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(Iterables.concat(this.diskRuns, Collections.singleton(compressSpilledBatchAllocator), Collections.singleton(this.spillManager), Collections.singleton(copierAllocator)));
+    AutoCloseables.close(Iterables.concat(this.diskRuns, Collections.singleton(compressSpilledBatchAllocator), Collections.singleton(spillIOAllocator), Collections.singleton(this.spillManager), Collections.singleton(copierAllocator)));
   }
 
   private class DiskRun implements AutoCloseable {
@@ -624,7 +697,7 @@ public class DiskRunManager implements AutoCloseable {
       Preconditions.checkState(iterator == null);
       final long memCapacity = nextPowerOfTwo(largestBatch);
       final BufferAllocator allocator = copierAllocator.newChildAllocator("diskrun", 0, memCapacity);
-      iterator = new DiskRunIterator(batchCount, spillFile, container, allocator);
+      iterator = new DiskRunIterator(batchCount, spillFile, container, allocator, copierAllocator);
 
       return iterator;
     }
@@ -642,7 +715,7 @@ public class DiskRunManager implements AutoCloseable {
 
   public class DiskRunIterator implements AutoCloseable {
     private final BufferAllocator allocator;
-    private FSDataInputStream inputStream;
+    private ReadAheadSpillInputStream inputStream;
 
     private int batchIndex = -1;
     private final int batchIndexMax;
@@ -651,11 +724,23 @@ public class DiskRunManager implements AutoCloseable {
     private int recordIndexMax;
     private final VectorContainer container = new VectorContainer();
 
-    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer, BufferAllocator allocator) throws IOException {
+    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer,
+        BufferAllocator allocator, BufferAllocator streamAllocator) throws IOException {
       this.allocator = allocator;
-      this.inputStream = spillFile.open();
       this.batchIndexMax = batchCount;
-      loadNextBatch(true);
+      final InputStream in = spillFile.open();
+      try {
+        this.inputStream = new ReadAheadSpillInputStream(in, streamAllocator, spillExecutor, spillIOBufferSize);
+      } catch (RuntimeException e) {
+        AutoCloseables.close(e, in);
+        throw e;
+      }
+      try {
+        loadNextBatch(true);
+      } catch (IOException | RuntimeException e) {
+        AutoCloseables.close(e, container, inputStream);
+        throw e;
+      }
       hyperContainer.addBatch(this.container);
     }
 
@@ -664,7 +749,8 @@ public class DiskRunManager implements AutoCloseable {
       container.zeroVectors();
 
       /* uncompress the data when de-serializing the spilled data into ArrowBufs */
-      final VectorAccessibleSerializable serializer = new VectorAccessibleSerializable(allocator, compressSpilledBatch, compressSpilledBatchAllocator);
+      final VectorAccessibleSerializable serializer = new VectorAccessibleSerializable(allocator, compressSpilledBatch,
+          spillCodec, compressSpilledBatchAllocator);
       serializer.readFromStream(inputStream);
 
       final VectorContainer incoming = serializer.get();
@@ -694,6 +780,8 @@ public class DiskRunManager implements AutoCloseable {
 
     @Override
     public void close() throws Exception {
+      // update the stats first, so they are recorded even if closing fails
+      updateMergeIOStats(inputStream);
       AutoCloseables.close(container, allocator, inputStream);
     }
 
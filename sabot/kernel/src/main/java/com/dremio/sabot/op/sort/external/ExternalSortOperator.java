@@ -94,6 +94,7 @@ public class ExternalSortOperator implements SingleInputOperator {
 
   private int maxBatchesInMemory = 0;
   private int batchsizeMultiplier;
+  private boolean useNormalizedKeys;
 
   private State state = State.NEEDS_SETUP;
 
@@ -106,7 +107,12 @@ public class ExternalSortOperator implements SingleInputOperator {
     MAX_BATCH_SIZE,
     AVG_BATCH_SIZE,
     SPILL_TIME_NANOS,       // time spent spilling to diskRuns while sorting
-    MERGE_TIME_NANOS;       // time spent merging disk runs and spilling
+    MERGE_TIME_NANOS,       // time spent merging disk runs and spilling
+    SPILL_BYTES,            // bytes written to spill files
+    SPILL_WAIT_NANOS,       // time spent waiting for spill writes to complete
+    SPILL_BANDWIDTH,        // spill write bandwidth in MB/s
+    MERGE_READ_BYTES,       // bytes read back from spill files
+    MERGE_READ_WAIT_NANOS;  // time spent waiting for spill reads to complete
 
     @Override
     public int metricId() {
@@ -139,7 +145,9 @@ public class ExternalSortOperator implements SingleInputOperator {
     this.tracer = new ExternalSortTracer();
     this.output =  VectorContainer.create(context.getAllocator(), incoming.getSchema());
     this.batchsizeMultiplier = (int)context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_BATCHSIZE_MULTIPLIER);
-    this.memoryRun = new MemoryRun(config, producer, context.getAllocator(), incoming.getSchema(), tracer, batchsizeMultiplier);
+    this.useNormalizedKeys = context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_ENABLE_NORMALIZED_KEYS);
+    this.memoryRun = new MemoryRun(config, producer, context.getAllocator(), incoming.getSchema(), tracer, batchsizeMultiplier,
+        useNormalizedKeys);
     this.incoming = incoming;
     state = State.CAN_CONSUME;
 
@@ -150,10 +158,12 @@ public class ExternalSortOperator implements SingleInputOperator {
     final int estimatedRecordSize = incoming.getSchema().estimateRecordSize(listSizeEstimate, varFieldSizeEstimate);
     final int targetBatchSizeInBytes = targetBatchSize * estimatedRecordSize;
     final boolean compressSpilledBatch = context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_COMPRESS_SPILL_FILES);
+    final boolean asyncSpillIO = context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_SPILL_ASYNC_IO);
 
     this.diskRuns = new DiskRunManager(context.getConfig(), context.getOptions(), targetBatchSize, targetBatchSizeInBytes,
         context.getFragmentHandle(), config.getOperatorId(), context.getClassProducer(), allocator,
-        config.getOrderings(), incoming.getSchema(), compressSpilledBatch, tracer);
+        config.getOrderings(), incoming.getSchema(), compressSpilledBatch, tracer,
+        asyncSpillIO ? context.getExecutor() : null);
 
     tracer.setTargetBatchSize(targetBatchSize);
     tracer.setTargetBatchSizeInBytes(targetBatchSizeInBytes);
@@ -272,6 +282,11 @@ public class ExternalSortOperator implements SingleInputOperator {
     stats.setLongStat(Metric.AVG_BATCH_SIZE, diskRuns.getAvgMaxBatchSize());
     stats.setLongStat(Metric.SPILL_TIME_NANOS, diskRuns.spillTimeNanos());
     stats.setLongStat(Metric.MERGE_TIME_NANOS, diskRuns.mergeTimeNanos());
+    stats.setLongStat(Metric.SPILL_BYTES, diskRuns.spillBytesWritten());
+    stats.setLongStat(Metric.SPILL_WAIT_NANOS, diskRuns.spillWaitNanos());
+    stats.setLongStat(Metric.SPILL_BANDWIDTH, tracer.getSpillBandwidth());
+    stats.setLongStat(Metric.MERGE_READ_BYTES, diskRuns.mergeBytesRead());
+    stats.setLongStat(Metric.MERGE_READ_WAIT_NANOS, diskRuns.mergeWaitNanos());
   }
 
   private void rotateRuns() {
@@ -283,7 +298,8 @@ public class ExternalSortOperator implements SingleInputOperator {
 
     try {
       memoryRun.closeToDisk(diskRuns);
-      memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer, batchsizeMultiplier);
+      memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer, batchsizeMultiplier,
+          useNormalizedKeys);
     } catch (Exception e) {
       throw UserException.dataWriteError(e)
         .message("Failure while attempting to spill sort data to disk.")
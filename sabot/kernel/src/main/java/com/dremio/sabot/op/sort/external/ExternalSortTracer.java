@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import org.apache.arrow.memory.BufferAllocator;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ExternalSortTracer {
   private int targetBatchSizeInBytes;
@@ -39,6 +40,13 @@ public class ExternalSortTracer {
   private int mergeCount;
   private int maxBatchSizeAllDiskRuns;
 
+  /* spill I/O done by DiskRunManager, both when spilling and when merging disk runs */
+  private long spillBytesWritten;
+  private long spillWaitNanos;
+  private long spillTimeNanos;
+  private long mergeBytesRead;
+  private long mergeWaitNanos;
+
   private final List<Object> events = Lists.newArrayList();
 
   /* Allocator created by MemoryRun to reserve memory for spilling sorted data to disk */
@@ -108,6 +116,25 @@ public class ExternalSortTracer {
     this.maxBatchSizeAllDiskRuns = maxBatchSizeAllDiskRuns;
   }
 
+  public void setSpillIOState(long spillBytesWritten, long spillWaitNanos, long spillTimeNanos,
+                              long mergeBytesRead, long mergeWaitNanos) {
+    this.spillBytesWritten = spillBytesWritten;
+    this.spillWaitNanos = spillWaitNanos;
+    this.spillTimeNanos = spillTimeNanos;
+    this.mergeBytesRead = mergeBytesRead;
+    this.mergeWaitNanos = mergeWaitNanos;
+  }
+
+  /**
+   * @return spill write bandwidth in MB/s, measured over the time spent spilling and merging.
+   */
+  public long getSpillBandwidth() {
+    if (spillTimeNanos == 0) {
+      return 0;
+    }
+    return (long) ((spillBytesWritten / (1024.0 * 1024.0)) / (spillTimeNanos / 1_000_000_000.0));
+  }
+
   public void setSpillCopyAllocatorState(final BufferAllocator spillCopyAllocator) {
     if (spillCopyAllocator == null) {
       spillCopyAllocatorState.valid = false;
@@ -179,6 +206,11 @@ public class ExternalSortTracer {
     exBuilder.addContext("Spill count", spillCount);
     exBuilder.addContext("Merge count", mergeCount);
     exBuilder.addContext("Max batch size amongst all disk runs", maxBatchSizeAllDiskRuns);
+    exBuilder.addContext("Spill bytes written", spillBytesWritten);
+    exBuilder.addContext("Spill write bandwidth (MB/s)", getSpillBandwidth());
+    exBuilder.addContext("Spill I/O wait time (ms)", TimeUnit.NANOSECONDS.toMillis(spillWaitNanos));
+    exBuilder.addContext("Merge bytes read", mergeBytesRead);
+    exBuilder.addContext("Merge I/O wait time (ms)", TimeUnit.NANOSECONDS.toMillis(mergeWaitNanos));
     exBuilder.addContext("Disk run copy allocator-Name", diskRunCopyAllocatorState.name);
     exBuilder.addContext("Disk run copy allocator-Allocated memory", diskRunCopyAllocatorState.allocatedMemory);
     exBuilder.addContext("Disk run copy allocator-Max allowed", diskRunCopyAllocatorState.maxAllowed);
@@ -56,6 +56,10 @@ import io.netty.buffer.ArrowBuf;
  * memory run.
  *
  * Can either be spilled or returned in SV4 sorted structure.
+ *
+ * When normalized keys are enabled and all orderings can be encoded as such, the
+ * SplayTree is replaced by a {@link NormalizedKeySorter}: batches are not sorted
+ * individually and the normalized keys are sorted once the run is closed.
  */
 class MemoryRun implements AutoCloseable {
 
@@ -68,6 +72,8 @@ class MemoryRun implements AutoCloseable {
   private ArrowBuf splayTreeBuffer;
   private SingleBatchSorter localSorter;
   private SplaySorter treeManager;
+  private final NormalizedKeySorter normalizedKeySorter;
+  private final int entrySize;
   private RecordBatchItem head;
   private RecordBatchItem tail;
   private final Schema schema;
@@ -88,13 +94,16 @@ class MemoryRun implements AutoCloseable {
       BufferAllocator allocator,
       Schema schema,
       ExternalSortTracer tracer,
-      int batchsizeMultiplier
+      int batchsizeMultiplier,
+      boolean useNormalizedKeys
       ) {
     this.schema = schema;
     this.sortConfig = sortConfig;
     this.allocator = allocator;
     this.classProducer = classProducer;
-    this.splayTreeBuffer = allocator.buffer(4096 * SplayTree.NODE_SIZE);
+    this.normalizedKeySorter = useNormalizedKeys ? NormalizedKeySorter.create(sortConfig.getOrderings(), schema) : null;
+    this.entrySize = normalizedKeySorter != null ? normalizedKeySorter.getEntrySize() : SplayTree.NODE_SIZE;
+    this.splayTreeBuffer = allocator.buffer(4096 * entrySize);
     splayTreeBuffer.setZero(0, splayTreeBuffer.capacity());
     this.tracer = tracer;
     this.batchsizeMultiplier = batchsizeMultiplier;
@@ -199,8 +208,8 @@ class MemoryRun implements AutoCloseable {
   }
 
   private boolean expandTreeIfNecessary(int newRecords) {
-    // 0 position is used for null in splay tree, see need to account for this
-    final int requiredSize = (recordLength + newRecords + 1) * SplayTree.NODE_SIZE;
+    // 0 position is used for null in splay tree (and as scratch space for normalized keys), see need to account for this
+    final int requiredSize = (recordLength + newRecords + 1) * entrySize;
 
     while (splayTreeBuffer.capacity() < requiredSize) {
 
@@ -244,9 +253,12 @@ class MemoryRun implements AutoCloseable {
         }
       }
 
-      // quicksort for cache-local performance benefits (includes resetting vector references)
-      localSorter.setup(classProducer.getFunctionContext(), localSortVector, item.data.getContainer());
-      localSorter.sort(localSortVector);
+      // quicksort for cache-local performance benefits (includes resetting vector references). Not needed when
+      // sorting normalized keys as those are only sorted once the run is closed.
+      if (localSorter != null) {
+        localSorter.setup(classProducer.getFunctionContext(), localSortVector, item.data.getContainer());
+        localSorter.sort(localSortVector);
+      }
 
       // now we need to insert the values into the splay tree.
       treeManager.add(localSortVector, item.data);
@@ -257,6 +269,14 @@ class MemoryRun implements AutoCloseable {
   private void compileSortingClasses(VectorAccessible batch)
       throws ClassTransformationException, SchemaChangeException, IOException {
 
+    if (normalizedKeySorter != null) {
+      logger.debug("Memory Run: sorting using normalized keys of {} bytes", normalizedKeySorter.getEntrySize());
+      this.treeManager = normalizedKeySorter;
+      treeManager.init(classProducer.getFunctionContext(), new Sv4HyperContainer(allocator, schema));
+      treeManager.setData(splayTreeBuffer);
+      return;
+    }
+
     { // Local (single batch) sorter
       CodeGenerator<SingleBatchSorter> cg = classProducer.createGenerator(SingleBatchSorter.TEMPLATE_DEFINITION);
       ClassGenerator<SingleBatchSorter> g = cg.getRoot();
@@ -0,0 +1,398 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.record.ExpandableHyperContainer;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Alternative to the generated {@link SplaySortTemplate} that sorts on normalized keys instead of calling generated
+ * comparison code for every comparison.
+ *
+ * As batches are added, the sort keys of each record are encoded into a fixed-width entry held in a single block of
+ * memory. Structure of an entry is as follows:
+ *
+ * [ kkkk kkkk ] [ kkkk kkkk ] ... [ iiii iiii ]
+ *
+ * kkkk kkkk: normalized key words, compared in order as unsigned longs.
+ * iiii iiii: the sv4 index of the record (batch index << 16 | record index).
+ *
+ * Columns of up to four bytes use a single word that holds the null indicator above the value bits. Eight byte columns
+ * use one word for the null indicator and one word for the value. Values are encoded so that comparing words as
+ * unsigned longs is equivalent to the generated comparator, including direction and null ordering. The only
+ * difference is that floating point NaN values are ordered after all other values.
+ *
+ * The first entry (position 0) is kept as scratch space for the sort, matching the NULL position of {@link SplayTree}.
+ *
+ * Only usable when all orderings are simple references to top level fixed-width columns, see {@link #create}.
+ */
+public class NormalizedKeySorter implements SplaySorter {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(NormalizedKeySorter.class);
+
+  private static final int NULL_BUFFER_ORDINAL = 0;
+  private static final int VALUE_BUFFER_ORDINAL = 1;
+  private static final int WORD_SIZE = 8;
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final List<KeyColumn> columns;
+  private final int keySize;
+  private final int entrySize;
+
+  private ExpandableHyperContainer hyperBatch;
+  private ArrowBuf data;
+  private int totalCount;
+
+  private NormalizedKeySorter(List<KeyColumn> columns, int keyWords) {
+    this.columns = columns;
+    this.keySize = keyWords * WORD_SIZE;
+    this.entrySize = keySize + WORD_SIZE;
+  }
+
+  /**
+   * Create a normalized key sorter for the provided orderings.
+   *
+   * @return the sorter or null if one of the orderings can't be expressed as a normalized key.
+   */
+  public static NormalizedKeySorter create(List<Ordering> orderings, Schema schema) {
+    final ImmutableList.Builder<KeyColumn> columns = ImmutableList.builder();
+    int words = 0;
+    for (Ordering ordering : orderings) {
+      final int fieldIndex = findField(ordering.getExpr(), schema);
+      if (fieldIndex == -1) {
+        return null;
+      }
+
+      final MinorType type = CompleteType.fromField(schema.getFields().get(fieldIndex)).toMinorType();
+      final int valueWords = getValueWords(type);
+      if (valueWords == -1) {
+        return null;
+      }
+
+      columns.add(new KeyColumn(fieldIndex, type, words, valueWords,
+          ordering.getDirection() == Direction.DESCENDING, ordering.nullsSortHigh()));
+      words += valueWords;
+    }
+
+    if (words == 0) {
+      return null;
+    }
+
+    return new NormalizedKeySorter(columns.build(), words);
+  }
+
+  private static int findField(LogicalExpression expr, Schema schema) {
+    if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isSimplePath()) {
+      return -1;
+    }
+
+    final String name = ((SchemaPath) expr).getRootSegment().getPath();
+    final List<Field> fields = schema.getFields();
+    for (int i = 0; i < fields.size(); i++) {
+      if (fields.get(i).getName().equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return number of words used to encode a column of the given type, or -1 if the type isn't supported.
+   */
+  private static int getValueWords(MinorType type) {
+    switch (type) {
+    case BIT:
+    case INT:
+    case TIME:
+    case FLOAT4:
+      return 1;
+
+    case BIGINT:
+    case DATE:
+    case TIMESTAMP:
+    case FLOAT8:
+      return 2;
+
+    default:
+      return -1;
+    }
+  }
+
+  /**
+   * @return the size in bytes of a single entry in the data buffer.
+   */
+  public int getEntrySize() {
+    return entrySize;
+  }
+
+  @Override
+  public void init(FunctionContext context, ExpandableHyperContainer hyperContainer) throws SchemaChangeException {
+    this.hyperBatch = hyperContainer;
+  }
+
+  @Override
+  public void add(final SelectionVector2 sv2, final RecordBatchData batch) throws SchemaChangeException {
+    final Stopwatch watch = Stopwatch.createStarted();
+
+    final int batchIndex = hyperBatch.size();
+    hyperBatch.addBatch(batch.getContainer());
+
+    final int recordCount = batch.getRecordCount();
+    // position 0 is reserved as scratch space.
+    final long firstEntry = data.memoryAddress() + (totalCount + 1) * (long) entrySize;
+
+    for (KeyColumn column : columns) {
+      final FieldVector vector = batch.getContainer()
+          .getValueAccessorById(FieldVector.class, column.fieldIndex)
+          .getValueVector();
+      column.encode(vector, sv2, recordCount, firstEntry, entrySize);
+    }
+
+    long indexAddr = firstEntry + keySize;
+    for (int count = 0; count < recordCount; count++, indexAddr += entrySize) {
+      PlatformDependent.putLong(indexAddr, (batchIndex << 16) | (sv2.getIndex(count) & 65535));
+    }
+
+    totalCount += recordCount;
+    logger.debug("Took {} us to encode {} records", watch.elapsed(TimeUnit.MICROSECONDS), recordCount);
+  }
+
+  @Override
+  public void setData(ArrowBuf data) {
+    this.data = data;
+  }
+
+  @Override
+  public SelectionVector4 getFinalSort(BufferAllocator allocator, int targetBatchSize) {
+    final Stopwatch watch = Stopwatch.createStarted();
+
+    final long scratch = data.memoryAddress();
+    final long first = scratch + entrySize;
+    sort(first, first + (totalCount - 1) * (long) entrySize, scratch);
+    logger.debug("Took {} us to sort {} normalized keys", watch.elapsed(TimeUnit.MICROSECONDS), totalCount);
+
+    final SelectionVector4 sortVector = new SelectionVector4(allocator.buffer(totalCount * 4), totalCount, targetBatchSize);
+    long indexAddr = first + keySize;
+    for (int i = 0; i < totalCount; i++, indexAddr += entrySize) {
+      sortVector.set(i, (int) PlatformDependent.getLong(indexAddr));
+    }
+    logger.debug("Took {} us to generate final order", watch.elapsed(TimeUnit.MICROSECONDS));
+
+    return sortVector;
+  }
+
+  @Override
+  public ExpandableHyperContainer getHyperBatch() {
+    return hyperBatch;
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(hyperBatch);
+  }
+
+  /**
+   * Sort the entries between the two addresses (both inclusive) using a quicksort that compares normalized keys.
+   * Recurses on the smaller partition so the stack depth stays logarithmic.
+   */
+  private void sort(long low, long high, long scratch) {
+    final int entrySize = this.entrySize;
+    while (high - low >= INSERTION_SORT_THRESHOLD * (long) entrySize) {
+      final long mid = low + ((high - low) / entrySize / 2) * entrySize;
+
+      // median of three, leaves the pivot value in the scratch entry.
+      if (compare(mid, low) < 0) {
+        swap(mid, low);
+      }
+      if (compare(high, low) < 0) {
+        swap(high, low);
+      }
+      if (compare(high, mid) < 0) {
+        swap(high, mid);
+      }
+      PlatformDependent.copyMemory(mid, scratch, entrySize);
+
+      long left = low;
+      long right = high;
+      while (left <= right) {
+        while (compare(left, scratch) < 0) {
+          left += entrySize;
+        }
+        while (compare(right, scratch) > 0) {
+          right -= entrySize;
+        }
+        if (left <= right) {
+          swap(left, right);
+          left += entrySize;
+          right -= entrySize;
+        }
+      }
+
+      if (right - low < high - left) {
+        sort(low, right, scratch);
+        low = left;
+      } else {
+        sort(left, high, scratch);
+        high = right;
+      }
+    }
+
+    insertionSort(low, high, scratch);
+  }
+
+  private void insertionSort(long low, long high, long scratch) {
+    final int entrySize = this.entrySize;
+    for (long current = low + entrySize; current <= high; current += entrySize) {
+      if (compare(current - entrySize, current) <= 0) {
+        continue;
+      }
+
+      PlatformDependent.copyMemory(current, scratch, entrySize);
+      long position = current;
+      while (position > low && compare(position - entrySize, scratch) > 0) {
+        PlatformDependent.copyMemory(position - entrySize, position, entrySize);
+        position -= entrySize;
+      }
+      PlatformDependent.copyMemory(scratch, position, entrySize);
+    }
+  }
+
+  private int compare(long left, long right) {
+    for (int offset = 0; offset < keySize; offset += WORD_SIZE) {
+      final int cmp = Long.compareUnsigned(PlatformDependent.getLong(left + offset), PlatformDependent.getLong(right + offset));
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private void swap(long left, long right) {
+    for (int offset = 0; offset < entrySize; offset += WORD_SIZE) {
+      final long value = PlatformDependent.getLong(left + offset);
+      PlatformDependent.putLong(left + offset, PlatformDependent.getLong(right + offset));
+      PlatformDependent.putLong(right + offset, value);
+    }
+  }
+
+  /**
+   * Encodes the values of a single sort column into the key words of each entry.
+   */
+  private static class KeyColumn {
+    private static final long SINGLE_WORD_MASK = (1L << 33) - 1;
+
+    private final int fieldIndex;
+    private final MinorType type;
+    private final int wordOffset;
+    private final int words;
+    private final boolean descending;
+    private final long nullFlag;
+    private final long valueFlag;
+
+    KeyColumn(int fieldIndex, MinorType type, int wordOffset, int words, boolean descending, boolean nullsHigh) {
+      this.fieldIndex = fieldIndex;
+      this.type = type;
+      this.wordOffset = wordOffset;
+      this.words = words;
+      this.descending = descending;
+      this.nullFlag = nullsHigh ? 1 : 0;
+      this.valueFlag = nullsHigh ? 0 : 1;
+    }
+
+    void encode(FieldVector vector, SelectionVector2 sv2, int recordCount, long firstEntry, int entrySize) {
+      final List<ArrowBuf> buffers = vector.getFieldBuffers();
+      final long validityAddr = buffers.get(NULL_BUFFER_ORDINAL).memoryAddress();
+      final long valueAddr = buffers.get(VALUE_BUFFER_ORDINAL).memoryAddress();
+
+      long entryAddr = firstEntry + wordOffset * WORD_SIZE;
+      for (int count = 0; count < recordCount; count++, entryAddr += entrySize) {
+        final int index = sv2.getIndex(count);
+        final boolean isSet = ((PlatformDependent.getByte(validityAddr + (index >>> 3)) >>> (index & 7)) & 1) == 1;
+
+        if (words == 1) {
+          long word = isSet ? (valueFlag << 32) | normalizeSingle(valueAddr, index) : nullFlag << 32;
+          if (descending) {
+            word = ~word & SINGLE_WORD_MASK;
+          }
+          PlatformDependent.putLong(entryAddr, word);
+        } else {
+          long flag = isSet ? valueFlag : nullFlag;
+          long value = isSet ? normalizeDouble(valueAddr, index) : 0;
+          if (descending) {
+            flag = ~flag & 1;
+            value = ~value;
+          }
+          PlatformDependent.putLong(entryAddr, flag);
+          PlatformDependent.putLong(entryAddr + WORD_SIZE, value);
+        }
+      }
+    }
+
+    /**
+     * @return value of a column of up to four bytes as an unsigned, 32 bit value.
+     */
+    private long normalizeSingle(long valueAddr, int index) {
+      switch (type) {
+      case BIT:
+        return (PlatformDependent.getByte(valueAddr + (index >>> 3)) >>> (index & 7)) & 1;
+
+      case FLOAT4: {
+        final float value = Float.intBitsToFloat(PlatformDependent.getInt(valueAddr + index * 4));
+        // treat -0.0 and 0.0 as equal, as the generated comparator does.
+        final int bits = Float.floatToIntBits(value == 0.0f ? 0.0f : value);
+        return (bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+      }
+
+      default:
+        return (PlatformDependent.getInt(valueAddr + index * 4) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+      }
+    }
+
+    /**
+     * @return value of an eight byte column as an unsigned, 64 bit value.
+     */
+    private long normalizeDouble(long valueAddr, int index) {
+      if (type == MinorType.FLOAT8) {
+        final double value = Double.longBitsToDouble(PlatformDependent.getLong(valueAddr + index * 8L));
+        final long bits = Double.doubleToLongBits(value == 0.0d ? 0.0d : value);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+      }
+      return PlatformDependent.getLong(valueAddr + index * 8L) ^ Long.MIN_VALUE;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Input stream used to read spill files during merge. While the caller consumes one buffer, the next one is read from
+ * the underlying stream by the executor. If no executor is provided, buffers are read synchronously when needed.
+ * Both buffers are allocated from the provided allocator and released when the stream is closed.
+ *
+ * Not thread safe: only the fragment thread is expected to use the stream.
+ */
+class ReadAheadSpillInputStream extends InputStream {
+
+  private final InputStream in;
+  private final ExecutorService executor;
+  private final int bufferSize;
+
+  private ArrowBuf current;
+  private ArrowBuf next;
+  private int position;
+  private int limit;
+  private Future<Integer> pending;
+  private boolean endOfStream;
+
+  private long bytesRead;
+  private long waitNanos;
+
+  ReadAheadSpillInputStream(InputStream in, BufferAllocator allocator, ExecutorService executor, int bufferSize) {
+    this.in = in;
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.current = allocator.buffer(bufferSize);
+    try {
+      this.next = allocator.buffer(bufferSize);
+    } catch (RuntimeException e) {
+      current.release();
+      throw e;
+    }
+    readAhead();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position == limit && !advance()) {
+      return -1;
+    }
+    return current.getByte(position++) & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position == limit && !advance()) {
+      return -1;
+    }
+
+    final int toCopy = Math.min(len, limit - position);
+    current.getBytes(position, b, off, toCopy);
+    position += toCopy;
+    return toCopy;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return limit - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      // make sure the background read is done with the underlying stream and the buffer before closing them.
+      AsyncSpillOutputStream.awaitQuietly(pending);
+    } finally {
+      pending = null;
+      current.release();
+      next.release();
+      in.close();
+    }
+  }
+
+  /**
+   * @return number of bytes read from the underlying stream so far.
+   */
+  long getBytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * @return time spent by the caller waiting on the underlying stream, in nanoseconds.
+   */
+  long getWaitNanos() {
+    return waitNanos;
+  }
+
+  private void readAhead() {
+    if (executor == null) {
+      return;
+    }
+
+    final ArrowBuf buffer = next;
+    pending = executor.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() throws IOException {
+        return fill(in, buffer, bufferSize);
+      }
+    });
+  }
+
+  /**
+   * Make the next buffer current, and start reading the one after it.
+   *
+   * @return false if the end of the underlying stream was reached.
+   */
+  private boolean advance() throws IOException {
+    if (endOfStream) {
+      return false;
+    }
+
+    final long start = System.nanoTime();
+    final int filled;
+    try {
+      if (pending != null) {
+        filled = AsyncSpillOutputStream.waitFor(pending);
+        pending = null;
+      } else {
+        filled = fill(in, next, bufferSize);
+      }
+    } finally {
+      waitNanos += System.nanoTime() - start;
+    }
+
+    final ArrowBuf buffer = current;
+    current = next;
+    next = buffer;
+    position = 0;
+    limit = filled;
+    bytesRead += filled;
+
+    if (filled < bufferSize) {
+      // a partially filled buffer means we reached the end of the underlying stream.
+      endOfStream = true;
+    } else {
+      readAhead();
+    }
+    return filled > 0;
+  }
+
+  private static int fill(InputStream in, ArrowBuf buffer, int length) throws IOException {
+    int total = 0;
+    while (total < length) {
+      final int read = buffer.setBytes(total, in, length - total);
+      if (read == -1) {
+        break;
+      }
+      total += read;
+    }
+    return total;
+  }
+}
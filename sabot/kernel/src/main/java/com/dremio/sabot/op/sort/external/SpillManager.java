@@ -39,7 +39,8 @@ import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.google.common.collect.Lists;
 
 /**
- * Distribute spills across given list of directories.
+ * Distribute spills across given list of directories. Consecutive spill files are striped round robin across the
+ * directories (starting from a random one), so that spill I/O of a single operator is spread across all disks.
  * Monitor disk space left and stop using disks which are running low on free space.
  * Monitoring is disabled for spill directories on non local filesystems.
  */
@@ -60,6 +61,7 @@ public class SpillManager implements AutoCloseable {
   private final long healthCheckSpills;
   private final String caller;
   private final Configuration hadoopConf;
+  private int nextDirectory;
 
   public SpillManager(SabotConfig sabotConfig, OptionManager optionManager, String id, Configuration hadoopConf,
       String caller)  {
@@ -103,12 +105,14 @@ public class SpillManager implements AutoCloseable {
         ).build(logger);
       }
     }
+    this.nextDirectory = ThreadLocalRandom.current().nextInt(healthySpillDirectories.size());
   }
 
   public SpillFile getSpillFile(String fileName) throws RuntimeException {
     while (!healthySpillDirectories.isEmpty()) {
-      // pick a random spill directory
-      final int index = ThreadLocalRandom.current().nextInt(healthySpillDirectories.size());
+      // pick the next spill directory
+      final int index = nextDirectory % healthySpillDirectories.size();
+      nextDirectory = index + 1;
       final SpillDirectory spillDirectory = healthySpillDirectories.get(index);
 
       if (spillDirectory.isHealthy()) {
@@ -116,6 +120,7 @@ public class SpillManager implements AutoCloseable {
         return new SpillFile(spillDirectory.getFileSystem(), new Path(spillDirectory.getSpillDirPath(), fileName));
       } else {
         healthySpillDirectories.remove(index);
+        nextDirectory = index;
       }
     }
 
@@ -19,6 +19,7 @@ import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.exec.compile.TemplateClassDefinition;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.exec.record.selection.SelectionVector4;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.dremio.sabot.op.sort.external.RecordBatchData;
@@ -26,6 +27,17 @@ import com.dremio.sabot.op.sort.external.Sv4HyperContainer;
 
 public interface PriorityQueue extends AutoCloseable {
   void add(RecordBatchData batch);
+
+  /**
+   * Add the selected records of the batch to the queue. The selection holds record indexes into the batch's
+   * vectors, and takes precedence over the batch's own selection vector.
+   */
+  void add(RecordBatchData batch, SelectionVector2 selection);
+
+  /**
+   * @return true once the queue holds limit records, in which case the head of the heap is the last record kept.
+   */
+  boolean isFull();
   void init(Sv4HyperContainer hyperBatch, int limit, FunctionContext context, BufferAllocator allocator, boolean hasSv2, int maxSize);
   void generate();
   Sv4HyperContainer getHyperBatch();
@@ -89,6 +89,11 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
 
   @Override
   public void add(RecordBatchData batch) throws SchemaChangeException{
+    add(batch, hasSv2 ? batch.getSv2() : null);
+  }
+
+  @Override
+  public void add(RecordBatchData batch, SelectionVector2 selection) throws SchemaChangeException{
     Stopwatch watch = Stopwatch.createStarted();
 
     hyperBatch.addBatch(batch.getContainer());
@@ -96,17 +101,14 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
     doSetup(context, hyperBatch, null);
 
     int count = 0;
-    SelectionVector2 sv2 = null;
-    if (hasSv2) {
-      sv2 = batch.getSv2();
-    }
-    for (; queueSize < limit && count < batch.getRecordCount();  count++) {
-      heapSv4.set(queueSize, batchCount, hasSv2 ? sv2.getIndex(count) : count);
+    final int recordCount = selection == null ? batch.getRecordCount() : selection.getCount();
+    for (; queueSize < limit && count < recordCount;  count++) {
+      heapSv4.set(queueSize, batchCount, selection == null ? count : selection.getIndex(count));
       queueSize++;
       siftUp();
     }
-    for (; count < batch.getRecordCount(); count++) {
-      heapSv4.set(limit, batchCount, hasSv2 ? sv2.getIndex(count) : count);
+    for (; count < recordCount; count++) {
+      heapSv4.set(limit, batchCount, selection == null ? count : selection.getIndex(count));
       if (compare(limit, 0) < 0) {
         swap(limit, 0);
         siftDown();
@@ -114,11 +116,16 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
     }
     batchCount++;
     if (hasSv2) {
-      sv2.clear();
+      batch.getSv2().clear();
     }
     logger.debug("Took {} us to add {} records", watch.elapsed(TimeUnit.MICROSECONDS), count);
   }
 
+  @Override
+  public boolean isFull() {
+    return queueSize == limit;
+  }
+
   @Override
   public void generate() throws SchemaChangeException {
     Stopwatch watch = Stopwatch.createStarted();
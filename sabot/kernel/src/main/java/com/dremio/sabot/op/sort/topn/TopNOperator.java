@@ -43,7 +43,9 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.copier.Copier;
 import com.dremio.sabot.op.copier.CopierOperator;
@@ -58,6 +60,16 @@ import com.sun.codemodel.JExpr;
 public class TopNOperator implements SingleInputOperator {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TopNOperator.class);
 
+  public enum Metric implements MetricDef {
+    ROWS_FILTERED,   // number of incoming rows discarded by the threshold filter
+    BATCHES_SKIPPED; // number of incoming batches discarded entirely by the threshold filter
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   private final int batchPurgeThreshold;
   private final TopN config;
   private final OperatorContext context;
@@ -74,6 +86,12 @@ public class TopNOperator implements SingleInputOperator {
   // used once operator has consumed all data.
   private SelectionVector4 finalOrder;
 
+  // used to discard incoming rows that can't enter the queue, null if the orderings don't support it.
+  private TopNThreshold threshold;
+  private SelectionVector2 candidates;
+  private long rowsFiltered;
+  private long batchesSkipped;
+
   // generated code.
   private PriorityQueue priorityQueue;
   private Copier copier;
@@ -100,6 +118,12 @@ public class TopNOperator implements SingleInputOperator {
     outgoing.buildSchema(SelectionVectorMode.NONE);
 
     priorityQueue = createNewPriorityQueue(context.getClassProducer(), config.getOrderings());
+    if (context.getOptions().getOption(ExecConstants.TOPN_ENABLE_THRESHOLD_FILTER)) {
+      threshold = TopNThreshold.create(config.getOrderings(), incoming.getSchema());
+      if (threshold != null) {
+        candidates = new SelectionVector2(context.getAllocator());
+      }
+    }
     copier = CopierOperator.getGenerated4Copier(context.getClassProducer(), priorityQueue.getHyperBatch(), outgoing);
     state = State.CAN_CONSUME;
     return outgoing;
@@ -108,10 +132,34 @@ public class TopNOperator implements SingleInputOperator {
   @Override
   public void consumeData(int records) throws Exception {
 
-    countSincePurge += incoming.getRecordCount();
-    batchCount++;
-
-    priorityQueue.add(new RecordBatchData(incoming, context.getAllocator()));
+    if (threshold != null && priorityQueue.isFull()) {
+      // the head of a full queue is the last row kept so far, filter the batch before handing it to the queue.
+      threshold.update(priorityQueue.getHyperBatch(), priorityQueue.getHeapSv4().get(0));
+      candidates.allocateNew(incoming.getRecordCount());
+      final int selected = threshold.filter(incoming, candidates);
+      candidates.setRecordCount(selected);
+
+      rowsFiltered += incoming.getRecordCount() - selected;
+      if (selected == 0) {
+        batchesSkipped++;
+        candidates.clear();
+        updateStats();
+        return;
+      }
+      updateStats();
+
+      countSincePurge += incoming.getRecordCount();
+      batchCount++;
+      try {
+        priorityQueue.add(new RecordBatchData(incoming, context.getAllocator()), candidates);
+      } finally {
+        candidates.clear();
+      }
+    } else {
+      countSincePurge += incoming.getRecordCount();
+      batchCount++;
+      priorityQueue.add(new RecordBatchData(incoming, context.getAllocator()));
+    }
 
     if (countSincePurge > config.getLimit() && batchCount > batchPurgeThreshold) {
       purge();
@@ -121,6 +169,11 @@ public class TopNOperator implements SingleInputOperator {
 
   }
 
+  private void updateStats() {
+    context.getStats().setLongStat(Metric.ROWS_FILTERED, rowsFiltered);
+    context.getStats().setLongStat(Metric.BATCHES_SKIPPED, batchesSkipped);
+  }
+
   @Override
   public void noMoreToConsume() throws Exception {
     state.is(State.CAN_CONSUME);
@@ -257,7 +310,7 @@ public class TopNOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(outgoing, finalOrder, priorityQueue, copier);
+    AutoCloseables.close(outgoing, finalOrder, candidates, priorityQueue, copier);
   }
 
   public static class TopNCreator implements SingleInputOperator.Creator<TopN>{
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.topn;
+
+import java.util.List;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.selection.SelectionVector2;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Filters incoming rows against the first sort key of the current last row of a full priority queue.
+ *
+ * Once the queue holds limit rows, a row can only enter it if it sorts before that row. Rows whose first key sorts
+ * after the threshold are discarded before the batch is added to the queue, which avoids calling the generated
+ * comparator for them, and lets the operator skip whole batches without keeping their data. Comparisons follow the
+ * generated comparator, including direction and null ordering. If the query orders on more than one key, rows equal
+ * to the threshold on the first key are kept so the remaining keys can be compared by the queue.
+ *
+ * Only supported for a first ordering on a column of fixed width numeric or temporal type.
+ */
+class TopNThreshold {
+  private static final int NULL_BUFFER_ORDINAL = 0;
+  private static final int VALUE_BUFFER_ORDINAL = 1;
+
+  private final int fieldIndex;
+  private final MinorType type;
+  private final boolean descending;
+  private final boolean nullsHigh;
+  private final boolean singleKey;
+
+  private boolean thresholdNull;
+  private long longThreshold;
+  private double doubleThreshold;
+
+  private TopNThreshold(int fieldIndex, MinorType type, boolean descending, boolean nullsHigh, boolean singleKey) {
+    this.fieldIndex = fieldIndex;
+    this.type = type;
+    this.descending = descending;
+    this.nullsHigh = nullsHigh;
+    this.singleKey = singleKey;
+  }
+
+  /**
+   * Create a threshold filter for the provided orderings.
+   *
+   * @return the filter or null if the first ordering isn't on a column of a supported type.
+   */
+  static TopNThreshold create(List<Ordering> orderings, Schema schema) {
+    if (orderings.isEmpty()) {
+      return null;
+    }
+
+    final Ordering ordering = orderings.get(0);
+    final int fieldIndex = findField(ordering.getExpr(), schema);
+    if (fieldIndex == -1) {
+      return null;
+    }
+
+    final MinorType type = CompleteType.fromField(schema.getFields().get(fieldIndex)).toMinorType();
+    switch (type) {
+    case INT:
+    case TIME:
+    case BIGINT:
+    case DATE:
+    case TIMESTAMP:
+    case FLOAT4:
+    case FLOAT8:
+      return new TopNThreshold(fieldIndex, type, ordering.getDirection() == Direction.DESCENDING,
+          ordering.nullsSortHigh(), orderings.size() == 1);
+    default:
+      return null;
+    }
+  }
+
+  private static int findField(LogicalExpression expr, Schema schema) {
+    if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isSimplePath()) {
+      return -1;
+    }
+
+    final String name = ((SchemaPath) expr).getRootSegment().getPath();
+    final List<Field> fields = schema.getFields();
+    for (int i = 0; i < fields.size(); i++) {
+      if (fields.get(i).getName().equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Use the key of the given row of the queue as the threshold.
+   *
+   * @param hyperBatch the batches held by the queue
+   * @param compoundIndex sv4 index of the row (batch index << 16 | record index)
+   */
+  void update(VectorAccessible hyperBatch, int compoundIndex) {
+    final ValueVector vector = hyperBatch.getValueAccessorById(ValueVector.class, fieldIndex)
+        .getValueVectors()[compoundIndex >>> 16];
+    final int index = compoundIndex & 0xFFFF;
+    final List<ArrowBuf> buffers = ((FieldVector) vector).getFieldBuffers();
+
+    thresholdNull = !isSet(buffers.get(NULL_BUFFER_ORDINAL).memoryAddress(), index);
+    if (thresholdNull) {
+      return;
+    }
+
+    final long valueAddr = buffers.get(VALUE_BUFFER_ORDINAL).memoryAddress();
+    switch (type) {
+    case INT:
+    case TIME:
+      longThreshold = PlatformDependent.getInt(valueAddr + index * 4L);
+      break;
+    case FLOAT4:
+      doubleThreshold = Float.intBitsToFloat(PlatformDependent.getInt(valueAddr + index * 4L));
+      break;
+    case FLOAT8:
+      doubleThreshold = Double.longBitsToDouble(PlatformDependent.getLong(valueAddr + index * 8L));
+      break;
+    default:
+      longThreshold = PlatformDependent.getLong(valueAddr + index * 8L);
+      break;
+    }
+  }
+
+  /**
+   * Select the rows of the incoming batch that may still enter the queue. The selection must be allocated to hold at
+   * least the incoming record count.
+   *
+   * @return number of selected rows
+   */
+  int filter(VectorAccessible incoming, SelectionVector2 selection) {
+    final SelectionVector2 sv2 = incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.TWO_BYTE
+        ? incoming.getSelectionVector2() : null;
+    final int recordCount = incoming.getRecordCount();
+    final ValueVector vector = incoming.getValueAccessorById(ValueVector.class, fieldIndex).getValueVector();
+    final List<ArrowBuf> buffers = ((FieldVector) vector).getFieldBuffers();
+    final long validityAddr = buffers.get(NULL_BUFFER_ORDINAL).memoryAddress();
+    final long valueAddr = buffers.get(VALUE_BUFFER_ORDINAL).memoryAddress();
+
+    // null rows all compare the same way against the threshold.
+    final boolean keepNulls = keep(thresholdNull ? 0 : (nullsHigh ? 1 : -1));
+
+    int selected = 0;
+    if (thresholdNull) {
+      // so do non null rows if the threshold is null.
+      final boolean keepValues = keep(nullsHigh ? -1 : 1);
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 == null ? count : sv2.getIndex(count);
+        if (isSet(validityAddr, index) ? keepValues : keepNulls) {
+          selection.setIndex(selected++, (char) index);
+        }
+      }
+      return selected;
+    }
+
+    switch (type) {
+    case INT:
+    case TIME:
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 == null ? count : sv2.getIndex(count);
+        if (isSet(validityAddr, index)
+            ? keep(compare(PlatformDependent.getInt(valueAddr + index * 4L), longThreshold)) : keepNulls) {
+          selection.setIndex(selected++, (char) index);
+        }
+      }
+      break;
+    case FLOAT4:
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 == null ? count : sv2.getIndex(count);
+        if (isSet(validityAddr, index)
+            ? keep(compare(Float.intBitsToFloat(PlatformDependent.getInt(valueAddr + index * 4L)), doubleThreshold))
+            : keepNulls) {
+          selection.setIndex(selected++, (char) index);
+        }
+      }
+      break;
+    case FLOAT8:
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 == null ? count : sv2.getIndex(count);
+        if (isSet(validityAddr, index)
+            ? keep(compare(Double.longBitsToDouble(PlatformDependent.getLong(valueAddr + index * 8L)), doubleThreshold))
+            : keepNulls) {
+          selection.setIndex(selected++, (char) index);
+        }
+      }
+      break;
+    default:
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 == null ? count : sv2.getIndex(count);
+        if (isSet(validityAddr, index)
+            ? keep(compare(PlatformDependent.getLong(valueAddr + index * 8L), longThreshold)) : keepNulls) {
+          selection.setIndex(selected++, (char) index);
+        }
+      }
+      break;
+    }
+    return selected;
+  }
+
+  /**
+   * @param compare result of comparing a row to the threshold, before applying the ordering direction
+   * @return true if the row sorts before the threshold, or ties with it and there are more keys to compare.
+   */
+  private boolean keep(int compare) {
+    final int result = descending ? -compare : compare;
+    return result < 0 || (result == 0 && !singleKey);
+  }
+
+  private static boolean isSet(long validityAddr, int index) {
+    return ((PlatformDependent.getByte(validityAddr + (index >>> 3)) >>> (index & 7)) & 1) == 1;
+  }
+
+  // same as the generated comparison functions: any comparison involving NaN returns 1.
+  private static int compare(long left, long right) {
+    return left < right ? -1 : (left == right ? 0 : 1);
+  }
+
+  private static int compare(double left, double right) {
+    return left < right ? -1 : (left == right ? 0 : 1);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree over a fixed number of 64 bit slots. Used to maintain aggregates that can't be updated by removing
+ * values (min, max) over a sliding window frame: replacing a slot and reading the aggregate of all slots are both
+ * O(log n).
+ * <br>Slots are stored in the leaves {@code [capacity, 2 * capacity)} of an implicit binary tree, each internal node
+ * holds the combined value of its two children, and the root (index 1) the combined value of all slots. The combine
+ * function must be associative and commutative, and empty slots hold the identity value.
+ */
+abstract class SegmentTree {
+
+  private final long identity;
+  private long[] tree;
+  private int capacity;
+
+  SegmentTree(long identity) {
+    this.identity = identity;
+    this.tree = new long[0];
+  }
+
+  abstract long combine(long a, long b);
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Change the number of slots. Slots that fit in the new capacity keep their values, new slots are empty.
+   */
+  void resize(int newCapacity) {
+    final long[] newTree = new long[2 * newCapacity];
+    Arrays.fill(newTree, identity);
+    System.arraycopy(tree, capacity, newTree, newCapacity, Math.min(capacity, newCapacity));
+    for (int i = newCapacity - 1; i > 0; i--) {
+      newTree[i] = combine(newTree[2 * i], newTree[2 * i + 1]);
+    }
+    tree = newTree;
+    capacity = newCapacity;
+  }
+
+  void set(int slot, long value) {
+    int i = capacity + slot;
+    tree[i] = value;
+    for (i >>= 1; i > 0; i >>= 1) {
+      tree[i] = combine(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  void clear(int slot) {
+    set(slot, identity);
+  }
+
+  /**
+   * @return combined value of all slots, or the identity if all slots are empty
+   */
+  long get() {
+    return capacity == 0 ? identity : tree[1];
+  }
+
+  static SegmentTree min() {
+    return new SegmentTree(Long.MAX_VALUE) {
+      @Override
+      long combine(long a, long b) {
+        return Math.min(a, b);
+      }
+    };
+  }
+
+  static SegmentTree max() {
+    return new SegmentTree(Long.MIN_VALUE) {
+      @Override
+      long combine(long a, long b) {
+        return Math.max(a, b);
+      }
+    };
+  }
+
+  /**
+   * Sum of doubles stored as raw long bits. Floating point additions can't be undone exactly, so sliding sums over
+   * doubles are recomputed from the frame's values, in O(log n), instead of subtracting the values leaving the frame.
+   */
+  static SegmentTree doubleSum() {
+    return new SegmentTree(Double.doubleToRawLongBits(0d)) {
+      @Override
+      long combine(long a, long b) {
+        return Double.doubleToRawLongBits(Double.longBitsToDouble(a) + Double.longBitsToDouble(b));
+      }
+    };
+  }
+}
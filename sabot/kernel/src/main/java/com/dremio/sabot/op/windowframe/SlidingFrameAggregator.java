@@ -0,0 +1,573 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.vector.NullableBigIntVector;
+import org.apache.arrow.vector.NullableDateMilliVector;
+import org.apache.arrow.vector.NullableFloat4Vector;
+import org.apache.arrow.vector.NullableFloat8Vector;
+import org.apache.arrow.vector.NullableIntVector;
+import org.apache.arrow.vector.NullableTimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.ValueExpressions.IntExpression;
+import com.dremio.common.expression.ValueExpressions.LongExpression;
+import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.expr.ClassProducer;
+import com.dremio.exec.expr.FunctionHolderExpr;
+import com.dremio.exec.expr.ValueVectorReadExpression;
+import com.dremio.exec.physical.config.WindowPOP;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Evaluates aggregate window functions over ROWS BETWEEN &lt;n&gt; PRECEDING AND CURRENT ROW frames incrementally.
+ * <br>Each aggregate keeps the values of the current frame in a ring buffer of n + 1 slots: when a row enters the frame,
+ * the row n + 1 positions before it leaves it. Counts and integer sums are updated by adding and removing these values,
+ * while min, max and floating point sums are maintained by a {@link SegmentTree}. Each row is aggregated in O(1) or
+ * O(log n), instead of aggregating all rows of its frame.
+ * <br>Only the rows of the current frame are kept, so unlike the generated framers this doesn't need all batches of a
+ * partition to be available: a batch can be processed as soon as the first row of the next batch is known.
+ */
+class SlidingFrameAggregator {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SlidingFrameAggregator.class);
+
+  private static final LongExpression COUNT_ONE_LITERAL_LONG = new LongExpression(1);
+  private static final IntExpression COUNT_ONE_LITERAL_INT = new IntExpression(1);
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int frameSize; // number of rows in a full frame: n preceding rows and the current row
+  private final List<SlidingAggregate> aggregates = Lists.newArrayList();
+
+  private int capacity; // number of slots allocated by each aggregate, grows up to frameSize
+  private long partitionRows; // number of rows of the current partition aggregated so far
+  private boolean continuesPartition; // true if the first row of the next batch belongs to the current partition
+
+  SlidingFrameAggregator(WindowPOP pop) {
+    final long preceding = -pop.getStart().getOffset();
+    if (preceding >= Integer.MAX_VALUE) {
+      throw UserException.unsupportedError()
+        .message("Window frames can't include more than %d preceding rows.", Integer.MAX_VALUE - 1)
+        .build(logger);
+    }
+    this.frameSize = (int) preceding + 1;
+  }
+
+  /**
+   * @return true if the window frame is ROWS BETWEEN &lt;n&gt; PRECEDING AND CURRENT ROW (n can be 0)
+   */
+  static boolean isSlidingFrame(WindowPOP pop) {
+    return pop.isFrameUnitsRows()
+      && !pop.getStart().isUnbounded() && pop.getStart().getOffset() <= 0
+      && !pop.getEnd().isUnbounded() && pop.getEnd().isCurrent();
+  }
+
+  private static boolean isCountLiteral(LogicalExpression expr) {
+    return COUNT_ONE_LITERAL_INT.equals(expr) || COUNT_ONE_LITERAL_LONG.equals(expr);
+  }
+
+  /**
+   * Materialize an aggregate window function and add its output vector to outgoing.
+   */
+  void addAggregation(NamedExpression ne, VectorAccessible incoming, VectorContainer outgoing, ClassProducer producer) {
+    final LogicalExpression expr = producer.materialize(ne.getExpr(), incoming);
+    if (!(expr instanceof FunctionHolderExpr)) {
+      throw unsup("Window function is not an aggregate: " + ne.getExpr());
+    }
+
+    final String name = ((FunctionHolderExpr) expr).getName();
+    final List<LogicalExpression> args = ImmutableList.copyOf(expr);
+    final MinorType outputType = expr.getCompleteType().toMinorType();
+    if (!isSupportedType(outputType)) {
+      throw unsup(String.format("Function %s returns unsupported type %s.", name, outputType));
+    }
+    final ValueVector output = outgoing.addOrGet(expr.getCompleteType().toField(ne.getRef()));
+
+    if ("count".equals(name) && (args.isEmpty() || (args.size() == 1 && isCountLiteral(args.get(0))))) {
+      aggregates.add(new Count(null, null, output, outputType));
+      return;
+    }
+
+    if (args.size() != 1 || !(args.get(0) instanceof ValueVectorReadExpression)) {
+      throw unsup("Function " + name + " only supports a column as argument: " + args);
+    }
+
+    final ValueVectorReadExpression read = (ValueVectorReadExpression) args.get(0);
+    final TypedFieldId inputId = read.getFieldId();
+    final MinorType inputType = read.getCompleteType().toMinorType();
+
+    switch (name) {
+    case "count":
+      aggregates.add(new Count(inputId, inputType, output, outputType));
+      return;
+
+    case "sum":
+    case "$sum0":
+    case "avg": {
+      final SumKind kind = "sum".equals(name) ? SumKind.SUM : "avg".equals(name) ? SumKind.AVG : SumKind.SUM0;
+      switch (inputType) {
+      case INT:
+      case BIGINT:
+        aggregates.add(new LongSum(inputId, inputType, output, outputType, kind));
+        return;
+      case FLOAT4:
+      case FLOAT8:
+        aggregates.add(new DoubleSum(inputId, inputType, output, outputType, kind));
+        return;
+      default:
+        break;
+      }
+      break;
+    }
+
+    case "min":
+    case "max": {
+      final boolean min = "min".equals(name);
+      if (isSupportedType(inputType)) {
+        aggregates.add(new MinMax(inputId, inputType, output, outputType, min ? SegmentTree.min() : SegmentTree.max()));
+        return;
+      }
+      break;
+    }
+
+    default:
+      throw unsup("Function " + name + " is not supported.");
+    }
+
+    throw unsup(String.format("Function %s doesn't support input type %s.", name, inputType));
+  }
+
+  /**
+   * aggregates all rows of the first batch and writes the window functions values to the outgoing vectors.
+   *
+   * @param batches batches currently held by the operator, the first one is processed
+   * @param comparator used to detect partition boundaries
+   */
+  void doWork(List<? extends VectorAccessible> batches, WindowFramer comparator) {
+    final VectorAccessible current = batches.get(0);
+    final int recordCount = current.getRecordCount();
+
+    for (SlidingAggregate aggregate : aggregates) {
+      aggregate.setup(current);
+    }
+
+    for (int row = 0; row < recordCount; row++) {
+      final boolean samePartition = row == 0 ? continuesPartition :
+        comparator.isSamePartition(row - 1, current, row, current);
+      if (!samePartition) {
+        newPartition();
+      }
+
+      final boolean evict = partitionRows >= frameSize;
+      final int slot = nextSlot();
+      for (SlidingAggregate aggregate : aggregates) {
+        if (evict) {
+          aggregate.evict(slot);
+        }
+        aggregate.add(slot, row);
+        aggregate.write(row);
+      }
+      partitionRows++;
+    }
+
+    // the current partition continues if the next available row belongs to it
+    continuesPartition = false;
+    for (int i = 1; i < batches.size(); i++) {
+      final VectorAccessible next = batches.get(i);
+      if (next.getRecordCount() > 0) {
+        continuesPartition = recordCount > 0 && comparator.isSamePartition(recordCount - 1, current, 0, next);
+        break;
+      }
+    }
+  }
+
+  private void newPartition() {
+    final int usedSlots = (int) Math.min(partitionRows, capacity);
+    for (SlidingAggregate aggregate : aggregates) {
+      aggregate.reset(usedSlots);
+    }
+    partitionRows = 0;
+  }
+
+  /**
+   * @return slot of the next row of the current partition. Until the frame is full, rows are stored in order and the
+   * slots are allocated as needed, so small partitions don't pay for large frames.
+   */
+  private int nextSlot() {
+    if (partitionRows >= frameSize) {
+      return (int) (partitionRows % frameSize);
+    }
+
+    if (partitionRows == capacity) {
+      final int newCapacity = (int) Math.min(frameSize, Math.max(INITIAL_CAPACITY, 2L * capacity));
+      logger.trace("growing sliding frame buffers from {} to {} slots", capacity, newCapacity);
+      for (SlidingAggregate aggregate : aggregates) {
+        aggregate.resize(newCapacity);
+      }
+      capacity = newCapacity;
+    }
+    return (int) partitionRows;
+  }
+
+  private static UserException unsup(String msg) {
+    throw UserException.unsupportedError()
+      .message("Aggregate not supported with ROWS BETWEEN <n> PRECEDING AND CURRENT ROW frames. %s", msg)
+      .build(logger);
+  }
+
+  private static boolean isSupportedType(MinorType type) {
+    switch (type) {
+    case INT:
+    case BIGINT:
+    case FLOAT4:
+    case FLOAT8:
+    case DATE:
+    case TIMESTAMP:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private static boolean isFloatingPoint(MinorType type) {
+    return type == MinorType.FLOAT4 || type == MinorType.FLOAT8;
+  }
+
+  private static long readLong(ValueVector vector, MinorType type, int index) {
+    switch (type) {
+    case INT:
+      return ((NullableIntVector) vector).get(index);
+    case BIGINT:
+      return ((NullableBigIntVector) vector).get(index);
+    case DATE:
+      return ((NullableDateMilliVector) vector).get(index);
+    case TIMESTAMP:
+      return ((NullableTimeStampMilliVector) vector).get(index);
+    default:
+      throw new UnsupportedOperationException("Unexpected integer type " + type);
+    }
+  }
+
+  private static double readDouble(ValueVector vector, MinorType type, int index) {
+    switch (type) {
+    case FLOAT4:
+      return ((NullableFloat4Vector) vector).get(index);
+    case FLOAT8:
+      return ((NullableFloat8Vector) vector).get(index);
+    default:
+      throw new UnsupportedOperationException("Unexpected floating point type " + type);
+    }
+  }
+
+  private static void writeLong(ValueVector vector, MinorType type, int index, long value) {
+    switch (type) {
+    case INT:
+      ((NullableIntVector) vector).setSafe(index, (int) value);
+      break;
+    case BIGINT:
+      ((NullableBigIntVector) vector).setSafe(index, value);
+      break;
+    case DATE:
+      ((NullableDateMilliVector) vector).setSafe(index, value);
+      break;
+    case TIMESTAMP:
+      ((NullableTimeStampMilliVector) vector).setSafe(index, value);
+      break;
+    default:
+      writeDouble(vector, type, index, value);
+    }
+  }
+
+  private static void writeDouble(ValueVector vector, MinorType type, int index, double value) {
+    switch (type) {
+    case FLOAT4:
+      ((NullableFloat4Vector) vector).setSafe(index, (float) value);
+      break;
+    case FLOAT8:
+      ((NullableFloat8Vector) vector).setSafe(index, value);
+      break;
+    default:
+      writeLong(vector, type, index, (long) value);
+    }
+  }
+
+  private static void writeNull(ValueVector vector, MinorType type, int index) {
+    switch (type) {
+    case INT:
+      ((NullableIntVector) vector).setNull(index);
+      break;
+    case BIGINT:
+      ((NullableBigIntVector) vector).setNull(index);
+      break;
+    case FLOAT4:
+      ((NullableFloat4Vector) vector).setNull(index);
+      break;
+    case FLOAT8:
+      ((NullableFloat8Vector) vector).setNull(index);
+      break;
+    case DATE:
+      ((NullableDateMilliVector) vector).setNull(index);
+      break;
+    case TIMESTAMP:
+      ((NullableTimeStampMilliVector) vector).setNull(index);
+      break;
+    default:
+      throw new UnsupportedOperationException("Unexpected output type " + type);
+    }
+  }
+
+  /**
+   * Maps doubles to longs with the same ordering, -0.0 being lower than 0.0 and NaN greater than all other values.
+   */
+  private static long toSortableLong(double value) {
+    final long bits = Double.doubleToLongBits(value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  private static double fromSortableLong(long value) {
+    return Double.longBitsToDouble(value ^ ((value >> 63) & Long.MAX_VALUE));
+  }
+
+  /**
+   * Aggregate over the slots of the current frame. Slots holding a null value are not part of the aggregate.
+   */
+  private abstract static class SlidingAggregate {
+    private final TypedFieldId inputId; // null if the aggregate doesn't read any column (count(*))
+    protected final MinorType inputType;
+    protected final ValueVector output;
+    protected final MinorType outputType;
+
+    protected ValueVector input;
+    private boolean[] present = new boolean[0]; // true if the slot holds a non null value
+    protected long count; // number of non null values in the current frame
+
+    SlidingAggregate(TypedFieldId inputId, MinorType inputType, ValueVector output, MinorType outputType) {
+      this.inputId = inputId;
+      this.inputType = inputType;
+      this.output = output;
+      this.outputType = outputType;
+    }
+
+    void setup(VectorAccessible batch) {
+      if (inputId != null) {
+        input = batch.getValueAccessorById(ValueVector.class, inputId.getFieldIds()).getValueVector();
+      }
+    }
+
+    void resize(int newCapacity) {
+      present = Arrays.copyOf(present, newCapacity);
+    }
+
+    void reset(int usedSlots) {
+      for (int slot = 0; slot < usedSlots; slot++) {
+        evict(slot);
+      }
+    }
+
+    void evict(int slot) {
+      if (present[slot]) {
+        present[slot] = false;
+        count--;
+        removeValue(slot);
+      }
+    }
+
+    void add(int slot, int index) {
+      if (input != null && input.isNull(index)) {
+        return;
+      }
+      present[slot] = true;
+      count++;
+      addValue(slot, index);
+    }
+
+    /**
+     * store the value of row index in the slot
+     */
+    abstract void addValue(int slot, int index);
+
+    /**
+     * remove the value held by the slot from the aggregate
+     */
+    abstract void removeValue(int slot);
+
+    /**
+     * write the aggregate of the current frame
+     */
+    abstract void write(int outIndex);
+  }
+
+  private static class Count extends SlidingAggregate {
+
+    Count(TypedFieldId inputId, MinorType inputType, ValueVector output, MinorType outputType) {
+      super(inputId, inputType, output, outputType);
+    }
+
+    @Override
+    void addValue(int slot, int index) {
+    }
+
+    @Override
+    void removeValue(int slot) {
+    }
+
+    @Override
+    void write(int outIndex) {
+      writeLong(output, outputType, outIndex, count);
+    }
+  }
+
+  private enum SumKind {
+    SUM,  // null if the frame has no values
+    SUM0, // 0 if the frame has no values
+    AVG   // null if the frame has no values
+  }
+
+  /**
+   * sum and average of integers, values leaving the frame are subtracted from the running sum.
+   */
+  private static class LongSum extends SlidingAggregate {
+    private final SumKind kind;
+    private long[] values = new long[0];
+    private long sum;
+
+    LongSum(TypedFieldId inputId, MinorType inputType, ValueVector output, MinorType outputType, SumKind kind) {
+      super(inputId, inputType, output, outputType);
+      this.kind = kind;
+    }
+
+    @Override
+    void resize(int newCapacity) {
+      super.resize(newCapacity);
+      values = Arrays.copyOf(values, newCapacity);
+    }
+
+    @Override
+    void addValue(int slot, int index) {
+      final long value = readLong(input, inputType, index);
+      values[slot] = value;
+      sum += value;
+    }
+
+    @Override
+    void removeValue(int slot) {
+      sum -= values[slot];
+    }
+
+    @Override
+    void write(int outIndex) {
+      if (count == 0 && kind != SumKind.SUM0) {
+        writeNull(output, outputType, outIndex);
+      } else if (kind == SumKind.AVG) {
+        writeDouble(output, outputType, outIndex, (double) sum / count);
+      } else {
+        writeLong(output, outputType, outIndex, sum);
+      }
+    }
+  }
+
+  /**
+   * sum and average of floating point values, recomputed from the values of the frame using a segment tree.
+   */
+  private static class DoubleSum extends SlidingAggregate {
+    private final SumKind kind;
+    private final SegmentTree tree = SegmentTree.doubleSum();
+
+    DoubleSum(TypedFieldId inputId, MinorType inputType, ValueVector output, MinorType outputType, SumKind kind) {
+      super(inputId, inputType, output, outputType);
+      this.kind = kind;
+    }
+
+    @Override
+    void resize(int newCapacity) {
+      super.resize(newCapacity);
+      tree.resize(newCapacity);
+    }
+
+    @Override
+    void addValue(int slot, int index) {
+      tree.set(slot, Double.doubleToRawLongBits(readDouble(input, inputType, index)));
+    }
+
+    @Override
+    void removeValue(int slot) {
+      tree.clear(slot);
+    }
+
+    @Override
+    void write(int outIndex) {
+      final double sum = Double.longBitsToDouble(tree.get());
+      if (count == 0 && kind != SumKind.SUM0) {
+        writeNull(output, outputType, outIndex);
+      } else if (kind == SumKind.AVG) {
+        writeDouble(output, outputType, outIndex, sum / count);
+      } else {
+        writeDouble(output, outputType, outIndex, sum);
+      }
+    }
+  }
+
+  /**
+   * min and max, floating point values are stored as sortable longs.
+   */
+  private static class MinMax extends SlidingAggregate {
+    private final SegmentTree tree;
+    private final boolean floatingPoint;
+
+    MinMax(TypedFieldId inputId, MinorType inputType, ValueVector output, MinorType outputType, SegmentTree tree) {
+      super(inputId, inputType, output, outputType);
+      this.tree = tree;
+      this.floatingPoint = isFloatingPoint(inputType);
+    }
+
+    @Override
+    void resize(int newCapacity) {
+      super.resize(newCapacity);
+      tree.resize(newCapacity);
+    }
+
+    @Override
+    void addValue(int slot, int index) {
+      tree.set(slot, floatingPoint ? toSortableLong(readDouble(input, inputType, index)) : readLong(input, inputType, index));
+    }
+
+    @Override
+    void removeValue(int slot) {
+      tree.clear(slot);
+    }
+
+    @Override
+    void write(int outIndex) {
+      if (count == 0) {
+        writeNull(output, outputType, outIndex);
+      } else if (floatingPoint) {
+        writeDouble(output, outputType, outIndex, fromSortableLong(tree.get()));
+      } else {
+        writeLong(output, outputType, outIndex, tree.get());
+      }
+    }
+  }
+}
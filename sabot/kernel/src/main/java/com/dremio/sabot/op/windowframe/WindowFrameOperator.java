@@ -18,6 +18,7 @@ package com.dremio.sabot.op.windowframe;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -27,6 +28,7 @@ import org.apache.arrow.vector.util.TransferPair;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.common.logical.data.Order;
@@ -67,6 +69,8 @@ public class WindowFrameOperator implements SingleInputOperator {
 
   private State state = State.NEEDS_SETUP;
   private WindowFramer[] framers;
+  private WindowFramer comparator; // used to compare rows of different batches, framers[0] if any framer is needed
+  private SlidingFrameAggregator slidingAggregator; // evaluates the aggregates of ROWS <n> PRECEDING frames, if any
 
   private boolean noMoreToConsume;
 
@@ -141,6 +145,10 @@ public class WindowFrameOperator implements SingleInputOperator {
       framer.doWork();
     }
 
+    if (slidingAggregator != null) {
+      slidingAggregator.doWork(batches, comparator);
+    }
+
     // transfer "non aggregated" vectors
     for (VectorWrapper<?> vw : current) {
       ValueVector v = outgoing.addOrGet(vw.getField());
@@ -180,8 +188,8 @@ public class WindowFrameOperator implements SingleInputOperator {
     final VectorAccessible last = batches.getLast();
     final int lastSize = last.getRecordCount();
 
-    final boolean partitionEndReached = !framers[0].isSamePartition(currentSize - 1, current, lastSize - 1, last);
-    final boolean frameEndReached = partitionEndReached || !framers[0].isPeer(currentSize - 1, current, lastSize - 1, last);
+    final boolean partitionEndReached = !comparator.isSamePartition(currentSize - 1, current, lastSize - 1, last);
+    final boolean frameEndReached = partitionEndReached || !comparator.isPeer(currentSize - 1, current, lastSize - 1, last);
 
     for (final WindowFunction function : functions) {
       if (!function.canDoWork(batches.size(), config, frameEndReached, partitionEndReached)) {
@@ -217,6 +225,10 @@ public class WindowFrameOperator implements SingleInputOperator {
     this.transfers = ImmutableList.copyOf(transfers);
 
     final ClassProducer producer = context.getClassProducer();
+    if (SlidingFrameAggregator.isSlidingFrame(config)) {
+      slidingAggregator = new SlidingFrameAggregator(config);
+    }
+
     // add aggregation vectors to the container, and materialize corresponding expressions
     for (final NamedExpression ne : config.getAggregations()) {
       final WindowFunction winfun = WindowFunction.fromExpression(ne);
@@ -224,6 +236,17 @@ public class WindowFrameOperator implements SingleInputOperator {
       // build the schema before each pass since we're going to use the outbound schema for value resolution.
       outgoing.buildSchema();
 
+      if (slidingAggregator != null && winfun.supportsCustomFrames()) {
+        // aggregates over ROWS <n> PRECEDING frames are evaluated incrementally instead of using a generated framer
+        if (winfun.type != WindowFunction.Type.AGGREGATE) {
+          throw UserException.unsupportedError()
+            .message("Window function %s doesn't support ROWS BETWEEN <n> PRECEDING AND CURRENT ROW frames.", winfun.type)
+            .build(logger);
+        }
+        slidingAggregator.addAggregation(ne, batch, outgoing, producer);
+        continue;
+      }
+
       if (winfun.materialize(ne, outgoing, producer)) {
         functions.add(winfun);
         requireFullPartition |= winfun.requiresFullPartition(config);
@@ -251,7 +274,7 @@ public class WindowFrameOperator implements SingleInputOperator {
     // count how many framers we need
     int numFramers = useDefaultFrame ? 1 : 0;
     numFramers += useCustomFrame ? 1 : 0;
-    assert numFramers > 0 : "No framer was needed!";
+    assert numFramers > 0 || slidingAggregator != null : "No framer was needed!";
 
     framers = new WindowFramer[numFramers];
     int index = 0;
@@ -265,6 +288,14 @@ public class WindowFrameOperator implements SingleInputOperator {
       framers[index] = generateFramer(keyExprs, orderExprs, functions, true);
       framers[index].setup(batches, outgoing, context, requireFullPartition, config, context.getFunctionContext());
     }
+
+    if (numFramers > 0) {
+      comparator = framers[0];
+    } else {
+      // all window functions are evaluated by the sliding aggregator, we only need a framer to compare rows
+      comparator = generateFramer(keyExprs, orderExprs, Collections.<WindowFunction>emptyList(), false);
+      comparator.setup(batches, outgoing, context, false, config, context.getFunctionContext());
+    }
   }
 
   private WindowFramer generateFramer(final List<LogicalExpression> keyExprs, final List<LogicalExpression> orderExprs,
@@ -339,6 +370,9 @@ public class WindowFrameOperator implements SingleInputOperator {
     closeables.add(outgoing);
     if (framers != null) {
       closeables.addAll(Arrays.asList(framers));
+      if (framers.length == 0 && comparator != null) {
+        closeables.add(comparator);
+      }
     }
     closeables.addAll(batches);
     AutoCloseables.close(closeables);
@@ -31,12 +31,14 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.page.DataPage;
 import org.apache.parquet.column.page.DataPageV1;
 import org.apache.parquet.column.page.DataPageV2;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.format.DataPageHeaderV2;
 import org.apache.parquet.format.PageHeader;
 import org.apache.parquet.format.Util;
@@ -45,6 +47,8 @@ import org.apache.parquet.hadoop.CodecFactory.BytesDecompressor;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.util.CompatibilityUtil;
 
+import com.google.common.base.Predicate;
+
 import io.netty.buffer.ByteBuf;
 
 public class ColumnChunkIncReadStore implements PageReadStore {
@@ -58,6 +62,7 @@ public class ColumnChunkIncReadStore implements PageReadStore {
   private long rowCount;
   private List<FSDataInputStream> streams = new ArrayList<>();
   private boolean useSingleStream;
+  private long droppedPageCount;
 
   public ColumnChunkIncReadStore(long rowCount, CodecFactory codecFactory, BufferAllocator allocator,
       FileSystem fs, Path path, boolean useSingleStream) {
@@ -113,6 +118,8 @@ public class ColumnChunkIncReadStore implements PageReadStore {
     private DictionaryPage dictionaryPage;
     protected FSDataInputStream in;
     private BytesDecompressor decompressor;
+    // data pages for which it returns true are read as nulls
+    private Predicate<Statistics<?>> pageFilter;
 
     // Release the data page buffer before reading the next page or in close
     private ByteBuf lastDataPageUncompressed;
@@ -191,12 +198,18 @@ public class ColumnChunkIncReadStore implements PageReadStore {
               break;
             case DATA_PAGE:
               valueReadSoFar += pageHeader.data_page_header.getNum_values();
+              final Statistics<?> statistics = fromParquetStatistics(pageHeader.data_page_header.statistics, columnDescriptor.getType());
+              if (pageFilter != null && statistics != null && !statistics.isEmpty() && pageFilter.apply(statistics)) {
+                in.seek(in.getPos() + compressedPageSize);
+                droppedPageCount++;
+                return nullPage(pageHeader.data_page_header.num_values, statistics);
+              }
               ByteBuffer destBuffer = uncompressPage(pageHeader, true);
               return new DataPageV1(
                       BytesInput.from(destBuffer, 0, pageHeader.uncompressed_page_size),
                       pageHeader.data_page_header.num_values,
                       pageHeader.uncompressed_page_size,
-                      fromParquetStatistics(pageHeader.data_page_header.statistics, columnDescriptor.getType()),
+                      statistics,
                       parquetMetadataConverter.getEncoding(pageHeader.data_page_header.repetition_level_encoding),
                       parquetMetadataConverter.getEncoding(pageHeader.data_page_header.definition_level_encoding),
                       parquetMetadataConverter.getEncoding(pageHeader.data_page_header.encoding)
@@ -246,6 +259,23 @@ public class ColumnChunkIncReadStore implements PageReadStore {
       }
     }
 
+    /**
+     * @return page of an optional, non repeated, column holding only nulls: a single run of 0 definition levels
+     */
+    private DataPage nullPage(int valueCount, Statistics<?> statistics) throws IOException {
+      final BytesInput run = BytesInput.concat(BytesInput.fromUnsignedVarInt(valueCount << 1), BytesInput.from(new byte[] {0}));
+      final BytesInput levels = BytesInput.concat(BytesInput.fromInt((int) run.size()), run);
+      return new DataPageV1(
+          BytesInput.from(levels.toByteArray()),
+          valueCount,
+          (int) levels.size(),
+          statistics,
+          Encoding.RLE,
+          Encoding.RLE,
+          Encoding.PLAIN
+      );
+    }
+
     void close() {
       try {
         releasePrevDataPageBuffers();
@@ -303,6 +333,15 @@ public class ColumnChunkIncReadStore implements PageReadStore {
   private Map<ColumnDescriptor, ColumnChunkIncPageReader> columns = new HashMap<>();
 
   public void addColumn(ColumnDescriptor descriptor, ColumnChunkMetaData metaData) throws IOException {
+    addColumn(descriptor, metaData, null);
+  }
+
+  /**
+   * @param pageFilter returns true for the statistics of data pages that can be read as nulls, without reading them.
+   *                   Only used for optional, non repeated, columns.
+   */
+  public void addColumn(ColumnDescriptor descriptor, ColumnChunkMetaData metaData,
+                        Predicate<Statistics<?>> pageFilter) throws IOException {
     final FSDataInputStream in;
     if (useSingleStream) {
       if (streams.isEmpty()) {
@@ -320,6 +359,16 @@ public class ColumnChunkIncReadStore implements PageReadStore {
       in.seek(metaData.getStartingPos());
       columns.put(descriptor, new ColumnChunkIncPageReader(metaData, descriptor, in));
     }
+    if (descriptor.getMaxRepetitionLevel() == 0 && descriptor.getMaxDefinitionLevel() == 1) {
+      columns.get(descriptor).pageFilter = pageFilter;
+    }
+  }
+
+  /**
+   * @return number of data pages read as nulls so far
+   */
+  public long getDroppedPageCount() {
+    return droppedPageCount;
   }
 
   public void close() throws IOException {
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+
+/**
+ * Access to the output stream of a {@link ParquetFileWriter}, which the writer only closes once the file is ended.
+ *
+ * The stream is a private field of the writer. If a parquet version doesn't have it, failed files keep their stream
+ * open as they did before, instead of failing to load this class.
+ */
+public class ParquetFileWriterExposer {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetFileWriterExposer.class);
+
+  private static final Field OUT_FIELD = getOutField();
+
+  private static Field getOutField() {
+    try {
+      final Field field = ParquetFileWriter.class.getDeclaredField("out");
+      if (!OutputStream.class.isAssignableFrom(field.getType())) {
+        logger.warn("Unexpected type {} of the output stream of ParquetFileWriter.", field.getType());
+        return null;
+      }
+      field.setAccessible(true);
+      return field;
+    } catch (NoSuchFieldException | RuntimeException e) {
+      logger.warn("Unable to access the output stream of ParquetFileWriter, failed files won't be closed.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Close the output stream of a file writer whose file couldn't be completed, if it can be accessed.
+   */
+  public static void closeOutput(ParquetFileWriter w) throws IOException {
+    if (OUT_FIELD == null) {
+      return;
+    }
+    final OutputStream out;
+    try {
+      out = (OutputStream) OUT_FIELD.get(w);
+    } catch (IllegalAccessException e) {
+      throw new IOException("Unable to access the output stream of the parquet file writer", e);
+    }
+    if (out != null) {
+      out.close();
+    }
+  }
+}
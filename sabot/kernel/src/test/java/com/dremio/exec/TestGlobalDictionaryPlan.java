@@ -158,6 +158,29 @@ public class TestGlobalDictionaryPlan extends PlanTestBase {
     validateResults(query, "testSelfJoin");
   }
 
+  @Test
+  public void testSelfJoinOnDictionaryIds() throws Exception {
+    final String query = "select * from dfs_test.globaldictionary t1 inner join dfs_test.globaldictionary t2 on t1.city = t2.city";
+    disableGlobalDictionary();
+    testPlanOneExcludedPattern(query, "DictionaryLookup");
+    enableGlobalDictionary();
+    // join keys share the same dictionary, they are only decoded after the join.
+    testPlanSubstrPatternsInOrder(query,
+      new String[] {"DictionaryLookup(decoded fields=[[city, city0, group, group0, position, position0, state, state0]])"},
+      new String[] {"DictionaryLookup(decoded fields=[[city]])"});
+    validateResults(query, "testSelfJoinOnDictionaryIds");
+  }
+
+  @Test
+  public void testFilterIsNullOnDictionaryIds() throws Exception {
+    final String query = "select * from dfs_test.globaldictionary where state is not null";
+    disableGlobalDictionary();
+    testPlanOneExcludedPattern(query, "DictionaryLookup");
+    enableGlobalDictionary();
+    testPlanSubstrPatternsInOrder(query, ALL_COLUMNS, null);
+    validateResults(query, "testFilterIsNullOnDictionaryIds");
+  }
+
   @Test
   public void testSimpleInnerJoin() throws Exception {
     final String query = "select * from dfs_test.globaldictionary t1 inner join dfs_test.places t2 on t1.employee_id = t2.employee_id";
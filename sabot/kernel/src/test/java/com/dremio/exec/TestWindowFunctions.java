@@ -154,6 +154,26 @@ public class TestWindowFunctions extends BaseTestQuery {
     }
   }
 
+  @Test
+  public void testSlidingWindowFrame() throws Exception {
+    final String query = "select n_nationkey, sum(n_nationkey) over(order by n_nationkey rows 2 preceding) as s, \n" +
+        "count(*) over(order by n_nationkey rows between 2 preceding and current row) as c, \n" +
+        "min(n_nationkey) over(order by n_nationkey rows 2 preceding) as mn \n" +
+        "from cp.`tpch/nation.parquet` t \n" +
+        "where n_nationkey < 5";
+
+    testBuilder()
+        .sqlQuery(query)
+        .unOrdered()
+        .baselineColumns("n_nationkey", "s", "c", "mn")
+        .baselineValues(0, 0L, 1L, 0)
+        .baselineValues(1, 1L, 2L, 0)
+        .baselineValues(2, 3L, 3L, 0)
+        .baselineValues(3, 6L, 3L, 1)
+        .baselineValues(4, 9L, 3L, 2)
+        .go();
+  }
+
   @Test(expected = UnsupportedFunctionException.class) // DRILL-3326
   public void testWindowWithAlias() throws Exception {
     try {
@@ -153,7 +153,19 @@ public class TestVectorAccessibleSerializable extends ExecTest {
     testCompressSerDeHelper(64000);
   }
 
+  @Test
+  public void testLz4CompressSerDe() throws Exception {
+    testCompressSerDeHelper(10, VectorAccessibleSerializable.Codec.LZ4);
+    testCompressSerDeHelper(1024, VectorAccessibleSerializable.Codec.LZ4);
+    testCompressSerDeHelper(32000, VectorAccessibleSerializable.Codec.LZ4);
+    testCompressSerDeHelper(64000, VectorAccessibleSerializable.Codec.LZ4);
+  }
+
   private void testCompressSerDeHelper(int records) throws Exception {
+    testCompressSerDeHelper(records, VectorAccessibleSerializable.Codec.SNAPPY);
+  }
+
+  private void testCompressSerDeHelper(int records, VectorAccessibleSerializable.Codec codec) throws Exception {
     final List<ValueVector> vectorList = Lists.newArrayList();
     try (final ClusterCoordinator clusterCoordinator = LocalClusterCoordinator.newRunningCoordinator();
          final SabotNode bit = new SabotNode(DEFAULT_SABOT_CONFIG, clusterCoordinator, CLASSPATH_SCAN_RESULT, true)) {
@@ -217,24 +229,24 @@ public class TestVectorAccessibleSerializable extends ExecTest {
           );
         }
 
-        SerDe(vectorList, true, records, context, 100, 100.375);
+        SerDe(vectorList, true, codec, records, context, 100, 100.375);
 
       }
     }
   }
 
-  private void SerDe(List<ValueVector> vectorList, boolean compression, int records, SabotContext context,
-                     int intBaseValue, double doubleBaseValue) throws Exception {
+  private void SerDe(List<ValueVector> vectorList, boolean compression, VectorAccessibleSerializable.Codec codec,
+                     int records, SabotContext context, int intBaseValue, double doubleBaseValue) throws Exception {
     VectorContainer container = new VectorContainer();
     container.addCollection(vectorList);
     container.setRecordCount(records);
     WritableBatch batch = WritableBatch.getBatchNoHVWrap(container.getRecordCount(), container, false);
-    VectorAccessibleSerializable wrap = new VectorAccessibleSerializable(batch, null, context.getAllocator(), compression);
+    VectorAccessibleSerializable wrap = new VectorAccessibleSerializable(batch, null, context.getAllocator(), compression, codec);
 
     Configuration conf = new Configuration();
     conf.set(FileSystem.FS_DEFAULT_NAME_KEY, "file:///");
 
-    final VectorAccessibleSerializable newWrap = new VectorAccessibleSerializable(context.getAllocator(), true, context.getAllocator());
+    final VectorAccessibleSerializable newWrap = new VectorAccessibleSerializable(context.getAllocator(), true, codec, context.getAllocator());
     try (final FileSystem fs = FileSystem.get(conf)) {
       final File tempDir = Files.createTempDir();
       tempDir.deleteOnExit();
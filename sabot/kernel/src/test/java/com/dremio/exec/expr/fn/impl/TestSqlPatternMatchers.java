@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.regex.Pattern;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.google.common.base.Charsets;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Tests for {@link SqlPatternMatchers}
+ */
+public class TestSqlPatternMatchers {
+  private static final String[] INPUTS = {
+      "", "a", "abc", "xabc", "abcx", "xabcx", "ab", "a_c", "a%c", "%", "_", "\nabc\n",
+      "\u00e9t\u00e9", "l'\u00e9t\u00e9", "\u00e9t\u00e9\nabc"
+  };
+
+  private final FunctionErrorContext errCtx = mock(FunctionErrorContext.class);
+  private BufferAllocator allocator;
+  private ArrowBuf buffer;
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    buffer = allocator.buffer(64);
+  }
+
+  @After
+  public void close() throws Exception {
+    AutoCloseables.close(buffer, allocator);
+  }
+
+  // the matcher must agree with the regular expression the pattern translates to.
+  private void checkPattern(String sqlPattern, String escape) {
+    final SqlPatternMatcher matcher = SqlPatternMatchers.like(sqlPattern, escape, errCtx);
+    final Pattern regex = Pattern.compile(RegexpUtil.sqlToRegexLike(sqlPattern, escape), Pattern.DOTALL);
+    for (String input : INPUTS) {
+      final byte[] bytes = input.getBytes(Charsets.UTF_8);
+      // start past the beginning of the buffer
+      buffer.setBytes(3, bytes);
+      assertEquals(String.format("'%s' like '%s'", input, sqlPattern),
+          regex.matcher(input).matches() ? 1 : 0, matcher.match(3, 3 + bytes.length, buffer));
+    }
+  }
+
+  @Test
+  public void testLiteralPatterns() {
+    checkPattern("abc", null);
+    checkPattern("", null);
+    checkPattern("\u00e9t\u00e9", null);
+  }
+
+  @Test
+  public void testWildcardPatterns() {
+    checkPattern("abc%", null);
+    checkPattern("%abc", null);
+    checkPattern("%abc%", null);
+    checkPattern("%%abc%%", null);
+    checkPattern("%\u00e9t\u00e9", null);
+    checkPattern("%", null);
+    checkPattern("%%", null);
+  }
+
+  @Test
+  public void testRegexPatterns() {
+    checkPattern("a_c", null);
+    checkPattern("a%c", null);
+    checkPattern("%a%c%", null);
+    checkPattern("_%", null);
+  }
+
+  @Test
+  public void testEscapedPatterns() {
+    checkPattern("a#_c", "#");
+    checkPattern("a#%%", "#");
+    checkPattern("%#%", "#");
+    checkPattern("%#_%", "#");
+    checkPattern("##%", "#");
+  }
+}
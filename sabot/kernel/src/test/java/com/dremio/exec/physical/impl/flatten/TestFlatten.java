@@ -37,6 +37,7 @@ import com.dremio.QueryTestUtil;
 import com.dremio.TestBuilder;
 import com.dremio.common.util.FileUtils;
 import com.dremio.common.util.TestTools;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.fn.interp.TestConstantFolding;
 import com.dremio.exec.proto.UserBitShared.QueryType;
 import com.dremio.exec.proto.UserBitShared.DremioPBError.ErrorType;
@@ -85,6 +86,27 @@ public class TestFlatten extends PlanTestBase {
     test(query);
   }
 
+  @Test
+  public void testVectorizedFlatten() throws Exception {
+    final String[] queries = {
+        "select a, flatten(b) from cp.`/store/json/test_flatten_sort.json`",
+        "select flatten(complex), rownum from cp.`/store/json/test_flatten_mappify2.json`"
+    };
+    try {
+      for (String query : queries) {
+        testBuilder()
+          .unOrdered()
+          .sqlQuery(query)
+          .optionSettingQueriesForTestQuery("alter session set `%s` = true", ExecConstants.ENABLE_VECTORIZED_FLATTEN.getOptionName())
+          .sqlBaselineQuery(query)
+          .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.ENABLE_VECTORIZED_FLATTEN.getOptionName())
+          .go();
+      }
+    } finally {
+      test("alter session reset `%s`", ExecConstants.ENABLE_VECTORIZED_FLATTEN.getOptionName());
+    }
+  }
+
   @Test
   public void testFlattenDistributed() throws Exception {
     test("set planner.slice_target = 1");
@@ -23,7 +23,10 @@ import static com.dremio.exec.physical.impl.window.DataPar.dataB3P2;
 import static com.dremio.exec.physical.impl.window.DataPar.dataB4P4;
 import static com.dremio.exec.physical.impl.window.WindowGenerator.generateInput;
 import static com.dremio.exec.physical.impl.window.WindowGenerator.generateOutput;
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
 import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
 import static java.util.Collections.singletonList;
 import static org.apache.calcite.rel.RelFieldCollation.Direction.DESCENDING;
 import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
@@ -121,4 +124,41 @@ public class TestWindowOperator extends BaseTestOperator {
     validateSingle(window, WindowFrameOperator.class, input, output, 20);
   }
 
+  @Test
+  public void testSlidingFrame() throws Exception {
+    // SELECT p, v, sum(v), count(v), count(*), min(v), max(v) OVER(PARTITION BY p ROWS 2 PRECEDING)
+    final WindowPOP window = new WindowPOP(null,
+      singletonList(n("p")), // withins
+      Arrays.asList(n("sum(v)", "s"), n("count(v)", "c"), n("count(1)", "r"), n("min(v)", "mn"), n("max(v)", "mx")),
+      Collections.<Order.Ordering>emptyList(), // ordering
+      true, new Bound(false, -2), new Bound(false, 0));
+
+    // split the input in small batches so frames and partitions span multiple batches
+    final Table input = Fixtures.split(th("p", "v"), 3,
+      tr(1, 1L),
+      tr(1, 5L),
+      tr(1, NULL_BIGINT),
+      tr(1, 2L),
+      tr(1, 7L),
+      tr(2, 3L),
+      tr(3, NULL_BIGINT),
+      tr(3, 4L),
+      tr(3, 6L),
+      tr(3, 1L));
+
+    final Table output = t(th("p", "v", "s", "c", "r", "mn", "mx"),
+      tr(1, 1L, 1L, 1L, 1L, 1L, 1L),
+      tr(1, 5L, 6L, 2L, 2L, 1L, 5L),
+      tr(1, NULL_BIGINT, 6L, 2L, 3L, 1L, 5L),
+      tr(1, 2L, 7L, 2L, 3L, 2L, 5L),
+      tr(1, 7L, 9L, 2L, 3L, 2L, 7L),
+      tr(2, 3L, 3L, 1L, 1L, 3L, 3L),
+      tr(3, NULL_BIGINT, NULL_BIGINT, 0L, 1L, NULL_BIGINT, NULL_BIGINT),
+      tr(3, 4L, 4L, 1L, 2L, 4L, 4L),
+      tr(3, 6L, 10L, 2L, 3L, 4L, 6L),
+      tr(3, 1L, 11L, 3L, 3L, 1L, 6L));
+
+    validateSingle(window, WindowFrameOperator.class, input, output, 20);
+  }
+
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.fragment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordExecRPC.InitializeFragments;
+import com.dremio.exec.proto.CoordExecRPC.PlanFragment;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+
+/**
+ * Tests for {@link SharedPlanFragments}
+ */
+public class TestSharedPlanFragments {
+
+  private static PlanFragment fragment(int major, int minor, String plan, String options) {
+    return PlanFragment.newBuilder()
+        .setHandle(FragmentHandle.newBuilder().setMajorFragmentId(major).setMinorFragmentId(minor))
+        .setFragmentJson(ByteString.copyFromUtf8(plan))
+        .setOptionsJson(ByteString.copyFromUtf8(options))
+        .build();
+  }
+
+  @Test
+  public void testPackUnpack() throws Exception {
+    final List<PlanFragment> fragments = ImmutableList.of(
+        fragment(1, 0, "plan1", "options"),
+        fragment(1, 1, "plan1", "options"),
+        fragment(2, 0, "plan2", "options"));
+
+    final InitializeFragments message = SharedPlanFragments.pack(fragments);
+    assertEquals(3, message.getFragmentCount());
+    assertEquals(ImmutableList.of(ByteString.copyFromUtf8("plan1"), ByteString.copyFromUtf8("options"),
+        ByteString.copyFromUtf8("plan2")), message.getSharedJsonList());
+    for (PlanFragment fragment : message.getFragmentList()) {
+      assertFalse(fragment.hasFragmentJson());
+      assertFalse(fragment.hasOptionsJson());
+    }
+
+    // fragments sharing a plan share its instance once received.
+    final List<PlanFragment> unpacked =
+        SharedPlanFragments.unpack(InitializeFragments.parseFrom(message.toByteString()));
+    assertEquals(fragments, unpacked);
+    assertSame(unpacked.get(0).getFragmentJson(), unpacked.get(1).getFragmentJson());
+    assertNotSame(unpacked.get(0).getFragmentJson(), unpacked.get(2).getFragmentJson());
+    assertSame(unpacked.get(0).getOptionsJson(), unpacked.get(2).getOptionsJson());
+  }
+
+  @Test
+  public void testUnpackInlineFragments() {
+    final List<PlanFragment> fragments = ImmutableList.of(fragment(1, 0, "plan1", "options"));
+    final InitializeFragments message = InitializeFragments.newBuilder().addAllFragment(fragments).build();
+    assertEquals(fragments, SharedPlanFragments.unpack(message));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.TableScan;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link MaterializationCandidates}
+ */
+public class TestMaterializationCandidates {
+
+  private static RelNode scan(String table) {
+    final RelOptTable relOptTable = mock(RelOptTable.class);
+    when(relOptTable.getQualifiedName()).thenReturn(ImmutableList.of("src", table));
+    final TableScan scan = mock(TableScan.class);
+    when(scan.getTable()).thenReturn(relOptTable);
+    return scan;
+  }
+
+  private static RelNode node(Class<? extends RelNode> type, final RelNode... inputs) {
+    final RelNode node = mock(type);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        final RelVisitor visitor = (RelVisitor) invocation.getArguments()[0];
+        for (int i = 0; i < inputs.length; i++) {
+          visitor.visit(inputs[i], i, node);
+        }
+        return null;
+      }
+    }).when(node).childrenAccept(any(RelVisitor.class));
+    return node;
+  }
+
+  private static RelNode join(RelNode left, RelNode right) {
+    return node(RelNode.class, left, right);
+  }
+
+  private static RelNode aggregate(RelNode input) {
+    return node(Aggregate.class, input);
+  }
+
+  private static MaterializationDescriptor descriptor(RelNode plan, boolean partialJoins) {
+    final MaterializationDescriptor descriptor = mock(MaterializationDescriptor.class);
+    final MaterializationCandidates.Signature signature =
+        plan == null ? null : MaterializationCandidates.Signature.of(plan, partialJoins);
+    when(descriptor.getSignature()).thenReturn(signature);
+    return descriptor;
+  }
+
+  @Test
+  public void testTables() {
+    final MaterializationDescriptor onT1 = descriptor(scan("t1"), false);
+    final MaterializationDescriptor onT2 = descriptor(scan("t2"), false);
+    final MaterializationDescriptor onT3 = descriptor(scan("t3"), false);
+    final MaterializationDescriptor joinT1T2 = descriptor(join(scan("t1"), scan("t2")), false);
+    final MaterializationDescriptor notExpanded = descriptor(null, false);
+
+    final MaterializationCandidates candidates =
+        new MaterializationCandidates(ImmutableList.of(onT1, onT2, onT3, joinT1T2, notExpanded));
+    assertEquals(5, candidates.size());
+
+    // the join reflection needs both tables
+    assertEquals(ImmutableList.of(notExpanded, onT1), candidates.find(scan("t1")));
+    assertEquals(ImmutableList.of(notExpanded, onT1, joinT1T2, onT2),
+        candidates.find(join(scan("t1"), scan("t2"))));
+  }
+
+  @Test
+  public void testPartialJoins() {
+    final MaterializationDescriptor snowflake = descriptor(join(scan("t1"), scan("t2")), true);
+    final MaterializationCandidates candidates = new MaterializationCandidates(ImmutableList.of(snowflake));
+    assertEquals(ImmutableList.of(snowflake), candidates.find(scan("t1")));
+    assertEquals(ImmutableList.<MaterializationDescriptor>of(), candidates.find(scan("t3")));
+  }
+
+  @Test
+  public void testAggregates() {
+    final MaterializationDescriptor raw = descriptor(scan("t1"), false);
+    final MaterializationDescriptor agg = descriptor(aggregate(scan("t1")), false);
+    final MaterializationCandidates candidates = new MaterializationCandidates(ImmutableList.of(raw, agg));
+
+    assertEquals(ImmutableList.of(raw), candidates.find(scan("t1")));
+    assertEquals(ImmutableList.of(raw, agg), candidates.find(aggregate(scan("t1"))));
+  }
+}
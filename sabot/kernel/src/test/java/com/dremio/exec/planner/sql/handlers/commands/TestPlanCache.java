@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql.handlers.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.logical.PlanProperties;
+import com.dremio.common.logical.PlanProperties.PlanType;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.physical.PhysicalPlan;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.config.EmptyValues;
+import com.dremio.exec.physical.config.Screen;
+import com.dremio.exec.physical.config.UnionExchange;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.proto.NameSpaceContainer;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests for {@link PlanCache}
+ */
+public class TestPlanCache {
+
+  private static final NamespaceKey DATASET = new NamespaceKey(ImmutableList.of("src", "t"));
+  private static final NamespaceKey SOURCE = new NamespaceKey("src");
+
+  private Catalog catalog;
+  private NamespaceService namespace;
+  private PhysicalPlan plan;
+
+  @Before
+  public void setup() throws Exception {
+    catalog = mock(Catalog.class);
+    namespace = mock(NamespaceService.class);
+    final EmptyValues values = new EmptyValues(BatchSchema.newBuilder().build());
+    final UnionExchange exchange = new UnionExchange(values);
+    exchange.setOperatorId(1);
+    final Screen screen = new Screen(exchange);
+    screen.setOperatorId(2);
+    plan = new PhysicalPlan(PlanProperties.builder().type(PlanType.PHYSICAL).version(1).build(),
+        ImmutableList.<PhysicalOperator>of(screen, exchange, values));
+
+    final DremioTable table = table(1L);
+    when(catalog.getAllRequestedTables()).thenReturn(ImmutableList.of(table));
+    when(catalog.getTable(DATASET)).thenReturn(table);
+    setSourceVersion(1L);
+  }
+
+  private static DremioTable table(Long version) {
+    final DremioTable table = mock(DremioTable.class);
+    when(table.getDatasetConfig()).thenReturn(new DatasetConfig()
+        .setFullPathList(DATASET.getPathComponents())
+        .setVersion(version));
+    return table;
+  }
+
+  private void setSourceVersion(long version) throws Exception {
+    final List<NameSpaceContainer> containers = ImmutableList.of(new NameSpaceContainer()
+        .setType(NameSpaceContainer.Type.SOURCE)
+        .setFullPathList(SOURCE.getPathComponents())
+        .setSource(new SourceConfig().setName("src").setVersion(version)));
+    when(namespace.getEntities(anyListOf(NamespaceKey.class))).thenReturn(containers);
+  }
+
+  private static PlanCache.Recorder recorder() {
+    final PlanCache.Recorder recorder = new PlanCache.Recorder();
+    recorder.planText("text", 1);
+    recorder.planJsonPlan("json");
+    return recorder;
+  }
+
+  private static PlanCache.Key key(String sql, String username) {
+    return new PlanCache.Key(sql, username, null, ImmutableMap.<String, Object>of(), ImmutableSet.<String>of());
+  }
+
+  @Test
+  public void testCachedPlan() throws Exception {
+    final PlanCache cache = new PlanCache(100);
+    cache.put(key("select * from src.t", "user"), catalog, namespace, plan, recorder());
+    assertEquals(1, cache.size());
+
+    final PlanCache.CachedPlan cached = cache.get(key("select * from src.t", "user"), catalog, namespace);
+    assertNotNull(cached);
+    assertTrue(cached.newPlan().getRoot() instanceof Screen);
+    assertEquals("text", cached.getText());
+    assertEquals("json", cached.getJson());
+    assertEquals(1, cache.getHitCount());
+
+    // different user, different plan.
+    assertNull(cache.get(key("select * from src.t", "other"), catalog, namespace));
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void testDatasetChanged() throws Exception {
+    final PlanCache cache = new PlanCache(100);
+    final PlanCache.Key key = key("select * from src.t", "user");
+    cache.put(key, catalog, namespace, plan, recorder());
+
+    final DremioTable refreshed = table(2L);
+    when(catalog.getTable(DATASET)).thenReturn(refreshed);
+    assertNull(cache.get(key, catalog, namespace));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testSourceChanged() throws Exception {
+    final PlanCache cache = new PlanCache(100);
+    final PlanCache.Key key = key("select * from src.t", "user");
+    cache.put(key, catalog, namespace, plan, recorder());
+
+    setSourceVersion(2L);
+    assertNull(cache.get(key, catalog, namespace));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testUnversionedDatasetNotCached() throws Exception {
+    final DremioTable table = table(null);
+    when(catalog.getAllRequestedTables()).thenReturn(ImmutableList.of(table));
+
+    final PlanCache cache = new PlanCache(100);
+    cache.put(key("select * from src.t", "user"), catalog, namespace, plan, recorder());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testPlanWithoutTextNotCached() throws Exception {
+    final PlanCache cache = new PlanCache(100);
+    cache.put(key("select * from src.t", "user"), catalog, namespace, plan, new PlanCache.Recorder());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    // each plan weighs 16 bytes, for the 8 characters of its text and json plans.
+    final PlanCache cache = new PlanCache(32);
+    for (int i = 0; i < 10; i++) {
+      cache.put(key("select " + i + " from src.t", "user"), catalog, namespace, plan, recorder());
+    }
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testEachHitGetsItsOwnPlan() throws Exception {
+    final PlanCache cache = new PlanCache(100);
+    final PlanCache.Key key = key("select * from src.t", "user");
+    cache.put(key, catalog, namespace, plan, recorder());
+
+    // parallelization sets up the exchanges of the plan it runs on, queries can't share them.
+    final PhysicalPlan first = cache.get(key, catalog, namespace).newPlan();
+    final PhysicalPlan second = cache.get(key, catalog, namespace).newPlan();
+    assertNotSame(plan.getRoot(), first.getRoot());
+    assertNotSame(first.getRoot(), second.getRoot());
+
+    final PhysicalOperator firstExchange = first.getRoot().iterator().next();
+    final PhysicalOperator secondExchange = second.getRoot().iterator().next();
+    assertTrue(firstExchange instanceof UnionExchange);
+    assertNotSame(firstExchange, secondExchange);
+    assertEquals(1, firstExchange.getOperatorId());
+    assertEquals(2, first.getRoot().getOperatorId());
+    assertEquals(3, first.getSortedOperators().size());
+
+    // leaves aren't changed by parallelization and are shared.
+    assertSame(firstExchange.iterator().next(), secondExchange.iterator().next());
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql.handlers.commands;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.work.protector.ForemenWorkManager;
+
+/**
+ * Tests reusing the plans of repeated queries end to end.
+ */
+public class TestPlanCacheQueries extends BaseTestQuery {
+
+  private static final String QUERY = "select count(*) as a from dfs_test.plan_cache";
+
+  private PlanCache cache;
+  private Path root;
+
+  @Before
+  public void setup() throws Exception {
+    cache = getBindingProvider().lookup(ForemenWorkManager.class).getPlanCache();
+    root = Paths.get(getDfsTestTmpSchemaLocation(), "plan_cache");
+    Files.createDirectories(root);
+    Files.write(root.resolve("f1.json"), "{a:1}".getBytes(), StandardOpenOption.CREATE);
+    test("ALTER TABLE dfs_test.plan_cache REFRESH METADATA");
+    test(String.format("alter session set `%s` = true", PlannerSettings.PLAN_CACHE.getOptionName()));
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    test(String.format("alter session reset `%s`", PlannerSettings.PLAN_CACHE.getOptionName()));
+    test(String.format("alter session reset `%s`", ExecConstants.SLICE_TARGET));
+  }
+
+  private static void runQuery(long expected) throws Exception {
+    testBuilder()
+      .sqlQuery(QUERY)
+      .unOrdered()
+      .baselineColumns("a")
+      .baselineValues(expected)
+      .build().run();
+  }
+
+  @Test
+  public void testCacheHit() throws Exception {
+    runQuery(1L);
+    final long hits = cache.getHitCount();
+
+    runQuery(1L);
+    assertEquals(hits + 1, cache.getHitCount());
+    runQuery(1L);
+    assertEquals(hits + 2, cache.getHitCount());
+  }
+
+  @Test
+  public void testCacheDisabled() throws Exception {
+    test(String.format("alter session set `%s` = false", PlannerSettings.PLAN_CACHE.getOptionName()));
+    runQuery(1L);
+    final long hits = cache.getHitCount();
+
+    runQuery(1L);
+    assertEquals(hits, cache.getHitCount());
+  }
+
+  @Test
+  public void testOptionChanged() throws Exception {
+    runQuery(1L);
+    final long hits = cache.getHitCount();
+
+    // plans are keyed by the options set to non default values.
+    test(String.format("alter session set `%s` = 10", ExecConstants.SLICE_TARGET));
+    runQuery(1L);
+    assertEquals(hits, cache.getHitCount());
+
+    runQuery(1L);
+    assertEquals(hits + 1, cache.getHitCount());
+
+    // back to the original options, and plan.
+    test(String.format("alter session reset `%s`", ExecConstants.SLICE_TARGET));
+    runQuery(1L);
+    assertEquals(hits + 2, cache.getHitCount());
+  }
+
+  @Test
+  public void testDatasetChanged() throws Exception {
+    runQuery(1L);
+    final long hits = cache.getHitCount();
+    runQuery(1L);
+    assertEquals(hits + 1, cache.getHitCount());
+
+    // pause to ensure mtime changes on directory
+    Thread.sleep(1200);
+    Files.write(root.resolve("f2.json"), "{a:1}".getBytes(), StandardOpenOption.CREATE);
+    test("ALTER TABLE dfs_test.plan_cache REFRESH METADATA");
+
+    // the dataset version changed, the stale plan must not be reused.
+    runQuery(2L);
+    assertEquals(hits + 1, cache.getHitCount());
+
+    runQuery(2L);
+    assertEquals(hits + 2, cache.getHitCount());
+
+    Files.delete(root.resolve("f2.json"));
+    test("ALTER TABLE dfs_test.plan_cache REFRESH METADATA");
+  }
+}
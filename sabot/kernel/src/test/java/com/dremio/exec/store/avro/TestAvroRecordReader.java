@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.avro;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.TestBuilder;
+import com.dremio.common.exceptions.UserRemoteException;
+
+/**
+ * Tests of the decoding of {@link AvroRecordReader}, which skips the fields that aren't projected.
+ */
+public class TestAvroRecordReader extends BaseTestQuery {
+
+  // spans more than one batch
+  private static final int RECORD_COUNT = 5000;
+
+  private static final Schema NESTED = SchemaBuilder.record("nested")
+      .fields()
+      .name("x").type().intType().noDefault()
+      .name("y").type().stringType().noDefault()
+      .endRecord();
+
+  private static final Schema OPTIONAL_NESTED = SchemaBuilder.record("optional_nested")
+      .fields()
+      .name("z").type().intType().noDefault()
+      .endRecord();
+
+  private static final Schema SCHEMA = SchemaBuilder.record("TestAvroRecordReader")
+      .namespace("com.dremio.exec.store.avro")
+      .fields()
+      .name("a_record").type(NESTED).noDefault()
+      .name("b_array").type().array().items().stringType().noDefault()
+      .name("c_map").type().map().values().intType().noDefault()
+      .name("d_union").type().optional().stringType()
+      .name("e_record").type().optional().type(OPTIONAL_NESTED)
+      .name("f_int").type().intType().noDefault()
+      .name("g_string").type().stringType().noDefault()
+      .endRecord();
+
+  private static String file;
+
+  @BeforeClass
+  public static void writeFile() throws Exception {
+    final File f = File.createTempFile("avro-reader-test", ".avro");
+    f.deleteOnExit();
+    try (DataFileWriter<GenericData.Record> writer =
+        new DataFileWriter<>(new GenericDatumWriter<GenericData.Record>(SCHEMA))) {
+      writer.create(SCHEMA, f);
+      for (int i = 0; i < RECORD_COUNT; i++) {
+        final GenericData.Record nested = new GenericData.Record(NESTED);
+        nested.put("x", i);
+        nested.put("y", "y_" + i);
+
+        final Map<String, Integer> map = new HashMap<>();
+        map.put("k", i);
+
+        final GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("a_record", nested);
+        record.put("b_array", Arrays.asList("b_" + i, "b_" + (i + 1)));
+        record.put("c_map", map);
+        record.put("d_union", i % 2 == 0 ? "d_" + i : null);
+        if (i % 3 == 0) {
+          final GenericData.Record optional = new GenericData.Record(OPTIONAL_NESTED);
+          optional.put("z", i);
+          record.put("e_record", optional);
+        }
+        record.put("f_int", i);
+        record.put("g_string", "g_" + i);
+        writer.append(record);
+      }
+    }
+    file = f.getAbsolutePath();
+  }
+
+  @Test
+  public void testSkipUnprojectedFields() throws Exception {
+    // every complex field before the projected ones is skipped without being decoded
+    final TestBuilder builder = testBuilder()
+        .sqlQuery("select f_int, g_string from dfs_root.`%s`", file)
+        .ordered()
+        .baselineColumns("f_int", "g_string");
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      builder.baselineValues(i, "g_" + i);
+    }
+    builder.go();
+  }
+
+  @Test
+  public void testSiblingsOfNestedRecord() throws Exception {
+    // x is skipped inside the nested record, and the fields following it are still read from the right position
+    final TestBuilder builder = testBuilder()
+        .sqlQuery("select t.a_record.y as y, t.f_int as f_int from dfs_root.`%s` t", file)
+        .ordered()
+        .baselineColumns("y", "f_int");
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      builder.baselineValues("y_" + i, i);
+    }
+    builder.go();
+  }
+
+  @Test
+  public void testNullableUnions() throws Exception {
+    final TestBuilder builder = testBuilder()
+        .sqlQuery("select t.d_union as d_union, t.e_record.z as z, t.g_string as g_string from dfs_root.`%s` t", file)
+        .ordered()
+        .baselineColumns("d_union", "z", "g_string");
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      builder.baselineValues(i % 2 == 0 ? "d_" + i : null, i % 3 == 0 ? i : null, "g_" + i);
+    }
+    builder.go();
+  }
+
+  @Test
+  public void testShouldFailNonNullableUnionWithNullValues() throws Exception {
+    // the union is rejected from its schema, whatever branch the values are in
+    final Schema schema = SchemaBuilder.record("TestAvroRecordReaderUnion")
+        .namespace("com.dremio.exec.store.avro")
+        .fields()
+        .name("a_union").type().unionOf().intType().and().nullType().endUnion().noDefault()
+        .endRecord();
+    final File f = File.createTempFile("avro-reader-union-test", ".avro");
+    f.deleteOnExit();
+    try (DataFileWriter<GenericData.Record> writer =
+        new DataFileWriter<>(new GenericDatumWriter<GenericData.Record>(schema))) {
+      writer.create(schema, f);
+      for (int i = 0; i < 10; i++) {
+        final GenericData.Record record = new GenericData.Record(schema);
+        record.put("a_union", null);
+        writer.append(record);
+      }
+    }
+
+    try {
+      test(String.format("select * from dfs_root.`%s`", f.getAbsolutePath()));
+      fail("Query should fail as union is only supported for optional fields");
+    } catch (UserRemoteException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("Avro union type must be of the format : [\"null\", \"some-type\"]"));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.expression.CompleteType;
+import com.dremio.datastore.IndexedStore;
+import com.dremio.datastore.KVStoreProvider;
+import com.dremio.datastore.LocalKVStoreProvider;
+import com.dremio.datastore.SearchQueryUtils;
+import com.dremio.datastore.SearchTypes.SearchQuery;
+import com.dremio.exec.planner.DremioRexBuilder;
+import com.dremio.exec.store.parquet.FilterCondition.FilterProperties;
+import com.dremio.service.namespace.DatasetSplitId;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.NamespaceServiceImpl;
+import com.dremio.service.namespace.dataset.proto.ColumnRange;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.dremio.service.namespace.dataset.proto.DatasetType;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
+import com.dremio.service.namespace.proto.EntityId;
+import com.dremio.service.namespace.source.proto.LegacySourceType;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.dremio.test.DremioTest;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests the split queries of {@link MetadataUtils} against the split index.
+ */
+public class TestMetadataUtils {
+
+  private final RelDataTypeFactory typeFactory = new JavaTypeFactoryImpl();
+  private final RexBuilder builder = new DremioRexBuilder(typeFactory);
+  private final RelDataType rowType = typeFactory.builder()
+    .add("a", SqlTypeName.BIGINT)
+    .add("b", SqlTypeName.DOUBLE)
+    .build();
+  private final Field a = CompleteType.BIGINT.toField("a");
+  private final Field b = CompleteType.DOUBLE.toField("b");
+
+  private KVStoreProvider kvstore;
+  private NamespaceService ns;
+  private DatasetConfig datasetConfig;
+
+  @Before
+  public void setup() throws Exception {
+    kvstore = new LocalKVStoreProvider(DremioTest.CLASSPATH_SCAN_RESULT, null, true, false);
+    kvstore.start();
+    ns = new NamespaceServiceImpl(kvstore);
+    ns.addOrUpdateSource(new NamespaceKey("test"), new SourceConfig()
+      .setName("test")
+      .setCtime(100L)
+      .setLegacySourceTypeEnum(LegacySourceType.NAS));
+
+    datasetConfig = new DatasetConfig()
+      .setType(DatasetType.PHYSICAL_DATASET)
+      .setId(new EntityId().setId(UUID.randomUUID().toString()))
+      .setName("ranges")
+      .setFullPathList(Lists.newArrayList("test", "ranges"))
+      .setOwner("dremio")
+      .setReadDefinition(new ReadDefinition().setSplitVersion(System.currentTimeMillis()));
+
+    // split i has values [10 * i, 10 * i + 9] in column a, and the last split has no range.
+    final List<DatasetSplit> splits = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      splits.add(new DatasetSplit()
+        .setRowCount(10L)
+        .setSize(10L)
+        .setColumnRangesList(Lists.newArrayList(new ColumnRange().setColumn("a").setLongMin(10L * i).setLongMax(10L * i + 9)))
+        .setSplitKey(String.valueOf(i)));
+    }
+    splits.add(new DatasetSplit()
+      .setRowCount(10L)
+      .setSize(10L)
+      .setSplitKey(String.valueOf(10)));
+    ns.addOrUpdateDataset(new NamespaceKey(datasetConfig.getFullPathList()), datasetConfig, splits);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    kvstore.close();
+  }
+
+  @Test
+  public void testRangeQuery() throws Exception {
+    assertEquals(2, countSplits(SqlStdOperatorTable.EQUALS, 25));
+    assertEquals(3, countSplits(SqlStdOperatorTable.LESS_THAN, 20));
+    assertEquals(4, countSplits(SqlStdOperatorTable.LESS_THAN_OR_EQUAL, 20));
+    assertEquals(8, countSplits(SqlStdOperatorTable.GREATER_THAN, 29));
+    assertEquals(9, countSplits(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, 29));
+    // only the split without range is left
+    assertEquals(1, countSplits(SqlStdOperatorTable.GREATER_THAN, 99));
+    assertEquals(1, countSplits(SqlStdOperatorTable.LESS_THAN, 0));
+  }
+
+  @Test
+  public void testRangeQueryLiteralOnLeft() throws Exception {
+    // 20 > a
+    final FilterProperties filter = new FilterProperties((RexCall) builder.makeCall(SqlStdOperatorTable.GREATER_THAN,
+      builder.makeExactLiteral(BigDecimal.valueOf(20)), builder.makeInputRef(rowType, 0)), rowType);
+    assertEquals(3, countSplits(MetadataUtils.toSplitsRangeQuery(filter, a)));
+  }
+
+  @Test
+  public void testRangeQueryNotSupported() throws Exception {
+    assertNull(MetadataUtils.toSplitsRangeQuery(filter(SqlStdOperatorTable.NOT_EQUALS, 0, BigDecimal.valueOf(25)), a));
+    // rounding the literal would change which values pass the filter
+    assertNull(MetadataUtils.toSplitsRangeQuery(filter(SqlStdOperatorTable.GREATER_THAN, 0, new BigDecimal("25.5")), a));
+    assertNull(MetadataUtils.toSplitsRangeQuery(filter(SqlStdOperatorTable.GREATER_THAN, 1, BigDecimal.valueOf(25)), b));
+  }
+
+  private FilterProperties filter(SqlOperator operator, int fieldIndex, BigDecimal value) {
+    final RexNode call = builder.makeCall(operator, builder.makeInputRef(rowType, fieldIndex), builder.makeExactLiteral(value));
+    return new FilterProperties((RexCall) call, rowType);
+  }
+
+  private int countSplits(SqlOperator operator, long value) {
+    return countSplits(MetadataUtils.toSplitsRangeQuery(filter(operator, 0, BigDecimal.valueOf(value)), a));
+  }
+
+  private int countSplits(SearchQuery rangeQuery) {
+    return ns.getSplitCount(new IndexedStore.FindByCondition()
+      .setCondition(SearchQueryUtils.and(DatasetSplitId.getSplitsQuery(datasetConfig), rangeQuery)));
+  }
+}
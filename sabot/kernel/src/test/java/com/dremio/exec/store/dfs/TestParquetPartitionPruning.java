@@ -15,14 +15,18 @@
  */
 package com.dremio.exec.store.dfs;
 
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import org.apache.arrow.vector.util.DateUtility;
 import org.junit.Test;
 
 import com.dremio.PlanTestBase;
 import com.dremio.exec.planner.physical.PlannerSettings;
 
-import java.math.BigDecimal;
-
 public class TestParquetPartitionPruning extends PlanTestBase {
 
   @Test
@@ -132,4 +136,75 @@ public class TestParquetPartitionPruning extends PlanTestBase {
           .go();
     }
   }
+
+  @Test
+  public void pruningSortedPartitions() throws Exception {
+    // one file per value of b, each sorted on a
+    test("CREATE TABLE dfs_test.sortedParts HASH PARTITION BY (b) LOCALSORT BY (a) AS " +
+        "SELECT * FROM (VALUES(cast(1 as INT), cast(1 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(2 as INT), cast(1 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(3 as INT), cast(2 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(5 as INT), cast(2 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(6 as INT), cast(3 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(7 as INT), cast(3 as INT))) as T(a, b)");
+
+    // pruned on the ranges of a only
+    final String q1 = "SELECT a, b FROM dfs_test.sortedParts WHERE a >= 6";
+    testPlanMatchingPatterns(q1, new String[]{"Filter", "columns=\\[`a`, `b`\\]", "splits=\\[1\\]"});
+    testBuilder()
+        .sqlQuery(q1)
+        .unOrdered()
+        .baselineColumns("a", "b")
+        .baselineValues(6, 3)
+        .baselineValues(7, 3)
+        .go();
+
+    // the partitions b = 1 and b = 2 pass the filter, but only the range of a of the second one does
+    final String q2 = "SELECT a, b FROM dfs_test.sortedParts WHERE b <= 2 AND a >= 5";
+    testPlanMatchingPatterns(q2, new String[]{"columns=\\[`a`, `b`\\]", "splits=\\[1\\]"});
+    testBuilder()
+        .sqlQuery(q2)
+        .unOrdered()
+        .baselineColumns("a", "b")
+        .baselineValues(5, 2)
+        .go();
+
+    try (AutoCloseable ac = withSystemOption(PlannerSettings.ENABLE_SPLIT_RANGE_PRUNING, false)) {
+      testPlanMatchingPatterns(q1, new String[]{"columns=\\[`a`, `b`\\]", "splits=\\[3\\]"});
+      testPlanMatchingPatterns(q2, new String[]{"columns=\\[`a`, `b`\\]", "splits=\\[2\\]"});
+    }
+  }
+
+  @Test
+  public void noRangePruningWithUnsortedFiles() throws Exception {
+    test("CREATE TABLE dfs_test.sortedFile LOCALSORT BY (a) AS " +
+        "SELECT * FROM (VALUES(cast(1 as INT), cast(1 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(3 as INT), cast(2 as INT))) as T(a, b)");
+    test("CREATE TABLE dfs_test.unsortedFile AS " +
+        "SELECT * FROM (VALUES(cast(7 as INT), cast(3 as INT))) as T(a, b) UNION " +
+        "SELECT * FROM (VALUES(cast(6 as INT), cast(4 as INT))) as T(a, b)");
+
+    // a dataset made of both files isn't sorted, so its splits have no range
+    final Path mixed = Files.createDirectories(Paths.get(getDfsTestTmpSchemaLocation(), "mixedSort"));
+    copyParquetFiles(Paths.get(getDfsTestTmpSchemaLocation(), "sortedFile"), mixed, "sorted_");
+    copyParquetFiles(Paths.get(getDfsTestTmpSchemaLocation(), "unsortedFile"), mixed, "unsorted_");
+
+    final String query = "SELECT a, b FROM dfs_test.mixedSort WHERE a >= 6";
+    testPlanMatchingPatterns(query, new String[]{"columns=\\[`a`, `b`\\]", "splits=\\[2\\]"});
+    testBuilder()
+        .sqlQuery(query)
+        .unOrdered()
+        .baselineColumns("a", "b")
+        .baselineValues(7, 3)
+        .baselineValues(6, 4)
+        .go();
+  }
+
+  private static void copyParquetFiles(Path from, Path to, String prefix) throws Exception {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(from, "*.parquet")) {
+      for (Path file : files) {
+        Files.copy(file, to.resolve(prefix + file.getFileName()));
+      }
+    }
+  }
 }
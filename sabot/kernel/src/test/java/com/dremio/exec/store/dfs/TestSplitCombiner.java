@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.dremio.service.namespace.dataset.proto.Affinity;
+import com.dremio.service.namespace.dataset.proto.DatasetSplit;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link SplitCombiner}
+ */
+public class TestSplitCombiner {
+
+  private static DatasetSplit split(long size, String host) {
+    final DatasetSplit split = new DatasetSplit().setSize(size);
+    if (host != null) {
+      split.setAffinitiesList(ImmutableList.of(new Affinity().setHost(host).setFactor((double) size)));
+    }
+    return split;
+  }
+
+  @Test
+  public void testLargeSplitsNotCombined() {
+    final List<DatasetSplit> splits = ImmutableList.of(split(100, "a"), split(200, "a"), split(150, "b"));
+    final List<List<DatasetSplit>> units = new SplitCombiner(100, 10).combine(splits.iterator());
+    assertEquals(3, units.size());
+    for (List<DatasetSplit> unit : units) {
+      assertEquals(1, unit.size());
+    }
+  }
+
+  @Test
+  public void testCombineBySizeAndHost() {
+    final List<DatasetSplit> splits = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      splits.add(split(10, "a"));
+      splits.add(split(10, "b"));
+    }
+    splits.add(split(10, null));
+    final DatasetSplit large = split(1000, "a");
+    splits.add(large);
+
+    final List<List<DatasetSplit>> units = new SplitCombiner(30, 10).combine(splits.iterator());
+    // large split alone, 10 splits of host a and b each packed by 3, the split without affinity alone
+    assertEquals(1 + 4 + 4 + 1, units.size());
+    assertSame(large, units.get(0).get(0));
+    assertEquals(ImmutableList.of(3, 3, 3, 1, 3, 3, 3, 1, 1), sizes(units.subList(1, units.size())));
+    for (List<DatasetSplit> unit : units) {
+      final String host = unit.get(0).getAffinitiesList() == null ? null : unit.get(0).getAffinitiesList().get(0).getHost();
+      for (DatasetSplit split : unit) {
+        assertEquals(host, split.getAffinitiesList() == null ? null : split.getAffinitiesList().get(0).getHost());
+      }
+    }
+  }
+
+  @Test
+  public void testMaxSplits() {
+    final List<DatasetSplit> splits = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      splits.add(split(1, "a"));
+    }
+    final List<List<DatasetSplit>> units = new SplitCombiner(1000, 4).combine(splits.iterator());
+    assertEquals(ImmutableList.of(4, 4, 2), sizes(units));
+  }
+
+  private static List<Integer> sizes(List<List<DatasetSplit>> units) {
+    final List<Integer> sizes = new ArrayList<>();
+    for (List<DatasetSplit> unit : units) {
+      sizes.add(unit.size());
+    }
+    return sizes;
+  }
+}
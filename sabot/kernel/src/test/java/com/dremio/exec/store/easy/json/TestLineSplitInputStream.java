@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Tests for {@link LineSplitInputStream}
+ */
+public class TestLineSplitInputStream {
+
+  private static final String DATA = "{\"a\":1}\n{\"a\":22}\n{\"a\":333}\n";
+
+  private static String read(int start, int end) throws IOException {
+    final byte[] bytes = DATA.getBytes(Charsets.UTF_8);
+    final InputStream in = new ByteArrayInputStream(bytes);
+    if (start > 0) {
+      ByteStreams.skipFully(in, start - 1);
+    }
+    try (InputStream split = new LineSplitInputStream(in, start, end)) {
+      return new String(ByteStreams.toByteArray(split), Charsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testWholeFile() throws Exception {
+    assertEquals(DATA, read(0, DATA.length()));
+  }
+
+  @Test
+  public void testSplitsReadEachLineOnce() throws Exception {
+    for (int split = 1; split < DATA.length(); split++) {
+      assertEquals("split at " + split, DATA, read(0, split) + read(split, DATA.length()));
+    }
+  }
+
+  @Test
+  public void testSplitAtLineStart() throws Exception {
+    // the second line starts at 8
+    assertEquals("{\"a\":1}\n", read(0, 8));
+    assertEquals("{\"a\":22}\n{\"a\":333}\n", read(8, DATA.length()));
+  }
+
+  @Test
+  public void testSplitWithinLine() throws Exception {
+    assertEquals("", read(9, 12));
+    assertEquals("{\"a\":22}\n", read(3, 12));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.datastore.IndexedStore;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.catalog.CatalogServiceImpl;
+import com.dremio.exec.catalog.conf.Property;
+import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.dfs.InternalFileConf;
+import com.dremio.service.namespace.DatasetSplitId;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.dremio.service.users.SystemUser;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Test reading json files split on blocks, with and without store.json.reader.split_lines.
+ */
+public class TestJsonSplits extends BaseTestQuery {
+  private static final String SOURCE = "json_splits";
+  private static final int NUM_RECORDS = 2000;
+  private static final long SUM = (long) NUM_RECORDS * (NUM_RECORDS - 1) / 2;
+
+  @ClassRule
+  public static TemporaryFolder testFolder = new TemporaryFolder();
+
+  /**
+   * Local file system whose files are made of small blocks, so they are split as if they were large.
+   */
+  public static class SmallBlocksFileSystem extends RawLocalFileSystem {
+    private static final long BLOCK_SIZE = 1024;
+
+    @Override
+    public URI getUri() {
+      return URI.create("smallblocks:///");
+    }
+
+    @Override
+    public BlockLocation[] getFileBlockLocations(FileStatus file, long start, long len) throws IOException {
+      final List<BlockLocation> blocks = new ArrayList<>();
+      for (long offset = 0; offset < file.getLen(); offset += BLOCK_SIZE) {
+        blocks.add(new BlockLocation(new String[] {"localhost:50010"}, new String[] {"localhost"}, offset,
+            Math.min(BLOCK_SIZE, file.getLen() - offset)));
+      }
+      return blocks.toArray(new BlockLocation[blocks.size()]);
+    }
+  }
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    final File base = testFolder.newFolder("base");
+    generateTestDataFile(new File(base, "split_on.json"));
+    generateTestDataFile(new File(base, "split_off.json"));
+
+    final InternalFileConf conf = new InternalFileConf();
+    conf.connection = "smallblocks:///";
+    conf.path = base.getPath();
+    conf.properties = Lists.newArrayList(
+        new Property("fs.smallblocks.impl", SmallBlocksFileSystem.class.getName()),
+        new Property("fs.smallblocks.impl.disable.cache", "true"));
+    final SourceConfig config = new SourceConfig();
+    config.setConnectionConf(conf);
+    config.setName(SOURCE);
+    config.setMetadataPolicy(CatalogService.NEVER_REFRESH_POLICY);
+    ((CatalogServiceImpl) getSabotContext().getCatalogService()).getSystemUserCatalog().createSource(config);
+  }
+
+  private static void generateTestDataFile(File file) throws Exception {
+    try (PrintWriter printWriter = new PrintWriter(file)) {
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        printWriter.println(String.format("{\"id\": %d, \"name\": \"name_%d\"}", i, i));
+      }
+    }
+  }
+
+  private static void checkRecords(String file) throws Exception {
+    testBuilder()
+        .sqlQuery("SELECT count(*) AS c, sum(id) AS s FROM %s.`%s`", SOURCE, file)
+        .unOrdered()
+        .baselineColumns("c", "s")
+        .baselineValues((long) NUM_RECORDS, SUM)
+        .go();
+  }
+
+  private static int countSplits(String file) throws Exception {
+    final NamespaceService namespace = getSabotContext().getNamespaceService(SystemUser.SYSTEM_USERNAME);
+    final DatasetConfig dataset = namespace.getDataset(new NamespaceKey(ImmutableList.of(SOURCE, file)));
+    return namespace.getSplitCount(new IndexedStore.FindByCondition()
+        .setCondition(DatasetSplitId.getSplitsQuery(dataset)));
+  }
+
+  @Test
+  public void splitLines() throws Exception {
+    // the file is split on blocks when its metadata is collected, each split reads the lines starting in it.
+    try (AutoCloseable option = withSystemOption(ExecConstants.JSON_READER_SPLIT_LINES, true)) {
+      checkRecords("split_on.json");
+    }
+    assertTrue(countSplits("split_on.json") > 1);
+
+    // the split starting the file reads it whole, the others read nothing.
+    checkRecords("split_on.json");
+  }
+
+  @Test
+  public void noSplitLines() throws Exception {
+    // the file is read as a single split.
+    checkRecords("split_off.json");
+    assertEquals(1, countSplits("split_off.json"));
+
+    try (AutoCloseable option = withSystemOption(ExecConstants.JSON_READER_SPLIT_LINES, true)) {
+      checkRecords("split_off.json");
+    }
+  }
+
+  @AfterClass
+  public static void shutdown() throws Exception {
+    final SourceConfig config = getSabotContext().getNamespaceService(SystemUser.SYSTEM_USERNAME)
+        .getSource(new NamespaceKey(SOURCE));
+    ((CatalogServiceImpl) getSabotContext().getCatalogService()).getSystemUserCatalog().deleteSource(config);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.vector.ValueVector;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
+import com.dremio.exec.proto.UserBitShared.MetricValue;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.store.SampleMutator;
+import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.exec.context.MetricDef;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.service.namespace.file.proto.ParquetDatasetSplitXAttr;
+
+/**
+ * Base class of tests reading parquet files with {@link UnifiedParquetReader}, one row group at a time, as the scan
+ * of a parquet dataset does.
+ */
+public abstract class BaseTestUnifiedParquetReader extends BaseTestOperator {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Writes the records to a new uncompressed parquet file.
+   * @param rowGroupSize size of the row groups, in bytes
+   * @param pageSize size of the data pages and of the dictionary pages, in bytes
+   */
+  protected Path writeFile(MessageType schema, Iterable<Group> records, int rowGroupSize, int pageSize,
+                           boolean enableDictionary) throws Exception {
+    final Path path = new Path(new File(folder.getRoot(), "test" + folder.getRoot().list().length + ".parquet").getAbsolutePath());
+    final Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    try (ParquetWriter<Group> writer = new ParquetWriter<>(path, new GroupWriteSupport(), CompressionCodecName.UNCOMPRESSED,
+        rowGroupSize, pageSize, pageSize, enableDictionary, false, WriterVersion.PARQUET_1_0, conf)) {
+      for (Group record : records) {
+        writer.write(record);
+      }
+    }
+    return path;
+  }
+
+  protected static ParquetMetadata readFooter(Path path) throws Exception {
+    return ParquetFileReader.readFooter(new Configuration(), path, ParquetMetadataConverter.NO_FILTER);
+  }
+
+  /**
+   * Records read from a file, and the profile of the context they were read with.
+   */
+  protected static class Result {
+    private final List<List<Object>> records;
+    private final OperatorProfile profile;
+
+    private Result(List<List<Object>> records, OperatorProfile profile) {
+      this.records = records;
+      this.profile = profile;
+    }
+
+    /**
+     * @return values of the columns read, for each record
+     */
+    public List<List<Object>> getRecords() {
+      return records;
+    }
+
+    public long getMetric(MetricDef metric) {
+      for (MetricValue value : profile.getMetricList()) {
+        if (value.getMetricId() == metric.metricId()) {
+          return value.getLongValue();
+        }
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Reads all the row groups of the file.
+   * @param condition condition pushed down into the reader, or null
+   */
+  protected Result read(Path path, List<SchemaPath> columns, FilterCondition condition, int batchSize) throws Exception {
+    final FileSystem fs = FileSystem.getLocal(new Configuration());
+    final ParquetMetadata footer = readFooter(path);
+    final OperatorContextImpl context = newOperatorContext(batchSize);
+    final CodecFactory codec = CodecFactory.createDirectCodecFactory(fs.getConf(),
+        new ParquetDirectByteBufferAllocator(context.getAllocator()), 0);
+    final List<FilterCondition> conditions = condition == null ? null : Collections.singletonList(condition);
+
+    final List<List<Object>> records = new ArrayList<>();
+    try {
+      for (int rowGroup = 0; rowGroup < footer.getBlocks().size(); rowGroup++) {
+        // the schema of the scan, which the scan materializes in the output before setting readers up
+        final BatchSchema schema;
+        try (SampleMutator mutator = new SampleMutator(context.getAllocator());
+             UnifiedParquetReader reader = newReader(context, fs, path, footer, rowGroup, columns, null, codec)) {
+          reader.setup(mutator);
+          reader.allocate(mutator.getFieldVectorMap());
+          reader.next();
+          mutator.getContainer().buildSchema(SelectionVectorMode.NONE);
+          schema = mutator.getContainer().getSchema();
+        }
+
+        try (SampleMutator mutator = new SampleMutator(context.getAllocator());
+             UnifiedParquetReader reader = newReader(context, fs, path, footer, rowGroup, columns, conditions, codec)) {
+          schema.materializeVectors(columns, mutator);
+          reader.setup(mutator);
+          while (true) {
+            reader.allocate(mutator.getFieldVectorMap());
+            final int count = reader.next();
+            if (count == 0) {
+              break;
+            }
+            mutator.getContainer().setAllCount(count);
+            for (int i = 0; i < count; i++) {
+              final List<Object> record = new ArrayList<>();
+              for (SchemaPath column : columns) {
+                final ValueVector vector = mutator.getVector(column.getRootSegment().getPath());
+                record.add(vector.getObject(i));
+              }
+              records.add(record);
+            }
+          }
+        }
+      }
+    } finally {
+      codec.release();
+    }
+    return new Result(records, context.getStats().getProfile());
+  }
+
+  private static UnifiedParquetReader newReader(OperatorContextImpl context, FileSystem fs, Path path,
+      ParquetMetadata footer, int rowGroup, List<SchemaPath> columns, List<FilterCondition> conditions,
+      CodecFactory codec) {
+    final BlockMetaData block = footer.getBlocks().get(rowGroup);
+    final ParquetDatasetSplitXAttr split = new ParquetDatasetSplitXAttr()
+        .setPath(path.toUri().getPath())
+        .setStart(block.getStartingPos())
+        .setLength(block.getCompressedSize())
+        .setRowGroupIndex(rowGroup);
+    return new UnifiedParquetReader(
+        context,
+        ParquetReaderFactory.NONE,
+        columns,
+        columns,
+        Collections.<String, GlobalDictionaryFieldInfo>emptyMap(),
+        conditions,
+        split,
+        fs,
+        footer,
+        null,
+        codec,
+        true,
+        false,
+        false,
+        false);
+  }
+}
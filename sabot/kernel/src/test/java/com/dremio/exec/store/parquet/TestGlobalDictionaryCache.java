@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.NullableBigIntVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.server.options.OptionManager;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.parquet.GlobalDictionaryCache.DictionaryReference;
+import com.dremio.exec.util.GlobalDictionaryBuilder;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+
+/**
+ * Tests for {@link GlobalDictionaryCache}
+ */
+public class TestGlobalDictionaryCache {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private BufferAllocator rootAllocator;
+  private BufferAllocator operatorAllocator;
+  private OptionManager options;
+  private OperatorContext context;
+  private FileSystem fs;
+
+  @Before
+  public void setup() throws Exception {
+    rootAllocator = new RootAllocator(Long.MAX_VALUE);
+    operatorAllocator = rootAllocator.newChildAllocator("operator", 0, Long.MAX_VALUE);
+    options = mock(OptionManager.class);
+    context = mock(OperatorContext.class);
+    when(context.getOptions()).thenReturn(options);
+    when(context.getAllocator()).thenReturn(operatorAllocator);
+    setCacheSize(Long.MAX_VALUE);
+
+    final Configuration conf = new Configuration();
+    conf.set(FileSystem.FS_DEFAULT_NAME_KEY, "file:///");
+    fs = FileSystem.get(conf);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    operatorAllocator.close();
+    rootAllocator.close();
+  }
+
+  private void setCacheSize(long size) {
+    when(options.getOption(ExecConstants.GLOBAL_DICTIONARY_CACHE_SIZE)).thenReturn(size);
+  }
+
+  private Path writeDictionary(String name, int size) throws Exception {
+    final Path path = new Path(folder.getRoot().getAbsolutePath(), name);
+    try (VectorContainer dictionary = new VectorContainer(rootAllocator)) {
+      final NullableBigIntVector vector = dictionary.addOrGet(new Field("c0", true, new ArrowType.Int(64, true), null));
+      vector.allocateNew(size);
+      for (int i = 0; i < size; i++) {
+        vector.setSafe(i, i * 10L);
+      }
+      vector.setValueCount(size);
+      dictionary.setRecordCount(size);
+      dictionary.buildSchema(SelectionVectorMode.NONE);
+      try (FSDataOutputStream out = fs.create(path)) {
+        GlobalDictionaryBuilder.writeDictionary(out, dictionary, size, rootAllocator);
+      }
+    }
+    return path;
+  }
+
+  @Test
+  public void testSharedDictionary() throws Exception {
+    final Path path = writeDictionary("c0.dict", 100);
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(rootAllocator)) {
+      try (DictionaryReference ref1 = cache.acquire(fs, path, context);
+           DictionaryReference ref2 = cache.acquire(fs, path, context)) {
+        assertSame(ref1.getDictionary(), ref2.getDictionary());
+        assertEquals(100, ref1.getDictionary().getRecordCount());
+        assertEquals(1, cache.size());
+      }
+
+      // released dictionaries stay cached for later queries.
+      assertEquals(1, cache.size());
+      try (DictionaryReference ref = cache.acquire(fs, path, context)) {
+        final NullableBigIntVector vector = ref.getDictionary().getValueAccessorById(NullableBigIntVector.class, 0).getValueVector();
+        assertEquals(990L, vector.get(99));
+      }
+      assertEquals(0, operatorAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final Path path1 = writeDictionary("c1.dict", 1000);
+    final Path path2 = writeDictionary("c2.dict", 1000);
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(rootAllocator)) {
+      final VectorContainer dictionary1;
+      try (DictionaryReference ref = cache.acquire(fs, path1, context)) {
+        dictionary1 = ref.getDictionary();
+      }
+
+      // only room for one dictionary, the unreferenced one is evicted.
+      setCacheSize(cache.getAllocatedMemory());
+      try (DictionaryReference ref = cache.acquire(fs, path2, context)) {
+        assertEquals(1, cache.size());
+        assertEquals(1000, ref.getDictionary().getRecordCount());
+
+        // dictionary in use can't be evicted, the other one is loaded outside of the cache.
+        try (DictionaryReference uncached = cache.acquire(fs, path1, context)) {
+          assertNotSame(dictionary1, uncached.getDictionary());
+          assertEquals(1000, uncached.getDictionary().getRecordCount());
+          assertEquals(1, cache.size());
+        }
+      }
+      assertEquals(0, operatorAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    final Path path = writeDictionary("c3.dict", 10);
+    setCacheSize(0);
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(rootAllocator)) {
+      try (DictionaryReference ref1 = cache.acquire(fs, path, context);
+           DictionaryReference ref2 = cache.acquire(fs, path, context)) {
+        assertNotSame(ref1.getDictionary(), ref2.getDictionary());
+        assertEquals(0, cache.size());
+      }
+      assertEquals(0, operatorAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testReleaseOnFailure() throws Exception {
+    final Path path = writeDictionary("c4.dict", 100);
+    final Path other = writeDictionary("c5.dict", 100);
+    final Path missing = new Path(folder.getRoot().getAbsolutePath(), "missing.dict");
+    when(context.getStats()).thenReturn(mock(OperatorStats.class));
+
+    final ArrowType type = new ArrowType.Int(64, true);
+    try (GlobalDictionaryCache cache = new GlobalDictionaryCache(rootAllocator)) {
+      try {
+        GlobalDictionaries.create(context, FileSystemWrapper.get(fs.getConf()), cache, Arrays.asList(
+            new GlobalDictionaryFieldInfo(0, "c0", null, type, path.toString()),
+            new GlobalDictionaryFieldInfo(0, "c1", null, type, missing.toString())));
+        fail("Expected the missing dictionary to fail the setup");
+      } catch (ExecutionSetupException e) {
+        // expected
+      }
+      assertEquals(1, cache.size());
+
+      // the first dictionary was released when the second one failed to load, so it can be evicted.
+      setCacheSize(cache.getAllocatedMemory());
+      try (DictionaryReference ref = cache.acquire(fs, other, context)) {
+        assertEquals(1, cache.size());
+        assertEquals(100, ref.getDictionary().getRecordCount());
+        assertEquals(0, operatorAllocator.getAllocatedMemory());
+      }
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.ExecConstants;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests that reading the filter column first, and only the selected records of the other columns, returns the same
+ * records as reading all the columns before filtering.
+ */
+public class TestParquetLateMaterialization extends BaseTestUnifiedParquetReader {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message test { "
+      + "optional int32 id; "
+      + "optional binary name (UTF8); "
+      + "repeated int32 scores; "
+      + "optional group location { optional double lat; optional double lon; } "
+      + "}");
+
+  private static final int RECORD_COUNT = 5000;
+  private static final int BATCH_SIZE = 100;
+
+  private static final SchemaPath ID = SchemaPath.getSimplePath("id");
+  private static final List<SchemaPath> COLUMNS = ImmutableList.of(ID, SchemaPath.getSimplePath("name"),
+      SchemaPath.getSimplePath("scores"), SchemaPath.getSimplePath("location"));
+
+  private Path file;
+
+  @Before
+  public void setupFile() throws Exception {
+    final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    final List<Group> records = new ArrayList<>();
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      final Group record = factory.newGroup().append("id", i);
+      if (i % 5 != 0) {
+        record.append("name", "name_" + i);
+      }
+      for (int j = 0; j < i % 3; j++) {
+        record.append("scores", i + j);
+      }
+      if (i % 7 != 0) {
+        record.addGroup("location").append("lat", i / 10d).append("lon", -i / 10d);
+      }
+      records.add(record);
+    }
+    // small row groups and pages, so that the file has several of each
+    file = writeFile(SCHEMA, records, 32 * 1024, 4 * 1024, false);
+  }
+
+  private static LogicalExpression call(String name, LogicalExpression left, LogicalExpression right) {
+    return new FunctionCall(name, ImmutableList.of(left, right));
+  }
+
+  private static LogicalExpression modEquals(int divisor, int remainder) {
+    return call("equal", call("mod", ID, ValueExpressions.getInt(divisor)), ValueExpressions.getInt(remainder));
+  }
+
+  /**
+   * Reads the file with and without late materialization, and checks both return the same records, with the given ids.
+   */
+  private void assertSameRecords(LogicalExpression expr, List<SchemaPath> columns, List<Integer> expectedIds)
+      throws Exception {
+    final FilterCondition condition = new FilterCondition(ID, null, expr, 0);
+    final List<List<Object>> expected;
+    try (AutoCloseable option = with(ExecConstants.PARQUET_LATE_MATERIALIZATION, false)) {
+      expected = read(file, columns, condition, BATCH_SIZE).getRecords();
+    }
+    final List<List<Object>> actual;
+    try (AutoCloseable option = with(ExecConstants.PARQUET_LATE_MATERIALIZATION, true)) {
+      actual = read(file, columns, condition, BATCH_SIZE).getRecords();
+    }
+
+    final List<Integer> ids = new ArrayList<>();
+    for (List<Object> record : actual) {
+      ids.add((Integer) record.get(0));
+    }
+    assertEquals(expectedIds, ids);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testMultipleBatches() throws Exception {
+    final List<Integer> expectedIds = new ArrayList<>();
+    for (int i = 0; i < RECORD_COUNT; i += 3) {
+      expectedIds.add(i);
+    }
+    assertSameRecords(modEquals(3, 0), COLUMNS, expectedIds);
+  }
+
+  @Test
+  public void testAllRecordsOfBatchesRejected() throws Exception {
+    // whole batches are rejected between the selected records, whose skipped records carry over
+    final List<Integer> sparseIds = new ArrayList<>();
+    for (int i = 999; i < RECORD_COUNT; i += 1000) {
+      sparseIds.add(i);
+    }
+    assertSameRecords(modEquals(1000, 999), COLUMNS, sparseIds);
+
+    // the leading batches are all rejected
+    final List<Integer> lastIds = new ArrayList<>();
+    for (int i = RECORD_COUNT - 150; i < RECORD_COUNT; i++) {
+      lastIds.add(i);
+    }
+    assertSameRecords(call("greater_than_or_equal_to", ID, ValueExpressions.getInt(RECORD_COUNT - 150)), COLUMNS,
+        lastIds);
+
+    // every record is rejected
+    assertSameRecords(call("less_than", ID, ValueExpressions.getInt(0)), COLUMNS, new ArrayList<Integer>());
+  }
+
+  @Test
+  public void testRejectedAtEndOfRowGroup() throws Exception {
+    final ParquetMetadata footer = readFooter(file);
+    assertTrue("expected several row groups", footer.getBlocks().size() > 1);
+    final int firstRowGroupCount = (int) footer.getBlocks().get(0).getRowCount();
+
+    // the last records of the first row group are rejected, as are all the records of the next row groups
+    final int limit = firstRowGroupCount - 7;
+    final List<Integer> expectedIds = new ArrayList<>();
+    for (int i = 0; i < limit; i++) {
+      expectedIds.add(i);
+    }
+    assertSameRecords(call("less_than", ID, ValueExpressions.getInt(limit)), COLUMNS, expectedIds);
+  }
+
+  @Test
+  public void testNestedAndRepeatedColumns() throws Exception {
+    final List<Integer> expectedIds = new ArrayList<>();
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      if (i % 7 < 2) {
+        expectedIds.add(i);
+      }
+    }
+    // only complex columns besides the filter column, some of them null or empty for the selected records
+    assertSameRecords(call("less_than", call("mod", ID, ValueExpressions.getInt(7)), ValueExpressions.getInt(2)),
+        ImmutableList.of(ID, SchemaPath.getSimplePath("location"), SchemaPath.getSimplePath("scores")), expectedIds);
+  }
+}
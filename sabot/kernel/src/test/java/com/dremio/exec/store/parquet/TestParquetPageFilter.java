@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.junit.Test;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ParquetPageFilter}
+ */
+public class TestParquetPageFilter {
+
+  private static final SchemaPath ID = SchemaPath.getSimplePath("id");
+  private static final PrimitiveType INT32 = new PrimitiveType(Repetition.OPTIONAL, PrimitiveTypeName.INT32, "id");
+  private static final PrimitiveType INT64 = new PrimitiveType(Repetition.OPTIONAL, PrimitiveTypeName.INT64, "id");
+
+  private static LogicalExpression call(String name, LogicalExpression left, LogicalExpression right) {
+    return new FunctionCall(name, ImmutableList.of(left, right));
+  }
+
+  private static ParquetPageFilter filter(LogicalExpression expr, PrimitiveType type) {
+    return ParquetPageFilter.of(new FilterCondition(ID, null, expr, 0), type);
+  }
+
+  private static IntStatistics ints(int min, int max) {
+    final IntStatistics statistics = new IntStatistics();
+    statistics.setMinMax(min, max);
+    return statistics;
+  }
+
+  @Test
+  public void testEqual() {
+    final ParquetPageFilter filter = filter(call("equal", ID, ValueExpressions.getInt(42)), INT32);
+    assertTrue(filter.apply(ints(0, 41)));
+    assertTrue(filter.apply(ints(43, 100)));
+    assertFalse(filter.apply(ints(42, 42)));
+    assertFalse(filter.apply(ints(0, 100)));
+  }
+
+  @Test
+  public void testRanges() {
+    // 10 < id and id <= 20
+    final LogicalExpression expr = new BooleanOperator("booleanAnd", ImmutableList.of(
+        call("less_than", ValueExpressions.getInt(10), ID),
+        call("less_than_or_equal_to", ID, ValueExpressions.getInt(20))));
+    final ParquetPageFilter filter = filter(expr, INT32);
+    assertTrue(filter.apply(ints(0, 10)));
+    assertTrue(filter.apply(ints(21, 30)));
+    assertFalse(filter.apply(ints(10, 11)));
+    assertFalse(filter.apply(ints(20, 30)));
+
+    final LongStatistics statistics = new LongStatistics();
+    statistics.setMinMax(Long.MIN_VALUE, 10L);
+    assertTrue(filter(expr, INT64).apply(statistics));
+  }
+
+  @Test
+  public void testNotEqual() {
+    final ParquetPageFilter filter = filter(call("not_equal", ID, ValueExpressions.getBigInt(5)), INT64);
+    final LongStatistics statistics = new LongStatistics();
+    statistics.setMinMax(5L, 5L);
+    assertTrue(filter.apply(statistics));
+    statistics.setMinMax(5L, 6L);
+    assertFalse(filter.apply(statistics));
+  }
+
+  @Test
+  public void testUnsupported() {
+    // other columns, disjunctions, non integer types
+    assertNull(filter(call("equal", SchemaPath.getSimplePath("other"), ValueExpressions.getInt(1)), INT32));
+    assertNull(filter(new BooleanOperator("booleanOr", ImmutableList.of(
+        call("equal", ID, ValueExpressions.getInt(1)),
+        call("equal", ID, ValueExpressions.getInt(2)))), INT32));
+    assertNull(filter(call("equal", ID, ValueExpressions.getInt(1)),
+        new PrimitiveType(Repetition.OPTIONAL, PrimitiveTypeName.DOUBLE, "id")));
+    assertNull(filter(call("equal", ID, ValueExpressions.getInt(1)),
+        new PrimitiveType(Repetition.OPTIONAL, PrimitiveTypeName.INT32, "id", OriginalType.UINT_32)));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.ExecConstants;
+import com.dremio.sabot.op.scan.ScanOperator.Metric;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests that the pages of a filtered column whose statistics can't match the filter aren't read, and that the
+ * records read are the same as when all the pages are read.
+ */
+public class TestParquetPageSkipping extends BaseTestUnifiedParquetReader {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message test { "
+      + "optional int32 id; "
+      + "optional int64 bucket; "
+      + "optional binary name (UTF8); "
+      + "}");
+
+  private static final int RECORD_COUNT = 5000;
+  private static final int BUCKET_SIZE = 500;
+
+  private static final SchemaPath ID = SchemaPath.getSimplePath("id");
+  private static final SchemaPath BUCKET = SchemaPath.getSimplePath("bucket");
+  private static final List<SchemaPath> COLUMNS = ImmutableList.of(ID, BUCKET, SchemaPath.getSimplePath("name"));
+
+  private Path file;
+
+  @Before
+  public void setupFile() throws Exception {
+    final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    final List<Group> records = new ArrayList<>();
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      records.add(factory.newGroup()
+          .append("id", i)
+          .append("bucket", (long) (i / BUCKET_SIZE))
+          .append("name", "name_" + i));
+    }
+    // a single row group of small pages. The few values of bucket fit in a dictionary, while id falls back to plain
+    // encoding once its dictionary gets larger than a page.
+    file = writeFile(SCHEMA, records, 1024 * 1024, 256, true);
+
+    final ParquetMetadata footer = readFooter(file);
+    assertEquals(1, footer.getBlocks().size());
+    for (ColumnChunkMetaData column : footer.getBlocks().get(0).getColumns()) {
+      if (column.getPath().toDotString().equals("bucket")) {
+        assertTrue(column.getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+      }
+    }
+  }
+
+  private static LogicalExpression call(String name, LogicalExpression left, LogicalExpression right) {
+    return new FunctionCall(name, ImmutableList.of(left, right));
+  }
+
+  /**
+   * Reads the file with the condition, with and without skipping pages, and checks that the same records, with the
+   * given ids, are read, and that pages are only skipped when enabled.
+   */
+  private void assertPagesSkipped(SchemaPath column, LogicalExpression expr, List<Integer> expectedIds)
+      throws Exception {
+    final FilterCondition condition = new FilterCondition(column, null, expr, 0);
+
+    final Result all;
+    try (AutoCloseable option = with(ExecConstants.PARQUET_PAGE_FILTER, false)) {
+      all = read(file, COLUMNS, condition, 1000);
+    }
+    assertEquals(0, all.getMetric(Metric.NUM_PAGES_DROPPED));
+    assertEquals(expectedIds, getIds(all));
+
+    final Result skipped;
+    try (AutoCloseable option = with(ExecConstants.PARQUET_PAGE_FILTER, true)) {
+      skipped = read(file, COLUMNS, condition, 1000);
+    }
+    assertTrue(skipped.getMetric(Metric.NUM_PAGES_DROPPED) > 0);
+    assertEquals(all.getRecords(), skipped.getRecords());
+
+    // the filter reader of late materialization skips pages too
+    final Result late;
+    try (AutoCloseable option = with(ExecConstants.PARQUET_PAGE_FILTER, true);
+         AutoCloseable lateOption = with(ExecConstants.PARQUET_LATE_MATERIALIZATION, true)) {
+      late = read(file, COLUMNS, condition, 1000);
+    }
+    assertEquals(skipped.getMetric(Metric.NUM_PAGES_DROPPED), late.getMetric(Metric.NUM_PAGES_DROPPED));
+    assertEquals(all.getRecords(), late.getRecords());
+  }
+
+  private static List<Integer> getIds(Result result) {
+    final List<Integer> ids = new ArrayList<>();
+    for (List<Object> record : result.getRecords()) {
+      ids.add((Integer) record.get(0));
+    }
+    return ids;
+  }
+
+  @Test
+  public void testPlainPages() throws Exception {
+    // 1000 <= id and id < 1100
+    final LogicalExpression expr = new BooleanOperator("booleanAnd", ImmutableList.of(
+        call("less_than_or_equal_to", ValueExpressions.getInt(1000), ID),
+        call("less_than", ID, ValueExpressions.getInt(1100))));
+    final List<Integer> expectedIds = new ArrayList<>();
+    for (int i = 1000; i < 1100; i++) {
+      expectedIds.add(i);
+    }
+    assertPagesSkipped(ID, expr, expectedIds);
+  }
+
+  @Test
+  public void testDictionaryEncodedPages() throws Exception {
+    final LogicalExpression expr = call("equal", BUCKET, ValueExpressions.getBigInt(7));
+    final List<Integer> expectedIds = new ArrayList<>();
+    for (int i = 7 * BUCKET_SIZE; i < 8 * BUCKET_SIZE; i++) {
+      expectedIds.add(i);
+    }
+    assertPagesSkipped(BUCKET, expr, expectedIds);
+  }
+
+  @Test
+  public void testNoPageMatches() throws Exception {
+    assertPagesSkipped(ID, call("greater_than", ID, ValueExpressions.getInt(RECORD_COUNT)), new ArrayList<Integer>());
+  }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.util.Progressable;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.store.RecordWriter.OutputEntryListener;
+import com.dremio.exec.store.WritePartition;
+import com.dremio.exec.util.ImpersonationUtil;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.DataRow;
+import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.OpProfileDef;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+
+/**
+ * Tests for {@link ParquetRecordWriter}, writing files in place and in the background.
+ */
+public class TestParquetRecordWriter extends BaseTestOperator {
+
+  private static final int RECORDS_PER_PARTITION = 10;
+  private static final int NUM_PARTITIONS = 3;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private ExecutorService executor;
+  private final List<WrittenFile> files = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setup() {
+    executor = Executors.newSingleThreadExecutor();
+    FaultyFileSystem.failWrites = false;
+    FaultyFileSystem.streams.clear();
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+  }
+
+  private static class WrittenFile {
+    private final long recordCount;
+    private final String path;
+
+    WrittenFile(long recordCount, String path) {
+      this.recordCount = recordCount;
+      this.path = path;
+    }
+  }
+
+  /**
+   * Local file system, whose output streams fail once {@link #failWrites} is set.
+   */
+  public static class FaultyFileSystem extends RawLocalFileSystem {
+    private static volatile boolean failWrites;
+    private static final List<FaultyOutputStream> streams = new CopyOnWriteArrayList<>();
+
+    @Override
+    public URI getUri() {
+      return URI.create("faulty:///");
+    }
+
+    @Override
+    public FSDataOutputStream create(Path f, FsPermission permission, boolean overwrite, int bufferSize,
+        short replication, long blockSize, Progressable progress) throws IOException {
+      final FaultyOutputStream out = new FaultyOutputStream(
+          super.create(f, permission, overwrite, bufferSize, replication, blockSize, progress));
+      streams.add(out);
+      return new FSDataOutputStream(out, statistics);
+    }
+  }
+
+  private static class FaultyOutputStream extends FilterOutputStream {
+    private volatile boolean closed;
+
+    FaultyOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      checkFailure();
+      out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      checkFailure();
+      out.write(b, off, len);
+    }
+
+    private void checkFailure() throws IOException {
+      if (FaultyFileSystem.failWrites) {
+        throw new IOException("Injected write failure");
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      super.close();
+    }
+  }
+
+  private ParquetRecordWriter newWriter() throws Exception {
+    final Configuration conf = new Configuration();
+    conf.set(FileSystem.FS_DEFAULT_NAME_KEY, "faulty:///");
+    conf.set("fs.faulty.impl", FaultyFileSystem.class.getName());
+    conf.setBoolean("fs.faulty.impl.disable.cache", true);
+
+    final ParquetWriter writer = mock(ParquetWriter.class);
+    when(writer.getFsConf()).thenReturn(conf);
+    when(writer.getLocation()).thenReturn("faulty://" + folder.getRoot().getAbsolutePath());
+    when(writer.getUserName()).thenReturn(ImpersonationUtil.getProcessUserName());
+
+    final OperatorContext context = mock(OperatorContext.class);
+    when(context.getAllocator()).thenReturn(getTestAllocator());
+    when(context.getOptions()).thenReturn(testContext.getOptions());
+    when(context.getExecutor()).thenReturn(executor);
+    when(context.getFragmentHandle()).thenReturn(FragmentHandle.getDefaultInstance());
+    when(context.getStats()).thenReturn(new OperatorStats(new OpProfileDef(1, 1, 1), getTestAllocator()));
+
+    return new ParquetRecordWriter(context, writer, new ParquetFormatConfig());
+  }
+
+  private Generator newGenerator(int numRecords) throws Exception {
+    final DataRow[] rows = new DataRow[numRecords];
+    for (int i = 0; i < numRecords; i++) {
+      rows[i] = tr((long) i);
+    }
+    return t(th("id"), rows).toGenerator(getTestAllocator());
+  }
+
+  private void setup(ParquetRecordWriter writer, Generator generator) throws Exception {
+    writer.setup(generator.getOutput(), new OutputEntryListener() {
+      @Override
+      public void recordsWritten(long recordCount, String path, byte[] metadata, Integer partitionNumber) {
+        files.add(new WrittenFile(recordCount, path));
+      }
+    }, null);
+  }
+
+  /**
+   * Write the next records of the generator in a new partition, and so in a new file.
+   */
+  private static void writePartition(ParquetRecordWriter writer, Generator generator, int partition, int numRecords)
+      throws Exception {
+    writer.startPartition(new WritePartition(new String[] {"p" + partition}));
+    final int count = generator.next(numRecords);
+    assertEquals(numRecords, count);
+    assertEquals(numRecords, writer.writeBatch(0, count));
+  }
+
+  private static void checkFile(WrittenFile file, int partition, long recordCount) throws IOException {
+    assertEquals(recordCount, file.recordCount);
+    final Path path = new Path(file.path);
+    assertEquals("p" + partition, path.getParent().getName());
+
+    // the footer can only be read once the file is complete.
+    final ParquetMetadata footer = ParquetFileReader.readFooter(new Configuration(),
+        new Path(path.toUri().getPath()), NO_FILTER);
+    long footerRecordCount = 0;
+    for (BlockMetaData block : footer.getBlocks()) {
+      footerRecordCount += block.getRowCount();
+    }
+    assertEquals(recordCount, footerRecordCount);
+  }
+
+  @Test
+  public void testFilesInOrder() throws Exception {
+    testFilesInOrder(true);
+    testFilesInOrder(false);
+  }
+
+  private void testFilesInOrder(boolean background) throws Exception {
+    files.clear();
+    try (AutoCloseable option = with(ExecConstants.PARQUET_WRITER_BACKGROUND_WRITE_VALIDATOR, background);
+         Generator generator = newGenerator(NUM_PARTITIONS * RECORDS_PER_PARTITION)) {
+      try (ParquetRecordWriter writer = newWriter()) {
+        setup(writer, generator);
+        for (int p = 0; p < NUM_PARTITIONS; p++) {
+          writePartition(writer, generator, p, RECORDS_PER_PARTITION);
+        }
+      }
+    }
+
+    assertEquals(NUM_PARTITIONS, files.size());
+    for (int p = 0; p < NUM_PARTITIONS; p++) {
+      checkFile(files.get(p), p, RECORDS_PER_PARTITION);
+    }
+  }
+
+  @Test
+  public void testWriteFailure() throws Exception {
+    testWriteFailure(true);
+    testWriteFailure(false);
+  }
+
+  private void testWriteFailure(boolean background) throws Exception {
+    files.clear();
+    FaultyFileSystem.failWrites = false;
+    FaultyFileSystem.streams.clear();
+    try (AutoCloseable option = with(ExecConstants.PARQUET_WRITER_BACKGROUND_WRITE_VALIDATOR, background);
+         Generator generator = newGenerator(RECORDS_PER_PARTITION)) {
+      final ParquetRecordWriter writer = newWriter();
+      setup(writer, generator);
+      writePartition(writer, generator, 0, RECORDS_PER_PARTITION);
+
+      // the file is created with the first record, its pages and footer are written when it's flushed.
+      FaultyFileSystem.failWrites = true;
+      try {
+        writer.close();
+        fail("Closing the writer should fail, as the file couldn't be written");
+      } catch (IOException e) {
+        // expected.
+      }
+    }
+
+    assertTrue(files.isEmpty());
+    assertEquals(1, FaultyFileSystem.streams.size());
+    assertTrue("The output stream of the failed file should be closed", FaultyFileSystem.streams.get(0).closed);
+  }
+
+  @Test
+  public void testCloseWaitsForPendingWrite() throws Exception {
+    testCloseWaitsForPendingWrite(true);
+    testCloseWaitsForPendingWrite(false);
+  }
+
+  private void testCloseWaitsForPendingWrite(boolean background) throws Exception {
+    files.clear();
+    // block the executor, so the file stays pending until the writer is being closed.
+    final CountDownLatch gate = new CountDownLatch(1);
+    executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        gate.await();
+        return null;
+      }
+    });
+
+    try (AutoCloseable option = with(ExecConstants.PARQUET_WRITER_BACKGROUND_WRITE_VALIDATOR, background);
+         Generator generator = newGenerator(RECORDS_PER_PARTITION)) {
+      final ParquetRecordWriter writer = newWriter();
+      setup(writer, generator);
+      writePartition(writer, generator, 0, RECORDS_PER_PARTITION);
+
+      if (background) {
+        openWhenWaiting(Thread.currentThread(), gate);
+      } else {
+        // files are written in place, the executor isn't used.
+        gate.countDown();
+      }
+      writer.close();
+      assertFalse(FaultyFileSystem.streams.isEmpty());
+    }
+
+    assertEquals(1, files.size());
+    checkFile(files.get(0), 0, RECORDS_PER_PARTITION);
+  }
+
+  /**
+   * Open the gate once the given thread waits, for the pending file to be written.
+   */
+  private static void openWhenWaiting(final Thread waiter, final CountDownLatch gate) {
+    final Thread opener = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (waiter.getState() != Thread.State.WAITING) {
+          Thread.yield();
+        }
+        gate.countDown();
+      }
+    });
+    opener.setDaemon(true);
+    opener.start();
+  }
+}
@@ -16,6 +16,7 @@
 package com.dremio.exec.store.parquet;
 
 import com.dremio.BaseTestQuery;
+import com.dremio.exec.ExecConstants;
 import com.google.common.io.Resources;
 
 import org.apache.hadoop.conf.Configuration;
@@ -62,4 +63,32 @@ public class TestParquetScan extends BaseTestQuery {
         .build()
         .run();
   }
+
+  @Test
+  public void testPrefetchReaders() throws Exception {
+    Path p = new Path("/tmp/nation_test_parquet_prefetch");
+    if (fs.exists(p)) {
+      fs.delete(p, true);
+    }
+
+    fs.mkdirs(p);
+
+    byte[] bytes = Resources.toByteArray(Resources.getResource("tpch/nation.parquet"));
+    for (int i = 0; i < 6; i++) {
+      FSDataOutputStream os = fs.create(new Path(p, "nation" + i + ".parquet"));
+      os.write(bytes);
+      os.close();
+    }
+
+    final String query = "select n_nationkey, n_name, n_regionkey from dfs.tmp.nation_test_parquet_prefetch";
+    testBuilder()
+        .sqlQuery(query)
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = 2", ExecConstants.SCAN_READER_PREFETCH_COUNT.getOptionName())
+        .optionSettingQueriesForBaseline("alter session set `%s` = 0", ExecConstants.SCAN_READER_PREFETCH_COUNT.getOptionName())
+        .sqlBaselineQuery(query)
+        .go();
+
+    test(String.format("alter session reset `%s`", ExecConstants.SCAN_READER_PREFETCH_COUNT.getOptionName()));
+  }
 }
@@ -252,6 +252,20 @@ public class BaseTestOperator extends ExecTest {
     }
   }
 
+  /**
+   * Create a context to test parts of operators, like record readers, outside of an operator. Test will automatically
+   * close the context.
+   * @param targetBatchSize The target record batch size.
+   * @return The operator context.
+   * @throws Exception
+   */
+  protected OperatorContextImpl newOperatorContext(int targetBatchSize) throws Exception {
+    final BufferAllocator childAllocator = testAllocator.newChildAllocator("operator-context", 0, Long.MAX_VALUE);
+    final OperatorContextImpl context = testContext.getNewOperatorContext(childAllocator, null, targetBatchSize);
+    testCloseables.add(context);
+    return context;
+  }
+
   protected static class OperatorTestContext implements AutoCloseable{
 
     SabotConfig config = DEFAULT_SABOT_CONFIG;
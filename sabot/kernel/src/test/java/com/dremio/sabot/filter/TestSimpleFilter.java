@@ -18,13 +18,23 @@ package com.dremio.sabot.filter;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
 
 import org.junit.Test;
 
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.Filter;
+import com.dremio.exec.proto.UserBitShared.MetricValue;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
 import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.DataRow;
 import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.Generator;
 import com.dremio.sabot.op.filter.FilterOperator;
+import com.dremio.sabot.op.filter.FilterOperator.Metric;
+import com.google.common.collect.Lists;
 
 public class TestSimpleFilter extends BaseTestOperator {
 
@@ -65,5 +75,109 @@ public class TestSimpleFilter extends BaseTestOperator {
     validateSingle(f, FilterOperator.class, input, output);
   }
 
+  @Test
+  public void adaptiveConjuncts() throws Exception {
+    // the first conjunct rejects nothing, so the second one is moved first at the first ranking, and stays there
+    Filter f = new Filter(null, toExpr("c0 >= 0 and c0 > 150"), 1f);
+    final List<DataRow> inputRows = Lists.newArrayList();
+    final List<DataRow> outputRows = Lists.newArrayList();
+    for (int i = 0; i < 200; i++) {
+      final String c1 = i % 3 == 0 ? "abc" : "xyz";
+      inputRows.add(tr(i, c1));
+      if (i > 150) {
+        outputRows.add(tr(i, c1));
+      }
+    }
+
+    Table input = t(th("c0", "c1"), inputRows.toArray(new DataRow[inputRows.size()]));
+    Table output = t(th("c0", "c1"), outputRows.toArray(new DataRow[outputRows.size()]));
+
+    // small batches, so that conjuncts get ranked several times
+    try (AutoCloseable options = with(ExecConstants.ENABLE_ADAPTIVE_FILTER, true)) {
+      validateSingle(f, FilterOperator.class, input, output, 5);
+
+      final OperatorProfile profile = filter(f, input, 5);
+      assertEquals(2, getMetric(profile, Metric.CONJUNCTS));
+      assertEquals(1, getMetric(profile, Metric.REORDERS));
+      assertEquals(1, getMetric(profile, Metric.FIRST_CONJUNCT));
+    }
+  }
 
+  @Test
+  public void adaptiveConjunctsKeepGuards() throws Exception {
+    // the division fails on the records the second conjunct rejects, so it stays last while the others are reordered
+    Filter f = new Filter(null, toExpr("c0 >= 0 and c0 <> 0 and 1000 / c0 > 50"), 1f);
+    final List<DataRow> inputRows = Lists.newArrayList();
+    final List<DataRow> outputRows = Lists.newArrayList();
+    for (int i = 0; i < 200; i++) {
+      final int c0 = i % 50;
+      inputRows.add(tr(c0));
+      if (c0 != 0 && 1000 / c0 > 50) {
+        outputRows.add(tr(c0));
+      }
+    }
+
+    Table input = t(th("c0"), inputRows.toArray(new DataRow[inputRows.size()]));
+    Table output = t(th("c0"), outputRows.toArray(new DataRow[outputRows.size()]));
+
+    try (AutoCloseable options = with(ExecConstants.ENABLE_ADAPTIVE_FILTER, true)) {
+      validateSingle(f, FilterOperator.class, input, output, 5);
+
+      final OperatorProfile profile = filter(f, input, 5);
+      assertEquals(3, getMetric(profile, Metric.CONJUNCTS));
+      assertEquals(1, getMetric(profile, Metric.REORDERS));
+      assertEquals(1, getMetric(profile, Metric.FIRST_CONJUNCT));
+    }
+  }
+
+  @Test
+  public void adaptiveConjunctsWithLike() throws Exception {
+    // matching a literal pattern can't fail, so the like conjunct, which rejects nothing, is moved after the other one
+    Filter f = new Filter(null, toExpr("like(c1, '%') and c0 > 150"), 1f);
+    final List<DataRow> inputRows = Lists.newArrayList();
+    final List<DataRow> outputRows = Lists.newArrayList();
+    for (int i = 0; i < 200; i++) {
+      final String c1 = i % 3 == 0 ? "abc" : "xyz";
+      inputRows.add(tr(i, c1));
+      if (i > 150) {
+        outputRows.add(tr(i, c1));
+      }
+    }
+
+    Table input = t(th("c0", "c1"), inputRows.toArray(new DataRow[inputRows.size()]));
+    Table output = t(th("c0", "c1"), outputRows.toArray(new DataRow[outputRows.size()]));
+
+    try (AutoCloseable options = with(ExecConstants.ENABLE_ADAPTIVE_FILTER, true)) {
+      validateSingle(f, FilterOperator.class, input, output, 5);
+
+      final OperatorProfile profile = filter(f, input, 5);
+      assertEquals(2, getMetric(profile, Metric.CONJUNCTS));
+      assertEquals(1, getMetric(profile, Metric.REORDERS));
+      assertEquals(1, getMetric(profile, Metric.FIRST_CONJUNCT));
+    }
+  }
+
+  private OperatorProfile filter(Filter f, Table input, int batchSize) throws Exception {
+    try (FilterOperator op = newOperator(FilterOperator.class, f, batchSize);
+         Generator generator = input.toGenerator(getTestAllocator())) {
+      op.setup(generator.getOutput());
+      op.getOperatorContext().getStats().startProcessing();
+      int count;
+      while ((count = generator.next(batchSize)) != 0) {
+        op.consumeData(count);
+        op.outputData();
+      }
+      op.noMoreToConsume();
+      return op.getOperatorContext().getStats().getProfile();
+    }
+  }
+
+  private static long getMetric(OperatorProfile profile, Metric metric) {
+    for (MetricValue value : profile.getMetricList()) {
+      if (value.getMetricId() == metric.metricId()) {
+        return value.getLongValue();
+      }
+    }
+    throw new AssertionError("metric not found: " + metric);
+  }
 }
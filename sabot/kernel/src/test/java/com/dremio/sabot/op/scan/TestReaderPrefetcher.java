@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.dremio.exec.store.RecordReader;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ReaderPrefetcher}
+ */
+public class TestReaderPrefetcher {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+  }
+
+  private static List<RecordReader> readers(int count) {
+    final ImmutableList.Builder<RecordReader> builder = ImmutableList.builder();
+    for (int i = 0; i < count; i++) {
+      builder.add(mock(RecordReader.class));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Iterator counting how many readers were created.
+   */
+  private static class CountingIterator implements PrefetchableReaderIterator {
+    private final Iterator<RecordReader> delegate;
+    private final AtomicInteger created = new AtomicInteger();
+
+    CountingIterator(List<RecordReader> readers) {
+      this.delegate = readers.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public RecordReader next() {
+      created.incrementAndGet();
+      return delegate.next();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Wait for the tasks submitted to the executor so far to complete.
+   */
+  private void awaitExecutor() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        done.countDown();
+      }
+    });
+    done.await();
+  }
+
+  @Test
+  public void testReadersInOrder() throws Exception {
+    final List<RecordReader> readers = readers(10);
+    try (ReaderPrefetcher prefetcher = new ReaderPrefetcher(new CountingIterator(readers), mock(OperatorStats.class), executor, 2)) {
+      for (RecordReader reader : readers) {
+        assertTrue(prefetcher.hasNext());
+        assertSame(reader, prefetcher.next());
+      }
+      assertFalse(prefetcher.hasNext());
+      assertEquals(10, prefetcher.getPrefetchedReaders());
+    }
+  }
+
+  @Test
+  public void testBoundedPrefetch() throws Exception {
+    final CountingIterator iterator = new CountingIterator(readers(10));
+    try (ReaderPrefetcher prefetcher = new ReaderPrefetcher(iterator, mock(OperatorStats.class), executor, 2)) {
+      // the executor is single threaded, so fetches submitted before are done once it runs the next task.
+      awaitExecutor();
+      assertEquals(2, iterator.created.get());
+
+      prefetcher.next();
+      awaitExecutor();
+      // one consumed, at most two ahead
+      assertEquals(3, iterator.created.get());
+
+      prefetcher.next();
+      prefetcher.next();
+      awaitExecutor();
+      assertEquals(5, iterator.created.get());
+    }
+  }
+
+  @Test
+  public void testCloseUnusedReaders() throws Exception {
+    final List<RecordReader> readers = readers(3);
+    final ReaderPrefetcher prefetcher = new ReaderPrefetcher(new CountingIterator(readers), mock(OperatorStats.class), executor, 2);
+    final RecordReader first = prefetcher.next();
+    prefetcher.close();
+    // the consumed reader is owned by the consumer
+    verify(first, never()).close();
+    verify(readers.get(1)).close();
+    verify(readers.get(2)).close();
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    final PrefetchableReaderIterator failing = new PrefetchableReaderIterator() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public RecordReader next() {
+        throw new IllegalStateException("unable to open file");
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    try (ReaderPrefetcher prefetcher = new ReaderPrefetcher(failing, mock(OperatorStats.class), executor, 1)) {
+      prefetcher.next();
+      fail("expected failure to be propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("unable to open file", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testWaitOnlyWhenBlocked() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<RecordReader> readers = readers(2);
+    final CountingIterator blocking = new CountingIterator(readers) {
+      @Override
+      public RecordReader next() {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return super.next();
+      }
+    };
+
+    // the first reader is created once the consumer blocks on it.
+    final OperatorStats stats = mock(OperatorStats.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        release.countDown();
+        return null;
+      }
+    }).when(stats).startWait();
+
+    try (ReaderPrefetcher prefetcher = new ReaderPrefetcher(blocking, stats, executor, 1)) {
+      assertSame(readers.get(0), prefetcher.next());
+      verify(stats).startWait();
+      verify(stats).stopWait();
+
+      // the second one is ready once the fetch is done, nothing to wait for.
+      awaitExecutor();
+      assertSame(readers.get(1), prefetcher.next());
+      verify(stats).startWait();
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_DATE;
+import static com.dremio.sabot.Fixtures.NULL_DOUBLE;
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.date;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.tb;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static java.util.Collections.singletonList;
+
+import java.util.Arrays;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.calcite.rel.RelFieldCollation.NullDirection;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.Table;
+
+/**
+ * Checks that sorting on normalized keys produces the same order as the generated comparator, for both values of
+ * {@link ExecConstants#EXTERNAL_SORT_ENABLE_NORMALIZED_KEYS}.
+ */
+public class TestNormalizedKeySort extends BaseTestOperator {
+
+  private static final Table SINGLE_INT = t(
+      th("c0"),
+      tb(
+          tr(5),
+          tr(NULL_INT),
+          tr(-3)
+      ),
+      tb(
+          tr(Integer.MAX_VALUE),
+          tr(0),
+          tr(NULL_INT)
+      ),
+      tb(
+          tr(Integer.MIN_VALUE),
+          tr(-1),
+          tr(5)
+      )
+  );
+
+  @Test
+  public void ascendingNullsFirst() throws Exception {
+    final Table expected = t(
+        th("c0"),
+        tr(NULL_INT),
+        tr(NULL_INT),
+        tr(Integer.MIN_VALUE),
+        tr(-3),
+        tr(-1),
+        tr(0),
+        tr(5),
+        tr(5),
+        tr(Integer.MAX_VALUE)
+    );
+    validateSort(new ExternalSort(null, singletonList(ordering("c0", Direction.ASCENDING, NullDirection.FIRST)), false),
+        SINGLE_INT, expected);
+  }
+
+  @Test
+  public void ascendingNullsLast() throws Exception {
+    final Table expected = t(
+        th("c0"),
+        tr(Integer.MIN_VALUE),
+        tr(-3),
+        tr(-1),
+        tr(0),
+        tr(5),
+        tr(5),
+        tr(Integer.MAX_VALUE),
+        tr(NULL_INT),
+        tr(NULL_INT)
+    );
+    validateSort(new ExternalSort(null, singletonList(ordering("c0", Direction.ASCENDING, NullDirection.LAST)), false),
+        SINGLE_INT, expected);
+  }
+
+  @Test
+  public void descendingNullsFirst() throws Exception {
+    final Table expected = t(
+        th("c0"),
+        tr(NULL_INT),
+        tr(NULL_INT),
+        tr(Integer.MAX_VALUE),
+        tr(5),
+        tr(5),
+        tr(0),
+        tr(-1),
+        tr(-3),
+        tr(Integer.MIN_VALUE)
+    );
+    validateSort(new ExternalSort(null, singletonList(ordering("c0", Direction.DESCENDING, NullDirection.FIRST)), false),
+        SINGLE_INT, expected);
+  }
+
+  @Test
+  public void descendingNullsLast() throws Exception {
+    final Table expected = t(
+        th("c0"),
+        tr(Integer.MAX_VALUE),
+        tr(5),
+        tr(5),
+        tr(0),
+        tr(-1),
+        tr(-3),
+        tr(Integer.MIN_VALUE),
+        tr(NULL_INT),
+        tr(NULL_INT)
+    );
+    validateSort(new ExternalSort(null, singletonList(ordering("c0", Direction.DESCENDING, NullDirection.LAST)), false),
+        SINGLE_INT, expected);
+  }
+
+  @Test
+  public void multipleKeysMixedTypes() throws Exception {
+    final Table input = t(
+        th("k0", "k1", "k2", "k3"),
+        tb(
+            tr(1, 2.5d, date("2018-01-02"), 10L),
+            tr(NULL_INT, -1.5d, date("2018-01-01"), 20L),
+            tr(1, NULL_DOUBLE, date("2018-01-01"), 30L),
+            tr(1, 2.5d, NULL_DATE, 40L)
+        ),
+        tb(
+            tr(0, 0.0d, date("2017-12-31"), NULL_BIGINT),
+            tr(1, 2.5d, date("2018-01-02"), -10L),
+            tr(NULL_INT, 3.0d, date("2018-01-01"), 50L),
+            tr(1, -7.25d, date("2018-01-01"), 60L)
+        ),
+        tb(
+            tr(1, 2.5d, date("2018-01-02"), NULL_BIGINT),
+            tr(0, 0.0d, date("2017-12-31"), Long.MIN_VALUE),
+            tr(-2, 100.0d, date("2020-06-30"), 70L)
+        )
+    );
+
+    // k0 ascending nulls last, k1 descending nulls first, k2 ascending nulls first, k3 descending nulls last
+    final Table expected = t(
+        th("k0", "k1", "k2", "k3"),
+        tr(-2, 100.0d, date("2020-06-30"), 70L),
+        tr(0, 0.0d, date("2017-12-31"), Long.MIN_VALUE),
+        tr(0, 0.0d, date("2017-12-31"), NULL_BIGINT),
+        tr(1, NULL_DOUBLE, date("2018-01-01"), 30L),
+        tr(1, 2.5d, NULL_DATE, 40L),
+        tr(1, 2.5d, date("2018-01-02"), 10L),
+        tr(1, 2.5d, date("2018-01-02"), -10L),
+        tr(1, 2.5d, date("2018-01-02"), NULL_BIGINT),
+        tr(1, -7.25d, date("2018-01-01"), 60L),
+        tr(NULL_INT, 3.0d, date("2018-01-01"), 50L),
+        tr(NULL_INT, -1.5d, date("2018-01-01"), 20L)
+    );
+
+    final ExternalSort sort = new ExternalSort(null, Arrays.asList(
+        ordering("k0", Direction.ASCENDING, NullDirection.LAST),
+        ordering("k1", Direction.DESCENDING, NullDirection.FIRST),
+        ordering("k2", Direction.ASCENDING, NullDirection.FIRST),
+        ordering("k3", Direction.DESCENDING, NullDirection.LAST)), false);
+    validateSort(sort, input, expected);
+  }
+
+  private void validateSort(ExternalSort sort, Table input, Table expected) throws Exception {
+    for (boolean normalizedKeys : new boolean[] {true, false}) {
+      try (AutoCloseable option = with(ExecConstants.EXTERNAL_SORT_ENABLE_NORMALIZED_KEYS, normalizedKeys)) {
+        // a small batch size so that the sorted output spans several batches
+        validateSingle(sort, ExternalSortOperator.class, input, expected, 4);
+      }
+    }
+  }
+}
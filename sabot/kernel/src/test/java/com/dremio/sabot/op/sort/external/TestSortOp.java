@@ -76,7 +76,7 @@ public class TestSortOp extends BaseTestOperator {
       assertEquals("DiskRunManager: Unable to secure enough memory to merge spilled sort data.", uex.getContextStrings().get(1));
       assertEquals("Target Batch Size (in bytes) 236000", uex.getContextStrings().get(2));
       assertEquals("Target Batch Size 4000", uex.getContextStrings().get(3));
-      assertEquals(34, uex.getContextStrings().size());
+      assertEquals(39, uex.getContextStrings().size());
     }
   }
 
@@ -92,7 +92,7 @@ public class TestSortOp extends BaseTestOperator {
       assertEquals("Memory failed due to not enough memory to sort even one batch of records.", uex.getContextStrings().get(0));
       assertEquals("Target Batch Size (in bytes) 590000", uex.getContextStrings().get(1));
       assertEquals("Target Batch Size 10000", uex.getContextStrings().get(2));
-      assertEquals(33, uex.getContextStrings().size());
+      assertEquals(38, uex.getContextStrings().size());
     }
   }
 
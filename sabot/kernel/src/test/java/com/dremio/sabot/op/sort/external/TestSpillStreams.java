@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AsyncSpillOutputStream} and {@link ReadAheadSpillInputStream}
+ */
+public class TestSpillStreams {
+
+  private ExecutorService executor;
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(2);
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+    // fails if one of the streams leaked its buffers
+    allocator.close();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    testRoundTrip(executor);
+  }
+
+  @Test
+  public void testRoundTripWithoutExecutor() throws Exception {
+    testRoundTrip(null);
+  }
+
+  private void testRoundTrip(ExecutorService executor) throws Exception {
+    final byte[] data = new byte[100_000];
+    new Random(42).nextBytes(data);
+
+    final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    try (AsyncSpillOutputStream out = new AsyncSpillOutputStream(sink, allocator, executor, 1000)) {
+      assertEquals(2000, allocator.getAllocatedMemory());
+      int position = 0;
+      while (position < data.length) {
+        final int length = Math.min(777, data.length - position);
+        out.write(data, position, length);
+        position += length;
+        // flush after each "batch", like VectorAccessibleSerializable does.
+        out.flush();
+        assertEquals(sink.size(), out.getBytesWritten());
+        out.write(0x7F);
+      }
+      out.close();
+      assertEquals(sink.size(), out.getBytesWritten());
+    }
+
+    final byte[] written = sink.toByteArray();
+    final byte[] read = new byte[written.length];
+    try (ReadAheadSpillInputStream in = new ReadAheadSpillInputStream(new ByteArrayInputStream(written), allocator, executor,
+        1000)) {
+      int position = 0;
+      int b;
+      while ((b = in.read()) != -1) {
+        read[position++] = (byte) b;
+        final int length = in.read(read, position, Math.min(500, read.length - position));
+        if (length == -1) {
+          break;
+        }
+        position += length;
+      }
+      assertEquals(written.length, position);
+      assertEquals(-1, in.read());
+      assertEquals(written.length, in.getBytesRead());
+    }
+    assertArrayEquals(written, read);
+  }
+
+  @Test
+  public void testWriteFailure() throws Exception {
+    final OutputStream failing = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("disk full");
+      }
+    };
+
+    final AsyncSpillOutputStream out = new AsyncSpillOutputStream(failing, allocator, executor, 10);
+    try {
+      out.write(new byte[100]);
+      fail("Expected the write failure to be surfaced");
+    } catch (IOException e) {
+      assertEquals("disk full", e.getMessage());
+    }
+
+    try {
+      out.close();
+      fail("Expected the write failure to be surfaced");
+    } catch (IOException e) {
+      assertEquals("disk full", e.getMessage());
+    }
+    // the buffers are released even though closing failed
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testFlushReachesUnderlyingStream() throws Exception {
+    final int[] flushes = {0};
+    final ByteArrayOutputStream sink = new ByteArrayOutputStream() {
+      @Override
+      public void flush() throws IOException {
+        flushes[0]++;
+      }
+    };
+
+    try (AsyncSpillOutputStream out = new AsyncSpillOutputStream(sink, allocator, executor, 1000)) {
+      out.write(new byte[10]);
+      out.flush();
+      // the data is written and the underlying stream flushed before flush returns
+      assertEquals(10, sink.size());
+      assertEquals(1, flushes[0]);
+
+      out.write(new byte[2500]);
+      out.flush();
+      assertEquals(2510, sink.size());
+      assertEquals(2, flushes[0]);
+    }
+  }
+
+  @Test
+  public void testReadFailure() throws Exception {
+    final InputStream failing = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("bad sector");
+      }
+    };
+
+    final ReadAheadSpillInputStream in = new ReadAheadSpillInputStream(failing, allocator, executor, 10);
+    try {
+      in.read();
+      fail("Expected the read failure to be surfaced");
+    } catch (IOException e) {
+      assertEquals("bad sector", e.getMessage());
+    } finally {
+      in.close();
+    }
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+}
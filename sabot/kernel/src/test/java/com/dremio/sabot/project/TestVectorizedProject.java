@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.project;
+
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_BOOLEAN;
+import static com.dremio.sabot.Fixtures.NULL_DOUBLE;
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+
+import org.junit.Test;
+
+import com.dremio.exec.physical.config.Project;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.op.project.ProjectOperator;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for the expressions the {@link ProjectOperator} evaluates over whole vectors.
+ */
+public class TestVectorizedProject extends BaseTestOperator {
+
+  @Test
+  public void arithmeticAndComparisons() throws Exception {
+    final Project conf = new Project(ImmutableList.of(
+        n("c0 + c1", "sum"),
+        n("c0 * 3i", "triple"),
+        n("c2 - c3", "diff"),
+        n("c0 < c1", "lt"),
+        n("c2 = c3", "eq"),
+        n("c4 * c4", "square")), null);
+
+    final Table input = t(
+        th("c0", "c1", "c2", "c3", "c4"),
+        tr(1, 2, 10L, 10L, 1.5d),
+        tr(2, 1, 20L, 5L, 2.0d),
+        tr(NULL_INT, 1, NULL_BIGINT, 5L, NULL_DOUBLE),
+        tr(3, NULL_INT, 7L, NULL_BIGINT, -1.0d),
+        tr(Integer.MAX_VALUE, 1, Long.MIN_VALUE, 1L, 0.5d),
+        tr(-4, -4, -4L, -4L, 3.0d),
+        tr(5, 6, 0L, 1L, 0.0d),
+        tr(6, 5, 1L, 0L, 10.0d),
+        tr(7, 8, 2L, 2L, -2.0d),
+        tr(8, 7, 3L, 2L, 4.0d),
+        tr(9, 9, 4L, 5L, 1.0d)
+    );
+
+    final Table expected = t(
+        th("sum", "triple", "diff", "lt", "eq", "square"),
+        tr(3, 3, 0L, true, true, 2.25d),
+        tr(3, 6, 15L, false, false, 4.0d),
+        tr(NULL_INT, NULL_INT, NULL_BIGINT, NULL_BOOLEAN, NULL_BOOLEAN, NULL_DOUBLE),
+        tr(NULL_INT, 9, NULL_BIGINT, NULL_BOOLEAN, NULL_BOOLEAN, 1.0d),
+        tr(Integer.MIN_VALUE, Integer.MAX_VALUE * 3, Long.MAX_VALUE, false, false, 0.25d),
+        tr(-8, -12, 0L, false, true, 9.0d),
+        tr(11, 15, -1L, true, false, 0.0d),
+        tr(11, 18, 1L, false, false, 100.0d),
+        tr(15, 21, 0L, true, true, 4.0d),
+        tr(15, 24, 1L, false, false, 16.0d),
+        tr(18, 27, -1L, false, false, 1.0d)
+    );
+
+    // batches of 4 records, so that comparison results don't fill whole bytes
+    validateSingle(conf, ProjectOperator.class, input, expected, 4);
+    validateSingle(conf, ProjectOperator.class, input, expected);
+  }
+}
@@ -15,7 +15,11 @@
  */
 package com.dremio.sabot.sender.partition;
 
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -31,15 +35,24 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.MinorFragmentEndpoint;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.UserBitShared.MetricValue;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.CustomGenerator;
+import com.dremio.sabot.Fixtures.DataRow;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.Generator;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
+import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.dremio.sabot.op.sender.partition.vectorized.VectorizedPartitionSenderOperator;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 
 import io.netty.buffer.ByteBuf;
 
@@ -65,12 +78,121 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
 
   @Test
   public void testNumPartitions() throws Exception {
-    HashPartitionSender sender = new HashPartitionSender(1, null, f(CustomGenerator.ID.getName()),
-      getEndpoints(),
-      generator.getSchema()
-    );
+    final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    final long[] bytesPerFragment = new long[NUM_FRAGMENTS];
+    final OperatorProfile profile = send(generator, CustomGenerator.ID.getName(), NUM_ROWS, rowCountPerFragment,
+      bytesPerFragment);
+
+    int sum = 0;
+    assertEquals(8, VectorizedPartitionSenderOperator.PARTITION_MULTIPLE ); // Min/Max computed for 8 partitions. Higher multiples have tighter bounds, and vice versa
+    for (int i = 0; i < NUM_FRAGMENTS; i++) {
+      assert (rowCountPerFragment[i] >= MIN_NUM_PER_FRAGMENT);
+      assert (rowCountPerFragment[i] <= MAX_NUM_PER_FRAGMENT);
+      sum += rowCountPerFragment[i];
+    }
+    assertEquals(NUM_ROWS, sum);
+
+    assertEquals(Ints.min(rowCountPerFragment), getMetric(profile, Metric.MIN_RECORDS));
+    assertEquals(Ints.max(rowCountPerFragment), getMetric(profile, Metric.MAX_RECORDS));
+    assertEquals(Longs.min(bytesPerFragment), getMetric(profile, Metric.MIN_BYTES));
+    assertEquals(Longs.max(bytesPerFragment), getMetric(profile, Metric.MAX_BYTES));
+    assertEquals(0, getMetric(profile, Metric.SKEWED_RECEIVERS));
+  }
+
+  @Test
+  public void testSkewedReceivers() throws Exception {
+    // all the rows share the same key, so a single receiver gets all of them.
+    final DataRow[] rows = new DataRow[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      rows[i] = tr(7, (long) i);
+    }
+    final Table table = t(th("key", "value"), rows);
 
     final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    final long[] bytesPerFragment = new long[NUM_FRAGMENTS];
+    final OperatorProfile profile;
+    // with three receivers, a receiver can't be sent more than three times the average.
+    try (AutoCloseable option = with(ExecConstants.PARTITION_SENDER_SKEW_FACTOR, 2.0);
+         Generator skewed = table.toGenerator(getTestAllocator())) {
+      profile = send(skewed, "key", NUM_ROWS, rowCountPerFragment, bytesPerFragment);
+    }
+
+    assertEquals(0, Ints.min(rowCountPerFragment));
+    assertEquals(NUM_ROWS, Ints.max(rowCountPerFragment));
+    assertEquals(0, getMetric(profile, Metric.MIN_RECORDS));
+    assertEquals(NUM_ROWS, getMetric(profile, Metric.MAX_RECORDS));
+    assertEquals(Longs.min(bytesPerFragment), getMetric(profile, Metric.MIN_BYTES));
+    assertEquals(Longs.max(bytesPerFragment), getMetric(profile, Metric.MAX_BYTES));
+    assertTrue(getMetric(profile, Metric.MAX_BYTES) > getMetric(profile, Metric.MIN_BYTES));
+    assertEquals(1, getMetric(profile, Metric.SKEWED_RECEIVERS));
+  }
+
+  @Test
+  public void testSplitHotKeys() throws Exception {
+    // all the rows share the same key, except for a few rows of a second key
+    final DataRow[] rows = new DataRow[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      rows[i] = tr(i % 20 == 0 ? 8 : 7, (long) i);
+    }
+    final Table table = t(th("key", "value"), rows);
+
+    final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    final long[] bytesPerFragment = new long[NUM_FRAGMENTS];
+    final OperatorProfile profile;
+    try (AutoCloseable split = with(ExecConstants.PARTITION_SENDER_SPLIT_HOT_KEYS, true);
+         AutoCloseable option = with(ExecConstants.PARTITION_SENDER_SKEW_FACTOR, 2.0);
+         Generator skewed = table.toGenerator(getTestAllocator())) {
+      // the hot key is detected after the first batch, the rows of the next batches are spread to all receivers
+      profile = send(skewed, "key", NUM_ROWS, 50, true, rowCountPerFragment, bytesPerFragment);
+    }
+
+    // keys 7 and 8 go to receivers 1 and 2. 47 rows of key 7 are sent to receiver 1 before it's detected as hot,
+    // then its 143 remaining rows are sent round-robin to receivers 1, 2 and 0.
+    assertEquals(47, rowCountPerFragment[0]);
+    assertEquals(47 + 48, rowCountPerFragment[1]);
+    assertEquals(10 + 48, rowCountPerFragment[2]);
+    assertEquals(1, getMetric(profile, Metric.HOT_KEYS));
+    assertEquals(95, getMetric(profile, Metric.SPLIT_RECORDS));
+  }
+
+  @Test
+  public void testHotKeysNotSplitUnlessAllowed() throws Exception {
+    final DataRow[] rows = new DataRow[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      rows[i] = tr(7, (long) i);
+    }
+    final Table table = t(th("key", "value"), rows);
+
+    final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    final long[] bytesPerFragment = new long[NUM_FRAGMENTS];
+    final OperatorProfile profile;
+    try (AutoCloseable split = with(ExecConstants.PARTITION_SENDER_SPLIT_HOT_KEYS, true);
+         AutoCloseable option = with(ExecConstants.PARTITION_SENDER_SKEW_FACTOR, 2.0);
+         Generator skewed = table.toGenerator(getTestAllocator())) {
+      // the exchange needs the rows of a key to be colocated
+      profile = send(skewed, "key", NUM_ROWS, 50, false, rowCountPerFragment, bytesPerFragment);
+    }
+
+    assertEquals(NUM_ROWS, Ints.max(rowCountPerFragment));
+    assertEquals(1, getMetric(profile, Metric.SKEWED_RECEIVERS));
+  }
+
+  private OperatorProfile send(Generator generator, String field, int numRows, final int[] rowCountPerFragment,
+      final long[] bytesPerFragment) throws Exception {
+    return send(generator, field, numRows, DEFAULT_BATCH, false, rowCountPerFragment, bytesPerFragment);
+  }
+
+  /**
+   * Partition the records of the generator on the given field, in batches of batchSize records, and collect the
+   * records and bytes sent to each receiver.
+   */
+  private OperatorProfile send(Generator generator, String field, int numRows, int batchSize, boolean splitHotKeys,
+      final int[] rowCountPerFragment, final long[] bytesPerFragment) throws Exception {
+    HashPartitionSender sender = new HashPartitionSender(1, null, f(field),
+      getEndpoints(),
+      generator.getOutput().getSchema(),
+      splitHotKeys
+    );
 
     final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
     doAnswer(new Answer<Void>(){
@@ -79,6 +201,7 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
         final FragmentWritableBatch batch = (FragmentWritableBatch) invocation.getArguments()[0];
         for (int fragId : batch.getHeader().getReceivingMinorFragmentIdList()) {
           rowCountPerFragment[fragId] += batch.getRecordCount();
+          bytesPerFragment[fragId] += batch.getByteCount();
         }
         for(ByteBuf b : batch.getBuffers()){
           b.release();
@@ -89,19 +212,28 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
     final TunnelProvider provider = mock(TunnelProvider.class);
     when(provider.getExecTunnel(any(NodeEndpoint.class))).thenReturn(tunnel);
 
-    VectorizedPartitionSenderOperator op = newOperator(VectorizedPartitionSenderOperator.class, sender, DEFAULT_BATCH, provider);
-    op.setup(generator.getOutput());
-    op.getOperatorContext().getStats().startProcessing();
-    op.consumeData(generator.next(DEFAULT_BATCH));
-    op.noMoreToConsume();
-    int sum = 0;
-    assertEquals(8, VectorizedPartitionSenderOperator.PARTITION_MULTIPLE ); // Min/Max computed for 8 partitions. Higher multiples have tighter bounds, and vice versa
-    for (int i = 0; i < NUM_FRAGMENTS; i++) {
-      assert (rowCountPerFragment[i] >= MIN_NUM_PER_FRAGMENT);
-      assert (rowCountPerFragment[i] <= MAX_NUM_PER_FRAGMENT);
-      sum += rowCountPerFragment[i];
+    try (VectorizedPartitionSenderOperator op = newOperator(VectorizedPartitionSenderOperator.class, sender,
+        DEFAULT_BATCH, provider)) {
+      op.setup(generator.getOutput());
+      op.getOperatorContext().getStats().startProcessing();
+      int remaining = numRows;
+      while (remaining > 0) {
+        final int count = generator.next(Math.min(remaining, batchSize));
+        op.consumeData(count);
+        remaining -= count;
+      }
+      op.noMoreToConsume();
+      return op.getOperatorContext().getStats().getProfile();
     }
-    assertEquals(NUM_ROWS, sum);
+  }
+
+  private static long getMetric(OperatorProfile profile, Metric metric) {
+    for (MetricValue value : profile.getMetricList()) {
+      if (value.getMetricId() == metric.metricId()) {
+        return value.getLongValue();
+      }
+    }
+    throw new AssertionError("metric not found: " + metric);
   }
 
   public List<MinorFragmentEndpoint> getEndpoints() {
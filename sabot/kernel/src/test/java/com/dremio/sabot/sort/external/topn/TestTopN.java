@@ -15,11 +15,13 @@
  */
 package com.dremio.sabot.sort.external.topn;
 
+import static com.dremio.sabot.Fixtures.NULL_INT;
 import static com.dremio.sabot.Fixtures.tb;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Properties;
 
@@ -108,5 +110,71 @@ public class TestTopN extends BaseTestOperator {
     validateSingle(topn, TopNOperator.class, input, output);
   }
 
+  @Test
+  public void topNDataWithThresholdFilter() throws Exception {
+
+    Table input = t(
+      th("c0"),
+      tb(
+        tr(5),
+        tr(NULL_INT),
+        tr(3)
+      ),
+      tb(
+        tr(1),
+        tr(NULL_INT),
+        tr(2)
+      ),
+      tb(
+        tr(9),
+        tr(5),
+        tr(NULL_INT)
+      ),
+      tb(
+        tr(4),
+        tr(0)
+      )
+    );
+
+    Table output = t(
+      th("c0"),
+      tr(9),
+      tr(5),
+      tr(5)
+    );
+
+    TopN topn = new TopN(null, Collections.singletonList(ordering("c0", Direction.DESCENDING, NullDirection.LAST)), false, 3);
+    validateSingle(topn, TopNOperator.class, input, output);
+  }
+
+  @Test
+  public void topNDataWithThresholdFilterMultipleKeys() throws Exception {
+
+    Table input = t(
+      th("c0", "c1"),
+      tb(
+        tr(1, 5),
+        tr(2, 1)
+      ),
+      tb(
+        tr(1, 3),
+        tr(3, 0)
+      ),
+      tb(
+        tr(1, 1),
+        tr(2, 0)
+      )
+    );
 
+    Table output = t(
+      th("c0", "c1"),
+      tr(1, 1),
+      tr(1, 3)
+    );
+
+    TopN topn = new TopN(null, Arrays.asList(
+      ordering("c0", Direction.ASCENDING, NullDirection.FIRST),
+      ordering("c1", Direction.ASCENDING, NullDirection.FIRST)), false, 2);
+    validateSingle(topn, TopNOperator.class, input, output);
+  }
 }
@@ -101,7 +101,9 @@ public class Job {
   }
 
   public boolean hasResults() {
-    return resultsStore != null && resultsStore.jobOutputDirectoryExists(jobId);
+    // results served from the results cache are stored with the job they were cached from.
+    final JobId resultsJobId = getJobAttempt().getInfo().getResultsJobId();
+    return resultsStore != null && resultsStore.jobOutputDirectoryExists(resultsJobId != null ? resultsJobId : jobId);
   }
 
   @Override
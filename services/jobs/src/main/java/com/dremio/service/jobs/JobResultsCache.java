@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
+import com.dremio.exec.server.options.OptionManager;
+import com.dremio.exec.work.user.SubstitutionSettings;
+import com.dremio.service.job.proto.Acceleration;
+import com.dremio.service.job.proto.JobAttempt;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobInfo;
+import com.dremio.service.job.proto.JobResult;
+import com.dremio.service.job.proto.JobState;
+import com.dremio.service.job.proto.ParentDatasetInfo;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.job.proto.ScanPath;
+import com.dremio.service.jobs.metadata.QueryMetadata;
+import com.dremio.service.namespace.NamespaceException;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.ParentDataset;
+import com.dremio.service.namespace.proto.NameSpaceContainer;
+import com.dremio.service.namespace.source.proto.MetadataPolicy;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Cache of the results of successful jobs, so repeated queries (dashboards refreshing the same sql over and over) are
+ * served the stored results of a previous job instead of running again.
+ *
+ * Results are keyed by the sql text, its context, the user, the query type and the options which differ from their
+ * defaults. Requests excluding reflections from acceleration aren't cached. An entry records the versions of the
+ * datasets the job read (its parents, their ancestors and the scanned tables) and of their sources, and the
+ * reflections it was accelerated with: it is only served if none of the datasets or sources changed since, the
+ * reflections are still available and the stored results still exist. Entries expire after the configured max age,
+ * or earlier if a source they read re-checks its dataset definitions more often. Entries are weighed by the size of
+ * their stored results and evicted in least recently used order.
+ */
+class JobResultsCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsCache.class);
+
+  private static final Set<QueryType> CACHEABLE_TYPES = ImmutableSet.of(QueryType.UI_RUN, QueryType.UI_PREVIEW,
+      QueryType.UI_INTERNAL_RUN, QueryType.UI_INTERNAL_PREVIEW, QueryType.REST);
+
+  private final NamespaceService namespace;
+  private final JobResultsStore resultsStore;
+  private final Cache<Key, CachedResults> results;
+
+  JobResultsCache(NamespaceService namespace, JobResultsStore resultsStore, long maxSizeInBytes) {
+    this.namespace = namespace;
+    this.resultsStore = resultsStore;
+    this.results = CacheBuilder.newBuilder()
+        .maximumWeight(maxSizeInBytes)
+        .weigher(new Weigher<Key, CachedResults>() {
+          @Override
+          public int weigh(Key key, CachedResults value) {
+            return (int) Math.min(value.size, Integer.MAX_VALUE);
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @return key of the given request, or null if its results can't be cached.
+   */
+  static Key newKey(JobRequest request, OptionManager options) {
+    if (!CACHEABLE_TYPES.contains(request.getQueryType())) {
+      return null;
+    }
+    final SubstitutionSettings substitutionSettings = request.getSubstitutionSettings();
+    if (substitutionSettings != null && !substitutionSettings.getExclusions().isEmpty()) {
+      // the results of other requests may have been accelerated by the excluded reflections.
+      return null;
+    }
+    final List<String> context = request.getSqlQuery().getContext();
+    return new Key(request.getSqlQuery().getSql().trim(),
+        context == null ? ImmutableList.<String>of() : ImmutableList.copyOf(context),
+        request.getUsername(), request.getQueryType(), PlanCache.getChangedOptions(options));
+  }
+
+  /**
+   * @param materializations ids of the materializations currently available for acceleration
+   * @return cached results for the key, or null if there are none or they are stale.
+   */
+  CachedResults get(Key key, Set<String> materializations) {
+    final CachedResults cached = results.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+
+    if (System.currentTimeMillis() >= cached.expiresAt
+        || !materializations.containsAll(cached.materializations)
+        || !resultsStore.jobOutputDirectoryExists(cached.jobId)
+        || !cached.versions.equals(snapshot(cached.versions.datasets.keySet()))) {
+      logger.debug("Cached results of query {} are stale.", key.sql);
+      results.invalidate(key);
+      return null;
+    }
+    return cached;
+  }
+
+  /**
+   * Cache the results of a completed job, if the datasets it read didn't change while it ran.
+   *
+   * @param planned versions of the datasets the job read, as of when the job was planned
+   * @param size size in bytes of the stored results
+   * @param maxAge maximum time in milliseconds the results are served for
+   */
+  void put(Key key, JobId jobId, JobResult job, QueryMetadata metadata, Versions planned, long size, long maxAge) {
+    final JobAttempt lastAttempt = job.getAttemptsList().get(job.getAttemptsList().size() - 1);
+    final JobInfo info = lastAttempt.getInfo();
+    if (lastAttempt.getState() != JobState.COMPLETED || info.getFinishTime() == null) {
+      return;
+    }
+
+    if (!planned.equals(snapshot(planned.datasets.keySet()))) {
+      logger.debug("Datasets read by job {} changed while it ran, not caching its results.", jobId.getId());
+      return;
+    }
+
+    final ImmutableSet.Builder<String> materializations = ImmutableSet.builder();
+    final Acceleration acceleration = info.getAcceleration();
+    if (acceleration != null && acceleration.getSubstitutionsList() != null) {
+      for (Acceleration.Substitution substitution : acceleration.getSubstitutionsList()) {
+        if (substitution.getId().getMaterializationId() != null) {
+          materializations.add(substitution.getId().getMaterializationId());
+        }
+      }
+    }
+
+    final long expiresAt = info.getFinishTime() + Math.min(maxAge, planned.ttl);
+    results.put(key, new CachedResults(jobId, job, metadata, planned, materializations.build(), size, expiresAt));
+  }
+
+  long size() {
+    return results.size();
+  }
+
+  /**
+   * @return versions of the datasets read by the job and of their sources, or null if some aren't versioned.
+   */
+  Versions snapshot(JobInfo info) {
+    final Set<NamespaceKey> datasets = new LinkedHashSet<>();
+    if (info.getParentsList() != null) {
+      for (ParentDatasetInfo parent : info.getParentsList()) {
+        datasets.add(new NamespaceKey(parent.getDatasetPathList()));
+      }
+    }
+    if (info.getGrandParentsList() != null) {
+      for (ParentDataset grandParent : info.getGrandParentsList()) {
+        datasets.add(new NamespaceKey(grandParent.getDatasetPathList()));
+      }
+    }
+    if (info.getScanPathsList() != null) {
+      for (ScanPath scanPath : info.getScanPathsList()) {
+        datasets.add(new NamespaceKey(scanPath.getPathList()));
+      }
+    }
+    return snapshot(datasets);
+  }
+
+  private Versions snapshot(Set<NamespaceKey> datasets) {
+    final Map<NamespaceKey, Long> datasetVersions = new LinkedHashMap<>();
+    final Set<NamespaceKey> roots = new LinkedHashSet<>();
+    try {
+      final List<NamespaceKey> keys = ImmutableList.copyOf(datasets);
+      final List<NameSpaceContainer> containers = namespace.getEntities(keys);
+      for (int i = 0; i < keys.size(); i++) {
+        final NameSpaceContainer container = containers.get(i);
+        if (container == null || container.getType() != NameSpaceContainer.Type.DATASET
+            || container.getDataset().getVersion() == null) {
+          // not stored in the namespace, no way to tell if it changed.
+          return null;
+        }
+        datasetVersions.put(keys.get(i), container.getDataset().getVersion());
+        roots.add(new NamespaceKey(keys.get(i).getRoot()));
+      }
+
+      final Map<NamespaceKey, Long> sourceVersions = new LinkedHashMap<>();
+      long ttl = Long.MAX_VALUE;
+      final List<NamespaceKey> rootKeys = ImmutableList.copyOf(roots);
+      final List<NameSpaceContainer> rootContainers = namespace.getEntities(rootKeys);
+      for (int i = 0; i < rootKeys.size(); i++) {
+        final NameSpaceContainer container = rootContainers.get(i);
+        if (container == null) {
+          return null;
+        }
+        // spaces and homes only hold virtual datasets, which are versioned themselves.
+        if (container.getType() == NameSpaceContainer.Type.SOURCE) {
+          if (container.getSource().getVersion() == null) {
+            return null;
+          }
+          sourceVersions.put(rootKeys.get(i), container.getSource().getVersion());
+          final MetadataPolicy policy = container.getSource().getMetadataPolicy();
+          if (policy != null && policy.getDatasetDefinitionExpireAfterMs() != null) {
+            ttl = Math.min(ttl, policy.getDatasetDefinitionExpireAfterMs());
+          }
+        }
+      }
+      return new Versions(ImmutableMap.copyOf(datasetVersions), ImmutableMap.copyOf(sourceVersions), ttl);
+    } catch (NamespaceException | RuntimeException e) {
+      logger.debug("Unable to get the versions of datasets {}.", datasets, e);
+      return null;
+    }
+  }
+
+  /**
+   * Key of cached results.
+   */
+  static final class Key {
+    private final String sql;
+    private final List<String> context;
+    private final String username;
+    private final QueryType queryType;
+    private final Map<String, Object> options;
+
+    Key(String sql, List<String> context, String username, QueryType queryType, Map<String, Object> options) {
+      this.sql = sql;
+      this.context = context;
+      this.username = username;
+      this.queryType = queryType;
+      this.options = options;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return sql.equals(other.sql)
+          && context.equals(other.context)
+          && Objects.equals(username, other.username)
+          && queryType == other.queryType
+          && options.equals(other.options);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, context, username, queryType, options);
+    }
+  }
+
+  /**
+   * Versions of the datasets read by a job, and of their sources.
+   */
+  static final class Versions {
+    private final ImmutableMap<NamespaceKey, Long> datasets;
+    private final ImmutableMap<NamespaceKey, Long> sources;
+    // how long the sources keep their dataset definitions without re-checking them
+    private final long ttl;
+
+    Versions(ImmutableMap<NamespaceKey, Long> datasets, ImmutableMap<NamespaceKey, Long> sources, long ttl) {
+      this.datasets = datasets;
+      this.sources = sources;
+      this.ttl = ttl;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      final Versions other = (Versions) obj;
+      return datasets.equals(other.datasets) && sources.equals(other.sources);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(datasets, sources);
+    }
+  }
+
+  /**
+   * Results of a previous job.
+   */
+  static final class CachedResults {
+    private final JobId jobId;
+    private final JobResult job;
+    private final QueryMetadata metadata;
+    private final Versions versions;
+    private final Set<String> materializations;
+    private final long size;
+    private final long expiresAt;
+
+    CachedResults(JobId jobId, JobResult job, QueryMetadata metadata, Versions versions,
+        Set<String> materializations, long size, long expiresAt) {
+      this.jobId = jobId;
+      this.job = job;
+      this.metadata = metadata;
+      this.versions = versions;
+      this.materializations = materializations;
+      this.size = size;
+      this.expiresAt = expiresAt;
+    }
+
+    JobId getJobId() {
+      return jobId;
+    }
+
+    JobResult getJob() {
+      return job;
+    }
+
+    QueryMetadata getMetadata() {
+      return metadata;
+    }
+  }
+}
@@ -119,6 +119,19 @@ public class JobResultsStore implements Service {
     }
   }
 
+  /**
+   * @return size in bytes of the job results, or -1 if it can't be determined.
+   */
+  long getJobResultsSize(JobId jobId) {
+    final Path jobOutputDir = getJobOutputDir(jobId);
+    try {
+      return dfs.getContentSummary(jobOutputDir).getLength();
+    } catch (IOException e) {
+      logger.debug("Could not get the size of job output directory : " + jobOutputDir, e);
+      return -1;
+    }
+  }
+
   private JobData newJobDataReference(final JobData delegate) {
     final JobData result = new JobDataWrapper(delegate);
     FinalizableReference ref = new FinalizablePhantomReference<JobData>(result, FINALIZABLE_REFERENCE_QUEUE) {
@@ -150,6 +163,15 @@ public class JobResultsStore implements Service {
     return jobResult.getAttemptsList().get(jobResult.getAttemptsList().size() - 1).getInfo();
   }
 
+  /**
+   * @return job whose results the given job returned, which is a previous job if they were served from the results
+   * cache.
+   */
+  private static JobId getResultsJobId(JobId jobId, JobResult job) {
+    final JobId resultsJobId = getLastAttempt(job).getResultsJobId();
+    return resultsJobId != null ? resultsJobId : jobId;
+  }
+
   public String getJobResultsTableName(JobId jobId) {
     return String.format("TABLE(%s(type => 'arrow'))",
         PathUtils.constructFullPath(ImmutableList.of(storageName, jobId.getId())));
@@ -157,7 +179,7 @@ public class JobResultsStore implements Service {
 
   public RecordBatches loadJobData(JobId jobId, JobResult job, int offset, int limit){
     try (TimedBlock b = time("getJobResult")) {
-      final Path jobOutputDir = getJobOutputDir(jobId);
+      final Path jobOutputDir = getJobOutputDir(getResultsJobId(jobId, job));
       if (!dfs.isDirectory(jobOutputDir)) {
         throw UserException.dataReadError()
             .message("Job '%s' output doesn't exist", jobId.getId())
@@ -258,7 +280,7 @@ public class JobResultsStore implements Service {
 
     @Override
     public String getJobResultsTable() {
-      return getJobResultsTableName(jobId);
+      return getJobResultsTableName(getResultsJobId(jobId, store.get(jobId)));
     }
   }
 
@@ -16,6 +16,7 @@
 package com.dremio.service.jobs;
 
 import static com.dremio.common.utils.Protos.listNotNull;
+import static com.dremio.service.job.proto.JobState.COMPLETED;
 import static com.dremio.service.job.proto.JobState.ENQUEUED;
 import static com.dremio.service.job.proto.JobState.STARTING;
 import static com.dremio.service.job.proto.QueryType.UI_INITIAL_PREVIEW;
@@ -98,6 +99,8 @@ import com.dremio.exec.planner.observer.QueryObserver;
 import com.dremio.exec.planner.observer.QueryObserverFactory;
 import com.dremio.exec.planner.physical.Prel;
 import com.dremio.exec.planner.sql.DremioRelOptMaterialization;
+import com.dremio.exec.planner.sql.MaterializationDescriptor;
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
 import com.dremio.exec.proto.SchemaUserBitShared;
 import com.dremio.exec.proto.UserBitShared;
@@ -149,6 +152,7 @@ import com.dremio.service.job.proto.JobId;
 import com.dremio.service.job.proto.JobInfo;
 import com.dremio.service.job.proto.JobResult;
 import com.dremio.service.job.proto.JobState;
+import com.dremio.service.job.proto.JobStats;
 import com.dremio.service.job.proto.JoinAnalysis;
 import com.dremio.service.job.proto.ParentDatasetInfo;
 import com.dremio.service.job.proto.QueryType;
@@ -219,6 +223,7 @@ public class LocalJobsService implements JobsService {
   private NamespaceService namespaceService;
   private String storageName;
   private JobResultsStore jobResultsStore;
+  private JobResultsCache resultsCache;
   private Cancellable cleanupTask;
 
   public LocalJobsService(
@@ -270,6 +275,8 @@ public class LocalJobsService implements JobsService {
     final long maxAgeInMillis = optionManager.getOption(ExecConstants.DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS);
     final long maxAgeInDays = optionManager.getOption(ExecConstants.RESULTS_MAX_AGE_IN_DAYS);
     final long jobResultsMaxAgeInMillis = (maxAgeInDays * ONE_DAY_IN_MILLIS) + maxAgeInMillis;
+    this.resultsCache = new JobResultsCache(namespaceService, jobResultsStore,
+        optionManager.getOption(ExecConstants.RESULTS_CACHE_MAX_SIZE_BYTES));
 
     if (isMaster) {
       final Schedule schedule;
@@ -368,7 +375,19 @@ public class LocalJobsService implements JobsService {
         .setDetails(new JobDetails());
     final Job job = new Job(jobId, jobAttempt);
 
-    // (2) deduce execution configuration
+    // (2) serve the results of a previous job, if the query ran already and nothing it read changed since
+    final OptionManager optionManager = contextProvider.get().getOptionManager();
+    final JobResultsCache.Key resultsCacheKey = optionManager.getOption(ExecConstants.RESULTS_CACHE_ENABLED)
+        ? JobResultsCache.newKey(jobRequest, optionManager) : null;
+    if (resultsCacheKey != null) {
+      final JobResultsCache.CachedResults cached = resultsCache.get(resultsCacheKey, getMaterializationIds());
+      if (cached != null) {
+        completeFromCache(job, cached, statusListener);
+        return job;
+      }
+    }
+
+    // (3) deduce execution configuration
     final QueryType queryType = jobRequest.getQueryType();
     final boolean enableLeafLimits = QueryTypeUtils.requiresLeafLimits(queryType);
     final LocalExecutionConfig config =
@@ -386,8 +405,8 @@ public class LocalJobsService implements JobsService {
             .setSubstitutionSettings(jobRequest.getSubstitutionSettings())
             .build();
 
-    // (3) register listener
-    final QueryListener jobObserver = new QueryListener(job, statusListener);
+    // (4) register listener
+    final QueryListener jobObserver = new QueryListener(job, statusListener, resultsCacheKey);
     Preconditions.checkArgument(store.checkAndPut(job.getJobId(), null, toJobResult(job)),
         "Job had a duplicate jobId. " + job);
     runningJobs.put(jobId, jobObserver);
@@ -410,13 +429,63 @@ public class LocalJobsService implements JobsService {
           .build();
     }
 
-    // (4) submit the job
+    // (5) submit the job
     queryExecutor.get()
         .submitLocalQuery(externalId, jobObserver, queryRequest, isPrepare, config);
 
     return job;
   }
 
+  private Set<String> getMaterializationIds() {
+    final Set<String> ids = new HashSet<>();
+    for (MaterializationDescriptor descriptor : contextProvider.get().getMaterializationProvider().get().get()) {
+      ids.add(descriptor.getMaterializationId());
+    }
+    return ids;
+  }
+
+  /**
+   * Complete the job with the stored results of a previous job. The job is recorded with the query information of
+   * the previous job and its output stats, and points to it for its results, which marks it as served from the cache.
+   * It has its own attempt, with no profile, details or acceleration details since it didn't run.
+   */
+  private void completeFromCache(Job job, JobResultsCache.CachedResults cached, JobStatusListener statusListener) {
+    final JobResult previousJob = cached.getJob();
+    final JobAttempt previousAttempt = previousJob.getAttemptsList().get(previousJob.getAttemptsList().size() - 1);
+    final JobInfo requestInfo = job.getJobAttempt().getInfo();
+    final JobInfo jobInfo = ProtostuffUtil.copy(previousAttempt.getInfo())
+        .setJobId(requestInfo.getJobId())
+        .setStartTime(requestInfo.getStartTime())
+        .setFinishTime(System.currentTimeMillis())
+        .setDatasetPathList(requestInfo.getDatasetPathList())
+        .setDatasetVersion(requestInfo.getDatasetVersion())
+        .setSpace(requestInfo.getSpace())
+        .setAcceleration(null)
+        .setResultsJobId(cached.getJobId());
+
+    final JobStats previousStats = previousAttempt.getStats();
+    final JobStats stats = new JobStats();
+    if (previousStats != null) {
+      stats.setOutputRecords(previousStats.getOutputRecords())
+          .setIsOutputLimited(previousStats.getIsOutputLimited());
+    }
+
+    final AttemptId attemptId = new AttemptId(JobsServiceUtil.getJobIdAsExternalId(job.getJobId()), 0);
+    job.getJobAttempt()
+        .setInfo(jobInfo)
+        .setState(COMPLETED)
+        .setStats(stats)
+        .setAttemptId(AttemptIdUtils.toString(attemptId));
+    Preconditions.checkArgument(store.checkAndPut(job.getJobId(), null, toJobResult(job)),
+        "Job had a duplicate jobId. " + job);
+    job.setData(jobResultsStore.get(job.getJobId()));
+    logger.debug("Served job {} with the results of job {}", job.getJobId().getId(), cached.getJobId().getId());
+
+    statusListener.jobSubmitted(job.getJobId());
+    statusListener.metadataCollected(cached.getMetadata());
+    statusListener.jobCompleted();
+  }
+
   @Override
   public Job submitJob(JobRequest jobRequest, JobStatusListener statusListener) {
     checkNotNull(statusListener, "a status listener must be provided");
@@ -829,6 +898,7 @@ public class LocalJobsService implements JobsService {
     private final UserResponseHandler responseHandler;
     private final JobStatusListener statusListener;
     private final boolean isInternal;
+    private final JobResultsCache.Key resultsCacheKey;
     private final ExternalListenerManager listeners = new ExternalListenerManager();
     private final CountDownLatch completionLatch = new CountDownLatch(1);
     private final DeferredException exception = new DeferredException();
@@ -841,16 +911,18 @@ public class LocalJobsService implements JobsService {
       this.responseHandler = Preconditions.checkNotNull(connection, "handler cannot be null");
       this.statusListener = null;
       isInternal = false;
+      resultsCacheKey = null;
 
       setupJobData();
     }
 
-    private QueryListener(Job job, JobStatusListener statusListener) {
+    private QueryListener(Job job, JobStatusListener statusListener, JobResultsCache.Key resultsCacheKey) {
       this.job = job;
       externalId = JobsServiceUtil.getJobIdAsExternalId(job.getJobId());
       this.responseHandler = null;
       this.statusListener = Preconditions.checkNotNull(statusListener, "statusListener cannot be null");
       isInternal = true;
+      this.resultsCacheKey = resultsCacheKey;
 
       setupJobData();
     }
@@ -890,7 +962,8 @@ public class LocalJobsService implements JobsService {
       job.getJobAttempt().setAttemptId(AttemptIdUtils.toString(attemptId));
 
       if (isInternal) {
-        attemptObserver = new JobResultListener(attemptId, job, allocator, statusListener, listeners);
+        attemptObserver = new JobResultListener(attemptId, job, allocator, statusListener, listeners,
+            resultsCacheKey != null);
       } else {
         attemptObserver = new ExternalJobResultListener(attemptId, responseHandler, job, allocator);
       }
@@ -926,6 +999,9 @@ public class LocalJobsService implements JobsService {
         try {
           switch (state) {
             case COMPLETED:
+              if (resultsCacheKey != null && !exception.hasException()) {
+                cacheResults();
+              }
               this.statusListener.jobCompleted();
               break;
 
@@ -951,6 +1027,21 @@ public class LocalJobsService implements JobsService {
 
       listeners.close(job);
     }
+
+    private void cacheResults() {
+      final JobResultsCache.Versions versions = attemptObserver.getDatasetVersions();
+      if (versions == null) {
+        return;
+      }
+      final long size = jobResultsStore.getJobResultsSize(job.getJobId());
+      if (size < 0) {
+        return;
+      }
+      final long maxAge = contextProvider.get().getOptionManager()
+          .getOption(ExecConstants.RESULTS_CACHE_MAX_AGE_MILLISECONDS);
+      resultsCache.put(resultsCacheKey, job.getJobId(), store.get(job.getJobId()), attemptObserver.getMetadata(),
+          versions, size, maxAge);
+    }
   }
 
   private static class ExternalJobLoader implements JobLoader {
@@ -1084,9 +1175,15 @@ public class LocalJobsService implements JobsService {
     private final QueryMetadata.Builder builder;
     private final AccelerationDetailsPopulator detailsPopulator;
     private final ExternalListenerManager externalListenerManager;
+    private final boolean cacheResults;
+
+    // whether the results don't depend on the time the query ran at, and so can be cached.
+    private boolean timeIndependent = true;
+    private QueryMetadata metadata;
+    private JobResultsCache.Versions datasetVersions;
 
     JobResultListener(AttemptId attemptId, Job job, BufferAllocator allocator,
-        JobStatusListener statusListener, ExternalListenerManager externalListenerManager) {
+        JobStatusListener statusListener, ExternalListenerManager externalListenerManager, boolean cacheResults) {
       Preconditions.checkNotNull(jobResultsStore);
       this.attemptId = attemptId;
       this.job = job;
@@ -1096,16 +1193,28 @@ public class LocalJobsService implements JobsService {
       this.statusListener = statusListener;
       this.detailsPopulator = contextProvider.get().getAccelerationManager().newPopulator();
       this.externalListenerManager = externalListenerManager;
+      this.cacheResults = cacheResults;
     }
 
     public JobResultListener(AttemptId attemptId, Job job, BufferAllocator allocator, JobStatusListener instance) {
-      this(attemptId, job, allocator, instance, null);
+      this(attemptId, job, allocator, instance, null, false);
     }
 
     Exception getException() {
       return exception.getException();
     }
 
+    QueryMetadata getMetadata() {
+      return metadata;
+    }
+
+    /**
+     * @return versions of the datasets read by the query when it was planned, or null if its results can't be cached.
+     */
+    JobResultsCache.Versions getDatasetVersions() {
+      return datasetVersions;
+    }
+
     @Override
     public void queryStarted(UserRequest query, String user) {
       job.getJobAttempt().setState(STARTING);
@@ -1126,6 +1235,13 @@ public class LocalJobsService implements JobsService {
       builder.addRowType(rowType).addParsedSql(node);
     }
 
+    @Override
+    public void planConvertedToRel(RelNode converted, long millisTaken) {
+      if (cacheResults && timeIndependent && !PlanCache.isTimeIndependent(converted)) {
+        timeIndependent = false;
+      }
+    }
+
     @Override
     public void planSerializable(RelNode converted) {
       builder.addSerializablePlan(converted);
@@ -1246,6 +1362,10 @@ public class LocalJobsService implements JobsService {
         }
 
         storeJob(job);
+        this.metadata = metadata;
+        if (cacheResults && timeIndependent) {
+          datasetVersions = resultsCache.snapshot(jobInfo);
+        }
         statusListener.metadataCollected(metadata);
       }catch(Exception ex){
         exception.addException(ex);
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2017-2018 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.server.options.OptionManager;
+import com.dremio.exec.server.options.OptionValue;
+import com.dremio.exec.server.options.OptionValue.OptionType;
+import com.dremio.exec.work.user.SubstitutionSettings;
+import com.dremio.service.job.proto.Acceleration;
+import com.dremio.service.job.proto.JobAttempt;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobInfo;
+import com.dremio.service.job.proto.JobResult;
+import com.dremio.service.job.proto.JobState;
+import com.dremio.service.job.proto.MaterializationSummary;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.job.proto.ScanPath;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.proto.NameSpaceContainer;
+import com.dremio.service.namespace.source.proto.MetadataPolicy;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests for {@link JobResultsCache}
+ */
+public class TestJobResultsCache {
+
+  private static final NamespaceKey DATASET = new NamespaceKey(ImmutableList.of("src", "t"));
+  private static final NamespaceKey SOURCE = new NamespaceKey("src");
+  private static final long HOUR = 60 * 60 * 1000;
+
+  private NamespaceService namespace;
+  private JobResultsStore resultsStore;
+
+  @Before
+  public void setup() throws Exception {
+    namespace = mock(NamespaceService.class);
+    resultsStore = mock(JobResultsStore.class);
+    when(resultsStore.jobOutputDirectoryExists(any(JobId.class))).thenReturn(true);
+    setDatasetVersion(1L);
+    setSource(1L, null);
+  }
+
+  private void setDatasetVersion(long version) throws Exception {
+    when(namespace.getEntities(ImmutableList.of(DATASET))).thenReturn(ImmutableList.of(new NameSpaceContainer()
+        .setType(NameSpaceContainer.Type.DATASET)
+        .setFullPathList(DATASET.getPathComponents())
+        .setDataset(new DatasetConfig().setFullPathList(DATASET.getPathComponents()).setVersion(version))));
+  }
+
+  private void setSource(long version, Long expireAfterMs) throws Exception {
+    when(namespace.getEntities(ImmutableList.of(SOURCE))).thenReturn(ImmutableList.of(new NameSpaceContainer()
+        .setType(NameSpaceContainer.Type.SOURCE)
+        .setFullPathList(SOURCE.getPathComponents())
+        .setSource(new SourceConfig()
+            .setName("src")
+            .setVersion(version)
+            .setMetadataPolicy(new MetadataPolicy().setDatasetDefinitionExpireAfterMs(expireAfterMs)))));
+  }
+
+  private static JobInfo info(String id, long finishTime) {
+    return new JobInfo(new JobId(id), "select * from src.t", "1", QueryType.UI_RUN)
+        .setFinishTime(finishTime)
+        .setScanPathsList(ImmutableList.of(new ScanPath().setPathList(DATASET.getPathComponents())));
+  }
+
+  private static JobResult job(JobInfo info) {
+    return new JobResult().setAttemptsList(ImmutableList.of(new JobAttempt()
+        .setState(JobState.COMPLETED)
+        .setInfo(info)));
+  }
+
+  private static JobResultsCache.Key key(String sql, String username) {
+    return new JobResultsCache.Key(sql, ImmutableList.<String>of(), username, QueryType.UI_RUN,
+        ImmutableMap.<String, Object>of());
+  }
+
+  private static OptionManager options(OptionValue... values) {
+    final List<OptionValue> list = ImmutableList.copyOf(values);
+    final OptionManager options = mock(OptionManager.class);
+    when(options.iterator()).thenReturn(list.iterator());
+    return options;
+  }
+
+  private static Set<String> noMaterializations() {
+    return ImmutableSet.of();
+  }
+
+  private void put(JobResultsCache cache, JobResultsCache.Key key, JobInfo info, long size) {
+    cache.put(key, info.getJobId(), job(info), null, cache.snapshot(info), size, HOUR);
+  }
+
+  @Test
+  public void testCachedResults() {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    put(cache, key("select * from src.t", "user"), info("1", System.currentTimeMillis()), 4);
+    assertEquals(1, cache.size());
+
+    final JobResultsCache.CachedResults cached = cache.get(key("select * from src.t", "user"), noMaterializations());
+    assertNotNull(cached);
+    assertEquals(new JobId("1"), cached.getJobId());
+
+    // different user, different results.
+    assertNull(cache.get(key("select * from src.t", "other"), noMaterializations()));
+  }
+
+  @Test
+  public void testDatasetChanged() throws Exception {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobResultsCache.Key key = key("select * from src.t", "user");
+    put(cache, key, info("1", System.currentTimeMillis()), 4);
+
+    setDatasetVersion(2L);
+    assertNull(cache.get(key, noMaterializations()));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testDatasetChangedWhileRunning() throws Exception {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobInfo info = info("1", System.currentTimeMillis());
+    final JobResultsCache.Versions planned = cache.snapshot(info);
+
+    setSource(2L, null);
+    cache.put(key("select * from src.t", "user"), info.getJobId(), job(info), null, planned, 4, HOUR);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testMaterializationDropped() {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobResultsCache.Key key = key("select * from src.t", "user");
+    final JobInfo info = info("1", System.currentTimeMillis())
+        .setAcceleration(new Acceleration(1.0).setSubstitutionsList(ImmutableList.of(new Acceleration.Substitution(
+            new Acceleration.Substitution.Identifier("", "layout").setMaterializationId("m1"), 1.0, 1.0))));
+    put(cache, key, info, 4);
+
+    assertNotNull(cache.get(key, ImmutableSet.of("m1", "m2")));
+    assertNull(cache.get(key, ImmutableSet.of("m2")));
+  }
+
+  @Test
+  public void testResultsDeleted() {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobResultsCache.Key key = key("select * from src.t", "user");
+    put(cache, key, info("1", System.currentTimeMillis()), 4);
+
+    when(resultsStore.jobOutputDirectoryExists(new JobId("1"))).thenReturn(false);
+    assertNull(cache.get(key, noMaterializations()));
+  }
+
+  @Test
+  public void testSourceTTL() throws Exception {
+    setSource(1L, 1000L);
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobResultsCache.Key key = key("select * from src.t", "user");
+    put(cache, key, info("1", System.currentTimeMillis()), 4);
+    assertNotNull(cache.get(key, noMaterializations()));
+
+    // source expires dataset definitions after a second.
+    put(cache, key, info("2", System.currentTimeMillis() - 2000), 4);
+    assertNull(cache.get(key, noMaterializations()));
+  }
+
+  @Test
+  public void testMaxAge() {
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    final JobResultsCache.Key key = key("select * from src.t", "user");
+    put(cache, key, info("1", System.currentTimeMillis() - 2 * HOUR), 4);
+    assertNull(cache.get(key, noMaterializations()));
+  }
+
+  @Test
+  public void testEviction() {
+    // each result weighs 4 bytes.
+    final JobResultsCache cache = new JobResultsCache(namespace, resultsStore, 10);
+    for (int i = 0; i < 10; i++) {
+      put(cache, key("select " + i + " from src.t", "user"), info(Integer.toString(i), System.currentTimeMillis()), 4);
+    }
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testKeyDependsOnOptions() {
+    final JobRequest request = JobRequest.newBuilder()
+        .setSqlQuery(new SqlQuery("select * from src.t", "user"))
+        .setQueryType(QueryType.UI_RUN)
+        .build();
+
+    assertEquals(JobResultsCache.newKey(request, options()), JobResultsCache.newKey(request, options()));
+    assertNotEquals(JobResultsCache.newKey(request, options()), JobResultsCache.newKey(request,
+        options(OptionValue.createLong(OptionType.SYSTEM, "planner.output_limit_size", 10))));
+  }
+
+  @Test
+  public void testExcludedReflectionsNotCached() {
+    final JobRequest request = JobRequest.newMaterializationJobBuilder(new MaterializationSummary(),
+        new SubstitutionSettings(Collections.singletonList("m1")))
+        .setSqlQuery(new SqlQuery("select * from src.t", "user"))
+        .setQueryType(QueryType.UI_RUN)
+        .build();
+    assertNull(JobResultsCache.newKey(request, options()));
+  }
+}
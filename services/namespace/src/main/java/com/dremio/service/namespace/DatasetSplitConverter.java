@@ -27,6 +27,7 @@ import com.dremio.datastore.KVStoreProvider.DocumentConverter;
 import com.dremio.datastore.KVStoreProvider.DocumentWriter;
 import com.dremio.datastore.SearchTypes.SearchFieldSorting.FieldType;
 import com.dremio.datastore.indexed.IndexKey;
+import com.dremio.service.namespace.dataset.proto.ColumnRange;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.dremio.service.namespace.dataset.proto.PartitionValue;
 
@@ -41,6 +42,13 @@ public class DatasetSplitConverter implements DocumentConverter<DatasetSplitId,
     return format("$D$::%s-%s", fieldType.name(), columnName);
   }
 
+  /**
+   * @param max whether the key indexes the largest or the smallest values of the column
+   */
+  public static String buildRangeKey(boolean max, FieldType fieldType, String columnName) {
+    return format("$D$::%s-%s-%s", max ? "MAX" : "MIN", fieldType.name(), columnName);
+  }
+
   @Override
   public void convert(DocumentWriter writer, DatasetSplitId key, DatasetSplit split) {
     writer.write(SPLIT_ID, key.getSpiltId());
@@ -86,5 +94,18 @@ public class DatasetSplitConverter implements DocumentConverter<DatasetSplitId,
         }
       }
     }
+    if (split.getColumnRangesList() != null) {
+      for (ColumnRange range : split.getColumnRangesList()) {
+        if (range.getLongMin() != null && range.getLongMax() != null) {
+          writer.write(rangeKey(false, range.getColumn()), range.getLongMin());
+          writer.write(rangeKey(true, range.getColumn()), range.getLongMax());
+        }
+      }
+    }
+  }
+
+  private static IndexKey rangeKey(boolean max, String column) {
+    final String rangeKey = buildRangeKey(max, FieldType.LONG, column);
+    return new IndexKey(rangeKey, rangeKey, Long.class, FieldType.LONG, false, false);
   }
 }
@@ -45,8 +45,12 @@ import com.dremio.common.utils.PathUtils;
 import com.dremio.datastore.IndexedStore;
 import com.dremio.datastore.KVStoreProvider;
 import com.dremio.datastore.LocalKVStoreProvider;
+import com.dremio.datastore.SearchQueryUtils;
+import com.dremio.datastore.SearchTypes.SearchFieldSorting.FieldType;
+import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.service.namespace.dataset.DatasetVersion;
 import com.dremio.service.namespace.dataset.proto.Affinity;
+import com.dremio.service.namespace.dataset.proto.ColumnRange;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.dremio.service.namespace.dataset.proto.DatasetSplit;
 import com.dremio.service.namespace.dataset.proto.DatasetType;
@@ -847,6 +851,58 @@ public class TestNamespaceService {
     }
   }
 
+  @Test
+  public void testDatasetSplitRanges() throws Exception {
+    try (final KVStoreProvider kvstore = new LocalKVStoreProvider(DremioTest.CLASSPATH_SCAN_RESULT, null, true, false)) {
+      kvstore.start();
+      final NamespaceService ns = new NamespaceServiceImpl(kvstore);
+
+      DatasetConfig datasetConfig = new DatasetConfig();
+      datasetConfig.setType(PHYSICAL_DATASET);
+      datasetConfig.setId(new EntityId().setId(UUID.randomUUID().toString()));
+      datasetConfig.setName("testDatasetSplitRanges");
+      datasetConfig.setFullPathList(Lists.newArrayList("test", "testDatasetSplitRanges"));
+      datasetConfig.setOwner("dremio");
+      datasetConfig.setReadDefinition(new ReadDefinition().setSplitVersion(System.currentTimeMillis()));
+
+      // split i has values [10 * i, 10 * i + 9] in column a, and the last split has no range.
+      List<DatasetSplit> splits = Lists.newArrayList();
+      for (int i = 0; i < 10; i++) {
+        splits.add(new DatasetSplit()
+          .setRowCount(10L)
+          .setVersion(0L)
+          .setSize(10L)
+          .setColumnRangesList(Lists.newArrayList(new ColumnRange().setColumn("a").setLongMin(10L * i).setLongMax(10L * i + 9)))
+          .setSplitKey(String.valueOf(i)));
+      }
+      splits.add(new DatasetSplit()
+        .setRowCount(10L)
+        .setVersion(0L)
+        .setSize(10L)
+        .setSplitKey(String.valueOf(10)));
+
+      addSource(ns, "test");
+      ns.addOrUpdateDataset(new NamespaceKey(datasetConfig.getFullPathList()), datasetConfig, splits);
+
+      final String minKey = DatasetSplitConverter.buildRangeKey(false, FieldType.LONG, "a");
+      final String maxKey = DatasetSplitConverter.buildRangeKey(true, FieldType.LONG, "a");
+      assertEquals(11, getSplitCount(ns, datasetConfig, SearchQueryUtils.newMatchAllQuery()));
+      assertEquals(3, getSplitCount(ns, datasetConfig, SearchQueryUtils.newRangeLong(minKey, null, 25L, false, true)));
+      assertEquals(2, getSplitCount(ns, datasetConfig, SearchQueryUtils.newRangeLong(minKey, null, 20L, false, false)));
+      assertEquals(8, getSplitCount(ns, datasetConfig, SearchQueryUtils.newRangeLong(maxKey, 25L, null, true, false)));
+      assertEquals(7, getSplitCount(ns, datasetConfig, SearchQueryUtils.newRangeLong(maxKey, 29L, null, false, false)));
+      assertEquals(1, getSplitCount(ns, datasetConfig, SearchQueryUtils.and(
+        SearchQueryUtils.newRangeLong(minKey, null, 25L, false, true),
+        SearchQueryUtils.newRangeLong(maxKey, 25L, null, true, false))));
+      assertEquals(1, getSplitCount(ns, datasetConfig, SearchQueryUtils.newDoesNotExistQuery(minKey)));
+    }
+  }
+
+  private static int getSplitCount(NamespaceService ns, DatasetConfig datasetConfig, SearchQuery query) {
+    return ns.getSplitCount(new IndexedStore.FindByCondition()
+      .setCondition(SearchQueryUtils.and(DatasetSplitId.getSplitsQuery(datasetConfig), query)));
+  }
+
   @Test
   public void testDeleteEntityNotFound() throws Exception {
     try (final KVStoreProvider kvstore = new LocalKVStoreProvider(DremioTest.CLASSPATH_SCAN_RESULT, null, true, false)) {